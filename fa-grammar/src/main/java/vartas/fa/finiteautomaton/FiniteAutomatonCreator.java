@@ -17,19 +17,32 @@
 
 package vartas.fa.finiteautomaton;
 
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
 import vartas.fa.NondeterministicFiniteDefaultAutomaton;
 import vartas.fa.State;
 import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
 import vartas.fa.finiteautomaton._ast.*;
+import vartas.fa.finiteautomaton._cocos.FiniteAutomatonCoCos;
+import vartas.fa.finiteautomaton._parser.FiniteAutomatonParser;
 import vartas.fa.finiteautomaton._visitor.FiniteAutomatonVisitor;
+import vartas.fa.table.AutomatonDiskCache;
+import vartas.fa.transformations.Transformations;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
 
 /**
  * This class transforms the ast into a runnable instance.
  */
 public class FiniteAutomatonCreator implements FiniteAutomatonVisitor {
+    /**
+     * The name of the minimal DFAs of models in the persistent cache.
+     */
+    public static final String CACHE_NAMESPACE = "fa:minimal";
     /**
      * The real visitor instance.
      */
@@ -66,6 +79,56 @@ public class FiniteAutomatonCreator implements FiniteAutomatonVisitor {
         return creator.builder.build();
     }
 
+    /**
+     * Transforms the ast into an equivalent deterministic automaton.
+     * If the model already describes a DFA, it is transformed directly, without applying the power set construction.
+     * @param node the root node of the ast.
+     * @return an equivalent deterministic automaton.
+     */
+    public static DeterministicFiniteDefaultAutomaton createDeterministicFrom(ASTFiniteAutomaton node){
+        return createFrom(node).toDeterministic();
+    }
+
+    /**
+     * Transforms the model into its minimal DFA, which is reused from the cache if the model hasn't changed.
+     * Invalid models are never written to the cache.
+     * @param model the path to the model.
+     * @param cache the persistent cache of compiled automata.
+     * @return the minimal DFA of the model.
+     * @throws IOException if the model couldn't be read or the automaton couldn't be written to the cache.
+     * @throws IllegalArgumentException if the model can't be parsed or violates a CoCo.
+     */
+    public static DeterministicFiniteAutomaton createMinimalFrom(Path model, AutomatonDiskCache cache) throws IOException, IllegalArgumentException{
+        String source = new String(Files.readAllBytes(model), StandardCharsets.UTF_8);
+
+        return cache.get(CACHE_NAMESPACE, source, FiniteAutomatonCreator::createMinimalFrom);
+    }
+
+    /**
+     * @param source the content of a model.
+     * @return the minimal DFA of the model.
+     * @throws IllegalArgumentException if the model can't be parsed or violates a CoCo.
+     */
+    protected static DeterministicFiniteAutomaton createMinimalFrom(String source) throws IllegalArgumentException{
+        try{
+            FiniteAutomatonParser parser = new FiniteAutomatonParser();
+            Optional<ASTFiniteAutomaton> ast = parser.parse_String(source);
+
+            if(parser.hasErrors() || !ast.isPresent())
+                throw new IllegalArgumentException("The model can't be parsed");
+
+            List<String> errors = FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().check(ast.get());
+            if(!errors.isEmpty())
+                throw new IllegalArgumentException("The model is invalid: " + String.join(" ", errors));
+
+            synchronized(Transformations.LOCK){
+                return createDeterministicFrom(ast.get()).minimize();
+            }
+        }catch(IOException e){
+            throw new IllegalArgumentException(e);
+        }
+    }
+
     /**
      * @param realThis the real instance to use for handling and traversing nodes.
      */
@@ -148,4 +211,21 @@ public class FiniteAutomatonCreator implements FiniteAutomatonVisitor {
 
         builder.addTransition(from, with, to);
     }
+
+    /**
+     * Adds a transition for every letter in the union of the ranges to the automaton. The syntax tree only contains
+     * the ranges, but the builder still expands them into one transition per letter.
+     * @param node the currently visited transition.
+     */
+    @Override
+    public void handle(ASTRangeTransition node){
+        State from = stateMap.computeIfAbsent(node.getFrom(), builder::addState);
+        State to = stateMap.computeIfAbsent(node.getTo(), builder::addState);
+
+        List<char[]> ranges = new ArrayList<>();
+        for(ASTCharRange range : node.getCharRangeList())
+            ranges.add(new char[]{range.getFirst(), range.getLast()});
+
+        builder.addTransitions(from, ranges, to);
+    }
 }
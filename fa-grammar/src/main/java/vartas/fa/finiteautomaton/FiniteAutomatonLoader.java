@@ -0,0 +1,260 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vartas.fa.finiteautomaton;
+
+import de.monticore.io.paths.ModelPath;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
+import vartas.fa.finiteautomaton._cocos.FiniteAutomatonCoCos;
+import vartas.fa.finiteautomaton._cocos.FiniteAutomatonIndexChecker;
+import vartas.fa.finiteautomaton._parser.FiniteAutomatonParser;
+import vartas.fa.finiteautomaton._symboltable.FiniteAutomatonLanguage;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class loads all models in a model path concurrently.
+ * Every model is parsed, checked against all context conditions and transformed into an automaton independently
+ * of the other models. The symbol table isn't needed, since the context conditions are checked against the index
+ * of the automaton. After all models have been loaded, the errors of the invalid models are logged in the order of
+ * their names.
+ * The parser reports syntax errors through the static log, which isn't thread-safe. Hence the models are parsed one
+ * at a time and the syntax errors are removed from the log, so that they are logged together with the other errors.
+ */
+public class FiniteAutomatonLoader {
+    /**
+     * The error message for models that can't be parsed.
+     * As a parameter, it requires the path of the model.
+     */
+    public static final String PARSE_ERROR_MESSAGE = "The model %s can't be parsed.";
+    /**
+     * The error message for valid models whose automaton is rejected by the builder, e.g. duplicate transitions.
+     * As parameters, it requires the path of the model and the reason.
+     */
+    public static final String CREATE_ERROR_MESSAGE = "The automaton of the model %s can't be created: %s";
+    /**
+     * The lock guarding the static log while a model is parsed.
+     */
+    protected static final Object PARSE_LOCK = new Object();
+
+    /**
+     * The phases of the loading process.
+     */
+    public enum Phase {
+        /**
+         * Finding all models in the model path.
+         */
+        DISCOVER,
+        /**
+         * Parsing the models into their syntax trees.
+         */
+        PARSE,
+        /**
+         * Checking the context conditions.
+         */
+        VALIDATE,
+        /**
+         * Transforming the syntax trees into automata.
+         */
+        CREATE
+    }
+
+    /**
+     * The number of models that are loaded concurrently.
+     */
+    protected int parallelism;
+    /**
+     * The checker for all context conditions, which is shared between all threads.
+     */
+    protected FiniteAutomatonIndexChecker checker;
+    /**
+     * The file extension of the models, including the leading dot.
+     */
+    protected String fileExtension;
+
+    /**
+     * Creates a loader using all available processors.
+     */
+    public FiniteAutomatonLoader(){
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * @param parallelism the number of models that are loaded concurrently.
+     * @throws IllegalArgumentException if the parallelism isn't positive.
+     */
+    public FiniteAutomatonLoader(int parallelism) throws IllegalArgumentException{
+        if(parallelism <= 0)
+            throw new IllegalArgumentException("The parallelism has to be positive");
+
+        this.parallelism = parallelism;
+        this.checker = FiniteAutomatonCoCos.getIndexCheckerForAllCoCos();
+        this.fileExtension = "." + new FiniteAutomatonLanguage().getFileExtension();
+    }
+
+    /**
+     * Loads all models in the model path.
+     * @param modelPath the model path.
+     * @return the registry containing all valid models.
+     * @throws IOException if the model path couldn't be searched.
+     */
+    public FiniteAutomatonRegistry load(ModelPath modelPath) throws IOException{
+        FiniteAutomatonRegistry registry = new FiniteAutomatonRegistry();
+        long start = System.nanoTime();
+
+        SortedMap<String, Path> models = discover(modelPath);
+        registry.addTime(Phase.DISCOVER, System.nanoTime() - start);
+
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+        try{
+            List<Future<?>> futures = new ArrayList<>();
+            for(Map.Entry<String, Path> model : models.entrySet())
+                futures.add(executor.submit(() -> load(model.getKey(), model.getValue(), registry)));
+
+            for(Future<?> future : futures)
+                future.get();
+        }catch(InterruptedException e){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The models couldn't be loaded");
+        }catch(ExecutionException e){
+            if(e.getCause() instanceof RuntimeException)
+                throw (RuntimeException)e.getCause();
+            else
+                throw new IllegalStateException(e.getCause());
+        }finally{
+            executor.shutdownNow();
+        }
+
+        registry.setElapsedTime(System.nanoTime() - start);
+        registry.getErrors().values().forEach(errors -> errors.forEach(Log::error));
+
+        return registry;
+    }
+
+    /**
+     * The qualified name of a model is its path relative to the entry of the model path, without the file extension.
+     * If multiple entries contain a model with the same name, the first entry takes precedence.
+     * @param modelPath the model path.
+     * @return a map relating the qualified names of all models to their paths.
+     * @throws IOException if the model path couldn't be searched.
+     */
+    protected SortedMap<String, Path> discover(ModelPath modelPath) throws IOException{
+        SortedMap<String, Path> models = new TreeMap<>();
+
+        for(Path entry : modelPath.getFullPathOfEntries()){
+            if(!Files.isDirectory(entry))
+                continue;
+
+            try(Stream<Path> paths = Files.walk(entry)){
+                for(Path path : paths.filter(Files::isRegularFile).filter(path -> path.toString().endsWith(fileExtension)).sorted().collect(Collectors.toList()))
+                    models.putIfAbsent(getName(entry.relativize(path)), path);
+            }
+        }
+
+        return models;
+    }
+
+    /**
+     * @param path the path of a model relative to the entry of the model path.
+     * @return the qualified name of the model.
+     */
+    protected String getName(Path path){
+        StringJoiner name = new StringJoiner(".");
+        for(Path part : path)
+            name.add(part.toString());
+
+        String qualifiedName = name.toString();
+        return qualifiedName.substring(0, qualifiedName.length() - fileExtension.length());
+    }
+
+    /**
+     * Loads a single model and adds either the automaton or the errors to the registry.
+     * This method is called concurrently.
+     * @param name the qualified name of the model.
+     * @param path the path of the model.
+     * @param registry the registry containing all models.
+     */
+    protected void load(String name, Path path, FiniteAutomatonRegistry registry){
+        long start = System.nanoTime();
+        List<String> syntaxErrors = new ArrayList<>();
+        Optional<ASTFiniteAutomaton> ast = parse(path, syntaxErrors);
+        registry.addTime(Phase.PARSE, System.nanoTime() - start);
+
+        if(!ast.isPresent()){
+            syntaxErrors.add(String.format(PARSE_ERROR_MESSAGE, path));
+            registry.putErrors(name, syntaxErrors);
+            return;
+        }
+
+        start = System.nanoTime();
+        List<String> errors = checker.check(ast.get());
+        registry.addTime(Phase.VALIDATE, System.nanoTime() - start);
+
+        if(!errors.isEmpty()){
+            registry.putErrors(name, errors);
+            return;
+        }
+
+        start = System.nanoTime();
+        try{
+            registry.put(name, FiniteAutomatonCreator.createFrom(ast.get()));
+        }catch(IllegalArgumentException e){
+            //A single model must not abort the remaining models
+            registry.putErrors(name, Collections.singletonList(String.format(CREATE_ERROR_MESSAGE, path, e.getMessage())));
+        }
+        registry.addTime(Phase.CREATE, System.nanoTime() - start);
+    }
+
+    /**
+     * Parses a single model while holding the lock of the log. Fail-quick is disabled in the meantime, so that a
+     * syntax error doesn't abort the remaining models. Instead, the syntax errors are removed from the log.
+     * @param path the path of the model.
+     * @param errors the list the syntax errors of the model are added to.
+     * @return the syntax tree of the model or an empty optional, if the model can't be parsed.
+     */
+    protected Optional<ASTFiniteAutomaton> parse(Path path, List<String> errors){
+        synchronized(PARSE_LOCK){
+            boolean failQuick = Log.isFailQuickEnabled();
+            int size = Log.getFindings().size();
+            Log.enableFailQuick(false);
+
+            try{
+                FiniteAutomatonParser parser = new FiniteAutomatonParser();
+                Optional<ASTFiniteAutomaton> ast = parser.parse(path.toString());
+                return parser.hasErrors() ? Optional.empty() : ast;
+            }catch(IOException | RuntimeException e){
+                return Optional.empty();
+            }finally{
+                List<Finding> findings = Log.getFindings().subList(size, Log.getFindings().size());
+                findings.stream().filter(Finding::isError).map(Finding::getMsg).forEach(errors::add);
+                findings.clear();
+                Log.enableFailQuick(failQuick);
+            }
+        }
+    }
+}
@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.finiteautomaton;
+
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.FiniteAutomaton;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.builder.FiniteAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * This class reads models of the FiniteAutomaton grammar token by token, without creating a syntax tree or a symbol
+ * table. Every state and transition is passed to the builder as soon as it has been read, so apart from the automaton
+ * itself, only a map relating the names to the states is kept in memory.
+ * The resulting NFA is the same as the one created by {@link FiniteAutomatonCreator}. If the model is already
+ * deterministic, a DFA can be built directly instead, which keeps the declared initial state.
+ * The context conditions are not checked. States that are used before they are declared are created on demand and
+ * states that are declared multiple times are merged.
+ */
+public class FiniteAutomatonReader {
+    /**
+     * The keywords of the grammar, which can't be used as names.
+     */
+    protected static final Set<String> KEYWORDS = new HashSet<>(Arrays.asList("automaton", "state", "initial", "final"));
+    /**
+     * The character marking the end of the stream.
+     */
+    protected static final int END = -1;
+
+    /**
+     * The different types of tokens.
+     */
+    protected enum Kind {
+        NAME, KEYWORD, LITERAL, SYMBOL, END
+    }
+
+    /**
+     * The stream the model is read from.
+     */
+    protected Reader input;
+    /**
+     * The next character in the stream.
+     */
+    protected int next;
+    /**
+     * The current line in the stream.
+     */
+    protected int line;
+    /**
+     * The type of the current token.
+     */
+    protected Kind kind;
+    /**
+     * The text of the current token.
+     */
+    protected String token;
+    /**
+     * The value of the current token, if it is a character literal.
+     */
+    protected char literal;
+    /**
+     * The builder that will create the finite automaton.
+     */
+    protected FiniteAutomatonBuilder builder;
+    /**
+     * Indicates whether the automaton has to be deterministic.
+     */
+    protected boolean deterministic;
+    /**
+     * A map that relates the name of a state to its instance in the newly created automaton.
+     */
+    protected Map<String, State> stateMap;
+    /**
+     * All states that are declared as initial, in the order of their declaration.
+     */
+    protected List<State> initialStates;
+
+    /**
+     * @param input the stream the model is read from.
+     * @param deterministic true if a DFA should be created.
+     */
+    protected FiniteAutomatonReader(Reader input, boolean deterministic){
+        this.input = input instanceof BufferedReader ? input : new BufferedReader(input);
+        this.line = 1;
+        this.deterministic = deterministic;
+        this.builder = deterministic ? new DeterministicFiniteDefaultAutomatonBuilder() : new NondeterministicFiniteDefaultAutomatonBuilder();
+        this.stateMap = new HashMap<>();
+        this.initialStates = new ArrayList<>();
+    }
+
+    /**
+     * @param model the path to the model.
+     * @return an NFA equivalent to the model.
+     * @throws IOException if the model couldn't be read or doesn't conform to the grammar.
+     */
+    public static NondeterministicFiniteDefaultAutomaton read(Path model) throws IOException{
+        try(Reader input = Files.newBufferedReader(model, StandardCharsets.UTF_8)){
+            return read(input);
+        }
+    }
+
+    /**
+     * Reads an NFA from the stream. The stream isn't closed afterwards.
+     * @param input the stream the model is read from.
+     * @return an NFA equivalent to the model.
+     * @throws IOException if the model couldn't be read or doesn't conform to the grammar.
+     */
+    public static NondeterministicFiniteDefaultAutomaton read(Reader input) throws IOException{
+        return (NondeterministicFiniteDefaultAutomaton)new FiniteAutomatonReader(input, false).read();
+    }
+
+    /**
+     * @param model the path to the model.
+     * @return a DFA equivalent to the model.
+     * @throws IOException if the model couldn't be read or doesn't conform to the grammar.
+     * @throws IllegalArgumentException if the model isn't deterministic.
+     */
+    public static DeterministicFiniteDefaultAutomaton readDeterministic(Path model) throws IOException, IllegalArgumentException{
+        try(Reader input = Files.newBufferedReader(model, StandardCharsets.UTF_8)){
+            return readDeterministic(input);
+        }
+    }
+
+    /**
+     * Reads a DFA from the stream. The stream isn't closed afterwards.
+     * A model is deterministic if it has at most one initial state, no epsilon transitions and at most one
+     * transition per state and letter and one default transition per state.
+     * @param input the stream the model is read from.
+     * @return a DFA equivalent to the model.
+     * @throws IOException if the model couldn't be read or doesn't conform to the grammar.
+     * @throws IllegalArgumentException if the model isn't deterministic.
+     */
+    public static DeterministicFiniteDefaultAutomaton readDeterministic(Reader input) throws IOException, IllegalArgumentException{
+        return (DeterministicFiniteDefaultAutomaton)new FiniteAutomatonReader(input, true).read();
+    }
+
+    /**
+     * Reads the whole model and builds the automaton.
+     * @return the automaton.
+     * @throws IOException if the model couldn't be read or doesn't conform to the grammar.
+     * @throws IllegalArgumentException if a DFA should be created, but the model isn't deterministic.
+     */
+    protected FiniteAutomaton read() throws IOException, IllegalArgumentException{
+        next = input.read();
+        advance();
+
+        try{
+            expect(Kind.KEYWORD, "automaton");
+            expect(Kind.NAME, null);
+            expect(Kind.SYMBOL, "{");
+
+            while(!is(Kind.SYMBOL, "}")){
+                if(is(Kind.KEYWORD, "state"))
+                    readState();
+                else
+                    readTransition();
+            }
+
+            expect(Kind.SYMBOL, "}");
+            expect(Kind.END, null);
+        }catch(IllegalArgumentException e){
+            throw new IllegalArgumentException(String.format("Line %d: %s", line, e.getMessage()), e);
+        }
+
+        addInitialState();
+        return builder.build();
+    }
+
+    /**
+     * Reads a state, including its flags.
+     * @throws IOException if the state doesn't conform to the grammar.
+     */
+    protected void readState() throws IOException{
+        expect(Kind.KEYWORD, "state");
+        State state = getState(expect(Kind.NAME, null));
+
+        while(is(Kind.SYMBOL, "<<")){
+            advance();
+            if(is(Kind.KEYWORD, "initial")){
+                if(!initialStates.contains(state))
+                    initialStates.add(state);
+            }else if(is(Kind.KEYWORD, "final")){
+                state.setFinal(true);
+            }else{
+                throw error("initial or final");
+            }
+            advance();
+            expect(Kind.SYMBOL, ">>");
+        }
+
+        expect(Kind.SYMBOL, ";");
+    }
+
+    /**
+     * Reads a basic, range, epsilon or default transition.
+     * @throws IOException if the transition doesn't conform to the grammar.
+     */
+    protected void readTransition() throws IOException{
+        State from = getState(expect(Kind.NAME, null));
+
+        if(is(Kind.SYMBOL, "*")){
+            advance();
+            expect(Kind.SYMBOL, ">");
+            addDefaultTransition(from, getState(expect(Kind.NAME, null)));
+        }else{
+            expect(Kind.SYMBOL, "-");
+            if(is(Kind.SYMBOL, "[")){
+                readRangeTransition(from);
+                return;
+            }else if(is(Kind.LITERAL, null)){
+                char with = literal;
+                advance();
+                expect(Kind.SYMBOL, ">");
+                builder.addTransition(from, with, getState(expect(Kind.NAME, null)));
+            }else{
+                expect(Kind.SYMBOL, ">");
+                addEpsilonTransition(from, getState(expect(Kind.NAME, null)));
+            }
+        }
+
+        expect(Kind.SYMBOL, ";");
+    }
+
+    /**
+     * Reads the ranges of a transition, followed by its target. The ranges are passed to the builder as a whole,
+     * which merges overlapping ranges.
+     * @param from the source of the transition.
+     * @throws IOException if the transition doesn't conform to the grammar.
+     */
+    protected void readRangeTransition(State from) throws IOException{
+        List<char[]> ranges = new ArrayList<>();
+
+        expect(Kind.SYMBOL, "[");
+        do{
+            if(!ranges.isEmpty())
+                advance();
+
+            char first = readLiteralToken();
+            char last = first;
+            if(is(Kind.SYMBOL, "-")){
+                advance();
+                last = readLiteralToken();
+            }
+            ranges.add(new char[]{first, last});
+        }while(is(Kind.SYMBOL, ","));
+        expect(Kind.SYMBOL, "]");
+        expect(Kind.SYMBOL, ">");
+
+        State to = getState(expect(Kind.NAME, null));
+        builder.addTransitions(from, ranges, to);
+
+        expect(Kind.SYMBOL, ";");
+    }
+
+    /**
+     * Consumes the current token, which has to be a character literal.
+     * @return the value of the literal.
+     * @throws IOException if the current token isn't a character literal.
+     */
+    protected char readLiteralToken() throws IOException{
+        if(!is(Kind.LITERAL, null))
+            throw error("literal");
+
+        char value = literal;
+        advance();
+        return value;
+    }
+
+    /**
+     * @param name the name of a state.
+     * @return the state with this name, which is created if it hasn't been used before.
+     */
+    protected State getState(String name){
+        return stateMap.computeIfAbsent(name, builder::addState);
+    }
+
+    /**
+     * @param from the source of the transition.
+     * @param to the target of the transition.
+     * @throws IllegalArgumentException if a DFA should be created.
+     */
+    protected void addEpsilonTransition(State from, State to) throws IllegalArgumentException{
+        if(deterministic)
+            throw new IllegalArgumentException(String.format("The epsilon transition from %s to %s isn't deterministic", from, to));
+        ((NondeterministicFiniteDefaultAutomatonBuilder)builder).addEpsilonTransition(from, to);
+    }
+
+    /**
+     * @param from the source of the transition.
+     * @param to the target of the transition.
+     * @throws IllegalArgumentException if the transition already exists or, for DFAs, the state already has a
+     * default transition.
+     */
+    protected void addDefaultTransition(State from, State to) throws IllegalArgumentException{
+        if(deterministic)
+            ((DeterministicFiniteDefaultAutomatonBuilder)builder).addDefaultTransition(from, to);
+        else
+            ((NondeterministicFiniteDefaultAutomatonBuilder)builder).addDefaultTransition(from, to);
+    }
+
+    /**
+     * For NFAs, a new initial state is linked to all declared initial states via epsilon transitions, just like in
+     * {@link FiniteAutomatonCreator}. For DFAs, the declared initial state is used directly.
+     * In both cases, a model without any initial state accepts the empty language.
+     * @throws IllegalArgumentException if a DFA should be created, but multiple initial states were declared.
+     */
+    protected void addInitialState() throws IllegalArgumentException{
+        if(!deterministic){
+            State initialState = builder.addInitialState();
+            for(State state : initialStates)
+                ((NondeterministicFiniteDefaultAutomatonBuilder)builder).addEpsilonTransition(initialState, state);
+        }else if(initialStates.size() > 1){
+            throw new IllegalArgumentException(String.format("The %d initial states aren't deterministic", initialStates.size()));
+        }else if(initialStates.size() == 1){
+            builder.setInitialState(initialStates.get(0));
+        }else{
+            builder.addInitialState();
+        }
+    }
+
+    /**
+     * @param kind the expected type of the current token.
+     * @param token the expected text of the current token or null, if any text is allowed.
+     * @return true if the current token matches.
+     */
+    protected boolean is(Kind kind, String token){
+        return this.kind == kind && (token == null || token.equals(this.token));
+    }
+
+    /**
+     * Consumes the current token.
+     * @param kind the expected type of the current token.
+     * @param token the expected text of the current token or null, if any text is allowed.
+     * @return the text of the consumed token.
+     * @throws IOException if the current token doesn't match.
+     */
+    protected String expect(Kind kind, String token) throws IOException{
+        if(!is(kind, token))
+            throw error(token == null ? kind.name().toLowerCase(Locale.ENGLISH) : token);
+
+        String text = this.token;
+        advance();
+        return text;
+    }
+
+    /**
+     * @param expected a description of the expected token.
+     * @return an exception describing the unexpected token.
+     */
+    protected IOException error(String expected){
+        return new IOException(String.format("Line %d: Expected %s, but found %s", line, expected, kind == Kind.END ? "the end of the model" : token));
+    }
+
+    /**
+     * Reads the next token, skipping all whitespaces and comments.
+     * @throws IOException if the stream couldn't be read or contains an invalid token.
+     */
+    protected void advance() throws IOException{
+        skip();
+
+        if(next == END){
+            kind = Kind.END;
+            token = null;
+        }else if(isNameStart(next)){
+            StringBuilder name = new StringBuilder();
+            while(next != END && (isNameStart(next) || (next >= '0' && next <= '9')))
+                name.append((char)consume());
+            token = name.toString();
+            kind = KEYWORDS.contains(token) ? Kind.KEYWORD : Kind.NAME;
+        }else if(next == '\''){
+            readLiteral();
+        }else{
+            char symbol = (char)consume();
+            token = String.valueOf(symbol);
+            kind = Kind.SYMBOL;
+
+            //Both "<<" and ">>" are single tokens in the grammar
+            if((symbol == '<' || symbol == '>') && next == symbol)
+                token += (char)consume();
+            else if(symbol == '<')
+                throw new IOException(String.format("Line %d: Unexpected symbol %s", line, token));
+        }
+    }
+
+    /**
+     * Reads a character literal, which may contain the escape sequences of Java.
+     * @throws IOException if the literal is invalid.
+     */
+    protected void readLiteral() throws IOException{
+        StringBuilder text = new StringBuilder().append((char)consume());
+
+        int value = consume();
+        if(value == '\\'){
+            int escape = consume();
+            text.append('\\').append((char)escape);
+            switch(escape){
+                case 'b': value = '\b'; break;
+                case 't': value = '\t'; break;
+                case 'n': value = '\n'; break;
+                case 'f': value = '\f'; break;
+                case 'r': value = '\r'; break;
+                case '"': value = '"'; break;
+                case '\'': value = '\''; break;
+                case '\\': value = '\\'; break;
+                case 'u':
+                    while(next == 'u')
+                        text.append((char)consume());
+                    StringBuilder hex = new StringBuilder();
+                    for(int i = 0 ; i < 4 ; ++i)
+                        hex.append((char)consume());
+                    text.append(hex);
+                    try{
+                        value = Integer.parseInt(hex.toString(), 16);
+                    }catch(NumberFormatException e){
+                        throw new IOException(String.format("Line %d: Invalid unicode escape %s", line, text), e);
+                    }
+                    break;
+                default:
+                    if(escape < '0' || escape > '7')
+                        throw new IOException(String.format("Line %d: Invalid escape sequence %s", line, text));
+                    value = escape - '0';
+                    //At most three octal digits and at most \377
+                    for(int i = escape <= '3' ? 2 : 1 ; i > 0 && next >= '0' && next <= '7' ; --i){
+                        text.append((char)next);
+                        value = 8 * value + consume() - '0';
+                    }
+            }
+        }else if(value == END || value == '\'' || value == '\n' || value == '\r'){
+            throw new IOException(String.format("Line %d: Invalid character literal", line));
+        }else{
+            text.append((char)value);
+        }
+
+        if(consume() != '\'')
+            throw new IOException(String.format("Line %d: Unterminated character literal %s", line, text));
+
+        token = text.append('\'').toString();
+        literal = (char)value;
+        kind = Kind.LITERAL;
+    }
+
+    /**
+     * Skips all whitespaces, single-line comments and multi-line comments.
+     * @throws IOException if the stream couldn't be read or a comment isn't terminated.
+     */
+    protected void skip() throws IOException{
+        while(true){
+            if(Character.isWhitespace(next)){
+                consume();
+            }else if(next == '/'){
+                consume();
+                if(next == '/'){
+                    while(next != END && next != '\n')
+                        consume();
+                }else if(next == '*'){
+                    consume();
+                    int previous = END;
+                    while(!(previous == '*' && next == '/')){
+                        if(next == END)
+                            throw new IOException(String.format("Line %d: Unterminated comment", line));
+                        previous = consume();
+                    }
+                    consume();
+                }else{
+                    throw new IOException(String.format("Line %d: Unexpected symbol /", line));
+                }
+            }else{
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return the next character in the stream, which is consumed.
+     * @throws IOException if the stream couldn't be read.
+     */
+    protected int consume() throws IOException{
+        int current = next;
+        if(current == '\n')
+            ++line;
+        next = current == END ? END : input.read();
+        return current;
+    }
+
+    /**
+     * @param character a character in the stream.
+     * @return true if the character may start a name.
+     */
+    protected static boolean isNameStart(int character){
+        return (character >= 'a' && character <= 'z') || (character >= 'A' && character <= 'Z') || character == '_' || character == '$';
+    }
+}
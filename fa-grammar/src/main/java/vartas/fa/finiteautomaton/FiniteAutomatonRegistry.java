@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vartas.fa.finiteautomaton;
+
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class relates the qualified names of models to the automata created from them.
+ * Models that couldn't be parsed or violate a context condition are not contained, instead their errors are kept.
+ * Additionally, the time spent in every phase of the loading process is recorded. Since the models are loaded
+ * concurrently, the time of a phase is summed over all threads and may exceed the elapsed time.
+ */
+public final class FiniteAutomatonRegistry {
+    /**
+     * A map relating the qualified names of all valid models to their automata.
+     */
+    private final Map<String, NondeterministicFiniteDefaultAutomaton> automata;
+    /**
+     * A map relating the qualified names of all invalid models to their errors.
+     */
+    private final Map<String, List<String>> errors;
+    /**
+     * The time spent in every phase, in nanoseconds.
+     */
+    private final Map<FiniteAutomatonLoader.Phase, LongAdder> times;
+    /**
+     * The time between the start and the end of the loading process, in nanoseconds.
+     */
+    private long elapsedTime;
+
+    /**
+     * Creates an empty registry.
+     */
+    FiniteAutomatonRegistry(){
+        this.automata = new ConcurrentHashMap<>();
+        this.errors = new ConcurrentHashMap<>();
+        this.times = new EnumMap<>(FiniteAutomatonLoader.Phase.class);
+
+        for(FiniteAutomatonLoader.Phase phase : FiniteAutomatonLoader.Phase.values())
+            times.put(phase, new LongAdder());
+    }
+
+    /**
+     * @param name the qualified name of a valid model.
+     * @param automaton the automaton created from the model.
+     */
+    void put(String name, NondeterministicFiniteDefaultAutomaton automaton){
+        automata.put(name, automaton);
+    }
+
+    /**
+     * @param name the qualified name of an invalid model.
+     * @param errors the errors of the model.
+     */
+    void putErrors(String name, List<String> errors){
+        this.errors.put(name, Collections.unmodifiableList(new ArrayList<>(errors)));
+    }
+
+    /**
+     * This method may be called concurrently.
+     * @param phase a phase of the loading process.
+     * @param nanos the additional time spent in the phase, in nanoseconds.
+     */
+    void addTime(FiniteAutomatonLoader.Phase phase, long nanos){
+        times.get(phase).add(nanos);
+    }
+
+    /**
+     * @param nanos the time between the start and the end of the loading process, in nanoseconds.
+     */
+    void setElapsedTime(long nanos){
+        this.elapsedTime = nanos;
+    }
+
+    /**
+     * @param name the qualified name of a model.
+     * @return the automaton created from the model, if the model is valid.
+     */
+    public Optional<NondeterministicFiniteDefaultAutomaton> get(String name){
+        return Optional.ofNullable(automata.get(name));
+    }
+
+    /**
+     * @return the sorted qualified names of all valid models.
+     */
+    public SortedSet<String> getNames(){
+        return Collections.unmodifiableSortedSet(new TreeSet<>(automata.keySet()));
+    }
+
+    /**
+     * @return the number of valid models.
+     */
+    public int size(){
+        return automata.size();
+    }
+
+    /**
+     * @return a sorted map relating the qualified names of all invalid models to their errors.
+     */
+    public SortedMap<String, List<String>> getErrors(){
+        return Collections.unmodifiableSortedMap(new TreeMap<>(errors));
+    }
+
+    /**
+     * @param phase a phase of the loading process.
+     * @param unit the unit of the result.
+     * @return the time spent in the phase, summed over all threads.
+     */
+    public long getTime(FiniteAutomatonLoader.Phase phase, TimeUnit unit){
+        return unit.convert(times.get(phase).sum(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param unit the unit of the result.
+     * @return the time between the start and the end of the loading process.
+     */
+    public long getElapsedTime(TimeUnit unit){
+        return unit.convert(elapsedTime, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return a summary of the number of models and the time spent in every phase, in milliseconds.
+     */
+    @Override
+    public String toString(){
+        StringJoiner joiner = new StringJoiner(", ", String.format("%d valid and %d invalid models in %d ms (", automata.size(), errors.size(), getElapsedTime(TimeUnit.MILLISECONDS)), ")");
+        for(FiniteAutomatonLoader.Phase phase : FiniteAutomatonLoader.Phase.values())
+            joiner.add(String.format("%s: %d ms", phase.name().toLowerCase(Locale.ENGLISH), getTime(phase, TimeUnit.MILLISECONDS)));
+        return joiner.toString();
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.finiteautomaton._ast;
+
+import de.monticore.literals.literals._ast.ASTCharLiteral;
+
+import java.util.Optional;
+
+/**
+ * Extends the range of a transition
+ * to compute its first and last letter.
+ */
+public class ASTCharRange extends ASTCharRangeTOP{
+    /**
+     * Creates an empty range.
+     */
+    protected ASTCharRange(){
+        super();
+    }
+
+    /**
+     * Creates a new range.
+     * @param lower the first letter of the range.
+     * @param upper the optional last letter of the range.
+     */
+    protected ASTCharRange(ASTCharLiteral lower, Optional<ASTCharLiteral> upper){
+        super(lower, upper);
+    }
+
+    /**
+     * @return the first letter of the range.
+     */
+    public char getFirst(){
+        return getLower().getValue();
+    }
+
+    /**
+     * @return the last letter of the range, which is the first letter if only a single letter is given.
+     */
+    public char getLast(){
+        return isPresentUpper() ? getUpper().getValue() : getFirst();
+    }
+
+    /**
+     * @return true if the last letter precedes the first letter.
+     */
+    public boolean isEmpty(){
+        return getLast() < getFirst();
+    }
+}
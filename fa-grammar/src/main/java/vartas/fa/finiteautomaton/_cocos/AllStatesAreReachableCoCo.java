@@ -22,13 +22,15 @@ import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTState;
 import vartas.fa.finiteautomaton._visitor.StateVisitor;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 
 /**
  * This class tests if all states are reachable.
  */
-public class AllStatesAreReachableCoCo extends StateVisitor implements FiniteAutomatonASTFiniteAutomatonCoCo {
+public class AllStatesAreReachableCoCo extends StateVisitor implements FiniteAutomatonASTFiniteAutomatonCoCo, FiniteAutomatonIndexCoCo {
     /**
      * The error message that is throw.
      * As a parameter, it requires the name of the state.
@@ -37,7 +39,8 @@ public class AllStatesAreReachableCoCo extends StateVisitor implements FiniteAut
 
     /**
      * Starts at the initial state and go through all reachable states.
-     * If the number of visited states differs from the total number of states, throw an error.
+     * If the number of visited states differs from the total number of states, throw an error for the first
+     * unreachable state.
      * @param node the root node of the automaton.
      */
     @Override
@@ -45,9 +48,24 @@ public class AllStatesAreReachableCoCo extends StateVisitor implements FiniteAut
         node.accept(getRealThis());
 
         if(visitedStates.size() != node.getStateList().size()){
-            Set<ASTState> difference = new HashSet<>(node.getStateList());
-            difference.removeAll(visitedStates);
-            Log.error(String.format(ERROR_MESSAGE, difference.iterator().next().getName()));
+            Optional<ASTState> unreachable = node.getStateList().stream().filter(state -> !visitedStates.contains(state)).findFirst();
+            unreachable.ifPresent(state -> Log.error(String.format(ERROR_MESSAGE, state.getName())));
         }
     }
+
+    /**
+     * Visits all reachable states in the index and returns an error for the first unreachable state.
+     * @param index the index of the automaton.
+     * @return the error messages.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index){
+        Set<ASTState> reachableStates = index.getReachableStates();
+
+        return index.getStates().stream()
+                .filter(state -> !reachableStates.contains(state))
+                .findFirst()
+                .map(state -> Collections.singletonList(String.format(ERROR_MESSAGE, state.getName())))
+                .orElse(Collections.emptyList());
+    }
 }
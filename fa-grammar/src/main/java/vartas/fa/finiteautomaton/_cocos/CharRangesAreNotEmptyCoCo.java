@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.finiteautomaton._cocos;
+
+import de.se_rwth.commons.logging.Log;
+import vartas.fa.finiteautomaton._ast.ASTCharRange;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This class tests if the first letter of every range doesn't succeed its last letter.
+ */
+public class CharRangesAreNotEmptyCoCo implements FiniteAutomatonASTCharRangeCoCo, FiniteAutomatonIndexCoCo {
+    /**
+     * The error message that is throw.
+     * As a parameter, it requires the first and last letter of the range.
+     */
+    public static final String ERROR_MESSAGE = "The range from %s to %s is empty.";
+
+    /**
+     * If the last letter precedes the first letter, throw an error.
+     * @param node a range of a transition in the automaton.
+     */
+    @Override
+    public void check(ASTCharRange node){
+        if(node.isEmpty())
+            Log.error(String.format(ERROR_MESSAGE, node.getFirst(), node.getLast()));
+    }
+
+    /**
+     * @param index the index of the automaton.
+     * @param range a range of a transition in the automaton.
+     * @return an error if the range is empty.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index, ASTCharRange range){
+        if(range.isEmpty())
+            return Collections.singletonList(String.format(ERROR_MESSAGE, range.getFirst(), range.getLast()));
+        else
+            return Collections.emptyList();
+    }
+}
@@ -33,6 +33,24 @@ public abstract class FiniteAutomatonCoCos {
         checker.addCoCo(new OnlyOneInitialStateCoCo());
         checker.addCoCo(new StateNamesAreUniqueCoCo());
         checker.addCoCo(new TransitionStatesExist());
+        checker.addCoCo(new CharRangesAreNotEmptyCoCo());
+
+        return checker;
+    }
+
+    /**
+     * @return a checker containing all context conditions, which are checked against the index of the automaton.
+     */
+    public static FiniteAutomatonIndexChecker getIndexCheckerForAllCoCos(){
+        FiniteAutomatonIndexChecker checker = new FiniteAutomatonIndexChecker();
+
+        checker.addCoCo(new AllStatesAreReachableCoCo());
+        checker.addCoCo(new HasFinalStateCoCo());
+        checker.addCoCo(new HasInitialStateCoCo());
+        checker.addCoCo(new OnlyOneInitialStateCoCo());
+        checker.addCoCo(new StateNamesAreUniqueCoCo());
+        checker.addCoCo(new TransitionStatesExist());
+        checker.addCoCo(new CharRangesAreNotEmptyCoCo());
 
         return checker;
     }
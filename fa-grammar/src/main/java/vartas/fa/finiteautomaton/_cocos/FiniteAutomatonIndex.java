@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vartas.fa.finiteautomaton._cocos;
+
+import vartas.fa.finiteautomaton._ast.ASTCharRange;
+import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
+import vartas.fa.finiteautomaton._ast.ASTRangeTransition;
+import vartas.fa.finiteautomaton._ast.ASTState;
+import vartas.fa.finiteautomaton._ast.ASTTransition;
+
+import java.util.*;
+
+/**
+ * This class collects all facts about the states and transitions of an automaton that are needed by the CoCos.
+ * The states and transitions are only visited once and names are resolved via a hash map instead of the symbol
+ * table. Once created, the index is never modified, so it can be shared between CoCos that are checked concurrently.
+ */
+public final class FiniteAutomatonIndex {
+    /**
+     * All states, in the order they are declared.
+     */
+    private final List<ASTState> states;
+    /**
+     * A map relating every name to the first state with this name.
+     */
+    private final Map<String, ASTState> names;
+    /**
+     * A map relating every name to the number of states with this name.
+     */
+    private final Map<String, Long> counts;
+    /**
+     * All initial states, in the order they are declared.
+     */
+    private final List<ASTState> initialStates;
+    /**
+     * All final states, in the order they are declared.
+     */
+    private final List<ASTState> finalStates;
+    /**
+     * A map relating every state to the targets of its outgoing transitions.
+     */
+    private final Map<ASTState, List<ASTState>> successors;
+    /**
+     * All transitions, in the order they are declared.
+     */
+    private final List<ASTTransition> transitions;
+
+    /**
+     * @param ast the head of the finite automaton.
+     */
+    private FiniteAutomatonIndex(ASTFiniteAutomaton ast){
+        this.states = ast.getStateList();
+        this.names = new HashMap<>();
+        this.counts = new HashMap<>();
+        this.initialStates = new ArrayList<>();
+        this.finalStates = new ArrayList<>();
+        this.successors = new HashMap<>();
+        this.transitions = ast.getTransitionList();
+
+        for(ASTState state : states){
+            names.putIfAbsent(state.getName(), state);
+            counts.merge(state.getName(), 1L, Long::sum);
+            if(state.isInitial())
+                initialStates.add(state);
+            if(state.isFinal())
+                finalStates.add(state);
+        }
+
+        for(ASTTransition transition : transitions){
+            ASTState from = names.get(transition.getFrom());
+            ASTState to = names.get(transition.getTo());
+
+            if(from != null && to != null)
+                successors.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+        }
+    }
+
+    /**
+     * @param ast the head of the finite automaton.
+     * @return the index of the automaton.
+     */
+    public static FiniteAutomatonIndex of(ASTFiniteAutomaton ast){
+        return new FiniteAutomatonIndex(ast);
+    }
+
+    /**
+     * @return all states, in the order they are declared.
+     */
+    public List<ASTState> getStates(){
+        return Collections.unmodifiableList(states);
+    }
+
+    /**
+     * @return a map relating every name to the number of states with this name.
+     */
+    public Map<String, Long> getNameCounts(){
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * @return all initial states, in the order they are declared.
+     */
+    public List<ASTState> getInitialStates(){
+        return Collections.unmodifiableList(initialStates);
+    }
+
+    /**
+     * @return all final states, in the order they are declared.
+     */
+    public List<ASTState> getFinalStates(){
+        return Collections.unmodifiableList(finalStates);
+    }
+
+    /**
+     * If multiple states share the same name, the first one is used.
+     * @param name the name of a state.
+     * @return the state with this name.
+     */
+    public Optional<ASTState> getState(String name){
+        return Optional.ofNullable(names.get(name));
+    }
+
+    /**
+     * @param state a state in the automaton.
+     * @return the targets of all outgoing transitions of the state, ignoring undefined states.
+     */
+    public List<ASTState> getSuccessors(ASTState state){
+        return Collections.unmodifiableList(successors.getOrDefault(state, Collections.emptyList()));
+    }
+
+    /**
+     * @return all transitions, in the order they are declared.
+     */
+    public List<ASTTransition> getTransitions(){
+        return Collections.unmodifiableList(transitions);
+    }
+
+    /**
+     * @param transition a transition in the automaton.
+     * @return the ranges of the transition, in the order they are declared.
+     */
+    public List<ASTCharRange> getCharRanges(ASTTransition transition){
+        if(transition instanceof ASTRangeTransition)
+            return Collections.unmodifiableList(((ASTRangeTransition)transition).getCharRangeList());
+        else
+            return Collections.emptyList();
+    }
+
+    /**
+     * Visits all states in breadth-first order, starting at the first initial state.
+     * @return all states that are reachable from the initial state.
+     */
+    public Set<ASTState> getReachableStates(){
+        Set<ASTState> visitedStates = new HashSet<>();
+        Deque<ASTState> pendingStates = new ArrayDeque<>();
+
+        if(!initialStates.isEmpty()){
+            visitedStates.add(initialStates.get(0));
+            pendingStates.add(initialStates.get(0));
+        }
+
+        while(!pendingStates.isEmpty())
+            for(ASTState next : getSuccessors(pendingStates.poll()))
+                if(visitedStates.add(next))
+                    pendingStates.add(next);
+
+        return visitedStates;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vartas.fa.finiteautomaton._cocos;
+
+import de.se_rwth.commons.logging.Log;
+import vartas.fa.finiteautomaton._ast.ASTCharRange;
+import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
+import vartas.fa.finiteautomaton._ast.ASTTransition;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * This class checks CoCos against the index of an automaton, which is created in a single pass over the syntax tree.
+ * Optionally, the CoCos and the automata of a batch are checked concurrently. In either case, the errors are logged
+ * in the same order as if all CoCos were checked sequentially, in the order they have been added.
+ */
+public class FiniteAutomatonIndexChecker {
+    /**
+     * All CoCos, in the order they have been added.
+     */
+    protected List<FiniteAutomatonIndexCoCo> cocos;
+    /**
+     * Indicates whether the CoCos are checked concurrently.
+     */
+    protected boolean parallel;
+
+    /**
+     * Creates a new checker without any CoCos.
+     */
+    public FiniteAutomatonIndexChecker(){
+        this.cocos = new ArrayList<>();
+    }
+
+    /**
+     * @param coco a new CoCo.
+     * @return this checker.
+     */
+    public FiniteAutomatonIndexChecker addCoCo(FiniteAutomatonIndexCoCo coco){
+        cocos.add(coco);
+        return this;
+    }
+
+    /**
+     * @param parallel the new flag indicating whether the CoCos are checked concurrently.
+     * @return this checker.
+     */
+    public FiniteAutomatonIndexChecker setParallel(boolean parallel){
+        this.parallel = parallel;
+        return this;
+    }
+
+    /**
+     * @return true if the CoCos are checked concurrently.
+     */
+    public boolean isParallel(){
+        return parallel;
+    }
+
+    /**
+     * Checks all CoCos and logs their errors.
+     * @param ast the head of the finite automaton.
+     */
+    public void checkAll(ASTFiniteAutomaton ast){
+        check(ast).forEach(Log::error);
+    }
+
+    /**
+     * Checks all CoCos for every automaton and logs their errors, ordered by the automata.
+     * @param asts the heads of the finite automata.
+     */
+    public void checkAll(Collection<ASTFiniteAutomaton> asts){
+        List<List<String>> errors = stream(asts).map(this::check).collect(Collectors.toList());
+        errors.forEach(messages -> messages.forEach(Log::error));
+    }
+
+    /**
+     * Checks all CoCos without logging their errors.
+     * Analogous to the syntax tree, the errors of the automaton precede the errors of its transitions.
+     * @param ast the head of the finite automaton.
+     * @return the errors of all CoCos, in the order they have been added.
+     */
+    public List<String> check(ASTFiniteAutomaton ast){
+        FiniteAutomatonIndex index = FiniteAutomatonIndex.of(ast);
+
+        Stream<String> automaton = stream(cocos)
+                .map(coco -> coco.check(index))
+                .flatMap(List::stream);
+        Stream<String> transitions = stream(index.getTransitions())
+                .map(transition -> check(index, transition))
+                .flatMap(List::stream);
+
+        return Stream.concat(automaton, transitions).collect(Collectors.toList());
+    }
+
+    /**
+     * The errors of the transition precede the errors of its ranges.
+     * @param index the index of the automaton.
+     * @param transition a transition in the automaton.
+     * @return the errors of all CoCos for the transition and its ranges, in the order they have been added.
+     */
+    private List<String> check(FiniteAutomatonIndex index, ASTTransition transition){
+        List<String> errors = new ArrayList<>();
+
+        for(FiniteAutomatonIndexCoCo coco : cocos)
+            errors.addAll(coco.check(index, transition));
+        for(ASTCharRange range : index.getCharRanges(transition))
+            for(FiniteAutomatonIndexCoCo coco : cocos)
+                errors.addAll(coco.check(index, range));
+
+        return errors;
+    }
+
+    /**
+     * The order of the elements is preserved by all subsequent operations that are used.
+     * @param elements a collection of elements.
+     * @param <T> the type of the elements.
+     * @return a parallel stream if the CoCos are checked concurrently, otherwise a sequential stream.
+     */
+    private <T> Stream<T> stream(Collection<T> elements){
+        return parallel ? elements.parallelStream() : elements.stream();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package vartas.fa.finiteautomaton._cocos;
+
+import vartas.fa.finiteautomaton._ast.ASTCharRange;
+import vartas.fa.finiteautomaton._ast.ASTTransition;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * This interface is implemented by all CoCos that can be checked against the index of an automaton.
+ * Instead of logging their errors directly, they return them, so that they can be checked concurrently.
+ * Analogous to the syntax tree, the automaton is checked first, followed by every transition and its ranges.
+ */
+public interface FiniteAutomatonIndexCoCo {
+    /**
+     * Checks the context condition on the automaton without modifying the index.
+     * @param index the index of the automaton.
+     * @return the error messages, in the order they would have been logged.
+     */
+    default List<String> check(FiniteAutomatonIndex index){
+        return Collections.emptyList();
+    }
+
+    /**
+     * Checks the context condition on a single transition without modifying the index.
+     * @param index the index of the automaton.
+     * @param transition a transition in the automaton.
+     * @return the error messages, in the order they would have been logged.
+     */
+    default List<String> check(FiniteAutomatonIndex index, ASTTransition transition){
+        return Collections.emptyList();
+    }
+
+    /**
+     * Checks the context condition on a single range without modifying the index.
+     * @param index the index of the automaton.
+     * @param range a range of a transition in the automaton.
+     * @return the error messages, in the order they would have been logged.
+     */
+    default List<String> check(FiniteAutomatonIndex index, ASTCharRange range){
+        return Collections.emptyList();
+    }
+}
@@ -21,12 +21,14 @@ import de.se_rwth.commons.logging.Log;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTState;
 
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * This class tests if the automaton has at least one final state.
  */
-public class HasFinalStateCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo {
+public class HasFinalStateCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo, FiniteAutomatonIndexCoCo {
     /**
      * The error message that is throw.
      */
@@ -43,4 +45,13 @@ public class HasFinalStateCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo
         if(!state.isPresent())
             Log.error(ERROR_MESSAGE);
     }
+
+    /**
+     * @param index the index of the automaton.
+     * @return an error if there are no final states.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index){
+        return index.getFinalStates().isEmpty() ? Collections.singletonList(ERROR_MESSAGE) : Collections.emptyList();
+    }
 }
@@ -21,13 +21,14 @@ import de.se_rwth.commons.logging.Log;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTState;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 /**
  * This class tests if the automaton has exactly one initial state.
  */
-public class OnlyOneInitialStateCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo {
+public class OnlyOneInitialStateCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo, FiniteAutomatonIndexCoCo {
     /**
      * The error message that is throw.
      * As a parameter, it requires the number of initial states that were found.
@@ -45,4 +46,14 @@ public class OnlyOneInitialStateCoCo implements FiniteAutomatonASTFiniteAutomato
         if(states.size() != 1)
             Log.error(String.format(ERROR_MESSAGE, states.size()));
     }
+
+    /**
+     * @param index the index of the automaton.
+     * @return an error if the number of initial states is not one.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index){
+        int size = index.getInitialStates().size();
+        return size != 1 ? Collections.singletonList(String.format(ERROR_MESSAGE, size)) : Collections.emptyList();
+    }
 }
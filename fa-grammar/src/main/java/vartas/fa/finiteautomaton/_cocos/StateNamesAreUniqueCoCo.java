@@ -21,6 +21,7 @@ import de.se_rwth.commons.logging.Log;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTState;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -28,7 +29,7 @@ import java.util.stream.Collectors;
 /**
  * This class tests if all state names in the automaton are unique.
  */
-public class StateNamesAreUniqueCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo{
+public class StateNamesAreUniqueCoCo implements FiniteAutomatonASTFiniteAutomatonCoCo, FiniteAutomatonIndexCoCo{
     /**
      * The error message that is throw.
      * As a parameter, it requires the name of one the duplicate states.
@@ -54,4 +55,18 @@ public class StateNamesAreUniqueCoCo implements FiniteAutomatonASTFiniteAutomato
             }
         }
     }
+
+    /**
+     * The names are counted in the same order as in {@link #check(ASTFiniteAutomaton)}, hence the errors are
+     * returned in the same order as well.
+     * @param index the index of the automaton.
+     * @return an error for every name that appears more than once.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index){
+        return index.getNameCounts().entrySet().stream()
+                .filter(count -> count.getValue() != 1)
+                .map(count -> String.format(ERROR_MESSAGE, count.getKey()))
+                .collect(Collectors.toList());
+    }
 }
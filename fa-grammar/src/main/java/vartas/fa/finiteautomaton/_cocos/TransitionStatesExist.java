@@ -21,12 +21,14 @@ import de.se_rwth.commons.logging.Log;
 import vartas.fa.finiteautomaton._ast.ASTTransition;
 import vartas.fa.finiteautomaton._symboltable.StateSymbol;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 /**
  * This class tests if both the incoming and outgoing state of a transition exists.
  */
-public class TransitionStatesExist implements  FiniteAutomatonASTTransitionCoCo{
+public class TransitionStatesExist implements  FiniteAutomatonASTTransitionCoCo, FiniteAutomatonIndexCoCo{
     /**
      * The error message that is throw.
      * As a parameter, it requires the name of the state.
@@ -48,4 +50,22 @@ public class TransitionStatesExist implements  FiniteAutomatonASTTransitionCoCo{
         if(!to.isPresent())
             Log.error(String.format(ERROR_MESSAGE, node.getTo()));
     }
+
+    /**
+     * Looks up the names of the states in the index instead of the symbol table.
+     * @param index the index of the automaton.
+     * @param transition a transition in the automaton.
+     * @return an error for every undefined state of the transition.
+     */
+    @Override
+    public List<String> check(FiniteAutomatonIndex index, ASTTransition transition){
+        List<String> errors = new ArrayList<>();
+
+        if(!index.getState(transition.getFrom()).isPresent())
+            errors.add(String.format(ERROR_MESSAGE, transition.getFrom()));
+        if(!index.getState(transition.getTo()).isPresent())
+            errors.add(String.format(ERROR_MESSAGE, transition.getTo()));
+
+        return errors;
+    }
 }
@@ -20,14 +20,14 @@ package vartas.fa.finiteautomaton._visitor;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTState;
 import vartas.fa.finiteautomaton._ast.ASTTransition;
-import vartas.fa.finiteautomaton._symboltable.StateSymbol;
 
-import java.util.HashSet;
-import java.util.Optional;
-import java.util.Set;
+import java.util.*;
 
 /**
- * This class iterates over all states in the finite automaton.
+ * This class iterates over all states in the finite automaton that are reachable from the initial state.
+ * The states are visited in breadth-first order, using an adjacency index that is built once per automaton.
+ * Hence the traversal takes linear time in the number of states and transitions and doesn't recurse,
+ * regardless of the length of the paths in the automaton.
  */
 public class StateVisitor implements FiniteAutomatonVisitor{
     /**
@@ -38,6 +38,14 @@ public class StateVisitor implements FiniteAutomatonVisitor{
      * A collection of all visited states to prevent loops.
      */
     protected Set<ASTState> visitedStates;
+    /**
+     * The states that have been discovered, but not visited yet.
+     */
+    protected Deque<ASTState> pendingStates;
+    /**
+     * A map relating every state to the targets of its outgoing transitions.
+     */
+    protected Map<ASTState, List<ASTState>> successors;
     /**
      * The reference automaton.
      */
@@ -49,6 +57,8 @@ public class StateVisitor implements FiniteAutomatonVisitor{
     public StateVisitor(){
         this.realThis = this;
         this.visitedStates = new HashSet<>();
+        this.pendingStates = new ArrayDeque<>();
+        this.successors = new HashMap<>();
     }
 
     /**
@@ -69,49 +79,60 @@ public class StateVisitor implements FiniteAutomatonVisitor{
 
     /**
      * The core method.
-     * It clears all visited states in previously runs and starts traversing at the initial state.
+     * It clears all visited states in previously runs, indexes the transitions and visits all states reachable
+     * from the initial state.
      * @param ast the head of the finite automaton.
      */
     @Override
     public void handle(ASTFiniteAutomaton ast){
         this.visitedStates.clear();
+        this.pendingStates.clear();
         this.ast = ast;
+        this.successors = index(ast);
 
-        ast.getInitialState().ifPresent(state -> state.accept(getRealThis()));
+        ast.getInitialState().ifPresent(state -> {
+            visitedStates.add(state);
+            pendingStates.add(state);
+        });
+
+        while(!pendingStates.isEmpty())
+            pendingStates.poll().accept(getRealThis());
     }
 
     /**
-     * Adds the currently visited state to the list and continues with
-     * all unvisited states that can be directly reached via transitions.
+     * Adds all unvisited states that can be directly reached via transitions to the pending states.
      * @param state the currently visited state.
      */
     @Override
     public void handle(ASTState state){
         visitedStates.add(state);
 
-        ast.getTransitionList().stream()
-                .filter(e -> e.getFrom().equals(state.getName()))
-                .map(ASTTransition::getTo)
-                .map(this::resolveState)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .filter(e -> !visitedStates.contains(e))
-                .forEach(e -> e.accept(getRealThis()));
+        for(ASTState next : successors.getOrDefault(state, Collections.emptyList()))
+            if(visitedStates.add(next))
+                pendingStates.add(next);
     }
 
     /**
-     * A helper function that resolves states based on their name.
-     * @param name the name of a state.
-     * @return the state that is referenced by that name.
+     * Resolves the source and target of every transition by their name.
+     * Transitions involving undefined states are ignored and if multiple states share the same name,
+     * the first one is used.
+     * @param ast the head of the finite automaton.
+     * @return a map relating every state to the targets of its outgoing transitions.
      */
-    private Optional<ASTState> resolveState(String name){
-        String qualifiedName = ast.getName() + "." + name;
+    protected static Map<ASTState, List<ASTState>> index(ASTFiniteAutomaton ast){
+        Map<String, ASTState> states = new HashMap<>();
+        for(ASTState state : ast.getStateList())
+            states.putIfAbsent(state.getName(), state);
+
+        Map<ASTState, List<ASTState>> successors = new HashMap<>();
+        for(ASTTransition transition : ast.getTransitionList()){
+            ASTState from = states.get(transition.getFrom());
+            ASTState to = states.get(transition.getTo());
 
-        Optional<StateSymbol> symbol = ast.getEnclosingScope().resolve(qualifiedName, StateSymbol.KIND);
+            if(from != null && to != null)
+                successors.computeIfAbsent(from, key -> new ArrayList<>()).add(to);
+        }
 
-        if(symbol.isPresent())
-            return symbol.get().getStateNode();
-        else
-            return Optional.empty();
+        return successors;
     }
 }
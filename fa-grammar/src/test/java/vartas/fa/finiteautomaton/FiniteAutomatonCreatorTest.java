@@ -18,11 +18,17 @@
 package vartas.fa.finiteautomaton;
 
 import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
 import vartas.fa.FiniteAutomaton;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
+import vartas.fa.finiteautomaton._cocos.TransitionStatesExist;
 import vartas.fa.finiteautomaton._parser.FiniteAutomatonParser;
+import vartas.fa.table.AutomatonDiskCache;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -89,6 +95,107 @@ public class FiniteAutomatonCreatorTest {
         assertThat(fa.run("bbc")).isFalse();
     }
 
+    @Test
+    public void testRange(){
+        //L = [a-z_][a-z0-9_]*
+        FiniteAutomaton fa = build("Range.fa");
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("_x9")).isTrue();
+        assertThat(fa.run("name_42")).isTrue();
+        assertThat(fa.run("9a")).isFalse();
+        assertThat(fa.run("aB")).isFalse();
+    }
+
+    @Test
+    public void testOverlappingRange(){
+        //L = [a-z0-9]
+        FiniteAutomaton fa = build("OverlappingRange.fa");
+        assertThat(fa.run("x")).isTrue();
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("4")).isTrue();
+        assertThat(fa.run("9")).isTrue();
+        assertThat(fa.run("xx")).isFalse();
+        assertThat(fa.run("A")).isFalse();
+    }
+
+    @Test
+    public void testCreateDeterministicFrom(){
+        //L = ab
+        ASTFiniteAutomaton ast = parse("Epsilon.fa");
+        assertThat(FiniteAutomatonCreator.createFrom(ast).isDeterministic()).isTrue();
+
+        //The new initial state and B only consist of an epsilon transition
+        DeterministicFiniteAutomaton fa = FiniteAutomatonCreator.createDeterministicFrom(ast);
+        assertThat(fa.getStates()).hasSize(3);
+        assertThat(fa.getInitialState().getName()).isEqualTo("A");
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isFalse();
+        assertThat(fa.run("ab")).isTrue();
+        assertThat(fa.run("aba")).isFalse();
+    }
+
+    @Test
+    public void testCreateDeterministicFromNondeterministic(){
+        //L = a + _c*
+        ASTFiniteAutomaton ast = parse("Default.fa");
+        assertThat(FiniteAutomatonCreator.createFrom(ast).isDeterministic()).isFalse();
+
+        DeterministicFiniteAutomaton fa = FiniteAutomatonCreator.createDeterministicFrom(ast);
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("aa")).isFalse();
+        assertThat(fa.run("ac")).isTrue();
+        assertThat(fa.run("bcc")).isTrue();
+        assertThat(fa.run("bbc")).isFalse();
+    }
+
+    @Test
+    public void testCreateMinimalFrom() throws IOException{
+        Path directory = Files.createTempDirectory("automata");
+        Path model = Paths.get(modelPath, "Default.fa");
+
+        try{
+            AutomatonDiskCache cache = new AutomatonDiskCache(directory);
+            DeterministicFiniteAutomaton fa = FiniteAutomatonCreator.createMinimalFrom(model, cache);
+            assertThat(cache.contains(FiniteAutomatonCreator.CACHE_NAMESPACE, new String(Files.readAllBytes(model), "UTF-8"))).isTrue();
+
+            //L = a + _c*
+            DeterministicFiniteAutomaton cached = FiniteAutomatonCreator.createMinimalFrom(model, cache);
+            assertThat(cached.getStates()).hasSize(fa.getStates().size());
+            assertThat(cached.run("")).isFalse();
+            assertThat(cached.run("a")).isTrue();
+            assertThat(cached.run("aa")).isFalse();
+            assertThat(cached.run("b")).isTrue();
+            assertThat(cached.run("ac")).isTrue();
+            assertThat(cached.run("bcc")).isTrue();
+            assertThat(cached.run("bbc")).isFalse();
+
+            cache.clear();
+        }finally{
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testCreateMinimalFromInvalidModel() throws IOException{
+        Path directory = Files.createTempDirectory("automata");
+        Path model = Paths.get("src/test/resources/fa/invalid/UnknownOutgoingTransitionState.fa");
+
+        try{
+            AutomatonDiskCache cache = new AutomatonDiskCache(directory);
+            try{
+                FiniteAutomatonCreator.createMinimalFrom(model, cache);
+                fail("The model is invalid");
+            }catch(IllegalArgumentException e){
+                assertThat(e.getMessage()).contains(String.format(TransitionStatesExist.ERROR_MESSAGE, "B"));
+            }
+            assertThat(cache.contains(FiniteAutomatonCreator.CACHE_NAMESPACE, new String(Files.readAllBytes(model), "UTF-8"))).isFalse();
+        }finally{
+            Files.delete(directory);
+        }
+    }
+
     @Test
     public void testGetRealThis(){
         FiniteAutomatonCreator creator = new FiniteAutomatonCreator();
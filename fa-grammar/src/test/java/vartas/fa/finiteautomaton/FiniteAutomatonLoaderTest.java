@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.finiteautomaton;
+
+import de.monticore.io.paths.ModelPath;
+import de.se_rwth.commons.logging.Finding;
+import de.se_rwth.commons.logging.Log;
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.AbstractTest;
+import vartas.fa.finiteautomaton._cocos.HasFinalStateCoCo;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FiniteAutomatonLoaderTest extends AbstractTest {
+    FiniteAutomatonLoader loader;
+
+    @Before
+    public void setUp(){
+        Log.getFindings().clear();
+        loader = new FiniteAutomatonLoader(4);
+    }
+
+    @Test
+    public void testLoadValidModels() throws IOException{
+        FiniteAutomatonRegistry registry = loader.load(new ModelPath(Paths.get(EXAMPLES_PATH, "valid")));
+
+        assertThat(registry.getNames()).containsExactly("SelfLoop", "Simple", "WithLoop");
+        assertThat(registry.getErrors()).isEmpty();
+        assertThat(registry.get("Simple")).isPresent();
+        assertThat(registry.get("Unknown")).isEmpty();
+        assertThat(registry.getElapsedTime(TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(registry.getTime(FiniteAutomatonLoader.Phase.PARSE, TimeUnit.NANOSECONDS)).isPositive();
+        assertThat(registry.getTime(FiniteAutomatonLoader.Phase.CREATE, TimeUnit.NANOSECONDS)).isPositive();
+        checkForFindings();
+    }
+
+    @Test
+    public void testLoadInvalidModels() throws IOException{
+        FiniteAutomatonRegistry registry = loader.load(new ModelPath(Paths.get(EXAMPLES_PATH, "invalid")));
+
+        assertThat(registry.size()).isEqualTo(0);
+        assertThat(registry.getErrors()).hasSize(9);
+        assertThat(registry.getErrors().get("NoFinalState")).containsExactly(HasFinalStateCoCo.ERROR_MESSAGE);
+        assertThat(Log.getFindings()).isNotEmpty();
+    }
+
+    @Test
+    public void testLoadNestedModels() throws IOException{
+        Path directory = Files.createTempDirectory("models");
+        Path nested = Files.createDirectory(directory.resolve("nested"));
+        Path valid = nested.resolve("Valid.fa");
+        Path invalid = directory.resolve("Invalid.fa");
+
+        try{
+            Files.write(valid, "automaton Valid{ state A <<initial>> <<final>>; A - 'a' > A; }".getBytes("UTF-8"));
+            Files.write(invalid, "automaton Invalid{ state A".getBytes("UTF-8"));
+
+            FiniteAutomatonRegistry registry = new FiniteAutomatonLoader(1).load(new ModelPath(directory));
+
+            assertThat(registry.getNames()).containsExactly("nested.Valid");
+            assertThat(registry.get("nested.Valid").get().run("aa")).isTrue();
+            assertThat(registry.getErrors().keySet()).containsExactly("Invalid");
+        }finally{
+            Files.delete(valid);
+            Files.delete(invalid);
+            Files.delete(nested);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testLoadRejectedModel() throws IOException{
+        Path directory = Files.createTempDirectory("models");
+        Path valid = directory.resolve("Valid.fa");
+        Path rejected = directory.resolve("Rejected.fa");
+
+        try{
+            Files.write(valid, "automaton Valid{ state A <<initial>> <<final>>; A -['a'-'z','x']> A; }".getBytes("UTF-8"));
+            //Satisfies all context conditions, but the builder rejects the duplicate transition
+            Files.write(rejected, "automaton Rejected{ state A <<initial>> <<final>>; A - 'a' > A; A - 'a' > A; }".getBytes("UTF-8"));
+
+            FiniteAutomatonRegistry registry = new FiniteAutomatonLoader(2).load(new ModelPath(directory));
+
+            assertThat(registry.getNames()).containsExactly("Valid");
+            assertThat(registry.get("Valid").get().run("xa")).isTrue();
+            assertThat(registry.getErrors().keySet()).containsExactly("Rejected");
+            assertThat(registry.getErrors().get("Rejected").get(0)).startsWith(String.format(FiniteAutomatonLoader.CREATE_ERROR_MESSAGE, rejected, ""));
+        }finally{
+            Files.delete(valid);
+            Files.delete(rejected);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testLoadModelsWithSyntaxErrors() throws IOException{
+        Path directory = Files.createTempDirectory("models");
+        List<Path> models = new ArrayList<>();
+
+        try{
+            models.add(Files.write(directory.resolve("Valid.fa"), "automaton Valid{ state A <<initial>> <<final>>; A - 'a' > A; }".getBytes("UTF-8")));
+            for(int i = 0 ; i < 16 ; ++i)
+                models.add(Files.write(directory.resolve("Invalid" + i + ".fa"), "automaton Invalid{ state A".getBytes("UTF-8")));
+
+            FiniteAutomatonRegistry registry = new FiniteAutomatonLoader(4).load(new ModelPath(directory));
+
+            assertThat(registry.getNames()).containsExactly("Valid");
+            assertThat(registry.getErrors()).hasSize(16);
+
+            List<String> errors = new ArrayList<>();
+            for(List<String> messages : registry.getErrors().values()){
+                //The syntax errors of the parser precede the error of the loader
+                assertThat(messages.size()).isGreaterThan(1);
+                errors.addAll(messages);
+            }
+            assertThat(Log.getFindings().stream().map(Finding::getMsg).collect(Collectors.toList())).containsExactlyElementsOf(errors);
+        }finally{
+            for(Path model : models)
+                Files.delete(model);
+            Files.delete(directory);
+        }
+    }
+
+    @Test
+    public void testParseWithFailQuick() throws IOException{
+        Path model = Files.createTempFile("Invalid", ".fa");
+        Log.enableFailQuick(true);
+
+        try{
+            Files.write(model, "automaton Invalid{ state A".getBytes("UTF-8"));
+            List<String> errors = new ArrayList<>();
+
+            assertThat(loader.parse(model, errors)).isEmpty();
+            assertThat(errors).isNotEmpty();
+            assertThat(Log.isFailQuickEnabled()).isTrue();
+            assertThat(Log.getFindings()).isEmpty();
+        }finally{
+            Log.enableFailQuick(false);
+            Files.delete(model);
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidParallelism(){
+        new FiniteAutomatonLoader(0);
+    }
+}
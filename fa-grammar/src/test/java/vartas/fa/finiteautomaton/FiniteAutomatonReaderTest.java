@@ -0,0 +1,178 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.finiteautomaton;
+
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.FiniteAutomaton;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Paths;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FiniteAutomatonReaderTest {
+    String modelPath = "src/test/resources/fa/created/";
+
+    protected FiniteAutomaton read(String fileName) throws IOException{
+        return FiniteAutomatonReader.read(Paths.get(modelPath, fileName));
+    }
+
+    @Test
+    public void testSimple() throws IOException{
+        //L = a*
+        FiniteAutomaton fa = read("Loop.fa");
+        assertThat(fa.run("")).isTrue();
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("aa")).isTrue();
+        assertThat(fa.run("b")).isFalse();
+        assertThat(fa.run("ab")).isFalse();
+    }
+
+    @Test
+    public void testEpsilon() throws IOException{
+        //L = ab
+        FiniteAutomaton fa = read("Epsilon.fa");
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isFalse();
+        assertThat(fa.run("ab")).isTrue();
+        assertThat(fa.run("aba")).isFalse();
+    }
+
+    @Test
+    public void testDefault() throws IOException{
+        //L = a + _c*
+        FiniteAutomaton fa = read("Default.fa");
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("aa")).isFalse();
+        assertThat(fa.run("b")).isTrue();
+        assertThat(fa.run("bcc")).isTrue();
+        assertThat(fa.run("bbc")).isFalse();
+    }
+
+    @Test
+    public void testRange() throws IOException{
+        //L = [a-z_][a-z0-9_]*
+        FiniteAutomaton fa = read("Range.fa");
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("name_42")).isTrue();
+        assertThat(fa.run("9a")).isFalse();
+
+        FiniteAutomaton dfa = FiniteAutomatonReader.readDeterministic(Paths.get(modelPath, "Range.fa"));
+        assertThat(dfa.run("name_42")).isTrue();
+        assertThat(dfa.run("aB")).isFalse();
+    }
+
+    @Test
+    public void testOverlappingRange() throws IOException{
+        //L = [a-z0-9]
+        FiniteAutomaton fa = read("OverlappingRange.fa");
+        assertThat(fa.run("x")).isTrue();
+        assertThat(fa.run("4")).isTrue();
+        assertThat(fa.run("A")).isFalse();
+
+        FiniteAutomaton dfa = FiniteAutomatonReader.readDeterministic(Paths.get(modelPath, "OverlappingRange.fa"));
+        assertThat(dfa.run("x")).isTrue();
+        assertThat(dfa.run("4")).isTrue();
+        assertThat(dfa.run("xx")).isFalse();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testEmptyRange() throws IOException{
+        FiniteAutomatonReader.read(new StringReader("automaton Empty{ state A <<initial>>; A -['z'-'a']> A; }"));
+    }
+
+    @Test
+    public void testReadDeterministic() throws IOException{
+        DeterministicFiniteDefaultAutomaton fa = FiniteAutomatonReader.readDeterministic(new StringReader(
+                "automaton Deterministic{ state A <<initial>>; state B <<final>>; A - 'a' > B; A *> A; }"
+        ));
+
+        //L = _*a
+        assertThat(fa.getInitialState().getName()).isEqualTo("A");
+        assertThat(fa.getStates()).hasSize(2);
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("bca")).isTrue();
+        assertThat(fa.run("ab")).isFalse();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testReadDeterministicEpsilon() throws IOException{
+        FiniteAutomatonReader.readDeterministic(Paths.get(modelPath, "Epsilon.fa"));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testReadDeterministicDuplicateTransition() throws IOException{
+        FiniteAutomatonReader.readDeterministic(new StringReader(
+                "automaton Duplicate{ state A <<initial>>; state B; A - 'a' > A; A - 'a' > B; }"
+        ));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testReadDeterministicTwoInitialStates() throws IOException{
+        FiniteAutomatonReader.readDeterministic(new StringReader(
+                "automaton Initial{ state A <<initial>>; state B <<initial>>; }"
+        ));
+    }
+
+    @Test
+    public void testCommentsAndEscapes() throws IOException{
+        FiniteAutomaton fa = FiniteAutomatonReader.read(new StringReader(
+                "automaton Escapes{\n" +
+                "    // A single state\n" +
+                "    state A <<initial>><<final>>;\n" +
+                "    /* A line break, an A and a B\n */\n" +
+                "    A - '\\n' > A;\n" +
+                "    A - '\\u0041' > A;\n" +
+                "    A - '\\102' > A;\n" +
+                "}"
+        ));
+
+        assertThat(fa.run("")).isTrue();
+        assertThat(fa.run("\nAB\n")).isTrue();
+        assertThat(fa.run("a")).isFalse();
+    }
+
+    @Test
+    public void testUndeclaredState() throws IOException{
+        FiniteAutomaton fa = FiniteAutomatonReader.read(new StringReader(
+                "automaton Forward{ A - 'a' > B; state A <<initial>>; state B <<final>>; }"
+        ));
+
+        assertThat(fa.run("a")).isTrue();
+        //The new initial state and A and B
+        assertThat(fa.getStates()).hasSize(3);
+    }
+
+    @Test(expected=IOException.class)
+    public void testMissingSemicolon() throws IOException{
+        FiniteAutomatonReader.read(new StringReader("automaton Invalid{ state A <<initial>> }"));
+    }
+
+    @Test(expected=IOException.class)
+    public void testKeywordAsName() throws IOException{
+        FiniteAutomatonReader.read(new StringReader("automaton Invalid{ state final; }"));
+    }
+
+    @Test(expected=IOException.class)
+    public void testUnterminatedLiteral() throws IOException{
+        FiniteAutomatonReader.read(new StringReader("automaton Invalid{ state A; A - 'a > A; }"));
+    }
+}
@@ -17,12 +17,19 @@
 
 package vartas.fa.finiteautomaton._cocos;
 
+import de.se_rwth.commons.logging.Finding;
 import de.se_rwth.commons.logging.Log;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 import vartas.fa.AbstractTest;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class CoCoTest extends AbstractTest {
     FiniteAutomatonCoCoChecker checker;
 
@@ -100,6 +107,15 @@ public class CoCoTest extends AbstractTest {
 
     }
     @Test
+    public void testEmptyRange(){
+        checker.addCoCo(new CharRangesAreNotEmptyCoCo());
+        ASTFiniteAutomaton automaton = parseInvalidModel("EmptyRange");
+
+        checker.checkAll(automaton);
+
+        checkForFindings(String.format(CharRangesAreNotEmptyCoCo.ERROR_MESSAGE,'z','a'));
+    }
+    @Test
     public void testSelfLoop(){
         checker = FiniteAutomatonCoCos.getCheckerForAllCoCos();
         ASTFiniteAutomaton automaton = parseValidModel("SelfLoop");
@@ -128,4 +144,79 @@ public class CoCoTest extends AbstractTest {
 
         checkForFindings();
     }
-}
\ No newline at end of file
+
+    /**
+     * @return all models with and without errors.
+     */
+    private List<ASTFiniteAutomaton> parseAllModels(){
+        List<ASTFiniteAutomaton> automata = new ArrayList<>();
+        for(String model : Arrays.asList("DuplicateStates", "EmptyRange", "NoFinalState", "NoInitialState", "TwoInitialStates", "UnknownIncomingTransitionState", "UnknownOutgoingTransitionState", "UnknownStatesAndEmptyRanges", "UnreachableStates"))
+            automata.add(parseInvalidModel(model));
+        for(String model : Arrays.asList("SelfLoop", "Simple", "WithLoop"))
+            automata.add(parseValidModel(model));
+        return automata;
+    }
+
+    /**
+     * @return the current findings, which are removed from the log.
+     */
+    private List<Finding> pollFindings(){
+        List<Finding> findings = new ArrayList<>(Log.getFindings());
+        Log.getFindings().clear();
+        return findings;
+    }
+
+    @Test
+    public void testIndexChecker(){
+        for(ASTFiniteAutomaton automaton : parseAllModels()){
+            FiniteAutomatonCoCos.getCheckerForAllCoCos().checkAll(automaton);
+            List<Finding> expected = pollFindings();
+
+            FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().checkAll(automaton);
+            assertThat(pollFindings()).containsExactlyElementsOf(expected);
+
+            FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().setParallel(true).checkAll(automaton);
+            assertThat(pollFindings()).containsExactlyElementsOf(expected);
+        }
+    }
+
+    @Test
+    public void testIndexCheckerTransitionOrder(){
+        ASTFiniteAutomaton automaton = parseInvalidModel("UnknownStatesAndEmptyRanges");
+
+        FiniteAutomatonCoCos.getCheckerForAllCoCos().checkAll(automaton);
+        List<Finding> expected = pollFindings();
+
+        FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().setParallel(true).checkAll(automaton);
+        assertThat(pollFindings()).containsExactlyElementsOf(expected);
+
+        assertThat(FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().check(automaton)).containsExactly(
+                String.format(TransitionStatesExist.ERROR_MESSAGE, "B"),
+                String.format(CharRangesAreNotEmptyCoCo.ERROR_MESSAGE, 'z', 'a'),
+                String.format(TransitionStatesExist.ERROR_MESSAGE, "C"),
+                String.format(CharRangesAreNotEmptyCoCo.ERROR_MESSAGE, 'y', 'b')
+        );
+    }
+
+    @Test
+    public void testIndexCheckerBatch(){
+        List<ASTFiniteAutomaton> automata = parseAllModels();
+
+        for(ASTFiniteAutomaton automaton : automata)
+            FiniteAutomatonCoCos.getCheckerForAllCoCos().checkAll(automaton);
+        List<Finding> expected = pollFindings();
+
+        FiniteAutomatonCoCos.getIndexCheckerForAllCoCos().setParallel(true).checkAll(automata);
+        assertThat(pollFindings()).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    public void testIndexCheckerWithoutLogging(){
+        FiniteAutomatonIndexChecker indexChecker = new FiniteAutomatonIndexChecker().addCoCo(new AllStatesAreReachableCoCo());
+
+        List<String> errors = indexChecker.check(parseInvalidModel("UnreachableStates"));
+
+        assertThat(errors).containsExactly(String.format(AllStatesAreReachableCoCo.ERROR_MESSAGE, "C"));
+        checkForFindings();
+    }
+}
@@ -22,6 +22,10 @@ import org.junit.Test;
 import vartas.fa.AbstractTest;
 import vartas.fa.finiteautomaton._ast.ASTFiniteAutomaton;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 import static org.assertj.core.api.Assertions.assertThat;
 
 public class StateVisitorTest extends AbstractTest {
@@ -49,4 +53,28 @@ public class StateVisitorTest extends AbstractTest {
         assertThat(visitor.visitedStates).hasSize(1);
         assertThat(visitor.visitedStates.iterator().next().getName()).isEqualTo("A");
     }
+    @Test
+    public void testVisitedLongChain() throws IOException{
+        //A recursive traversal would overflow the stack
+        int size = 50000;
+        StringBuilder model = new StringBuilder("automaton Chain{\n    state S0 <<initial>>;\n");
+        for(int i = 1 ; i < size ; ++i)
+            model.append("    state S").append(i).append(";\n");
+        for(int i = 1 ; i < size ; ++i)
+            model.append("    S").append(i - 1).append(" -> S").append(i).append(";\n");
+        model.append("}");
+
+        Path directory = Files.createTempDirectory("fa");
+        Path file = directory.resolve("Chain.fa");
+        Files.write(file, model.toString().getBytes());
+
+        try{
+            visitor.handle(parseModel(directory.toString(), "Chain"));
+        }finally{
+            Files.delete(file);
+            Files.delete(directory);
+        }
+
+        assertThat(visitor.visitedStates).hasSize(size);
+    }
 }
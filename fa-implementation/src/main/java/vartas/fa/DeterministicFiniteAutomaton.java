@@ -19,6 +19,10 @@ package vartas.fa;
 
 import com.google.common.collect.Table;
 import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+import vartas.fa.transformations.Canonicalize;
+import vartas.fa.transformations.Compile;
+import vartas.fa.transformations.Count;
+import vartas.fa.transformations.Equivalence;
 import vartas.fa.transformations.Minimize;
 import vartas.fa.transformations.Reverse;
 
@@ -27,11 +31,11 @@ import java.util.Set;
 /**
  * This class implements a deterministic finite automaton.
  */
-public class DeterministicFiniteAutomaton extends FiniteAutomaton implements Reverse, Minimize {
+public class DeterministicFiniteAutomaton extends FiniteAutomaton implements Reverse, Minimize, Equivalence, Count, Compile, Canonicalize {
     /**
      * The underlying transition table.
      */
-    protected Table<State,Character,State> transitions;
+    protected final Table<State,Character,State> transitions;
     /**
      * The builder that is responsible for creating the reverse language.
      */
@@ -55,7 +59,10 @@ public class DeterministicFiniteAutomaton extends FiniteAutomaton implements Rev
     public boolean run(String word){
         State currentState = initialState;
 
-        for(int i = 0 ; i < word.length() && hasNext(currentState, word.charAt(i)); ++i) {
+        for(int i = 0 ; i < word.length() ; ++i) {
+            //Reject the word if there is no transition for the remaining letters
+            if(!hasNext(currentState, word.charAt(i)))
+                return false;
             currentState = step(currentState, word.charAt(i));
         }
 
@@ -70,6 +77,15 @@ public class DeterministicFiniteAutomaton extends FiniteAutomaton implements Rev
     public State step(State state, char label){
         return transitions.get(state, label);
     }
+    /**
+     * Executes a single step over a letter that doesn't have an explicit transition.
+     * @param state the current state.
+     * @return the state that is reached via such a letter, or null if those letters are rejected.
+     */
+    public State stepDefault(State state){
+        return null;
+    }
+
     /**
      * @param state the current state.
      * @param label the letter that has been read.
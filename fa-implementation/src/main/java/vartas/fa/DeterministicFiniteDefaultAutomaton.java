@@ -38,7 +38,7 @@ public class DeterministicFiniteDefaultAutomaton extends DeterministicFiniteAuto
     /**
      * All default transitions.
      */
-    protected Map<State, State> defaults;
+    protected final Map<State, State> defaults;
     /**
      * Creates a new instance of a DFA  with default transitions.
      * @param initialState the initial state.
@@ -65,6 +65,15 @@ public class DeterministicFiniteDefaultAutomaton extends DeterministicFiniteAuto
         else
             return defaults.get(state);
     }
+    /**
+     * @param state the current state.
+     * @return the target of the default transition, or null if the state doesn't have one.
+     */
+    @Override
+    public State stepDefault(State state){
+        return defaults.get(state);
+    }
+
     /**
      * Unlike its parent, there is a successor is either a transition is present or if a default transition is present.
      * @param state the current state.
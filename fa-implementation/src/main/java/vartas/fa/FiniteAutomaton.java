@@ -30,7 +30,7 @@ public abstract class FiniteAutomaton{
     /**
      * All states in the automaton.
      */
-    protected Set<State> states;
+    protected final Set<State> states;
     /**
      * Creates a new instance of the finite automaton.
      * @param initialState the initial state.
@@ -58,4 +58,23 @@ public abstract class FiniteAutomaton{
     public State getInitialState(){
         return initialState;
     }
+    /**
+     * Picks a letter that is covered by a default transition, e.g. when a word is built from the transitions.
+     * Prefers lowercase letters and digits, so that the resulting words remain readable.
+     * @param labels all letters with an explicit transition.
+     * @return a letter that isn't contained in the labels.
+     */
+    public static char getOtherLabel(Set<Character> labels){
+        for(char label = 'a' ; label <= 'z' ; ++label)
+            if(!labels.contains(label))
+                return label;
+        for(char label = '0' ; label <= '9' ; ++label)
+            if(!labels.contains(label))
+                return label;
+
+        char label = Character.MIN_VALUE;
+        while(labels.contains(label))
+            ++label;
+        return label;
+    }
 }
\ No newline at end of file
@@ -20,7 +20,10 @@ package vartas.fa;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Table;
 import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
-import vartas.fa.transformations.PowerSet;
+import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+import vartas.fa.transformations.Determinize;
+import vartas.fa.transformations.Inclusion;
+import vartas.fa.transformations.RemoveEpsilon;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -28,19 +31,23 @@ import java.util.stream.Collectors;
 /**
  * This class implements a nondeterministic finite automaton.
  */
-public class NondeterministicFiniteAutomaton extends FiniteAutomaton implements PowerSet {
+public class NondeterministicFiniteAutomaton extends FiniteAutomaton implements Determinize, RemoveEpsilon, Inclusion {
     /**
      * The underlying transition table.
      */
-    protected Table<State,Character,Collection<State>> transitions;
+    protected final Table<State,Character,Collection<State>> transitions;
     /**
      * All epsilon transitions
      */
-    protected Multimap<State, State> epsilonTransitions;
+    protected final Multimap<State, State> epsilonTransitions;
     /**
      * The builder that is responsible for creating the powerset.
      */
     private DeterministicFiniteAutomatonBuilder builder;
+    /**
+     * The builder that is responsible for creating the automaton without epsilon transitions.
+     */
+    private NondeterministicFiniteAutomatonBuilder epsilonFreeBuilder;
     /**
      * Creates a new instance of an NFA.
      * @param initialState the initial state.
@@ -53,6 +60,7 @@ public class NondeterministicFiniteAutomaton extends FiniteAutomaton implements
         this.transitions = transitions;
         this.epsilonTransitions = epsilonTransitions;
         this.builder = new DeterministicFiniteAutomatonBuilder();
+        this.epsilonFreeBuilder = new NondeterministicFiniteAutomatonBuilder();
     }
     /**
      * Lets the word on this automaton.
@@ -138,4 +146,11 @@ public class NondeterministicFiniteAutomaton extends FiniteAutomaton implements
     public DeterministicFiniteAutomatonBuilder getPowerSetBuilder() {
         return builder;
     }
+    /**
+     * @return the builder that is responsible for creating the automaton without epsilon transitions.
+     */
+    @Override
+    public NondeterministicFiniteAutomatonBuilder getEpsilonFreeBuilder() {
+        return epsilonFreeBuilder;
+    }
 }
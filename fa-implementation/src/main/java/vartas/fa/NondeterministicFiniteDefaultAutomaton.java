@@ -20,7 +20,9 @@ package vartas.fa;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Table;
 import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
-import vartas.fa.transformations.PowerSetDefault;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.transformations.DeterminizeDefault;
+import vartas.fa.transformations.RemoveEpsilonDefault;
 
 import java.util.*;
 
@@ -29,15 +31,19 @@ import java.util.*;
  * In each individual state, a default transition is taken whenever there is no other matching transition.
  * The current label is consumed in the process.
  */
-public class NondeterministicFiniteDefaultAutomaton extends NondeterministicFiniteAutomaton implements PowerSetDefault {
+public class NondeterministicFiniteDefaultAutomaton extends NondeterministicFiniteAutomaton implements DeterminizeDefault, RemoveEpsilonDefault {
     /**
      * All default transitions.
      */
-    protected Multimap<State, State> defaultTransitions;
+    protected final Multimap<State, State> defaultTransitions;
     /**
      * The builder that is responsible for creating the powerset.
      */
     private DeterministicFiniteDefaultAutomatonBuilder powerSetBuilder;
+    /**
+     * The builder that is responsible for creating the automaton without epsilon transitions.
+     */
+    private NondeterministicFiniteDefaultAutomatonBuilder epsilonFreeBuilder;
     /**
      * Creates a new instance of an NFA with wildcards.
      * @param initialState the initial state.
@@ -50,6 +56,7 @@ public class NondeterministicFiniteDefaultAutomaton extends NondeterministicFini
         super(initialState, states, transitions, epsilonTransitions);
         this.defaultTransitions = defaultTransitions;
         this.powerSetBuilder = new DeterministicFiniteDefaultAutomatonBuilder();
+        this.epsilonFreeBuilder = new NondeterministicFiniteDefaultAutomatonBuilder();
     }
     /**
      * Executes a single step in the automaton.
@@ -90,4 +97,11 @@ public class NondeterministicFiniteDefaultAutomaton extends NondeterministicFini
     public DeterministicFiniteDefaultAutomatonBuilder getPowerSetBuilder() {
         return powerSetBuilder;
     }
+    /**
+     * @return the builder that is responsible for creating the automaton without epsilon transitions.
+     */
+    @Override
+    public NondeterministicFiniteDefaultAutomatonBuilder getEpsilonFreeBuilder() {
+        return epsilonFreeBuilder;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,373 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.*;
+
+/**
+ * This class implements the product of two DFAs, which is constructed lazily.
+ * Every state is a pair of states in both automata, which is only created once it is reached by an input word.
+ * If one of the automata rejects a letter, its component is replaced by a non-final sink state.
+ * Letters that have no explicit transition in either automaton are treated as a single "other" letter,
+ * which follows the default transitions.
+ * Since the memoization modifies the automaton, all runs are synchronized.
+ */
+public class ProductAutomaton extends FiniteAutomaton {
+    /**
+     * The boolean operations that can be applied to the languages of two DFAs.
+     */
+    public enum Operation{
+        /**
+         * Accepts all words that are accepted by both automata.
+         */
+        INTERSECTION{
+            @Override
+            public boolean isFinal(boolean left, boolean right){
+                return left && right;
+            }
+        },
+        /**
+         * Accepts all words that are accepted by at least one automaton.
+         */
+        UNION{
+            @Override
+            public boolean isFinal(boolean left, boolean right){
+                return left || right;
+            }
+        },
+        /**
+         * Accepts all words that are accepted by the left but not the right automaton.
+         */
+        DIFFERENCE{
+            @Override
+            public boolean isFinal(boolean left, boolean right){
+                return left && !right;
+            }
+        },
+        /**
+         * Accepts all words that are accepted by exactly one automaton.
+         */
+        SYMMETRIC_DIFFERENCE{
+            @Override
+            public boolean isFinal(boolean left, boolean right){
+                return left != right;
+            }
+        };
+
+        /**
+         * @param left true if the state in the left automaton is final.
+         * @param right true if the state in the right automaton is final.
+         * @return true if the pair of both states is final.
+         */
+        public abstract boolean isFinal(boolean left, boolean right);
+    }
+    /**
+     * The left operand.
+     */
+    protected DeterministicFiniteAutomaton left;
+    /**
+     * The right operand.
+     */
+    protected DeterministicFiniteAutomaton right;
+    /**
+     * The operation that is applied to both languages.
+     */
+    protected Operation operation;
+    /**
+     * The state that replaces a component once its automaton rejects the input.
+     */
+    protected State sink;
+    /**
+     * A table that relates every pair of states in the operands to their state in the product.
+     */
+    protected Table<State, State, State> pairs;
+    /**
+     * A map that relates every state in the product to its state in the left operand.
+     */
+    protected Map<State, State> leftStates;
+    /**
+     * A map that relates every state in the product to its state in the right operand.
+     */
+    protected Map<State, State> rightStates;
+    /**
+     * All transitions that have been computed so far.
+     */
+    protected Table<State, Character, State> transitions;
+
+    /**
+     * Creates a new product automaton.
+     * Initially, only the pair of both initial states exists.
+     * @param left the left operand.
+     * @param right the right operand.
+     * @param operation the operation that is applied to both languages.
+     */
+    public ProductAutomaton(DeterministicFiniteAutomaton left, DeterministicFiniteAutomaton right, Operation operation){
+        super(null, new HashSet<>());
+        this.left = left;
+        this.right = right;
+        this.operation = operation;
+        this.sink = new State();
+        this.pairs = HashBasedTable.create();
+        this.leftStates = new HashMap<>();
+        this.rightStates = new HashMap<>();
+        this.transitions = HashBasedTable.create();
+        this.initialState = pair(left.getInitialState(), right.getInitialState());
+        this.initialState.setInitial(true);
+    }
+
+    /**
+     * Lets the word on this automaton.
+     * The run is aborted once the reached pair can no longer accept any words.
+     * @param word the input word.
+     * @return true, if the word is accepted by the automaton.
+     */
+    @Override
+    public synchronized boolean run(String word){
+        State currentState = initialState;
+
+        for(int i = 0 ; i < word.length() && !isEmpty(currentState) ; ++i)
+            currentState = step(currentState, word.charAt(i));
+
+        return currentState.isFinal();
+    }
+
+    /**
+     * Executes a single step in both operands.
+     * The successor is only computed if the transition hasn't been used before.
+     * @param state the current state.
+     * @param label the letter that has been read.
+     * @return the pair of states that is reached in both operands.
+     */
+    public synchronized State step(State state, char label){
+        State next = transitions.get(state, label);
+
+        if(next == null){
+            next = pair(step(left, leftStates.get(state), label), step(right, rightStates.get(state), label));
+            transitions.put(state, label, next);
+        }
+
+        return next;
+    }
+
+    /**
+     * @param state the current state.
+     * @return the pair of states that is reached via a letter without an explicit transition in either operand.
+     */
+    public synchronized State stepDefault(State state){
+        return pair(stepDefault(left, leftStates.get(state)), stepDefault(right, rightStates.get(state)));
+    }
+
+    /**
+     * @param dfa one of the operands.
+     * @param state the current state in the operand.
+     * @param label the letter that has been read.
+     * @return the successor in the operand or the sink, if the operand rejects the letter.
+     */
+    private State step(DeterministicFiniteAutomaton dfa, State state, char label){
+        if(state == sink)
+            return sink;
+
+        State next = dfa.step(state, label);
+        return next == null ? sink : next;
+    }
+
+    /**
+     * @param dfa one of the operands.
+     * @param state the current state in the operand.
+     * @return the target of the default transition in the operand or the sink, if there is none.
+     */
+    private State stepDefault(DeterministicFiniteAutomaton dfa, State state){
+        if(state == sink)
+            return sink;
+
+        State next = dfa.stepDefault(state);
+        return next == null ? sink : next;
+    }
+
+    /**
+     * An operand in its sink will never accept again, while any other state may still reach a final state.
+     * The pair is empty if the operation can't be satisfied under those restrictions.
+     * @param state a state in the product.
+     * @return true if the state doesn't accept any words.
+     */
+    protected boolean isEmpty(State state){
+        boolean leftAlive = leftStates.get(state) != sink;
+        boolean rightAlive = rightStates.get(state) != sink;
+
+        return !operation.isFinal(leftAlive, rightAlive)
+            && !operation.isFinal(leftAlive, false)
+            && !operation.isFinal(false, rightAlive)
+            && !operation.isFinal(false, false);
+    }
+
+    /**
+     * @param leftState a state in the left operand.
+     * @param rightState a state in the right operand.
+     * @return the state of the pair in the product, which is created if it doesn't exist yet.
+     */
+    protected State pair(State leftState, State rightState){
+        State state = pairs.get(leftState, rightState);
+
+        if(state == null){
+            state = new State();
+            state.setFinal(operation.isFinal(leftState.isFinal(), rightState.isFinal()));
+            states.add(state);
+            pairs.put(leftState, rightState, state);
+            leftStates.put(state, leftState);
+            rightStates.put(state, rightState);
+        }
+
+        return state;
+    }
+
+    /**
+     * Only the letters with an explicit transition in at least one of the operands have to be considered,
+     * all other letters follow the default transitions.
+     * @param state a state in the product.
+     * @return all letters that have an explicit transition in at least one operand.
+     */
+    protected SortedSet<Character> getLabels(State state){
+        SortedSet<Character> labels = new TreeSet<>();
+
+        if(leftStates.get(state) != sink)
+            labels.addAll(left.getTransitions().row(leftStates.get(state)).keySet());
+        if(rightStates.get(state) != sink)
+            labels.addAll(right.getTransitions().row(rightStates.get(state)).keySet());
+
+        return labels;
+    }
+
+    /**
+     * Searches the pairs in breadth-first order, hence the first final pair is reached via a shortest word.
+     * The "other" letter is represented by the first letter that doesn't have an explicit transition.
+     * @return a shortest word accepted by this automaton, if the language isn't empty.
+     */
+    public synchronized Optional<String> findShortestWord(){
+        Map<State, State> predecessors = new HashMap<>();
+        Map<State, Character> labels = new HashMap<>();
+        Deque<State> remaining = new ArrayDeque<>();
+
+        predecessors.put(initialState, initialState);
+        remaining.add(initialState);
+
+        while(!remaining.isEmpty()){
+            State current = remaining.pop();
+
+            if(current.isFinal()){
+                StringBuilder word = new StringBuilder();
+                for(State state = current ; state != initialState ; state = predecessors.get(state))
+                    word.append(labels.get(state));
+                return Optional.of(word.reverse().toString());
+            }
+
+            if(isEmpty(current))
+                continue;
+
+            SortedSet<Character> explicitLabels = getLabels(current);
+            Map<State, Character> successors = new LinkedHashMap<>();
+            for(char label : explicitLabels)
+                successors.putIfAbsent(step(current, label), label);
+            successors.putIfAbsent(stepDefault(current), getOtherLabel(explicitLabels));
+
+            for(Map.Entry<State, Character> entry : successors.entrySet()){
+                if(!predecessors.containsKey(entry.getKey())){
+                    predecessors.put(entry.getKey(), current);
+                    labels.put(entry.getKey(), entry.getValue());
+                    remaining.add(entry.getKey());
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Computes all pairs that are reachable from the initial state.
+     * Transitions into pairs that don't accept any words are omitted, as are transitions that lead to the
+     * same pair as the default transition.
+     * @return a DFA accepting the same language.
+     */
+    public synchronized DeterministicFiniteDefaultAutomaton materialize(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        Map<State, State> dfaStates = new HashMap<>();
+        Deque<State> remaining = new ArrayDeque<>();
+
+        State dfaInitialState = builder.addInitialState();
+        dfaInitialState.setFinal(initialState.isFinal());
+        dfaStates.put(initialState, dfaInitialState);
+        remaining.add(initialState);
+
+        while(!remaining.isEmpty()){
+            State current = remaining.pop();
+            State from = dfaStates.get(current);
+
+            State defaultState = stepDefault(current);
+
+            for(char label : getLabels(current)){
+                State next = step(current, label);
+                if(!isEmpty(next) && next != defaultState)
+                    builder.addTransition(from, label, dfaState(builder, dfaStates, remaining, next));
+            }
+
+            if(!isEmpty(defaultState))
+                builder.addDefaultTransition(from, dfaState(builder, dfaStates, remaining, defaultState));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the state in the resulting DFA for the given pair, creating it if it doesn't exist.
+     * @param builder the builder of the DFA.
+     * @param dfaStates a map relating pairs to their state in the DFA.
+     * @param remaining all pairs whose transitions have yet to be created.
+     * @param state the pair.
+     * @return the state of the pair in the DFA.
+     */
+    private State dfaState(DeterministicFiniteDefaultAutomatonBuilder builder, Map<State, State> dfaStates, Deque<State> remaining, State state){
+        return dfaStates.computeIfAbsent(state, key -> {
+            remaining.add(key);
+            return key.isFinal() ? builder.addFinalState() : builder.addState();
+        });
+    }
+
+    /**
+     * @return the left operand.
+     */
+    public DeterministicFiniteAutomaton getLeft(){
+        return left;
+    }
+
+    /**
+     * @return the right operand.
+     */
+    public DeterministicFiniteAutomaton getRight(){
+        return right;
+    }
+
+    /**
+     * @return the operation that is applied to both languages.
+     */
+    public Operation getOperation(){
+        return operation;
+    }
+}
@@ -24,6 +24,7 @@ import java.util.Optional;
 /**
  * This class represents a state in the finite automaton.
  * A state can have a name and can both be an initial and final state.
+ * Once the automaton containing the state has been built, the state is frozen and its flags can no longer change.
  */
 public class State {
     /**
@@ -38,6 +39,10 @@ public class State {
      * Indicates whether this is an initial state.
      */
     private boolean isInitial;
+    /**
+     * Indicates whether the flags of this state can no longer be modified.
+     */
+    private boolean isFrozen;
     /**
      * Creates a new nameless state.
      */
@@ -88,22 +93,42 @@ public class State {
         return isInitial;
     }
 
+    /**
+     * @return true if the flags of this state can no longer be modified.
+     */
+    public boolean isFrozen(){
+        return isFrozen;
+    }
+
     /**
      * Sets the flag indicating whether this is a final state.
      * @param isFinal the new flag.
+     * @throws IllegalStateException if this state is frozen.
      */
-    public void setFinal(boolean isFinal){
+    public void setFinal(boolean isFinal) throws IllegalStateException{
+        if(isFrozen)
+            throw new IllegalStateException(String.format("The state %s is frozen", this));
         this.isFinal = isFinal;
     }
 
     /**
      * Sets the flag indicating whether this is an initial state.
      * @param isInitial the new flag.
+     * @throws IllegalStateException if this state is frozen.
      */
-    public void setInitial(boolean isInitial){
+    public void setInitial(boolean isInitial) throws IllegalStateException{
+        if(isFrozen)
+            throw new IllegalStateException(String.format("The state %s is frozen", this));
         this.isInitial = isInitial;
     }
 
+    /**
+     * Prevents any further modifications of the flags. Freezing a state multiple times has no effect.
+     */
+    public void freeze(){
+        isFrozen = true;
+    }
+
     /**
      * @return the name of this state or toString() of the superclass, if this state doesn't have a name.
      */
@@ -18,10 +18,15 @@
 package vartas.fa.builder;
 
 import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
 import vartas.fa.DeterministicFiniteAutomaton;
 import vartas.fa.State;
 
+import java.util.Collection;
+import java.util.List;
+
 /**
  * This builder is used to create instances of DFAs.
  */
@@ -39,28 +44,102 @@ public class DeterministicFiniteAutomatonBuilder extends FiniteAutomatonBuilder{
         transitions = HashBasedTable.create();
     }
 
+    /**
+     * Creates an empty builder with enough capacity for the expected size of the automaton.
+     * @param expectedStates the expected number of states.
+     * @param expectedTransitions the expected number of transitions.
+     * @throws IllegalArgumentException if either of the numbers is negative.
+     */
+    public DeterministicFiniteAutomatonBuilder(int expectedStates, int expectedTransitions) throws IllegalArgumentException{
+        super(expectedStates, expectedTransitions);
+        transitions = HashBasedTable.create(expectedStates, getExpectedTransitionsPerState());
+    }
+
     /**
      * Adds a new transition to the automaton.
+     * In unchecked mode, an existing transition with the same label is replaced.
      * @param from the current state.
      * @param with the label that is read.
      * @param to the next state.
      * @throws IllegalArgumentException if there already is an outgoing transition with the given label.
      */
+    @Override
     public void addTransition(State from, char with, State to) throws IllegalArgumentException{
-        if(transitions.contains(from, with))
+        copyOnWrite();
+        if(checked && transitions.contains(from, with))
             throw new IllegalArgumentException(String.format("There already exists a transition from %s via %s", from, with));
         transitions.put(from, with,to);
     }
 
     /**
-     * @return the created automaton.
+     * Adds a transition for every letter between first and last, both inclusive.
+     * Either all or none of the transitions are added.
+     * @param from the current state.
+     * @param first the first label of the range.
+     * @param last the last label of the range.
+     * @param to the next state.
+     * @throws IllegalArgumentException if the range is empty or there already is an outgoing transition with a
+     * label in the range.
+     */
+    @Override
+    public void addTransitions(State from, char first, char last, State to) throws IllegalArgumentException{
+        if(checked)
+            for(int label = first ; label <= last ; ++label)
+                if(transitions.contains(from, (char)label))
+                    throw new IllegalArgumentException(String.format("There already exists a transition from %s via %s", from, (char)label));
+
+        super.addTransitions(from, first, last, to);
+    }
+
+    /**
+     * Adds a transition for every letter in the union of the ranges.
+     * Either all or none of the transitions are added.
+     * @param from the current state.
+     * @param ranges the first and last label of every range.
+     * @param to the next state.
+     * @throws IllegalArgumentException if a range is empty or there already is an outgoing transition with a
+     * label in one of the ranges.
+     */
+    @Override
+    public void addTransitions(State from, Collection<char[]> ranges, State to) throws IllegalArgumentException{
+        List<char[]> merged = merge(ranges);
+
+        if(checked)
+            for(char[] range : merged)
+                for(int label = range[0] ; label <= range[1] ; ++label)
+                    if(transitions.contains(from, (char)label))
+                        throw new IllegalArgumentException(String.format("There already exists a transition from %s via %s", from, (char)label));
+
+        for(char[] range : merged)
+            super.addTransitions(from, range[0], range[1], to);
+    }
+
+    /**
+     * @return the created automaton, which is immutable.
      * @throws IllegalStateException if the automaton doesn't have an initial state.
      */
     @Override
     public DeterministicFiniteAutomaton build() throws IllegalStateException{
         if(initialState == null)
             throw new IllegalStateException("The automaton doesn't have an initial state");
-        return new DeterministicFiniteAutomaton(initialState, states, transitions);
+        return new DeterministicFiniteAutomaton(initialState, freezeStates(), freezeTransitions());
+    }
+
+    /**
+     * @return an immutable copy or, in zero-copy mode, an unmodifiable view of all transitions.
+     */
+    protected Table<State, Character, State> freezeTransitions(){
+        return zeroCopy ? Tables.unmodifiableTable(transitions) : ImmutableTable.copyOf(transitions);
+    }
+
+    /**
+     * Copies the transitions, if they are shared with an automaton.
+     */
+    @Override
+    protected void copyOnWrite(){
+        if(shared)
+            transitions = HashBasedTable.create(transitions);
+        super.copyOnWrite();
     }
 
     /**
@@ -68,6 +147,6 @@ public class DeterministicFiniteAutomatonBuilder extends FiniteAutomatonBuilder{
      */
     public void clear(){
         super.clear();
-        transitions = HashBasedTable.create();
+        transitions = HashBasedTable.create(expectedStates, getExpectedTransitionsPerState());
     }
 }
@@ -17,9 +17,12 @@
 
 package vartas.fa.builder;
 
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import vartas.fa.DeterministicFiniteDefaultAutomaton;
 import vartas.fa.State;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -40,28 +43,57 @@ public class DeterministicFiniteDefaultAutomatonBuilder extends DeterministicFin
         defaultTransitions = new HashMap<>();
     }
 
+    /**
+     * Creates an empty builder with enough capacity for the expected size of the automaton.
+     * @param expectedStates the expected number of states.
+     * @param expectedTransitions the expected number of transitions, excluding default transitions.
+     * @throws IllegalArgumentException if either of the numbers is negative.
+     */
+    public DeterministicFiniteDefaultAutomatonBuilder(int expectedStates, int expectedTransitions) throws IllegalArgumentException{
+        super(expectedStates, expectedTransitions);
+        defaultTransitions = Maps.newHashMapWithExpectedSize(expectedStates);
+    }
+
     /**
      * Adds a new 'else' transition to the automaton.
+     * In unchecked mode, an existing default transition is replaced.
      * @param from the current state.
      * @param to the next state.
      * @throws IllegalArgumentException if the transitions already exists.
      */
     public void addDefaultTransition(State from, State to){
-        if(defaultTransitions.containsKey(from))
+        copyOnWrite();
+        if(checked && defaultTransitions.containsKey(from))
             throw new IllegalArgumentException(String.format("There already exists a default transition from %s", from));
         defaultTransitions.put(from, to);
-
     }
 
     /**
-     * @return the created automaton.
+     * @return the created automaton, which is immutable.
      * @throws IllegalStateException if the automaton doesn't have an initial state.
      */
     @Override
     public DeterministicFiniteDefaultAutomaton build() throws IllegalStateException{
         if(initialState == null)
             throw new IllegalStateException("The automaton doesn't have an initial state");
-        return new DeterministicFiniteDefaultAutomaton(initialState, states, transitions, defaultTransitions);
+        return new DeterministicFiniteDefaultAutomaton(initialState, freezeStates(), freezeTransitions(), freezeDefaultTransitions());
+    }
+
+    /**
+     * @return an immutable copy or, in zero-copy mode, an unmodifiable view of all default transitions.
+     */
+    protected Map<State, State> freezeDefaultTransitions(){
+        return zeroCopy ? Collections.unmodifiableMap(defaultTransitions) : ImmutableMap.copyOf(defaultTransitions);
+    }
+
+    /**
+     * Copies the default transitions, if they are shared with an automaton.
+     */
+    @Override
+    protected void copyOnWrite(){
+        if(shared)
+            defaultTransitions = new HashMap<>(defaultTransitions);
+        super.copyOnWrite();
     }
 
     /**
@@ -69,6 +101,6 @@ public class DeterministicFiniteDefaultAutomatonBuilder extends DeterministicFin
      */
     public void clear(){
         super.clear();
-        defaultTransitions = new HashMap<>();
+        defaultTransitions = Maps.newHashMapWithExpectedSize(expectedStates);
     }
 }
@@ -17,16 +17,27 @@
 
 package vartas.fa.builder;
 
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
+import com.google.common.collect.Table;
 import vartas.fa.FiniteAutomaton;
 import vartas.fa.State;
 
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
+import java.util.stream.Stream;
 
 /**
  * This class implements the core functionality of the automaton builder.
  * While both the DFA and NFA have different transition tables, both share a set of states with final states
  * and a single initial state, which is provided via this super class.
+ * The automata are immutable: all states are frozen and the transitions are copied into immutable collections.
+ * Hence a built automaton can be shared between threads without any copies or locks, as long as no transformation
+ * is applied to it concurrently. The builder itself may still be modified afterwards.
+ * For very large automata, the copy can be avoided in zero-copy mode, in which the automaton only receives
+ * unmodifiable views of the collections of the builder. The builder then copies its collections before it is
+ * modified again.
+ * For large automata, the expected number of states and transitions can be given in advance, to avoid rehashing,
+ * and the detection of duplicate transitions can be disabled for generators that are known to be correct.
  */
 public abstract class FiniteAutomatonBuilder {
     /**
@@ -37,11 +48,81 @@ public abstract class FiniteAutomatonBuilder {
      * The initial state of the automaton.
      */
     protected State initialState;
+    /**
+     * The expected number of states.
+     */
+    protected int expectedStates;
+    /**
+     * The expected number of labeled transitions.
+     */
+    protected int expectedTransitions;
+    /**
+     * Indicates whether adding an existing transition is rejected.
+     */
+    protected boolean checked;
+    /**
+     * Indicates whether the automaton receives views of the collections of the builder instead of copies.
+     */
+    protected boolean zeroCopy;
+    /**
+     * Indicates whether the collections of the builder are shared with an automaton that has been built.
+     */
+    protected boolean shared;
     /**
      * Creates an empty builder.
      */
     protected FiniteAutomatonBuilder(){
-        states = new HashSet<>();
+        this(0, 0);
+    }
+    /**
+     * Creates an empty builder with enough capacity for the expected size of the automaton.
+     * @param expectedStates the expected number of states.
+     * @param expectedTransitions the expected number of labeled transitions.
+     * @throws IllegalArgumentException if either of the numbers is negative.
+     */
+    protected FiniteAutomatonBuilder(int expectedStates, int expectedTransitions) throws IllegalArgumentException{
+        if(expectedStates < 0 || expectedTransitions < 0)
+            throw new IllegalArgumentException("The expected size must not be negative");
+
+        this.expectedStates = expectedStates;
+        this.expectedTransitions = expectedTransitions;
+        this.checked = true;
+        this.states = Sets.newHashSetWithExpectedSize(expectedStates);
+    }
+    /**
+     * @return the expected number of labeled transitions of every state, rounded up.
+     */
+    protected int getExpectedTransitionsPerState(){
+        return expectedStates == 0 ? 0 : (int)((expectedTransitions + (long)expectedStates - 1) / expectedStates);
+    }
+    /**
+     * In unchecked mode, adding an existing transition isn't detected. Depending on the builder, the transition
+     * is either replaced or merged with the existing one, once the automaton is built.
+     * @param checked true if existing transitions should be rejected.
+     */
+    public void setChecked(boolean checked){
+        this.checked = checked;
+    }
+    /**
+     * @return true if existing transitions are rejected.
+     */
+    public boolean isChecked(){
+        return checked;
+    }
+    /**
+     * In zero-copy mode, the automaton receives unmodifiable views of the collections of the builder instead of
+     * immutable copies. This avoids copying all transitions, but the views are backed by hash tables that are
+     * slower to query than the immutable collections.
+     * @param zeroCopy true if the collections shouldn't be copied when the automaton is built.
+     */
+    public void setZeroCopy(boolean zeroCopy){
+        this.zeroCopy = zeroCopy;
+    }
+    /**
+     * @return true if the collections aren't copied when the automaton is built.
+     */
+    public boolean isZeroCopy(){
+        return zeroCopy;
     }
     /**
      * Adds a named state to the automaton.
@@ -50,6 +131,7 @@ public abstract class FiniteAutomatonBuilder {
      * @return a new state with this name.
      */
     public State addState(String name){
+        copyOnWrite();
         State state = new State(name);
         states.add(state);
         return state;
@@ -59,10 +141,26 @@ public abstract class FiniteAutomatonBuilder {
      * @return a new unnamed state.
      */
     public State addState(){
+        copyOnWrite();
         State state = new State();
         states.add(state);
         return state;
     }
+    /**
+     * Adds multiple unnamed states to the automaton.
+     * @param count the number of new states.
+     * @return the new states in the order they have been created.
+     * @throws IllegalArgumentException if the number is negative.
+     */
+    public State[] addStates(int count) throws IllegalArgumentException{
+        if(count < 0)
+            throw new IllegalArgumentException("The number of states must not be negative");
+
+        State[] result = new State[count];
+        for(int i = 0 ; i < count ; ++i)
+            result[i] = addState();
+        return result;
+    }
     /**
      * Adds a named initial state to the automaton.
      * This method will throw an exception when called more than once.
@@ -92,6 +190,22 @@ public abstract class FiniteAutomatonBuilder {
         initialState.setInitial(true);
         return initialState;
     }
+    /**
+     * Marks an existing state as the initial state of the automaton.
+     * This allows readers to create states before knowing which one of them is initial.
+     * @param state a state in the automaton.
+     * @throws IllegalArgumentException if the state isn't in the automaton or the automaton already has a
+     * different initial state.
+     */
+    public void setInitialState(State state) throws IllegalArgumentException{
+        if(!states.contains(state))
+            throw new IllegalArgumentException(String.format("The state %s isn't in the automaton", state));
+        if(initialState != null && initialState != state)
+            throw new IllegalArgumentException("Only one initial state is allowed");
+
+        initialState = state;
+        initialState.setInitial(true);
+    }
     /**
      * Adds a named final state to the automaton.
      * Unless specified otherwise, states with a common name are allowed.
@@ -113,6 +227,96 @@ public abstract class FiniteAutomatonBuilder {
         return state;
     }
 
+    /**
+     * Adds a new transition to the automaton.
+     * @param from the current state.
+     * @param with the label that is read.
+     * @param to the next state.
+     * @throws IllegalArgumentException if the transition is rejected by the automaton.
+     */
+    public abstract void addTransition(State from, char with, State to) throws IllegalArgumentException;
+
+    /**
+     * Adds a transition for every letter between first and last, both inclusive.
+     * @param from the current state.
+     * @param first the first label of the range.
+     * @param last the last label of the range.
+     * @param to the next state.
+     * @throws IllegalArgumentException if the range is empty or a transition is rejected.
+     */
+    public void addTransitions(State from, char first, char last, State to) throws IllegalArgumentException{
+        if(last < first)
+            throw new IllegalArgumentException(String.format("The range from %s to %s is empty", first, last));
+
+        //Use an int, otherwise we would overflow at the end of the alphabet
+        for(int label = first ; label <= last ; ++label)
+            addTransition(from, (char)label, to);
+    }
+
+    /**
+     * Adds a transition for every letter in the union of the ranges. Overlapping and adjacent ranges are merged
+     * first, so that a letter contained in multiple ranges still leads to a single transition.
+     * Note that the transitions are still stored per letter, hence the merged ranges are expanded.
+     * @param from the current state.
+     * @param ranges the first and last label of every range.
+     * @param to the next state.
+     * @throws IllegalArgumentException if a range is empty or a transition is rejected.
+     */
+    public void addTransitions(State from, Collection<char[]> ranges, State to) throws IllegalArgumentException{
+        for(char[] range : merge(ranges))
+            addTransitions(from, range[0], range[1], to);
+    }
+
+    /**
+     * @param ranges the first and last label of every range.
+     * @return the disjoint, non-adjacent ranges covering the union of the ranges, sorted by their first label.
+     * @throws IllegalArgumentException if a range is empty.
+     */
+    protected static List<char[]> merge(Collection<char[]> ranges) throws IllegalArgumentException{
+        List<char[]> sorted = new ArrayList<>(ranges);
+        for(char[] range : sorted)
+            if(range[1] < range[0])
+                throw new IllegalArgumentException(String.format("The range from %s to %s is empty", range[0], range[1]));
+        sorted.sort(Comparator.comparingInt(range -> range[0]));
+
+        List<char[]> merged = new ArrayList<>();
+        for(char[] range : sorted){
+            char[] last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if(last != null && range[0] <= last[1] + 1)
+                last[1] = (char)Math.max(last[1], range[1]);
+            else
+                merged.add(new char[]{range[0], range[1]});
+        }
+        return merged;
+    }
+
+    /**
+     * Adds the transitions i from states[from[i]] to states[to[i]] via with[i].
+     * This avoids creating an object for every transition.
+     * @param states the states that are referenced by the transitions, e.g. the result of {@link #addStates(int)}.
+     * @param from the index of the current state of every transition.
+     * @param with the label of every transition.
+     * @param to the index of the next state of every transition.
+     * @throws IllegalArgumentException if the arrays have different lengths or a transition is rejected.
+     */
+    public void addTransitions(State[] states, int[] from, char[] with, int[] to) throws IllegalArgumentException{
+        if(from.length != with.length || from.length != to.length)
+            throw new IllegalArgumentException("Every transition needs an origin, a label and a target");
+
+        for(int i = 0 ; i < from.length ; ++i)
+            addTransition(states[from[i]], with[i], states[to[i]]);
+    }
+
+    /**
+     * Adds all transitions in the stream, in the order they are encountered.
+     * Every cell consists of the current state, the label and the next state.
+     * @param transitions the new transitions.
+     * @throws IllegalArgumentException if a transition is rejected.
+     */
+    public void addTransitions(Stream<Table.Cell<State, Character, State>> transitions) throws IllegalArgumentException{
+        transitions.forEachOrdered(cell -> addTransition(cell.getRowKey(), cell.getColumnKey(), cell.getValue()));
+    }
+
     /**
      * This method provides the interface for creating the different automata
      * and as its only restriction, must fail if no initial state is set.
@@ -121,11 +325,37 @@ public abstract class FiniteAutomatonBuilder {
      */
     public abstract FiniteAutomaton build() throws IllegalStateException;
 
+    /**
+     * Freezes all states, so that their flags can no longer be modified.
+     * In zero-copy mode, the collections of the builder are shared with the automaton that is built afterwards.
+     * @return an immutable copy or, in zero-copy mode, an unmodifiable view of all states.
+     */
+    protected Set<State> freezeStates(){
+        states.forEach(State::freeze);
+
+        if(!zeroCopy)
+            return ImmutableSet.copyOf(states);
+
+        shared = true;
+        return Collections.unmodifiableSet(states);
+    }
+
+    /**
+     * Copies all collections that are shared with an automaton that has been built, so that the automaton isn't
+     * modified. This method has to be called before the collections are modified.
+     */
+    protected void copyOnWrite(){
+        if(shared)
+            states = new HashSet<>(states);
+        shared = false;
+    }
+
     /**
      * Reverts the builder back to its fresh state.
      */
     public void clear(){
         initialState = null;
-        states = new HashSet<>();
+        states = Sets.newHashSetWithExpectedSize(expectedStates);
+        shared = false;
     }
 }
@@ -0,0 +1,223 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.builder;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+
+import java.util.*;
+import java.util.stream.Stream;
+
+/**
+ * This builder is used to create the minimal DFA accepting a finite list of words, using the incremental
+ * algorithm by Daciuk et al. for sorted input.
+ * Only the states along the path of the most recently added word may still change. Once a word has been added
+ * that doesn't share a prefix with those states, they are replaced by an equivalent state that has been
+ * registered before or are registered themselves. Hence, apart from that path, the underlying builder only
+ * ever contains the states of the minimal automaton.
+ */
+public class KeywordAutomatonBuilder {
+    /**
+     * The builder that contains the automaton.
+     */
+    protected DeterministicFiniteAutomatonBuilder builder;
+    /**
+     * All states that are part of the minimal automaton, identified by their finality and transitions.
+     */
+    protected Map<Signature, State> register;
+    /**
+     * The states along the path of the most recently added word, starting with the initial state.
+     */
+    protected List<State> path;
+    /**
+     * The most recently added word.
+     */
+    protected String previous;
+    /**
+     * Indicates whether the automaton has already been built.
+     */
+    protected boolean built;
+
+    /**
+     * The key of a state in the register. Two states are equivalent if they are either both final or not and
+     * their transitions lead to the same states for the same labels.
+     */
+    protected static final class Signature{
+        /**
+         * Indicates whether the state is final.
+         */
+        private final boolean isFinal;
+        /**
+         * All outgoing transitions of the state.
+         */
+        private final Map<Character, State> transitions;
+
+        /**
+         * @param isFinal true if the state is final.
+         * @param transitions all outgoing transitions of the state.
+         */
+        private Signature(boolean isFinal, Map<Character, State> transitions){
+            this.isFinal = isFinal;
+            this.transitions = transitions;
+        }
+
+        /**
+         * @param o the other object.
+         * @return true if both signatures have the same finality and transitions.
+         */
+        @Override
+        public boolean equals(Object o){
+            if(this == o)
+                return true;
+            if(!(o instanceof Signature))
+                return false;
+
+            Signature other = (Signature)o;
+            return isFinal == other.isFinal && transitions.equals(other.transitions);
+        }
+
+        /**
+         * @return the hash code of the finality and transitions.
+         */
+        @Override
+        public int hashCode(){
+            return 31 * Boolean.hashCode(isFinal) + transitions.hashCode();
+        }
+    }
+
+    /**
+     * Creates an empty builder.
+     */
+    public KeywordAutomatonBuilder(){
+        builder = new DeterministicFiniteAutomatonBuilder();
+        clear();
+    }
+
+    /**
+     * Adds a new word to the automaton. Adding the same word multiple times has no effect.
+     * @param word the new word.
+     * @throws IllegalArgumentException if the word is lexicographically smaller than the previous word.
+     * @throws IllegalStateException if the automaton has already been built and the builder hasn't been cleared.
+     */
+    public void addWord(String word) throws IllegalArgumentException, IllegalStateException{
+        if(built)
+            throw new IllegalStateException("The automaton has already been built");
+
+        int comparison = word.compareTo(previous);
+
+        if(comparison < 0 && !path.isEmpty())
+            throw new IllegalArgumentException(String.format("The word %s has to be added before %s", word, previous));
+        if(comparison == 0 && !path.isEmpty())
+            return;
+
+        if(path.isEmpty())
+            path.add(builder.addInitialState());
+
+        int prefix = 0;
+        while(prefix < word.length() && prefix < previous.length() && word.charAt(prefix) == previous.charAt(prefix))
+            ++prefix;
+
+        replaceOrRegister(prefix);
+
+        for(int i = prefix ; i < word.length() ; ++i){
+            State state = builder.addState();
+            builder.addTransition(path.get(i), word.charAt(i), state);
+            path.add(state);
+        }
+
+        path.get(word.length()).setFinal(true);
+        previous = word;
+    }
+
+    /**
+     * @param words a stream of lexicographically sorted words.
+     * @throws IllegalArgumentException if the words aren't sorted.
+     * @throws IllegalStateException if the automaton has already been built and the builder hasn't been cleared.
+     */
+    public void addWords(Stream<String> words) throws IllegalArgumentException, IllegalStateException{
+        words.forEachOrdered(this::addWord);
+    }
+
+    /**
+     * Sorts the words before they are added. This requires all words to be kept in memory at once.
+     * @param words a stream of words in arbitrary order.
+     * @throws IllegalStateException if the automaton has already been built and the builder hasn't been cleared.
+     */
+    public void addUnsortedWords(Stream<String> words) throws IllegalStateException{
+        addWords(words.sorted());
+    }
+
+    /**
+     * Replaces every state on the path after the given index by an equivalent, registered state.
+     * If no such state exists, the state is registered instead.
+     * The states are processed in reverse order, so that all successors of a state are registered beforehand.
+     * @param index the number of states on the path that are kept, excluding the initial state.
+     */
+    protected void replaceOrRegister(int index){
+        builder.copyOnWrite();
+
+        for(int i = path.size() - 1 ; i > index ; --i){
+            State state = path.remove(i);
+            State parent = path.get(i - 1);
+            char label = previous.charAt(i - 1);
+
+            Signature signature = new Signature(state.isFinal(), new HashMap<>(builder.transitions.row(state)));
+            State registered = register.putIfAbsent(signature, state);
+
+            if(registered != null){
+                builder.transitions.put(parent, label, registered);
+                builder.transitions.row(state).clear();
+                builder.states.remove(state);
+            }
+        }
+    }
+
+    /**
+     * Since the states of the automaton are registered afterwards, no more words can be added until the builder
+     * is cleared.
+     * @return the minimal DFA accepting all words that have been added.
+     * @throws IllegalStateException if no word has been added.
+     */
+    public DeterministicFiniteAutomaton build() throws IllegalStateException{
+        if(path.isEmpty())
+            throw new IllegalStateException("The automaton doesn't contain any words");
+
+        replaceOrRegister(0);
+        built = true;
+
+        return builder.build();
+    }
+
+    /**
+     * @return the number of states that are currently in the automaton.
+     */
+    public int size(){
+        return builder.states.size();
+    }
+
+    /**
+     * Reverts the builder back to its fresh state.
+     */
+    public void clear(){
+        builder.clear();
+        register = new HashMap<>();
+        path = new ArrayList<>();
+        previous = "";
+        built = false;
+    }
+}
@@ -19,13 +19,20 @@ package vartas.fa.builder;
 
 import com.google.common.collect.HashBasedTable;
 import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Multimap;
+import com.google.common.collect.Multimaps;
 import com.google.common.collect.Table;
+import com.google.common.collect.Tables;
 import vartas.fa.NondeterministicFiniteAutomaton;
 import vartas.fa.State;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.Map;
 
 /**
  * This builder is used to create instances of NFAs.
@@ -49,43 +56,116 @@ public class NondeterministicFiniteAutomatonBuilder extends FiniteAutomatonBuild
         epsilonTransitions = HashMultimap.create();
     }
 
+    /**
+     * Creates an empty builder with enough capacity for the expected size of the automaton.
+     * @param expectedStates the expected number of states.
+     * @param expectedTransitions the expected number of labeled transitions.
+     * @throws IllegalArgumentException if either of the numbers is negative.
+     */
+    public NondeterministicFiniteAutomatonBuilder(int expectedStates, int expectedTransitions) throws IllegalArgumentException{
+        super(expectedStates, expectedTransitions);
+        transitions = HashBasedTable.create(expectedStates, getExpectedTransitionsPerState());
+        epsilonTransitions = HashMultimap.create();
+    }
+
     /**
      * Adds a new transition to the automaton.
+     * In unchecked mode, the targets are collected in a list and duplicates are only removed once the automaton
+     * is built.
      * @param from the current state.
      * @param with the label that is read.
      * @param to the next state.
      * @throws IllegalArgumentException if the transitions already exists.
      */
-    public void addTransition(State from, char with, State to){
-        if(!transitions.contains(from, with))
-            transitions.put(from, with, new HashSet<>());
-        if(transitions.get(from, with).contains(to))
+    @Override
+    public void addTransition(State from, char with, State to) throws IllegalArgumentException{
+        copyOnWrite();
+        Collection<State> targets = transitions.get(from, with);
+
+        if(targets == null){
+            //Most labels only lead to a single state
+            targets = checked ? new HashSet<>() : new ArrayList<>(1);
+            transitions.put(from, with, targets);
+        }
+
+        if(checked && targets.contains(to))
             throw new IllegalArgumentException(String.format("There already exists a transition from %s to %s via %s", from, to, with));
 
-        transitions.get(from, with).add(to);
+        targets.add(to);
     }
 
     /**
      * Adds a new epsilon transition to the automaton.
+     * In unchecked mode, an existing epsilon transition is ignored.
      * @param from the current state.
      * @param to the next state.
      * @throws IllegalArgumentException if the transitions already exists.
      */
     public void addEpsilonTransition(State from, State to){
-        if(epsilonTransitions.containsEntry(from, to))
+        copyOnWrite();
+        if(checked && epsilonTransitions.containsEntry(from, to))
             throw new IllegalArgumentException(String.format("There already exists an epsilon transition from %s to %s", from, to));
         epsilonTransitions.put(from, to);
     }
 
     /**
-     * @return the created automaton.
+     * @return the created automaton, which is immutable.
      * @throws IllegalStateException if the automaton doesn't have an initial state.
      */
     @Override
     public NondeterministicFiniteAutomaton build() {
         if(initialState == null)
             throw new IllegalStateException("The automaton doesn't have an initial state");
-        return new NondeterministicFiniteAutomaton(initialState, states, transitions, epsilonTransitions);
+        return new NondeterministicFiniteAutomaton(initialState, freezeStates(), freezeTransitions(), freeze(epsilonTransitions));
+    }
+
+    /**
+     * The targets of every transition are turned into an immutable set, which also removes duplicates that have
+     * been added in unchecked mode. In zero-copy mode, the targets are replaced in place.
+     * @return an immutable copy or, in zero-copy mode, an unmodifiable view of all labeled transitions.
+     */
+    protected Table<State, Character, Collection<State>> freezeTransitions(){
+        if(!zeroCopy){
+            ImmutableTable.Builder<State, Character, Collection<State>> builder = ImmutableTable.builder();
+
+            for(Table.Cell<State, Character, Collection<State>> cell : transitions.cellSet())
+                builder.put(cell.getRowKey(), cell.getColumnKey(), ImmutableSet.copyOf(cell.getValue()));
+
+            return builder.build();
+        }
+
+        for(Map<Character, Collection<State>> row : transitions.rowMap().values())
+            for(Map.Entry<Character, Collection<State>> entry : row.entrySet())
+                //Frozen targets may already be shared with an automaton that has been built before
+                if(!(entry.getValue() instanceof ImmutableSet))
+                    entry.setValue(ImmutableSet.copyOf(entry.getValue()));
+
+        return Tables.unmodifiableTable(transitions);
+    }
+
+    /**
+     * @param transitions some unlabeled transitions of the builder.
+     * @return an immutable copy or, in zero-copy mode, an unmodifiable view of the transitions.
+     */
+    protected Multimap<State, State> freeze(Multimap<State, State> transitions){
+        return zeroCopy ? Multimaps.unmodifiableMultimap(transitions) : ImmutableSetMultimap.copyOf(transitions);
+    }
+
+    /**
+     * Copies the transitions, if they are shared with an automaton.
+     * The targets of every transition are copied as well, since they have been frozen.
+     */
+    @Override
+    protected void copyOnWrite(){
+        if(shared){
+            Table<State, Character, Collection<State>> copy = HashBasedTable.create(expectedStates, getExpectedTransitionsPerState());
+            for(Table.Cell<State, Character, Collection<State>> cell : transitions.cellSet())
+                copy.put(cell.getRowKey(), cell.getColumnKey(), checked ? new HashSet<>(cell.getValue()) : new ArrayList<>(cell.getValue()));
+
+            transitions = copy;
+            epsilonTransitions = HashMultimap.create(epsilonTransitions);
+        }
+        super.copyOnWrite();
     }
 
     /**
@@ -93,7 +173,7 @@ public class NondeterministicFiniteAutomatonBuilder extends FiniteAutomatonBuild
      */
     public void clear(){
         super.clear();
-        transitions = HashBasedTable.create();
+        transitions = HashBasedTable.create(expectedStates, getExpectedTransitionsPerState());
         epsilonTransitions = HashMultimap.create();
     }
 }
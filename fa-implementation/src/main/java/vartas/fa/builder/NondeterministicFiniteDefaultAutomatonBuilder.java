@@ -39,27 +39,50 @@ public class NondeterministicFiniteDefaultAutomatonBuilder extends Nondeterminis
         defaultTransitions = HashMultimap.create();
     }
 
+    /**
+     * Creates an empty builder with enough capacity for the expected size of the automaton.
+     * @param expectedStates the expected number of states.
+     * @param expectedTransitions the expected number of labeled transitions.
+     * @throws IllegalArgumentException if either of the numbers is negative.
+     */
+    public NondeterministicFiniteDefaultAutomatonBuilder(int expectedStates, int expectedTransitions) throws IllegalArgumentException{
+        super(expectedStates, expectedTransitions);
+        defaultTransitions = HashMultimap.create();
+    }
+
     /**
      * Adds a new 'else' transition to the automaton.
+     * In unchecked mode, an existing default transition is ignored.
      * @param from the current state.
      * @param to the next state.
      * @throws IllegalArgumentException if the transitions already exists.
      */
     public void addDefaultTransition(State from, State to){
-        if(defaultTransitions.containsEntry(from, to))
+        copyOnWrite();
+        if(checked && defaultTransitions.containsEntry(from, to))
             throw new IllegalArgumentException(String.format("There already exists a default transition from %s to %s", from, to));
         defaultTransitions.put(from, to);
     }
 
     /**
-     * @return the created automaton.
+     * @return the created automaton, which is immutable.
      * @throws IllegalStateException if the automaton doesn't have an initial state.
      */
     @Override
     public NondeterministicFiniteDefaultAutomaton build() {
         if(initialState == null)
             throw new IllegalStateException("The automaton doesn't have an initial state");
-        return new NondeterministicFiniteDefaultAutomaton(initialState, states, transitions, epsilonTransitions, defaultTransitions);
+        return new NondeterministicFiniteDefaultAutomaton(initialState, freezeStates(), freezeTransitions(), freeze(epsilonTransitions), freeze(defaultTransitions));
+    }
+
+    /**
+     * Copies the default transitions, if they are shared with an automaton.
+     */
+    @Override
+    protected void copyOnWrite(){
+        if(shared)
+            defaultTransitions = HashMultimap.create(defaultTransitions);
+        super.copyOnWrite();
     }
 
     /**
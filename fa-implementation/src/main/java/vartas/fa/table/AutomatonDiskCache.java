@@ -0,0 +1,203 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import com.google.common.hash.Hashing;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.FiniteAutomaton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Properties;
+import java.util.function.Function;
+
+/**
+ * This class stores compiled DFAs in a local directory, using the format described in {@link AutomatonFormat}.
+ * Every file is named after the SHA-256 hash of the source of the automaton, the way it has been compiled,
+ * and the versions of the library, the format and the compiler. Hence a file never has to be invalidated.
+ * Instead, changing any of them leads to a different file. Files are written to a temporary file first and then moved,
+ * so that multiple processes may share the same directory.
+ */
+public class AutomatonDiskCache {
+    /**
+     * The file extension of cached automata.
+     */
+    public static final String EXTENSION = ".fatb";
+    /**
+     * The resource containing the version of the library, which is filtered by Maven.
+     */
+    public static final String VERSION_RESOURCE = "version.properties";
+    /**
+     * The version of the library.
+     */
+    public static final String LIBRARY_VERSION = getLibraryVersion();
+    /**
+     * The revision of the way the cached automata are compiled.
+     * It has to be increased whenever the compilation changes without a new version of the library.
+     */
+    public static final int COMPILER_REVISION = 2;
+    /**
+     * The version of the library, the format and the compiler, which is part of every hash.
+     */
+    public static final String VERSION = String.join("/", LIBRARY_VERSION, Short.toString(AutomatonFormat.VERSION), Integer.toString(COMPILER_REVISION));
+    /**
+     * The directory containing the cached automata.
+     */
+    protected Path directory;
+    /**
+     * The version that is part of every hash.
+     */
+    protected String version;
+
+    /**
+     * @param directory the directory containing the cached automata. It is created if it doesn't exist.
+     * @throws IOException if the directory couldn't be created.
+     */
+    public AutomatonDiskCache(Path directory) throws IOException{
+        this(directory, VERSION);
+    }
+
+    /**
+     * @param directory the directory containing the cached automata. It is created if it doesn't exist.
+     * @param version the version that is part of every hash.
+     * @throws IOException if the directory couldn't be created.
+     */
+    protected AutomatonDiskCache(Path directory, String version) throws IOException{
+        this.directory = Files.createDirectories(directory);
+        this.version = version;
+    }
+
+    /**
+     * @return the version of the library or "dev", if the resource hasn't been filtered.
+     */
+    private static String getLibraryVersion(){
+        try(InputStream input = AutomatonDiskCache.class.getResourceAsStream(VERSION_RESOURCE)){
+            Properties properties = new Properties();
+            if(input != null)
+                properties.load(input);
+
+            String version = properties.getProperty("version", "dev");
+            return version.startsWith("${") ? "dev" : version;
+        }catch(IOException e){
+            return "dev";
+        }
+    }
+
+    /**
+     * Reads the automaton of the source from the cache. If it hasn't been cached yet or can't be read,
+     * it is compiled and written to the cache.
+     * @param namespace the way the source is compiled, e.g. the language and its options.
+     * @param source the source of the automaton.
+     * @param compiler the function compiling the source.
+     * @return the DFA of the source.
+     * @throws IOException if the compiled automaton couldn't be written.
+     */
+    public DeterministicFiniteAutomaton get(String namespace, String source, Function<String, ? extends DeterministicFiniteAutomaton> compiler) throws IOException{
+        Path path = getPath(namespace, source);
+
+        if(Files.isRegularFile(path)){
+            try(InputStream input = Files.newInputStream(path)){
+                FiniteAutomaton automaton = AutomatonReader.read(input);
+                if(automaton instanceof DeterministicFiniteAutomaton)
+                    return (DeterministicFiniteAutomaton)automaton;
+            }catch(IOException | RuntimeException ignored){
+                //A corrupted file is simply replaced, even if the reader fails to detect the corruption itself
+            }
+        }
+
+        DeterministicFiniteAutomaton dfa = compiler.apply(source);
+        put(path, dfa);
+        return dfa;
+    }
+
+    /**
+     * @param namespace the way the source is compiled.
+     * @param source the source of the automaton.
+     * @return true if the automaton of the source has been cached.
+     */
+    public boolean contains(String namespace, String source){
+        return Files.isRegularFile(getPath(namespace, source));
+    }
+
+    /**
+     * @param namespace the way the source is compiled.
+     * @param source the source of the automaton.
+     * @return the path of the file containing the automaton of the source.
+     */
+    public Path getPath(String namespace, String source){
+        return directory.resolve(hash(version, namespace, source) + EXTENSION);
+    }
+
+    /**
+     * Removes all cached automata from the directory.
+     * @throws IOException if a file couldn't be deleted.
+     */
+    public void clear() throws IOException{
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + EXTENSION)){
+            for(Path file : files)
+                Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * @param path the path of the file.
+     * @param dfa the compiled DFA.
+     * @throws IOException if the automaton couldn't be written.
+     */
+    protected void put(Path path, DeterministicFiniteAutomaton dfa) throws IOException{
+        Path temporary = Files.createTempFile(directory, null, ".tmp");
+
+        try{
+            try(OutputStream output = Files.newOutputStream(temporary)){
+                AutomatonWriter.write(dfa, output);
+            }
+
+            try{
+                Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }catch(AtomicMoveNotSupportedException e){
+                Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }finally{
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * @param namespace the way the source is compiled.
+     * @param source the source of the automaton.
+     * @return the hexadecimal SHA-256 hash of the source, the namespace and the current versions.
+     */
+    public static String hash(String namespace, String source){
+        return hash(VERSION, namespace, source);
+    }
+
+    /**
+     * @param version the version of the library, the format and the compiler.
+     * @param namespace the way the source is compiled.
+     * @param source the source of the automaton.
+     * @return the hexadecimal SHA-256 hash of the source, the namespace and the version.
+     */
+    public static String hash(String version, String namespace, String source){
+        //Separate the parts with a character that can't occur in the versions
+        String key = String.join("\u0000", version, namespace, source);
+        return Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString();
+    }
+}
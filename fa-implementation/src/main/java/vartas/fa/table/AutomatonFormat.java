@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+/**
+ * This class describes the binary format of compiled automata. All values are stored in big-endian byte order.
+ * <pre>
+ * header:      int magic, short version, byte kind, byte reserved
+ * states:      int states, int ranges, int words, long[words] finals
+ * transitions: int[states + 1] offsets, int[ranges] targets
+ * DFA:         int[states] defaults (only with default transitions)
+ * NFA:         int epsilons, int[states + 1] epsilon offsets, int[epsilons] epsilon targets
+ *              int defaults, int[states + 1] default offsets, int[defaults] default targets (only with default transitions)
+ * labels:      char[ranges] starts, char[ranges] ends
+ * </pre>
+ * The states are numbered in breadth-first order, starting with the initial state. A state with id i is final
+ * if bit i of the finals is set, and its transitions are stored between offsets[i] (inclusive) and offsets[i+1]
+ * (exclusive). Missing default transitions of a DFA are stored as -1. The ranges of an NFA may overlap, in
+ * which case a letter leads to multiple states. The names of the states aren't stored.
+ */
+public final class AutomatonFormat {
+    /**
+     * The first four bytes of every file, "FATB".
+     */
+    public static final int MAGIC = 0x46415442;
+    /**
+     * The current version of the format.
+     */
+    public static final short VERSION = 1;
+    /**
+     * The size of the header in bytes.
+     */
+    public static final int HEADER_SIZE = 8;
+
+    /**
+     * The different types of automata.
+     */
+    public enum Kind{
+        /**
+         * A {@link vartas.fa.DeterministicFiniteAutomaton}.
+         */
+        DFA,
+        /**
+         * A {@link vartas.fa.DeterministicFiniteDefaultAutomaton}.
+         */
+        DFA_DEFAULT,
+        /**
+         * A {@link vartas.fa.NondeterministicFiniteAutomaton}.
+         */
+        NFA,
+        /**
+         * A {@link vartas.fa.NondeterministicFiniteDefaultAutomaton}.
+         */
+        NFA_DEFAULT;
+
+        /**
+         * @return true if the automaton is deterministic.
+         */
+        public boolean isDeterministic(){
+            return this == DFA || this == DFA_DEFAULT;
+        }
+
+        /**
+         * @return true if the automaton has default transitions.
+         */
+        public boolean hasDefaults(){
+            return this == DFA_DEFAULT || this == NFA_DEFAULT;
+        }
+    }
+
+    /**
+     * This class only contains constants.
+     */
+    private AutomatonFormat(){}
+}
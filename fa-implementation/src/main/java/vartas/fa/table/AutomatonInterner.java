@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * This class shares a single instance among all DFAs that accept the same language, identified via their
+ * {@link CanonicalForm}. Instances are only weakly referenced, so that they are removed once they aren't used anymore.
+ * @param <T> the type of the DFAs.
+ */
+public class AutomatonInterner<T extends DeterministicFiniteAutomaton> {
+    /**
+     * The shared instance of every language.
+     */
+    protected Cache<CanonicalForm, T> instances;
+
+    /**
+     * Creates an empty interner.
+     */
+    public AutomatonInterner(){
+        instances = CacheBuilder.newBuilder().weakValues().build();
+    }
+
+    /**
+     * @param dfa the DFA.
+     * @return the shared instance accepting the same language as the DFA, which is the DFA itself if there is none.
+     */
+    public T intern(T dfa){
+        try{
+            return instances.get(dfa.canonicalize(), () -> dfa);
+        }catch(ExecutionException e){
+            //The loader only returns the DFA
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param form the canonical form of a language.
+     * @return true if there is a shared instance accepting the language.
+     */
+    public boolean contains(CanonicalForm form){
+        return instances.getIfPresent(form) != null;
+    }
+
+    /**
+     * @return the approximate number of shared instances.
+     */
+    public long size(){
+        return instances.size();
+    }
+
+    /**
+     * Removes all shared instances.
+     */
+    public void clear(){
+        instances.invalidateAll();
+    }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import vartas.fa.FiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class reads automata in the binary format described in {@link AutomatonFormat}.
+ */
+public class AutomatonReader {
+    /**
+     * The maximum number of values that are allocated before they have actually been read.
+     * Larger arrays grow while they are read, so that a corrupted count fails at the end of the stream instead of
+     * allocating memory for values that don't exist.
+     */
+    private static final int CHUNK_SIZE = 1 << 12;
+    /**
+     * The stream the automaton is read from.
+     */
+    protected DataInputStream input;
+    /**
+     * The type of the automaton.
+     */
+    protected AutomatonFormat.Kind kind;
+    /**
+     * The number of states.
+     */
+    protected int states;
+    /**
+     * The number of ranges.
+     */
+    protected int ranges;
+    /**
+     * The final states.
+     */
+    protected BitSet finals;
+
+    /**
+     * @param input the stream the automaton is read from.
+     */
+    protected AutomatonReader(InputStream input){
+        this.input = new DataInputStream(new BufferedInputStream(input));
+    }
+
+    /**
+     * Reads an automaton of the same type that has been written. The stream isn't closed afterwards.
+     * @param input the stream the automaton is read from.
+     * @return the automaton in the stream.
+     * @throws IOException if the stream doesn't contain an automaton in a supported version.
+     */
+    public static FiniteAutomaton read(InputStream input) throws IOException{
+        AutomatonReader reader = new AutomatonReader(input);
+        reader.readHeader();
+
+        switch(reader.kind){
+            case DFA:
+                return reader.readTable().toDfa();
+            case DFA_DEFAULT:
+                return reader.readTable().toDefaultDfa();
+            default:
+                return reader.readNfa();
+        }
+    }
+
+    /**
+     * Reads a DFA into its table, without creating any states. The stream isn't closed afterwards.
+     * @param input the stream the automaton is read from.
+     * @return the table of the DFA in the stream.
+     * @throws IOException if the stream doesn't contain a DFA in a supported version.
+     */
+    public static TransitionTable readTable(InputStream input) throws IOException{
+        AutomatonReader reader = new AutomatonReader(input);
+        reader.readHeader();
+
+        if(!reader.kind.isDeterministic())
+            throw new IOException("The stream doesn't contain a DFA");
+
+        return reader.readTable();
+    }
+
+    /**
+     * Reads the header, followed by the number of states and ranges and the final states.
+     * @throws IOException if the stream doesn't contain an automaton in a supported version.
+     */
+    protected void readHeader() throws IOException{
+        if(input.readInt() != AutomatonFormat.MAGIC)
+            throw new IOException("The stream doesn't contain an automaton");
+
+        short version = input.readShort();
+        if(version != AutomatonFormat.VERSION)
+            throw new IOException(String.format("Unsupported version %d", version));
+
+        int kind = input.readByte();
+        if(kind < 0 || kind >= AutomatonFormat.Kind.values().length)
+            throw new IOException(String.format("Unknown type %d", kind));
+        this.kind = AutomatonFormat.Kind.values()[kind];
+        input.readByte();
+
+        states = input.readInt();
+        ranges = input.readInt();
+        if(states <= 0 || states == Integer.MAX_VALUE || ranges < 0)
+            throw new IOException("The automaton has an invalid size");
+
+        int words = input.readInt();
+        if(words != (states + 63L) / 64)
+            throw new IOException("The final states have an invalid size");
+        finals = BitSet.valueOf(readLongs(words));
+    }
+
+    /**
+     * @return the table of the DFA.
+     * @throws IOException if the table couldn't be read.
+     */
+    protected TransitionTable readTable() throws IOException{
+        int[] offsets = readInts(states + 1);
+        int[] targets = readInts(ranges);
+
+        int[] defaults;
+        if(kind.hasDefaults()){
+            defaults = readInts(states);
+        }else{
+            defaults = new int[states];
+            Arrays.fill(defaults, TransitionTable.NONE);
+        }
+
+        char[] starts = readChars(ranges);
+        char[] ends = readChars(ranges);
+
+        try{
+            return new TransitionTable(finals, offsets, starts, ends, targets, defaults);
+        }catch(IllegalArgumentException e){
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the NFA.
+     * @throws IOException if the NFA couldn't be read.
+     */
+    protected FiniteAutomaton readNfa() throws IOException{
+        int[] offsets = readInts(states + 1);
+        int[] targets = readInts(ranges);
+
+        int epsilons = readCount();
+        int[] epsilonOffsets = readInts(states + 1);
+        int[] epsilonTargets = readInts(epsilons);
+
+        int[] defaultOffsets = new int[states + 1];
+        int[] defaultTargets = new int[0];
+        if(kind.hasDefaults()){
+            int defaults = readCount();
+            defaultOffsets = readInts(states + 1);
+            defaultTargets = readInts(defaults);
+        }
+
+        char[] starts = readChars(ranges);
+        char[] ends = readChars(ranges);
+
+        checkOffsets(offsets, ranges);
+        checkOffsets(epsilonOffsets, epsilons);
+        checkOffsets(defaultOffsets, defaultTargets.length);
+        checkTargets(targets);
+        checkTargets(epsilonTargets);
+        checkTargets(defaultTargets);
+        for(int range = 0 ; range < ranges ; ++range)
+            if(starts[range] > ends[range])
+                throw new IOException(String.format("The range %d is empty", range));
+
+        NondeterministicFiniteAutomatonBuilder builder = kind.hasDefaults()
+                ? new NondeterministicFiniteDefaultAutomatonBuilder()
+                : new NondeterministicFiniteAutomatonBuilder();
+
+        State[] result = new State[states];
+        result[0] = builder.addInitialState();
+        for(int state = 1 ; state < states ; ++state)
+            result[state] = builder.addState();
+
+        try{
+            for(int state = 0 ; state < states ; ++state){
+                result[state].setFinal(finals.get(state));
+
+                //Use an int, otherwise we would overflow at the end of the alphabet
+                for(int range = offsets[state] ; range < offsets[state + 1] ; ++range)
+                    for(int label = starts[range] ; label <= ends[range] ; ++label)
+                        builder.addTransition(result[state], (char)label, result[targets[range]]);
+
+                for(int edge = epsilonOffsets[state] ; edge < epsilonOffsets[state + 1] ; ++edge)
+                    builder.addEpsilonTransition(result[state], result[epsilonTargets[edge]]);
+
+                for(int edge = defaultOffsets[state] ; edge < defaultOffsets[state + 1] ; ++edge)
+                    ((NondeterministicFiniteDefaultAutomatonBuilder)builder).addDefaultTransition(result[state], result[defaultTargets[edge]]);
+            }
+        }catch(IllegalArgumentException | IndexOutOfBoundsException e){
+            throw new IOException("The automaton is corrupted", e);
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * @return the next count in the stream.
+     * @throws IOException if the count couldn't be read or is negative.
+     */
+    private int readCount() throws IOException{
+        int count = input.readInt();
+        if(count < 0)
+            throw new IOException("The automaton has an invalid size");
+        return count;
+    }
+
+    /**
+     * @param offsets the index of the first edge of every state, followed by the total number of edges.
+     * @param total the total number of edges.
+     * @throws IOException if the offsets don't start at 0, aren't ascending or don't end at the total.
+     */
+    private void checkOffsets(int[] offsets, int total) throws IOException{
+        if(offsets[0] != 0 || offsets[states] != total)
+            throw new IOException("The offsets don't match the number of transitions");
+        for(int state = 0 ; state < states ; ++state)
+            if(offsets[state] > offsets[state + 1])
+                throw new IOException(String.format("The offset of state %d is out of order", state + 1));
+    }
+
+    /**
+     * @param targets the targets of some transitions.
+     * @throws IOException if a target isn't a state in the automaton.
+     */
+    private void checkTargets(int[] targets) throws IOException{
+        for(int target : targets)
+            if(target < 0 || target >= states)
+                throw new IOException(String.format("The state %d doesn't exist", target));
+    }
+
+    /**
+     * @param length the number of values.
+     * @return the next values in the stream.
+     * @throws IOException if the values couldn't be read.
+     */
+    private int[] readInts(int length) throws IOException{
+        int[] values = new int[Math.min(length, CHUNK_SIZE)];
+        for(int i = 0 ; i < length ; ++i){
+            if(i == values.length)
+                values = Arrays.copyOf(values, (int)Math.min(length, 2L * values.length));
+            values[i] = input.readInt();
+        }
+        return values;
+    }
+
+    /**
+     * @param length the number of values.
+     * @return the next values in the stream.
+     * @throws IOException if the values couldn't be read.
+     */
+    private long[] readLongs(int length) throws IOException{
+        long[] values = new long[Math.min(length, CHUNK_SIZE)];
+        for(int i = 0 ; i < length ; ++i){
+            if(i == values.length)
+                values = Arrays.copyOf(values, (int)Math.min(length, 2L * values.length));
+            values[i] = input.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * @param length the number of values.
+     * @return the next values in the stream.
+     * @throws IOException if the values couldn't be read.
+     */
+    private char[] readChars(int length) throws IOException{
+        char[] values = new char[Math.min(length, CHUNK_SIZE)];
+        for(int i = 0 ; i < length ; ++i){
+            if(i == values.length)
+                values = Arrays.copyOf(values, (int)Math.min(length, 2L * values.length));
+            values[i] = input.readChar();
+        }
+        return values;
+    }
+}
@@ -0,0 +1,253 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import vartas.fa.*;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+/**
+ * This class writes automata in the binary format described in {@link AutomatonFormat}.
+ */
+public class AutomatonWriter {
+    /**
+     * The stream the automaton is written to.
+     */
+    protected DataOutputStream output;
+
+    /**
+     * @param output the stream the automaton is written to.
+     */
+    protected AutomatonWriter(OutputStream output){
+        this.output = new DataOutputStream(new BufferedOutputStream(output));
+    }
+
+    /**
+     * Writes the automaton to the stream. The stream isn't closed afterwards.
+     * @param automaton the automaton.
+     * @param output the stream the automaton is written to.
+     * @throws IOException if the automaton couldn't be written.
+     * @throws IllegalArgumentException if the type of the automaton isn't supported.
+     */
+    public static void write(FiniteAutomaton automaton, OutputStream output) throws IOException, IllegalArgumentException{
+        AutomatonWriter writer = new AutomatonWriter(output);
+
+        if(automaton instanceof DeterministicFiniteDefaultAutomaton)
+            writer.write(TransitionTable.of((DeterministicFiniteAutomaton)automaton), AutomatonFormat.Kind.DFA_DEFAULT);
+        else if(automaton instanceof DeterministicFiniteAutomaton)
+            writer.write(TransitionTable.of((DeterministicFiniteAutomaton)automaton), AutomatonFormat.Kind.DFA);
+        else if(automaton instanceof NondeterministicFiniteDefaultAutomaton)
+            writer.write((NondeterministicFiniteAutomaton)automaton, AutomatonFormat.Kind.NFA_DEFAULT);
+        else if(automaton instanceof NondeterministicFiniteAutomaton)
+            writer.write((NondeterministicFiniteAutomaton)automaton, AutomatonFormat.Kind.NFA);
+        else
+            throw new IllegalArgumentException(String.format("Automata of type %s can't be written", automaton.getClass().getSimpleName()));
+
+        writer.output.flush();
+    }
+
+    /**
+     * Writes the table as a DFA, which has default transitions if and only if the table has any.
+     * The stream isn't closed afterwards.
+     * @param table the table.
+     * @param output the stream the automaton is written to.
+     * @throws IOException if the automaton couldn't be written.
+     */
+    public static void write(TransitionTable table, OutputStream output) throws IOException{
+        boolean hasDefaults = false;
+        for(int state = 0 ; state < table.size() ; ++state)
+            hasDefaults |= table.getDefault(state) != TransitionTable.NONE;
+
+        AutomatonWriter writer = new AutomatonWriter(output);
+        writer.write(table, hasDefaults ? AutomatonFormat.Kind.DFA_DEFAULT : AutomatonFormat.Kind.DFA);
+        writer.output.flush();
+    }
+
+    /**
+     * @param table the table of the DFA.
+     * @param kind the type of the DFA.
+     * @throws IOException if the automaton couldn't be written.
+     */
+    protected void write(TransitionTable table, AutomatonFormat.Kind kind) throws IOException{
+        int states = table.size();
+        int ranges = table.sizeRanges();
+
+        BitSet finals = new BitSet(states);
+        for(int state = 0 ; state < states ; ++state)
+            finals.set(state, table.isFinal(state));
+
+        writeHeader(kind, states, ranges, finals);
+
+        for(int state = 0 ; state <= states ; ++state)
+            output.writeInt(table.getOffset(state));
+        for(int range = 0 ; range < ranges ; ++range)
+            output.writeInt(table.getTarget(range));
+
+        if(kind.hasDefaults())
+            for(int state = 0 ; state < states ; ++state)
+                output.writeInt(table.getDefault(state));
+
+        for(int range = 0 ; range < ranges ; ++range)
+            output.writeChar(table.getStart(range));
+        for(int range = 0 ; range < ranges ; ++range)
+            output.writeChar(table.getEnd(range));
+    }
+
+    /**
+     * Numbers all states that are reachable from the initial state in breadth-first order.
+     * For every state and target, consecutive letters are merged into a single range.
+     * @param nfa the NFA.
+     * @param kind the type of the NFA.
+     * @throws IOException if the automaton couldn't be written.
+     */
+    protected void write(NondeterministicFiniteAutomaton nfa, AutomatonFormat.Kind kind) throws IOException{
+        Multimap<State, State> defaultTransitions = kind.hasDefaults()
+                ? ((NondeterministicFiniteDefaultAutomaton)nfa).getDefaultTransitions()
+                : ImmutableMultimap.of();
+
+        Map<State, Integer> ids = new HashMap<>();
+        List<State> states = new ArrayList<>();
+        ids.put(nfa.getInitialState(), 0);
+        states.add(nfa.getInitialState());
+
+        BitSet finals = new BitSet();
+        int[] offsets = new int[1];
+        List<int[]> ranges = new ArrayList<>();
+        int[] epsilonOffsets = new int[1];
+        List<Integer> epsilonTargets = new ArrayList<>();
+        int[] defaultOffsets = new int[1];
+        List<Integer> defaultTargets = new ArrayList<>();
+
+        for(int i = 0 ; i < states.size() ; ++i){
+            State state = states.get(i);
+            finals.set(i, state.isFinal());
+
+            if(i + 1 >= offsets.length){
+                offsets = Arrays.copyOf(offsets, 2 * (i + 1));
+                epsilonOffsets = Arrays.copyOf(epsilonOffsets, 2 * (i + 1));
+                defaultOffsets = Arrays.copyOf(defaultOffsets, 2 * (i + 1));
+            }
+            offsets[i] = ranges.size();
+            epsilonOffsets[i] = epsilonTargets.size();
+            defaultOffsets[i] = defaultTargets.size();
+
+            //Each entry consists of the first letter, the last letter and the target
+            List<int[]> stateRanges = new ArrayList<>();
+            SortedMap<Character, Collection<State>> row = new TreeMap<>(nfa.getTransitions().row(state));
+            Map<Integer, int[]> open = new HashMap<>();
+            for(Map.Entry<Character, Collection<State>> entry : row.entrySet()){
+                char label = entry.getKey();
+                for(State next : entry.getValue()){
+                    int target = id(ids, states, next);
+                    int[] range = open.get(target);
+
+                    if(range != null && range[1] + 1 == label){
+                        range[1] = label;
+                    }else{
+                        range = new int[]{label, label, target};
+                        open.put(target, range);
+                        stateRanges.add(range);
+                    }
+                }
+            }
+            stateRanges.sort(Comparator.<int[]>comparingInt(range -> range[0]).thenComparingInt(range -> range[2]));
+            ranges.addAll(stateRanges);
+
+            for(State next : nfa.getEpsilonTransitions().get(state))
+                epsilonTargets.add(id(ids, states, next));
+            for(State next : defaultTransitions.get(state))
+                defaultTargets.add(id(ids, states, next));
+        }
+
+        int size = states.size();
+        offsets = Arrays.copyOf(offsets, size + 1);
+        epsilonOffsets = Arrays.copyOf(epsilonOffsets, size + 1);
+        defaultOffsets = Arrays.copyOf(defaultOffsets, size + 1);
+        offsets[size] = ranges.size();
+        epsilonOffsets[size] = epsilonTargets.size();
+        defaultOffsets[size] = defaultTargets.size();
+
+        writeHeader(kind, size, ranges.size(), finals);
+
+        for(int offset : offsets)
+            output.writeInt(offset);
+        for(int[] range : ranges)
+            output.writeInt(range[2]);
+
+        output.writeInt(epsilonTargets.size());
+        for(int offset : epsilonOffsets)
+            output.writeInt(offset);
+        for(int target : epsilonTargets)
+            output.writeInt(target);
+
+        if(kind.hasDefaults()){
+            output.writeInt(defaultTargets.size());
+            for(int offset : defaultOffsets)
+                output.writeInt(offset);
+            for(int target : defaultTargets)
+                output.writeInt(target);
+        }
+
+        for(int[] range : ranges)
+            output.writeChar(range[0]);
+        for(int[] range : ranges)
+            output.writeChar(range[1]);
+    }
+
+    /**
+     * Writes the header, followed by the number of states and ranges and the final states.
+     * @param kind the type of the automaton.
+     * @param states the number of states.
+     * @param ranges the number of ranges.
+     * @param finals the final states.
+     * @throws IOException if the automaton couldn't be written.
+     */
+    protected void writeHeader(AutomatonFormat.Kind kind, int states, int ranges, BitSet finals) throws IOException{
+        output.writeInt(AutomatonFormat.MAGIC);
+        output.writeShort(AutomatonFormat.VERSION);
+        output.writeByte(kind.ordinal());
+        output.writeByte(0);
+
+        long[] words = Arrays.copyOf(finals.toLongArray(), (states + 63) / 64);
+
+        output.writeInt(states);
+        output.writeInt(ranges);
+        output.writeInt(words.length);
+        for(long word : words)
+            output.writeLong(word);
+    }
+
+    /**
+     * @param ids a map relating all discovered states to their id.
+     * @param states all discovered states, ordered by their id.
+     * @param state a state in the automaton.
+     * @return the id of the state, which is assigned if the state hasn't been discovered before.
+     */
+    private static int id(Map<State, Integer> ids, List<State> states, State state){
+        return ids.computeIfAbsent(state, key -> {
+            states.add(key);
+            return states.size() - 1;
+        });
+    }
+}
@@ -0,0 +1,321 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.util.*;
+
+/**
+ * This class implements the canonical form of a DFA, which is identical for all DFAs accepting the same language.
+ * The alphabet is split into the coarsest symbol classes, such that all letters of a class behave the same in every
+ * state. Default transitions are replaced by the classes they cover and missing transitions lead to an explicit sink.
+ * The states are then minimized via partition refinement, where all states that can't reach a final state are merged
+ * with the sink. Finally, the remaining states are numbered in breadth-first order, visiting the symbol classes in
+ * ascending order, and the sink is removed again.
+ * Since the minimal DFA of a language is unique up to the names of its states, the resulting table is unique as well.
+ */
+public final class CanonicalForm {
+    /**
+     * The canonical table, which doesn't have any default transitions.
+     */
+    private final TransitionTable table;
+    /**
+     * The 128-bit hash of the canonical table.
+     */
+    private final HashCode fingerprint;
+
+    /**
+     * @param table the canonical table.
+     */
+    private CanonicalForm(TransitionTable table){
+        this.table = table;
+        this.fingerprint = hash(table);
+    }
+
+    /**
+     * @param dfa the DFA.
+     * @return the canonical form of the language accepted by the DFA.
+     */
+    public static CanonicalForm of(DeterministicFiniteAutomaton dfa){
+        return of(TransitionTable.of(dfa));
+    }
+
+    /**
+     * @param table the table of the DFA.
+     * @return the canonical form of the language accepted by the table.
+     */
+    public static CanonicalForm of(TransitionTable table){
+        char[] classes = getSymbolClasses(table);
+        int[] transitions = getTransitions(table, classes);
+        int[] blocks = refine(table, transitions, classes.length);
+
+        return new CanonicalForm(number(table, transitions, blocks, classes));
+    }
+
+    /**
+     * A new class starts at every letter where a range of any state starts or after a range ends.
+     * @param table the table of the DFA.
+     * @return the first letter of every symbol class in ascending order.
+     */
+    private static char[] getSymbolClasses(TransitionTable table){
+        BitSet starts = new BitSet(TransitionTable.ALPHABET_SIZE);
+        starts.set(Character.MIN_VALUE);
+
+        for(int range = 0 ; range < table.sizeRanges() ; ++range){
+            starts.set(table.getStart(range));
+            starts.set(table.getEnd(range) + 1);
+        }
+        //The letter after the end of the alphabet doesn't start a class
+        starts.clear(TransitionTable.ALPHABET_SIZE);
+
+        char[] classes = new char[starts.cardinality()];
+        for(int label = starts.nextSetBit(0), i = 0 ; label >= 0 ; label = starts.nextSetBit(label + 1))
+            classes[i++] = (char)label;
+        return classes;
+    }
+
+    /**
+     * The sink is the state after the last state of the table.
+     * @param table the table of the DFA.
+     * @param classes the first letter of every symbol class.
+     * @return the target of every state and symbol class, with the transitions of state i starting at i * classes.
+     */
+    private static int[] getTransitions(TransitionTable table, char[] classes){
+        int sink = table.size();
+        int[] transitions = new int[(table.size() + 1) * classes.length];
+
+        for(int state = 0 ; state < table.size() ; ++state){
+            int defaultState = table.getDefault(state);
+            Arrays.fill(transitions, state * classes.length, (state + 1) * classes.length, defaultState == TransitionTable.NONE ? sink : defaultState);
+
+            for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) ; ++range){
+                int first = Arrays.binarySearch(classes, table.getStart(range));
+                int last = Arrays.binarySearch(classes, table.getEnd(range));
+                //The end of a range is either the start of a class or inside of it
+                if(last < 0)
+                    last = -last - 2;
+
+                Arrays.fill(transitions, state * classes.length + first, state * classes.length + last + 1, table.getTarget(range));
+            }
+        }
+
+        Arrays.fill(transitions, sink * classes.length, transitions.length, sink);
+        return transitions;
+    }
+
+    /**
+     * Splits the states into blocks of equivalent states, starting with the final and non-final states.
+     * In every round, states remain in the same block only if they lead to the same blocks for every symbol class,
+     * until the number of blocks doesn't change anymore.
+     * @param table the table of the DFA.
+     * @param transitions the target of every state and symbol class, including the sink.
+     * @param classes the number of symbol classes.
+     * @return the block of every state.
+     */
+    private static int[] refine(TransitionTable table, int[] transitions, int classes){
+        int states = table.size() + 1;
+        int[] blocks = new int[states];
+        for(int state = 0 ; state < table.size() ; ++state)
+            blocks[state] = table.isFinal(state) ? 1 : 0;
+
+        int size = 0;
+        int nextSize = 2;
+        while(size != nextSize){
+            size = nextSize;
+
+            Map<List<Integer>, Integer> signatures = new HashMap<>();
+            int[] nextBlocks = new int[states];
+            for(int state = 0 ; state < states ; ++state){
+                List<Integer> signature = new ArrayList<>(classes + 1);
+                signature.add(blocks[state]);
+                for(int i = state * classes ; i < (state + 1) * classes ; ++i)
+                    signature.add(blocks[transitions[i]]);
+
+                nextBlocks[state] = signatures.computeIfAbsent(signature, key -> signatures.size());
+            }
+
+            blocks = nextBlocks;
+            nextSize = signatures.size();
+        }
+
+        return blocks;
+    }
+
+    /**
+     * Numbers the blocks in breadth-first order, ignoring the block of the sink.
+     * Consecutive symbol classes with the same target are merged into a single range.
+     * @param table the table of the DFA.
+     * @param transitions the target of every state and symbol class, including the sink.
+     * @param blocks the block of every state.
+     * @param classes the first letter of every symbol class.
+     * @return the canonical table.
+     */
+    private static TransitionTable number(TransitionTable table, int[] transitions, int[] blocks, char[] classes){
+        int sink = blocks[table.size()];
+
+        //Every block is represented by one of its states
+        int[] representatives = new int[table.size() + 1];
+        for(int state = table.size() ; state >= 0 ; --state)
+            representatives[blocks[state]] = state;
+
+        int[] ids = new int[representatives.length];
+        Arrays.fill(ids, TransitionTable.NONE);
+        int[] order = new int[representatives.length];
+        int size = 0;
+
+        //The empty language still needs an initial state
+        ids[blocks[TransitionTable.INITIAL_STATE]] = size;
+        order[size++] = blocks[TransitionTable.INITIAL_STATE];
+
+        BitSet finals = new BitSet();
+        List<int[]> ranges = new ArrayList<>();
+        int[] offsets = new int[representatives.length + 1];
+
+        for(int id = 0 ; id < size ; ++id){
+            int state = representatives[order[id]];
+            finals.set(id, state < table.size() && table.isFinal(state));
+            offsets[id] = ranges.size();
+
+            if(order[id] == sink)
+                continue;
+
+            int[] previous = null;
+            for(int label = 0 ; label < classes.length ; ++label){
+                int target = blocks[transitions[state * classes.length + label]];
+
+                if(target == sink){
+                    previous = null;
+                    continue;
+                }
+
+                if(ids[target] == TransitionTable.NONE){
+                    ids[target] = size;
+                    order[size++] = target;
+                }
+
+                char end = label + 1 < classes.length ? (char)(classes[label + 1] - 1) : Character.MAX_VALUE;
+                if(previous != null && previous[2] == ids[target]){
+                    previous[1] = end;
+                }else{
+                    previous = new int[]{classes[label], end, ids[target]};
+                    ranges.add(previous);
+                }
+            }
+        }
+        offsets[size] = ranges.size();
+
+        char[] starts = new char[ranges.size()];
+        char[] ends = new char[ranges.size()];
+        int[] targets = new int[ranges.size()];
+        for(int range = 0 ; range < ranges.size() ; ++range){
+            starts[range] = (char)ranges.get(range)[0];
+            ends[range] = (char)ranges.get(range)[1];
+            targets[range] = ranges.get(range)[2];
+        }
+
+        int[] defaults = new int[size];
+        Arrays.fill(defaults, TransitionTable.NONE);
+
+        return new TransitionTable(finals, Arrays.copyOf(offsets, size + 1), starts, ends, targets, defaults);
+    }
+
+    /**
+     * @param table the canonical table.
+     * @return the 128-bit MurmurHash3 of the table.
+     */
+    private static HashCode hash(TransitionTable table){
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+
+        hasher.putInt(table.size());
+        hasher.putInt(table.sizeRanges());
+        for(int state = 0 ; state < table.size() ; ++state){
+            hasher.putBoolean(table.isFinal(state));
+            hasher.putInt(table.getOffset(state + 1));
+        }
+        for(int range = 0 ; range < table.sizeRanges() ; ++range){
+            hasher.putChar(table.getStart(range));
+            hasher.putChar(table.getEnd(range));
+            hasher.putInt(table.getTarget(range));
+        }
+
+        return hasher.hash();
+    }
+
+    /**
+     * The table is minimal, numbered in breadth-first order and doesn't contain a sink.
+     * @return the canonical table.
+     */
+    public TransitionTable getTable(){
+        return table;
+    }
+
+    /**
+     * Two DFAs accept the same language if and only if their canonical forms are equal. Different languages only
+     * share the same fingerprint by accident, which is negligible for 128 bits.
+     * @return the 128-bit fingerprint of the language.
+     */
+    public HashCode getFingerprint(){
+        return fingerprint;
+    }
+
+    /**
+     * @param o the other object.
+     * @return true if both canonical forms describe the same language.
+     */
+    @Override
+    public boolean equals(Object o){
+        if(this == o)
+            return true;
+        if(!(o instanceof CanonicalForm))
+            return false;
+
+        CanonicalForm other = (CanonicalForm)o;
+        if(!fingerprint.equals(other.fingerprint) || table.size() != other.table.size() || table.sizeRanges() != other.table.sizeRanges())
+            return false;
+
+        for(int state = 0 ; state < table.size() ; ++state)
+            if(table.isFinal(state) != other.table.isFinal(state) || table.getOffset(state + 1) != other.table.getOffset(state + 1))
+                return false;
+
+        for(int range = 0 ; range < table.sizeRanges() ; ++range)
+            if(table.getStart(range) != other.table.getStart(range) || table.getEnd(range) != other.table.getEnd(range) || table.getTarget(range) != other.table.getTarget(range))
+                return false;
+
+        return true;
+    }
+
+    /**
+     * @return the lower bits of the fingerprint.
+     */
+    @Override
+    public int hashCode(){
+        return fingerprint.asInt();
+    }
+
+    /**
+     * @return the fingerprint in hexadecimal notation.
+     */
+    @Override
+    public String toString(){
+        return fingerprint.toString();
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This builder is used to create DFAs whose transitions are stored outside of the heap, in direct buffers.
+ * The states have to be added in the order of their ids, starting with the initial state, and the transitions of
+ * a state have to be added before the next state is added. Targets may refer to states that haven't been added yet.
+ * The resulting automaton uses the layout described in {@link AutomatonFormat}, hence it is limited to 2 GB.
+ */
+public final class DirectTableBuilder {
+    /**
+     * The initial capacity of every buffer in bytes.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 12;
+    /**
+     * The final states, as 64 bit words.
+     */
+    private ByteBuffer finals;
+    /**
+     * The index of the first range of every state.
+     */
+    private ByteBuffer offsets;
+    /**
+     * The target of the default transition of every state.
+     */
+    private ByteBuffer defaults;
+    /**
+     * The target of every range.
+     */
+    private ByteBuffer targets;
+    /**
+     * The first letter of every range.
+     */
+    private ByteBuffer starts;
+    /**
+     * The last letter of every range.
+     */
+    private ByteBuffer ends;
+    /**
+     * The number of states.
+     */
+    private int states;
+    /**
+     * The number of ranges.
+     */
+    private int ranges;
+    /**
+     * The index of the first range of the current state.
+     */
+    private int offset;
+    /**
+     * Indicates whether any state has a default transition.
+     */
+    private boolean hasDefaults;
+
+    /**
+     * Creates an empty builder.
+     */
+    public DirectTableBuilder(){
+        clear();
+    }
+
+    /**
+     * Copies the table outside of the heap.
+     * @param table the table of a DFA.
+     * @return an automaton accepting the same language.
+     */
+    public static MappedAutomaton copyOf(TransitionTable table){
+        DirectTableBuilder builder = new DirectTableBuilder();
+
+        for(int state = 0 ; state < table.size() ; ++state){
+            builder.addState(table.isFinal(state));
+            for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) ; ++range)
+                builder.addRange(table.getStart(range), table.getEnd(range), table.getTarget(range));
+            builder.setDefault(table.getDefault(state));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Adds a new state, whose id is the number of states that have been added before.
+     * The first state is the initial state.
+     * @param isFinal true if the state is final.
+     * @return the id of the new state.
+     */
+    public int addState(boolean isFinal){
+        int word = states >>> 6;
+        if(finals.position() == 8 * word){
+            finals = ensure(finals, 8);
+            finals.putLong(0L);
+        }
+        if(isFinal)
+            finals.putLong(8 * word, finals.getLong(8 * word) | (1L << states));
+
+        offsets = ensure(offsets, 4);
+        offsets.putInt(ranges);
+        defaults = ensure(defaults, 4);
+        defaults.putInt(TransitionTable.NONE);
+
+        offset = ranges;
+        return states++;
+    }
+
+    /**
+     * Adds a transition over all letters between the first and the last letter to the most recently added state.
+     * The ranges of a state have to be added in ascending order. If the range directly follows the previous range
+     * and has the same target, both ranges are merged.
+     * @param start the first letter of the range.
+     * @param end the last letter of the range.
+     * @param target the id of the target.
+     * @throws IllegalArgumentException if the range is empty or overlaps with or precedes the previous range.
+     * @throws IllegalStateException if no state has been added.
+     */
+    public void addRange(char start, char end, int target) throws IllegalArgumentException, IllegalStateException{
+        if(states == 0)
+            throw new IllegalStateException("No state has been added");
+        if(start > end)
+            throw new IllegalArgumentException(String.format("The range %c-%c is empty", start, end));
+        if(target < 0)
+            throw new IllegalArgumentException(String.format("Invalid target %d", target));
+
+        if(ranges > offset){
+            char previous = ends.getChar(2 * (ranges - 1));
+
+            if(start <= previous)
+                throw new IllegalArgumentException(String.format("The range %c-%c has to be added before %c", start, end, previous));
+
+            if(previous + 1 == start && targets.getInt(4 * (ranges - 1)) == target){
+                ends.putChar(2 * (ranges - 1), end);
+                return;
+            }
+        }
+
+        targets = ensure(targets, 4);
+        targets.putInt(target);
+        starts = ensure(starts, 2);
+        starts.putChar(start);
+        ends = ensure(ends, 2);
+        ends.putChar(end);
+        ++ranges;
+    }
+
+    /**
+     * Sets the default transition of the most recently added state.
+     * @param target the id of the target or {@link TransitionTable#NONE}.
+     * @throws IllegalStateException if no state has been added.
+     */
+    public void setDefault(int target) throws IllegalStateException{
+        if(states == 0)
+            throw new IllegalStateException("No state has been added");
+
+        defaults.putInt(4 * (states - 1), target);
+        hasDefaults |= target != TransitionTable.NONE;
+    }
+
+    /**
+     * Copies all states into a single direct buffer. The default transitions are only stored if there are any.
+     * @return the DFA.
+     * @throws IllegalStateException if no state has been added or a target doesn't exist.
+     */
+    public MappedAutomaton build() throws IllegalStateException{
+        if(states == 0)
+            throw new IllegalStateException("No state has been added");
+
+        for(int range = 0 ; range < ranges ; ++range)
+            if(targets.getInt(4 * range) >= states)
+                throw new IllegalStateException(String.format("The state %d doesn't exist", targets.getInt(4 * range)));
+
+        int words = (states + 63) / 64;
+        long size = AutomatonFormat.HEADER_SIZE + 12
+                + 8L * words
+                + 4L * (states + 1)
+                + 4L * ranges
+                + (hasDefaults ? 4L * states : 0)
+                + 4L * ranges;
+
+        if(size > Integer.MAX_VALUE)
+            throw new IllegalStateException("The automaton is too large");
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int)size);
+        buffer.putInt(AutomatonFormat.MAGIC);
+        buffer.putShort(AutomatonFormat.VERSION);
+        buffer.put((byte)(hasDefaults ? AutomatonFormat.Kind.DFA_DEFAULT : AutomatonFormat.Kind.DFA).ordinal());
+        buffer.put((byte)0);
+        buffer.putInt(states);
+        buffer.putInt(ranges);
+        buffer.putInt(words);
+
+        put(buffer, finals, 8 * words);
+        put(buffer, offsets, 4 * states);
+        buffer.putInt(ranges);
+        put(buffer, targets, 4 * ranges);
+        if(hasDefaults)
+            put(buffer, defaults, 4 * states);
+        put(buffer, starts, 2 * ranges);
+        put(buffer, ends, 2 * ranges);
+        buffer.flip();
+
+        try{
+            return MappedAutomaton.of(buffer);
+        }catch(IOException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the number of states that have been added.
+     */
+    public int size(){
+        return states;
+    }
+
+    /**
+     * Reverts the builder back to its fresh state.
+     */
+    public void clear(){
+        finals = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        offsets = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        defaults = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        targets = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        starts = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        ends = ByteBuffer.allocateDirect(INITIAL_CAPACITY);
+        states = 0;
+        ranges = 0;
+        offset = 0;
+        hasDefaults = false;
+    }
+
+    /**
+     * @param buffer a direct buffer.
+     * @param bytes the number of bytes that are going to be written.
+     * @return the buffer itself or a larger copy, if the remaining space isn't sufficient.
+     * @throws IllegalStateException if the buffer would exceed 2 GB.
+     */
+    private static ByteBuffer ensure(ByteBuffer buffer, int bytes) throws IllegalStateException{
+        if(buffer.remaining() >= bytes)
+            return buffer;
+
+        long capacity = Math.max(buffer.capacity() + (long)(buffer.capacity() >> 1), (long)buffer.position() + bytes);
+        if(capacity > Integer.MAX_VALUE)
+            throw new IllegalStateException("The automaton is too large");
+
+        ByteBuffer copy = ByteBuffer.allocateDirect((int)capacity);
+        buffer.flip();
+        copy.put(buffer);
+        return copy;
+    }
+
+    /**
+     * @param target the buffer that is written to.
+     * @param source the buffer that is read from, starting at the beginning.
+     * @param bytes the number of bytes that are copied.
+     */
+    private static void put(ByteBuffer target, ByteBuffer source, int bytes){
+        ByteBuffer slice = source.duplicate();
+        slice.position(0).limit(bytes);
+        target.put(slice);
+    }
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import java.math.BigInteger;
+import java.util.*;
+
+/**
+ * This class counts and samples the words of a fixed length that are accepted by a DFA.
+ * For every length k and state s, the number of accepted words of length k starting in s is computed via
+ * dynamic programming over the transition table. A range contributes one word per letter, while a default
+ * transition contributes one word per letter of the alphabet without an explicit transition.
+ * The counts needed for sampling are cached, so that repeated samples of the same length are cheap.
+ */
+public class LanguageCounter {
+    /**
+     * The table of the DFA.
+     */
+    protected TransitionTable table;
+    /**
+     * The number of accepted words of length k for every state, at index k.
+     */
+    protected List<BigInteger[]> counts;
+
+    /**
+     * Creates a new counter.
+     * @param table the table of the DFA.
+     */
+    public LanguageCounter(TransitionTable table){
+        this.table = table;
+        this.counts = new ArrayList<>();
+    }
+
+    /**
+     * Large lengths are computed via exponentiation of the transition matrix, if it is cheaper than
+     * computing the counts of all intermediate lengths.
+     * @param length the length of the words.
+     * @return the number of accepted words with the given length.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public synchronized BigInteger count(int length) throws IllegalArgumentException{
+        if(length < 0)
+            throw new IllegalArgumentException("The length must not be negative");
+
+        if(length < counts.size())
+            return counts.get(length)[TransitionTable.INITIAL_STATE];
+
+        //The state transition matrix is multiplied about 2 log(length) times
+        long size = table.size();
+        long exponentiation = size * size * size * 2 * (32 - Integer.numberOfLeadingZeros(length));
+        long iteration = (long)length * (table.size() + table.sizeRanges());
+
+        if(exponentiation < iteration)
+            return countByExponentiation(length);
+
+        BigInteger[] current = finals();
+        for(int i = 0 ; i < length ; ++i)
+            current = next(current);
+        return current[TransitionTable.INITIAL_STATE];
+    }
+
+    /**
+     * Picks every accepted word of the given length with the same probability.
+     * @param length the length of the word.
+     * @param random the source of randomness.
+     * @return a uniformly chosen word of the given length, if there is one.
+     * @throws IllegalArgumentException if the length is negative.
+     */
+    public synchronized Optional<String> sample(int length, Random random) throws IllegalArgumentException{
+        if(length < 0)
+            throw new IllegalArgumentException("The length must not be negative");
+
+        if(counts.isEmpty())
+            counts.add(finals());
+        while(counts.size() <= length)
+            counts.add(next(counts.get(counts.size() - 1)));
+
+        int state = TransitionTable.INITIAL_STATE;
+        if(counts.get(length)[state].signum() == 0)
+            return Optional.empty();
+
+        StringBuilder word = new StringBuilder(length);
+        for(int remaining = length ; remaining > 0 ; --remaining){
+            BigInteger[] next = counts.get(remaining - 1);
+            //Every word is represented by a unique number below the total number of words
+            BigInteger index = random(counts.get(remaining)[state], random);
+
+            int target = TransitionTable.NONE;
+            for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) && target == TransitionTable.NONE ; ++range){
+                BigInteger words = next[table.getTarget(range)];
+                BigInteger total = words.multiply(BigInteger.valueOf(table.getEnd(range) - table.getStart(range) + 1));
+
+                if(index.compareTo(total) < 0){
+                    word.append((char)(table.getStart(range) + index.divide(words).intValue()));
+                    target = table.getTarget(range);
+                }else{
+                    index = index.subtract(total);
+                }
+            }
+
+            //The word has to continue via the default transition
+            if(target == TransitionTable.NONE){
+                target = table.getDefault(state);
+                word.append(getOtherLabel(state, index.divide(next[target]).intValue()));
+            }
+
+            state = target;
+        }
+
+        return Optional.of(word.toString());
+    }
+
+    /**
+     * @return the number of accepted words of length 0 for every state.
+     */
+    private BigInteger[] finals(){
+        BigInteger[] result = new BigInteger[table.size()];
+        for(int state = 0 ; state < result.length ; ++state)
+            result[state] = table.isFinal(state) ? BigInteger.ONE : BigInteger.ZERO;
+        return result;
+    }
+
+    /**
+     * @param current the number of accepted words of length k for every state.
+     * @return the number of accepted words of length k+1 for every state.
+     */
+    private BigInteger[] next(BigInteger[] current){
+        BigInteger[] result = new BigInteger[current.length];
+
+        for(int state = 0 ; state < result.length ; ++state){
+            BigInteger sum = BigInteger.ZERO;
+
+            for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) ; ++range)
+                sum = sum.add(current[table.getTarget(range)].multiply(BigInteger.valueOf(table.getEnd(range) - table.getStart(range) + 1)));
+
+            if(table.getDefault(state) != TransitionTable.NONE)
+                sum = sum.add(current[table.getDefault(state)].multiply(BigInteger.valueOf(getDefaultLabels(state))));
+
+            result[state] = sum;
+        }
+
+        return result;
+    }
+
+    /**
+     * Computes the product of the initial row of the transition matrix to the power of the length and the final states,
+     * using exponentiation by squaring.
+     * @param length the length of the words.
+     * @return the number of accepted words with the given length.
+     */
+    private BigInteger countByExponentiation(int length){
+        BigInteger[][] matrix = new BigInteger[table.size()][table.size()];
+        for(BigInteger[] row : matrix)
+            Arrays.fill(row, BigInteger.ZERO);
+
+        for(int state = 0 ; state < table.size() ; ++state){
+            for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) ; ++range)
+                matrix[state][table.getTarget(range)] = matrix[state][table.getTarget(range)].add(BigInteger.valueOf(table.getEnd(range) - table.getStart(range) + 1));
+
+            if(table.getDefault(state) != TransitionTable.NONE)
+                matrix[state][table.getDefault(state)] = matrix[state][table.getDefault(state)].add(BigInteger.valueOf(getDefaultLabels(state)));
+        }
+
+        //Multiply the vector from the right, since only the final states are of interest
+        BigInteger[] vector = finals();
+        for(int exponent = length ; exponent > 0 ; exponent >>= 1){
+            if((exponent & 1) == 1)
+                vector = multiply(matrix, vector);
+            if(exponent > 1)
+                matrix = multiply(matrix, matrix);
+        }
+
+        return vector[TransitionTable.INITIAL_STATE];
+    }
+
+    /**
+     * @param matrix a square matrix.
+     * @param vector a vector.
+     * @return the product of the matrix and the vector.
+     */
+    private static BigInteger[] multiply(BigInteger[][] matrix, BigInteger[] vector){
+        BigInteger[] result = new BigInteger[vector.length];
+
+        for(int i = 0 ; i < vector.length ; ++i){
+            BigInteger sum = BigInteger.ZERO;
+            for(int j = 0 ; j < vector.length ; ++j)
+                if(matrix[i][j].signum() != 0)
+                    sum = sum.add(matrix[i][j].multiply(vector[j]));
+            result[i] = sum;
+        }
+
+        return result;
+    }
+
+    /**
+     * @param left a square matrix.
+     * @param right a square matrix of the same size.
+     * @return the product of both matrices.
+     */
+    private static BigInteger[][] multiply(BigInteger[][] left, BigInteger[][] right){
+        BigInteger[][] result = new BigInteger[left.length][left.length];
+        for(BigInteger[] row : result)
+            Arrays.fill(row, BigInteger.ZERO);
+
+        for(int i = 0 ; i < left.length ; ++i)
+            for(int k = 0 ; k < left.length ; ++k)
+                if(left[i][k].signum() != 0)
+                    for(int j = 0 ; j < left.length ; ++j)
+                        if(right[k][j].signum() != 0)
+                            result[i][j] = result[i][j].add(left[i][k].multiply(right[k][j]));
+
+        return result;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the number of letters that are handled by the default transition.
+     */
+    private long getDefaultLabels(int state){
+        return TransitionTable.ALPHABET_SIZE - table.countLabels(state);
+    }
+
+    /**
+     * @param state the id of a state.
+     * @param index the index of the letter among all letters without an explicit transition.
+     * @return the letter without an explicit transition at the given index.
+     */
+    private char getOtherLabel(int state, int index){
+        int label = 0;
+
+        //The ranges are sorted, so the gaps between them contain the letters in ascending order
+        for(int range = table.getOffset(state) ; range < table.getOffset(state + 1) ; ++range){
+            int gap = table.getStart(range) - label;
+            if(index < gap)
+                break;
+            index -= gap;
+            label = table.getEnd(range) + 1;
+        }
+
+        return (char)(label + index);
+    }
+
+    /**
+     * @param bound the exclusive upper bound.
+     * @param random the source of randomness.
+     * @return a uniformly chosen number between zero and the bound.
+     */
+    private static BigInteger random(BigInteger bound, Random random){
+        BigInteger result;
+        do{
+            result = new BigInteger(bound.bitLength(), random);
+        }while(result.compareTo(bound) >= 0);
+        return result;
+    }
+}
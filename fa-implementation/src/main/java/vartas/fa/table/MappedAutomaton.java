@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+
+/**
+ * This class implements a read-only DFA that operates directly on a buffer in the format described in
+ * {@link AutomatonFormat}. Opening a file only maps it into memory, without copying the transitions onto the heap.
+ * Since the mapping is backed by the page cache of the operating system, multiple processes mapping the same file
+ * share a single physical copy of the automaton. All reads use absolute indices, hence instances are thread-safe.
+ */
+public final class MappedAutomaton {
+    /**
+     * The buffer containing the automaton.
+     */
+    private final ByteBuffer buffer;
+    /**
+     * The number of states.
+     */
+    private final int states;
+    /**
+     * The number of ranges.
+     */
+    private final int ranges;
+    /**
+     * The position of the final states.
+     */
+    private final int finals;
+    /**
+     * The position of the offsets.
+     */
+    private final int offsets;
+    /**
+     * The position of the targets.
+     */
+    private final int targets;
+    /**
+     * The position of the default transitions or {@link TransitionTable#NONE}, if there are none.
+     */
+    private final int defaults;
+    /**
+     * The position of the first letter of every range.
+     */
+    private final int starts;
+    /**
+     * The position of the last letter of every range.
+     */
+    private final int ends;
+
+    /**
+     * @param buffer the buffer containing the automaton.
+     * @throws IOException if the buffer doesn't contain a DFA in a supported version.
+     */
+    private MappedAutomaton(ByteBuffer buffer) throws IOException{
+        this.buffer = buffer;
+
+        if(buffer.capacity() < AutomatonFormat.HEADER_SIZE + 12 || buffer.getInt(0) != AutomatonFormat.MAGIC)
+            throw new IOException("The buffer doesn't contain an automaton");
+        if(buffer.getShort(4) != AutomatonFormat.VERSION)
+            throw new IOException(String.format("Unsupported version %d", buffer.getShort(4)));
+
+        int kind = buffer.get(6);
+        if(kind < 0 || kind >= AutomatonFormat.Kind.values().length || !AutomatonFormat.Kind.values()[kind].isDeterministic())
+            throw new IOException("The buffer doesn't contain a DFA");
+        boolean hasDefaults = AutomatonFormat.Kind.values()[kind].hasDefaults();
+
+        states = buffer.getInt(AutomatonFormat.HEADER_SIZE);
+        ranges = buffer.getInt(AutomatonFormat.HEADER_SIZE + 4);
+        int words = buffer.getInt(AutomatonFormat.HEADER_SIZE + 8);
+        if(states <= 0 || ranges < 0 || words != (states + 63) / 64)
+            throw new IOException("The automaton has an invalid size");
+
+        //Use a long, otherwise the positions could overflow for corrupted sizes
+        long position = AutomatonFormat.HEADER_SIZE + 12;
+        finals = (int)position;
+        position += 8L * words;
+        offsets = (int)position;
+        position += 4L * (states + 1);
+        targets = (int)position;
+        position += 4L * ranges;
+        defaults = hasDefaults ? (int)position : TransitionTable.NONE;
+        position += hasDefaults ? 4L * states : 0;
+        starts = (int)position;
+        position += 2L * ranges;
+        ends = (int)position;
+        position += 2L * ranges;
+
+        if(position > buffer.capacity())
+            throw new IOException("The buffer is smaller than the automaton");
+        if(buffer.getInt(offsets + 4 * states) != ranges)
+            throw new IOException("The number of ranges doesn't match");
+    }
+
+    /**
+     * Maps the file into memory. The file must not be modified while it is mapped.
+     * @param path the path to a file containing a DFA.
+     * @return the DFA in the file.
+     * @throws IOException if the file doesn't contain a DFA in a supported version or is larger than 2 GB.
+     */
+    public static MappedAutomaton open(Path path) throws IOException{
+        //The mapping remains valid after the channel has been closed
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)){
+            if(channel.size() > Integer.MAX_VALUE)
+                throw new IOException("The file is too large to be mapped");
+
+            return new MappedAutomaton(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * The content of the buffer is not copied, so changes to the buffer are visible to the automaton.
+     * @param buffer a buffer containing a DFA, starting at its current position.
+     * @return the DFA in the buffer.
+     * @throws IOException if the buffer doesn't contain a DFA in a supported version.
+     */
+    public static MappedAutomaton of(ByteBuffer buffer) throws IOException{
+        return new MappedAutomaton(buffer.slice().order(ByteOrder.BIG_ENDIAN));
+    }
+
+    /**
+     * Lets the word on this automaton.
+     * @param word the input word.
+     * @return true, if the word is accepted by the automaton.
+     */
+    public boolean run(String word){
+        int state = TransitionTable.INITIAL_STATE;
+
+        for(int i = 0 ; i < word.length() && state != TransitionTable.NONE ; ++i)
+            state = step(state, word.charAt(i));
+
+        return state != TransitionTable.NONE && isFinal(state);
+    }
+
+    /**
+     * Executes a single step, using a binary search over the ranges of the state.
+     * If no range contains the letter, the default transition is used.
+     * @param state the id of the current state.
+     * @param label the letter that has been read.
+     * @return the id of the next state or {@link TransitionTable#NONE}, if the letter is rejected.
+     */
+    public int step(int state, char label){
+        int low = getOffset(state);
+        int high = getOffset(state + 1) - 1;
+
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            if(label < getStart(middle))
+                high = middle - 1;
+            else if(label > getEnd(middle))
+                low = middle + 1;
+            else
+                return getTarget(middle);
+        }
+
+        return getDefault(state);
+    }
+
+    /**
+     * @return the number of states.
+     */
+    public int size(){
+        return states;
+    }
+
+    /**
+     * @return the total number of ranges.
+     */
+    public int sizeRanges(){
+        return ranges;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return true if the state is final.
+     */
+    public boolean isFinal(int state){
+        return (buffer.getLong(finals + 8 * (state >>> 6)) & (1L << state)) != 0;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the index of the first range of the state.
+     */
+    public int getOffset(int state){
+        return buffer.getInt(offsets + 4 * state);
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the first letter of the range.
+     */
+    public char getStart(int range){
+        return buffer.getChar(starts + 2 * range);
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the last letter of the range.
+     */
+    public char getEnd(int range){
+        return buffer.getChar(ends + 2 * range);
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the id of the target of the range.
+     */
+    public int getTarget(int range){
+        return buffer.getInt(targets + 4 * range);
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the id of the target of the default transition or {@link TransitionTable#NONE}.
+     */
+    public int getDefault(int state){
+        return defaults == TransitionTable.NONE ? TransitionTable.NONE : buffer.getInt(defaults + 4 * state);
+    }
+
+    /**
+     * Copies the automaton onto the heap.
+     * @return a table of the same automaton.
+     */
+    public TransitionTable toTable(){
+        BitSet finalStates = new BitSet(states);
+        int[] tableOffsets = new int[states + 1];
+        int[] tableDefaults = new int[states];
+        char[] tableStarts = new char[ranges];
+        char[] tableEnds = new char[ranges];
+        int[] tableTargets = new int[ranges];
+
+        for(int state = 0 ; state < states ; ++state){
+            finalStates.set(state, isFinal(state));
+            tableOffsets[state] = getOffset(state);
+            tableDefaults[state] = getDefault(state);
+        }
+        tableOffsets[states] = ranges;
+
+        for(int range = 0 ; range < ranges ; ++range){
+            tableStarts[range] = getStart(range);
+            tableEnds[range] = getEnd(range);
+            tableTargets[range] = getTarget(range);
+        }
+
+        return new TransitionTable(finalStates, tableOffsets, tableStarts, tableEnds, tableTargets, tableDefaults);
+    }
+}
@@ -0,0 +1,475 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * This class compiles DFAs into specialized Java classes, which are loaded by a fresh class loader.
+ * Every state becomes a block of code that reads the next letter and jumps directly to the block of the next state.
+ * The ranges of a state are searched via a binary tree of comparisons, which is unrolled into the code.
+ * Hence the JIT is able to optimize the whole matcher, without any loads from a table.
+ * The generated classes use version 50 of the class file format, which doesn't require stack map frames.
+ * Since the JIT ignores methods with more than 8000 bytes of code, the compiler is only meant for small automata
+ * with at most a few hundred states.
+ */
+public final class MatcherCompiler {
+    /**
+     * The maximum number of bytes in the code of the generated method.
+     * The JIT doesn't compile larger methods by default, which would leave the matcher slower than a table.
+     */
+    public static final int MAX_CODE_SIZE = 8000;
+    /**
+     * The counter used to create unique class names.
+     */
+    private static final AtomicInteger COUNTER = new AtomicInteger();
+    /**
+     * The table that is compiled.
+     */
+    private final TransitionTable table;
+    /**
+     * The constant pool of the class.
+     */
+    private final ConstantPool constants;
+    /**
+     * The code of the generated method.
+     */
+    private final ByteArrayOutputStream code;
+    /**
+     * The position of every label in the code or -1, if it hasn't been placed yet.
+     * The first labels are the blocks of the states, using their id.
+     */
+    private final List<Integer> labels;
+    /**
+     * The position of every branch instruction and the label it jumps to.
+     */
+    private final List<int[]> branches;
+
+    /**
+     * The local variable containing the input word.
+     */
+    private static final int WORD = 2;
+    /**
+     * The local variable containing the length of the word.
+     */
+    private static final int LENGTH = 3;
+    /**
+     * The local variable containing the index of the next letter.
+     */
+    private static final int INDEX = 4;
+    /**
+     * The local variable containing the current letter.
+     */
+    private static final int LETTER = 5;
+
+    /**
+     * @param table the table that is compiled.
+     */
+    private MatcherCompiler(TransitionTable table){
+        this.table = table;
+        this.constants = new ConstantPool();
+        this.code = new ByteArrayOutputStream();
+        this.labels = new ArrayList<>();
+        this.branches = new ArrayList<>();
+
+        for(int state = 0 ; state < table.size() ; ++state)
+            labels.add(-1);
+    }
+
+    /**
+     * @param dfa the DFA.
+     * @return a predicate that accepts the same words as the DFA.
+     * @throws IllegalArgumentException if the DFA is too large to be compiled.
+     */
+    public static Predicate<String> compile(DeterministicFiniteAutomaton dfa) throws IllegalArgumentException{
+        return compile(TransitionTable.of(dfa));
+    }
+
+    /**
+     * @param table the table of a DFA.
+     * @return a predicate that accepts the same words as the DFA.
+     * @throws IllegalArgumentException if the DFA is too large to be compiled.
+     */
+    @SuppressWarnings("unchecked")
+    public static Predicate<String> compile(TransitionTable table) throws IllegalArgumentException{
+        String name = "CompiledMatcher" + COUNTER.incrementAndGet();
+        byte[] bytes = new MatcherCompiler(table).toByteArray(name);
+
+        try{
+            Class<?> type = new MatcherClassLoader(MatcherCompiler.class.getClassLoader()).define(name, bytes);
+            return (Predicate<String>)type.getConstructor().newInstance();
+        }catch(ReflectiveOperationException e){
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param name the binary name of the class.
+     * @return the class file of the matcher.
+     * @throws IllegalArgumentException if the code of the matcher exceeds {@link #MAX_CODE_SIZE}.
+     */
+    private byte[] toByteArray(String name) throws IllegalArgumentException{
+        int thisClass = constants.addClass(name);
+        int superClass = constants.addClass("java/lang/Object");
+        int predicate = constants.addClass("java/util/function/Predicate");
+        int constructor = constants.addMethod(superClass, "<init>", "()V");
+        int init = constants.addUtf8("<init>");
+        int initType = constants.addUtf8("()V");
+        int test = constants.addUtf8("test");
+        int testType = constants.addUtf8("(Ljava/lang/Object;)Z");
+        int codeAttribute = constants.addUtf8("Code");
+
+        byte[] testCode = generate();
+
+        try{
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream output = new DataOutputStream(bytes);
+
+            output.writeInt(0xCAFEBABE);
+            output.writeShort(0);
+            output.writeShort(50);
+            constants.write(output);
+            //public final super
+            output.writeShort(0x0001 | 0x0010 | 0x0020);
+            output.writeShort(thisClass);
+            output.writeShort(superClass);
+            output.writeShort(1);
+            output.writeShort(predicate);
+            //No fields
+            output.writeShort(0);
+
+            output.writeShort(2);
+            //public CompiledMatcher(){ super(); }
+            writeMethod(output, init, initType, codeAttribute, 1, 1, new byte[]{
+                    0x2a, (byte)0xb7, (byte)(constructor >> 8), (byte)constructor, (byte)0xb1
+            });
+            writeMethod(output, test, testType, codeAttribute, 2, 6, testCode);
+
+            //No attributes
+            output.writeShort(0);
+            return bytes.toByteArray();
+        }catch(IOException e){
+            //Can't happen with an in-memory stream
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param output the stream the method is written to.
+     * @param name the index of the method name.
+     * @param type the index of the method descriptor.
+     * @param codeAttribute the index of the name of the code attribute.
+     * @param maxStack the maximum size of the operand stack.
+     * @param maxLocals the number of local variables.
+     * @param bytes the instructions of the method.
+     * @throws IOException if the method couldn't be written.
+     */
+    private static void writeMethod(DataOutputStream output, int name, int type, int codeAttribute, int maxStack, int maxLocals, byte[] bytes) throws IOException{
+        output.writeShort(0x0001);
+        output.writeShort(name);
+        output.writeShort(type);
+        output.writeShort(1);
+
+        output.writeShort(codeAttribute);
+        output.writeInt(12 + bytes.length);
+        output.writeShort(maxStack);
+        output.writeShort(maxLocals);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+        //No exception handlers and no attributes
+        output.writeShort(0);
+        output.writeShort(0);
+    }
+
+    /**
+     * Generates the code of {@link Predicate#test(Object)}.
+     * @return the instructions of the method.
+     * @throws IllegalArgumentException if the code exceeds {@link #MAX_CODE_SIZE}.
+     */
+    private byte[] generate() throws IllegalArgumentException{
+        int string = constants.addClass("java/lang/String");
+        int length = constants.addMethod(string, "length", "()I");
+        int charAt = constants.addMethod(string, "charAt", "(I)C");
+
+        //String word = (String)object; int length = word.length(); int index = 0;
+        code.write(0x2b);
+        writeShort(0xc0, string);
+        code.write(0x4d);
+        code.write(0x2c);
+        writeShort(0xb6, length);
+        code.write(0x3e);
+        code.write(0x03);
+        writeByte(0x36, INDEX);
+
+        for(int state = 0 ; state < table.size() ; ++state){
+            int read = newLabel();
+
+            //if(index >= length) return isFinal;
+            place(state);
+            writeByte(0x15, INDEX);
+            code.write(0x1d);
+            writeBranch(0xa1, read);
+            code.write(table.isFinal(state) ? 0x04 : 0x03);
+            code.write(0xac);
+
+            //char letter = word.charAt(index++);
+            place(read);
+            code.write(0x2c);
+            writeByte(0x15, INDEX);
+            writeShort(0xb6, charAt);
+            writeByte(0x36, LETTER);
+            code.write(0x84);
+            code.write(INDEX);
+            code.write(1);
+
+            search(state, table.getOffset(state), table.getOffset(state + 1) - 1);
+        }
+
+        byte[] bytes = code.toByteArray();
+        if(bytes.length > MAX_CODE_SIZE)
+            throw new IllegalArgumentException("The automaton is too large to be compiled");
+
+        for(int[] branch : branches){
+            int offset = labels.get(branch[1]) - branch[0];
+            bytes[branch[0] + 1] = (byte)(offset >> 8);
+            bytes[branch[0] + 2] = (byte)offset;
+        }
+
+        return bytes;
+    }
+
+    /**
+     * Generates a binary search over the given ranges of the state.
+     * If the letter isn't contained in any range, the default transition is taken.
+     * @param state the id of the state.
+     * @param low the first range that is searched.
+     * @param high the last range that is searched.
+     */
+    private void search(int state, int low, int high){
+        if(low > high){
+            int next = table.getDefault(state);
+            if(next == TransitionTable.NONE){
+                code.write(0x03);
+                code.write(0xac);
+            }else{
+                writeBranch(0xa7, next);
+            }
+            return;
+        }
+
+        int middle = (low + high) >>> 1;
+        int left = newLabel();
+
+        //if(letter < start) goto left; if(letter <= end) goto target;
+        writeByte(0x15, LETTER);
+        writeConstant(table.getStart(middle));
+        writeBranch(0xa1, left);
+        writeByte(0x15, LETTER);
+        writeConstant(table.getEnd(middle));
+        writeBranch(0xa4, table.getTarget(middle));
+
+        search(state, middle + 1, high);
+        place(left);
+        search(state, low, middle - 1);
+    }
+
+    /**
+     * @return a new label that hasn't been placed yet.
+     */
+    private int newLabel(){
+        labels.add(-1);
+        return labels.size() - 1;
+    }
+
+    /**
+     * @param label a label that is placed at the current position.
+     */
+    private void place(int label){
+        labels.set(label, code.size());
+    }
+
+    /**
+     * @param opcode the opcode of the branch instruction.
+     * @param label the label the instruction jumps to.
+     */
+    private void writeBranch(int opcode, int label){
+        branches.add(new int[]{code.size(), label});
+        code.write(opcode);
+        code.write(0);
+        code.write(0);
+    }
+
+    /**
+     * @param opcode the opcode of the instruction.
+     * @param operand the operand of the instruction.
+     */
+    private void writeByte(int opcode, int operand){
+        code.write(opcode);
+        code.write(operand);
+    }
+
+    /**
+     * @param opcode the opcode of the instruction.
+     * @param operand the operand of the instruction.
+     */
+    private void writeShort(int opcode, int operand){
+        code.write(opcode);
+        code.write(operand >> 8);
+        code.write(operand);
+    }
+
+    /**
+     * Pushes the letter onto the operand stack, using the shortest instruction.
+     * @param letter the letter.
+     */
+    private void writeConstant(char letter){
+        if(letter <= 5){
+            code.write(0x03 + letter);
+        }else if(letter <= Byte.MAX_VALUE){
+            writeByte(0x10, letter);
+        }else if(letter <= Short.MAX_VALUE){
+            writeShort(0x11, letter);
+        }else{
+            int index = constants.addInteger(letter);
+            if(index <= 0xFF)
+                writeByte(0x12, index);
+            else
+                writeShort(0x13, index);
+        }
+    }
+
+    /**
+     * This class contains the constant pool of the generated class. Equal constants are only added once.
+     */
+    private static final class ConstantPool{
+        /**
+         * The serialized constants.
+         */
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        /**
+         * The index of every constant, identified by its serialized form.
+         */
+        private final Map<String, Integer> indices = new HashMap<>();
+        /**
+         * The index of the next constant.
+         */
+        private int size = 1;
+
+        /**
+         * @param constant the serialized constant.
+         * @return the index of the constant.
+         */
+        private int add(byte[] constant){
+            //Every byte is mapped to exactly one character
+            String key = new String(constant, StandardCharsets.ISO_8859_1);
+
+            return indices.computeIfAbsent(key, k -> {
+                bytes.write(constant, 0, constant.length);
+                return size++;
+            });
+        }
+
+        /**
+         * @param value a string in the constant pool.
+         * @return the index of the string.
+         */
+        private int addUtf8(String value){
+            ByteArrayOutputStream constant = new ByteArrayOutputStream();
+            try{
+                DataOutputStream output = new DataOutputStream(constant);
+                output.writeByte(1);
+                output.writeUTF(value);
+            }catch(IOException e){
+                throw new IllegalStateException(e);
+            }
+            return add(constant.toByteArray());
+        }
+
+        /**
+         * @param name the internal name of the class.
+         * @return the index of the class.
+         */
+        private int addClass(String name){
+            int utf8 = addUtf8(name);
+            return add(new byte[]{7, (byte)(utf8 >> 8), (byte)utf8});
+        }
+
+        /**
+         * @param owner the index of the class declaring the method.
+         * @param name the name of the method.
+         * @param type the descriptor of the method.
+         * @return the index of the method.
+         */
+        private int addMethod(int owner, String name, String type){
+            int nameIndex = addUtf8(name);
+            int typeIndex = addUtf8(type);
+            int nameAndType = add(new byte[]{12, (byte)(nameIndex >> 8), (byte)nameIndex, (byte)(typeIndex >> 8), (byte)typeIndex});
+            return add(new byte[]{10, (byte)(owner >> 8), (byte)owner, (byte)(nameAndType >> 8), (byte)nameAndType});
+        }
+
+        /**
+         * @param value an integer in the constant pool.
+         * @return the index of the integer.
+         */
+        private int addInteger(int value){
+            return add(new byte[]{3, (byte)(value >> 24), (byte)(value >> 16), (byte)(value >> 8), (byte)value});
+        }
+
+        /**
+         * @param output the stream the constant pool is written to.
+         * @throws IOException if the constant pool couldn't be written.
+         */
+        private void write(DataOutputStream output) throws IOException{
+            output.writeShort(size);
+            bytes.writeTo(output);
+        }
+    }
+
+    /**
+     * This class loader defines a single generated class. Since every matcher has its own loader,
+     * the class can be unloaded once the matcher is no longer referenced.
+     */
+    private static final class MatcherClassLoader extends ClassLoader{
+        /**
+         * @param parent the class loader of this library.
+         */
+        private MatcherClassLoader(ClassLoader parent){
+            super(parent);
+        }
+
+        /**
+         * @param name the binary name of the class.
+         * @param bytes the class file.
+         * @return the defined class.
+         */
+        private Class<?> define(String name, byte[] bytes){
+            return defineClass(name, bytes, 0, bytes.length);
+        }
+    }
+}
@@ -0,0 +1,332 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import vartas.fa.State;
+
+import java.util.*;
+
+/**
+ * This class implements a compact representation of a large number of states.
+ * Every state is identified by its id, the flags of all states are stored in bit sets and the names of the few
+ * named states are kept in a separate table. Instead of a few dozen bytes per state, an anonymous state only
+ * requires three bits.
+ * State objects are only created as lightweight views when they are requested, which read and write through to
+ * this table. Two views are equal if and only if they refer to the same id in the same table.
+ */
+public final class StateTable {
+    /**
+     * The final states.
+     */
+    private final BitSet finals;
+    /**
+     * The initial states.
+     */
+    private final BitSet initials;
+    /**
+     * The frozen states.
+     */
+    private final BitSet frozen;
+    /**
+     * The names of all named states.
+     */
+    private final Map<Integer, String> names;
+    /**
+     * The number of states.
+     */
+    private int size;
+    /**
+     * Indicates whether no more states can be added.
+     */
+    private boolean isFrozen;
+
+    /**
+     * Creates a new table without any states.
+     */
+    public StateTable(){
+        this(new BitSet(), new BitSet(), new HashMap<>(), 0);
+    }
+
+    /**
+     * Creates a new table with the given states. The arguments are not copied.
+     * @param finals the final states.
+     * @param initials the initial states.
+     * @param names the names of all named states.
+     * @param size the number of states.
+     * @throws IllegalArgumentException if the flags or names refer to states outside of the table.
+     */
+    public StateTable(BitSet finals, BitSet initials, Map<Integer, String> names, int size) throws IllegalArgumentException{
+        if(size < 0 || finals.length() > size || initials.length() > size)
+            throw new IllegalArgumentException("The flags refer to states outside of the table");
+        if(names.keySet().stream().anyMatch(id -> id < 0 || id >= size))
+            throw new IllegalArgumentException("The names refer to states outside of the table");
+
+        this.finals = finals;
+        this.initials = initials;
+        this.frozen = new BitSet();
+        this.names = names;
+        this.size = size;
+    }
+
+    /**
+     * Creates a new anonymous state.
+     * @return the id of the new state.
+     * @throws IllegalStateException if the table is frozen.
+     */
+    public int addState() throws IllegalStateException{
+        if(isFrozen)
+            throw new IllegalStateException("The table is frozen");
+        return size++;
+    }
+
+    /**
+     * Creates a new named state.
+     * @param name the name of the state.
+     * @return the id of the new state.
+     * @throws IllegalStateException if the table is frozen.
+     */
+    public int addState(String name) throws IllegalStateException{
+        int id = addState();
+        names.put(id, Objects.requireNonNull(name));
+        return id;
+    }
+
+    /**
+     * @return the number of states.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * @param id the id of a state.
+     * @return the optional containing the potential name of the state.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public Optional<String> getName(int id) throws IndexOutOfBoundsException{
+        return Optional.ofNullable(names.get(check(id)));
+    }
+
+    /**
+     * @param id the id of a state.
+     * @return true if the state is final.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public boolean isFinal(int id) throws IndexOutOfBoundsException{
+        return finals.get(check(id));
+    }
+
+    /**
+     * @return a copy of the final states.
+     */
+    public BitSet getFinalStates(){
+        return (BitSet)finals.clone();
+    }
+
+    /**
+     * @param id the id of a state.
+     * @return true if the state is initial.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public boolean isInitial(int id) throws IndexOutOfBoundsException{
+        return initials.get(check(id));
+    }
+
+    /**
+     * @param id the id of a state.
+     * @return true if the flags of the state can no longer be modified.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public boolean isFrozen(int id) throws IndexOutOfBoundsException{
+        return isFrozen || frozen.get(check(id));
+    }
+
+    /**
+     * @return true if neither states can be added nor any flags be modified.
+     */
+    public boolean isFrozen(){
+        return isFrozen;
+    }
+
+    /**
+     * @param id the id of a state.
+     * @param isFinal the new flag indicating whether the state is final.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     * @throws IllegalStateException if the state is frozen.
+     */
+    public void setFinal(int id, boolean isFinal) throws IndexOutOfBoundsException, IllegalStateException{
+        if(isFrozen(id))
+            throw new IllegalStateException(String.format("The state %d is frozen", id));
+        finals.set(id, isFinal);
+    }
+
+    /**
+     * @param id the id of a state.
+     * @param isInitial the new flag indicating whether the state is initial.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     * @throws IllegalStateException if the state is frozen.
+     */
+    public void setInitial(int id, boolean isInitial) throws IndexOutOfBoundsException, IllegalStateException{
+        if(isFrozen(id))
+            throw new IllegalStateException(String.format("The state %d is frozen", id));
+        initials.set(id, isInitial);
+    }
+
+    /**
+     * Prevents any further modifications of the flags of a single state.
+     * @param id the id of a state.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public void freeze(int id) throws IndexOutOfBoundsException{
+        frozen.set(check(id));
+    }
+
+    /**
+     * Prevents any further states from being added and the flags of all states from being modified.
+     * Freezing a table multiple times has no effect.
+     */
+    public void freeze(){
+        isFrozen = true;
+    }
+
+    /**
+     * Creates a new view of the state. Views are not cached, but all views of the same state are equal.
+     * @param id the id of a state.
+     * @return a state that reads and writes through to this table.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    public State getState(int id) throws IndexOutOfBoundsException{
+        return new View(check(id));
+    }
+
+    /**
+     * @param state an arbitrary state.
+     * @return the id of the state or {@link TransitionTable#NONE}, if the state isn't a view of this table.
+     */
+    public int getId(State state){
+        if(state instanceof View && ((View)state).getTable() == this)
+            return ((View)state).id;
+        else
+            return TransitionTable.NONE;
+    }
+
+    /**
+     * @param id the id of a state.
+     * @return the id.
+     * @throws IndexOutOfBoundsException if the state isn't in the table.
+     */
+    private int check(int id) throws IndexOutOfBoundsException{
+        if(id < 0 || id >= size)
+            throw new IndexOutOfBoundsException(String.format("The state %d isn't in the table", id));
+        return id;
+    }
+
+    /**
+     * A state that is only backed by its id. All flags and the name are stored in the enclosing table.
+     */
+    private final class View extends State{
+        /**
+         * The id of the state.
+         */
+        private final int id;
+
+        /**
+         * @param id the id of the state.
+         */
+        private View(int id){
+            this.id = id;
+        }
+
+        /**
+         * @return the table containing this state.
+         */
+        private StateTable getTable(){
+            return StateTable.this;
+        }
+
+        @Override
+        public boolean isPresentName(){
+            return names.containsKey(id);
+        }
+
+        @Override
+        public String getName() throws NoSuchElementException{
+            return getNameOpt().get();
+        }
+
+        @Override
+        public Optional<String> getNameOpt(){
+            return StateTable.this.getName(id);
+        }
+
+        @Override
+        public boolean isFinal(){
+            return StateTable.this.isFinal(id);
+        }
+
+        @Override
+        public boolean isInitial(){
+            return StateTable.this.isInitial(id);
+        }
+
+        @Override
+        public boolean isFrozen(){
+            return StateTable.this.isFrozen(id);
+        }
+
+        @Override
+        public void setFinal(boolean isFinal) throws IllegalStateException{
+            StateTable.this.setFinal(id, isFinal);
+        }
+
+        @Override
+        public void setInitial(boolean isInitial) throws IllegalStateException{
+            StateTable.this.setInitial(id, isInitial);
+        }
+
+        @Override
+        public void freeze(){
+            StateTable.this.freeze(id);
+        }
+
+        /**
+         * @param o the other object.
+         * @return true if both views refer to the same state in the same table.
+         */
+        @Override
+        public boolean equals(Object o){
+            return o instanceof View && ((View)o).getTable() == getTable() && ((View)o).id == id;
+        }
+
+        /**
+         * @return the id of the state.
+         */
+        @Override
+        public int hashCode(){
+            return id;
+        }
+
+        /**
+         * @return the name of this state or its id, if this state doesn't have a name.
+         */
+        @Override
+        public String toString(){
+            return getNameOpt().orElse(Integer.toString(id));
+        }
+    }
+}
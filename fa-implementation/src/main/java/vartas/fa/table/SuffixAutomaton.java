@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * This class implements the suffix automaton of a text, i.e. the minimal DFA accepting all of its substrings.
+ * It is constructed online in linear time, appending one letter at a time, and stored in plain int arrays.
+ * The outgoing transitions of every state form a linked list of edges, since most states only have few of them.
+ * Every state represents all substrings that end at the same set of positions in the text. Besides the transitions,
+ * the number of those positions and the end of the first one are stored for every state.
+ */
+public final class SuffixAutomaton {
+    /**
+     * The id of the initial state, which represents the empty word.
+     */
+    public static final int INITIAL_STATE = 0;
+    /**
+     * The number of letters in the text.
+     */
+    private int textLength;
+    /**
+     * The number of states.
+     */
+    private int size;
+    /**
+     * The number of edges.
+     */
+    private int edges;
+    /**
+     * The length of the longest word represented by every state.
+     */
+    private int[] lengths;
+    /**
+     * The suffix link of every state, i.e. the state of its longest suffix that ends at more positions.
+     */
+    private int[] links;
+    /**
+     * The position of the last letter of the first occurrence of every state.
+     */
+    private int[] firstPositions;
+    /**
+     * The number of occurrences of every state.
+     */
+    private int[] counts;
+    /**
+     * The first outgoing edge of every state.
+     */
+    private int[] heads;
+    /**
+     * The next edge with the same origin.
+     */
+    private int[] nexts;
+    /**
+     * The label of every edge.
+     */
+    private char[] labels;
+    /**
+     * The target of every edge.
+     */
+    private int[] targets;
+    /**
+     * The state of the whole text.
+     */
+    private int last;
+
+    /**
+     * Creates an automaton that only accepts the empty word.
+     * @param capacity the expected length of the text.
+     */
+    private SuffixAutomaton(int capacity){
+        int states = Math.max(2, 2 * capacity);
+
+        lengths = new int[states];
+        links = new int[states];
+        firstPositions = new int[states];
+        heads = new int[states];
+        nexts = new int[states + capacity];
+        labels = new char[states + capacity];
+        targets = new int[states + capacity];
+
+        links[INITIAL_STATE] = TransitionTable.NONE;
+        heads[INITIAL_STATE] = TransitionTable.NONE;
+        firstPositions[INITIAL_STATE] = TransitionTable.NONE;
+        size = 1;
+    }
+
+    /**
+     * @param text the indexed text.
+     * @return the suffix automaton of the text.
+     */
+    public static SuffixAutomaton of(CharSequence text){
+        SuffixAutomaton automaton = new SuffixAutomaton(text.length());
+
+        for(int i = 0 ; i < text.length() ; ++i)
+            automaton.append(text.charAt(i));
+
+        automaton.countOccurrences();
+        return automaton;
+    }
+
+    /**
+     * Extends the automaton by a single letter at the end of the text.
+     * @param label the new letter.
+     */
+    private void append(char label){
+        int current = addState(lengths[last] + 1, textLength);
+        int state = last;
+
+        //All suffixes of the text that can't be extended by the letter get a new transition
+        while(state != TransitionTable.NONE && step(state, label) == TransitionTable.NONE){
+            addEdge(state, label, current);
+            state = links[state];
+        }
+
+        if(state == TransitionTable.NONE){
+            links[current] = INITIAL_STATE;
+        }else{
+            int next = step(state, label);
+
+            if(lengths[state] + 1 == lengths[next]){
+                links[current] = next;
+            }else{
+                //The state has to be split, since only its shorter words occur at the new position
+                int clone = addState(lengths[state] + 1, firstPositions[next]);
+                for(int edge = heads[next] ; edge != TransitionTable.NONE ; edge = nexts[edge])
+                    addEdge(clone, labels[edge], targets[edge]);
+                links[clone] = links[next];
+
+                while(state != TransitionTable.NONE && redirect(state, label, next, clone))
+                    state = links[state];
+
+                links[next] = clone;
+                links[current] = clone;
+            }
+        }
+
+        last = current;
+        ++textLength;
+    }
+
+    /**
+     * @param length the length of the longest word represented by the state.
+     * @param firstPosition the position of the last letter of the first occurrence.
+     * @return the id of the new state.
+     */
+    private int addState(int length, int firstPosition){
+        if(size == lengths.length){
+            int capacity = lengths.length + (lengths.length >> 1);
+            lengths = Arrays.copyOf(lengths, capacity);
+            links = Arrays.copyOf(links, capacity);
+            firstPositions = Arrays.copyOf(firstPositions, capacity);
+            heads = Arrays.copyOf(heads, capacity);
+        }
+
+        lengths[size] = length;
+        firstPositions[size] = firstPosition;
+        heads[size] = TransitionTable.NONE;
+        return size++;
+    }
+
+    /**
+     * @param from the origin of the edge.
+     * @param label the label of the edge.
+     * @param to the target of the edge.
+     */
+    private void addEdge(int from, char label, int to){
+        if(edges == targets.length){
+            int capacity = targets.length + (targets.length >> 1);
+            nexts = Arrays.copyOf(nexts, capacity);
+            labels = Arrays.copyOf(labels, capacity);
+            targets = Arrays.copyOf(targets, capacity);
+        }
+
+        labels[edges] = label;
+        targets[edges] = to;
+        nexts[edges] = heads[from];
+        heads[from] = edges++;
+    }
+
+    /**
+     * @param from the origin of the edge.
+     * @param label the label of the edge.
+     * @param oldTarget the expected target of the edge.
+     * @param newTarget the new target of the edge.
+     * @return true if the edge pointed to the expected target and has been redirected.
+     */
+    private boolean redirect(int from, char label, int oldTarget, int newTarget){
+        for(int edge = heads[from] ; edge != TransitionTable.NONE ; edge = nexts[edge]){
+            if(labels[edge] == label){
+                if(targets[edge] != oldTarget)
+                    return false;
+                targets[edge] = newTarget;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Every position of the text is the end of exactly one state that has been created by appending a letter.
+     * The positions of a state are inherited by the state of its suffix link, hence the counts are propagated
+     * from the longest to the shortest states, which are sorted via counting sort.
+     */
+    private void countOccurrences(){
+        counts = new int[size];
+        int[] buckets = new int[textLength + 2];
+        int[] order = new int[size];
+
+        for(int state = 0 ; state < size ; ++state)
+            buckets[lengths[state] + 1]++;
+        for(int i = 1 ; i < buckets.length ; ++i)
+            buckets[i] += buckets[i - 1];
+        for(int state = 0 ; state < size ; ++state)
+            order[buckets[lengths[state]]++] = state;
+
+        //Clones start with no occurrences of their own
+        for(int state = 1 ; state < size ; ++state)
+            counts[state] = isClone(state) ? 0 : 1;
+
+        for(int i = size - 1 ; i > 0 ; --i)
+            counts[links[order[i]]] += counts[order[i]];
+
+        counts[INITIAL_STATE] = textLength + 1;
+    }
+
+    /**
+     * A state is created by appending a letter if and only if its longest word is a prefix of the text.
+     * @param state the id of a state.
+     * @return true if the state has been created by splitting another state.
+     */
+    private boolean isClone(int state){
+        return firstPositions[state] + 1 != lengths[state];
+    }
+
+    /**
+     * Executes a single step in the automaton.
+     * @param state the id of the current state.
+     * @param label the letter that has been read.
+     * @return the id of the next state or {@link TransitionTable#NONE}, if the letter is rejected.
+     */
+    public int step(int state, char label){
+        for(int edge = heads[state] ; edge != TransitionTable.NONE ; edge = nexts[edge])
+            if(labels[edge] == label)
+                return targets[edge];
+        return TransitionTable.NONE;
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @return the id of the state representing the word or {@link TransitionTable#NONE}, if it isn't a substring.
+     */
+    public int getState(CharSequence word){
+        int state = INITIAL_STATE;
+
+        for(int i = 0 ; i < word.length() && state != TransitionTable.NONE ; ++i)
+            state = step(state, word.charAt(i));
+
+        return state;
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @return true if the word is a substring of the text.
+     */
+    public boolean contains(CharSequence word){
+        return getState(word) != TransitionTable.NONE;
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @return the number of possibly overlapping occurrences of the word in the text.
+     */
+    public int count(CharSequence word){
+        int state = getState(word);
+        return state == TransitionTable.NONE ? 0 : counts[state];
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @return the index of the first occurrence of the word in the text or -1, if it isn't a substring.
+     */
+    public int indexOf(CharSequence word){
+        int state = getState(word);
+
+        if(state == TransitionTable.NONE)
+            return -1;
+        else if(state == INITIAL_STATE)
+            return 0;
+        else
+            return firstPositions[state] - word.length() + 1;
+    }
+
+    /**
+     * @return the number of states.
+     */
+    public int size(){
+        return size;
+    }
+
+    /**
+     * @return the number of transitions.
+     */
+    public int sizeEdges(){
+        return edges;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the length of the longest word represented by the state.
+     */
+    public int getLength(int state){
+        return lengths[state];
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the id of the state of the longest suffix that isn't represented by the state.
+     */
+    public int getLink(int state){
+        return links[state];
+    }
+
+    /**
+     * The initial state occurs at every position, including the one after the last letter.
+     * @param state the id of a state.
+     * @return the number of occurrences of the words represented by the state.
+     */
+    public int getCount(int state){
+        return counts[state];
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the position of the last letter of the first occurrence of the words represented by the state.
+     */
+    public int getFirstPosition(int state){
+        return firstPositions[state];
+    }
+
+    /**
+     * Creates the table of this automaton, in which every state is final. The ids of the states are retained.
+     * @return a table accepting all substrings of the text.
+     */
+    public TransitionTable toTable(){
+        int[] offsets = new int[size + 1];
+        char[] starts = new char[edges];
+        int[] tableTargets = new int[edges];
+        int[] defaults = new int[size];
+        Arrays.fill(defaults, TransitionTable.NONE);
+
+        int range = 0;
+        for(int state = 0 ; state < size ; ++state){
+            offsets[state] = range;
+
+            int begin = range;
+            for(int edge = heads[state] ; edge != TransitionTable.NONE ; edge = nexts[edge]){
+                starts[range] = labels[edge];
+                tableTargets[range++] = targets[edge];
+            }
+
+            sort(starts, tableTargets, begin, range);
+        }
+        offsets[size] = range;
+
+        BitSet finals = new BitSet(size);
+        finals.set(0, size);
+
+        return new TransitionTable(finals, offsets, starts, starts.clone(), tableTargets, defaults);
+    }
+
+    /**
+     * Sorts the edges of a single state by their label.
+     * Each edge is packed into a single long, with the label in the upper half, so that a primitive sort can be used.
+     * @param labels the labels of the edges.
+     * @param targets the targets of the edges.
+     * @param begin the index of the first edge.
+     * @param end the index after the last edge.
+     */
+    private static void sort(char[] labels, int[] targets, int begin, int end){
+        long[] edges = new long[end - begin];
+
+        for(int i = begin ; i < end ; ++i)
+            edges[i - begin] = ((long)labels[i] << 32) | targets[i];
+
+        Arrays.sort(edges);
+
+        for(int i = begin ; i < end ; ++i){
+            labels[i] = (char)(edges[i - begin] >>> 32);
+            targets[i] = (int)edges[i - begin];
+        }
+    }
+
+    /**
+     * The states of the DFA are created in the order of their ids.
+     * @return a DFA accepting all substrings of the text.
+     */
+    public DeterministicFiniteAutomaton toDfa(){
+        return toTable().toDfa();
+    }
+}
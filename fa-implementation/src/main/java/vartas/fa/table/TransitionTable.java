@@ -0,0 +1,402 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.*;
+
+/**
+ * This class implements an immutable, array-based representation of a DFA.
+ * The states are numbered in breadth-first order starting with the initial state, which always has the id 0.
+ * The outgoing transitions of a state are stored as sorted, disjoint ranges of letters, where all transitions of
+ * the state with id i are located between offsets[i] (inclusive) and offsets[i+1] (exclusive).
+ * Consecutive letters leading to the same state are merged into a single range.
+ * The flags and names of the states are kept in a {@link StateTable}, so that no state objects are needed.
+ */
+public final class TransitionTable {
+    /**
+     * The id used for missing transitions.
+     */
+    public static final int NONE = -1;
+    /**
+     * The number of letters in the alphabet.
+     */
+    public static final int ALPHABET_SIZE = Character.MAX_VALUE + 1;
+    /**
+     * The id of the initial state.
+     */
+    public static final int INITIAL_STATE = 0;
+    /**
+     * The final states, copied from the state table so that running a word doesn't need any bound checks.
+     */
+    private final BitSet finals;
+    /**
+     * The flags and names of all states.
+     */
+    private final StateTable states;
+    /**
+     * The index of the first range of every state. The last entry is the total number of ranges.
+     */
+    private final int[] offsets;
+    /**
+     * The first letter of every range.
+     */
+    private final char[] starts;
+    /**
+     * The last letter of every range.
+     */
+    private final char[] ends;
+    /**
+     * The target of every range.
+     */
+    private final int[] targets;
+    /**
+     * The target of the default transition of every state or {@link #NONE}.
+     */
+    private final int[] defaults;
+
+    /**
+     * Creates a new table. The arrays are not copied.
+     * @param finals the final states.
+     * @param offsets the index of the first range of every state, followed by the total number of ranges.
+     * @param starts the first letter of every range.
+     * @param ends the last letter of every range.
+     * @param targets the target of every range.
+     * @param defaults the target of the default transition of every state.
+     * @throws IllegalArgumentException if the arrays don't describe a valid automaton.
+     */
+    public TransitionTable(BitSet finals, int[] offsets, char[] starts, char[] ends, int[] targets, int[] defaults) throws IllegalArgumentException{
+        this(new StateTable(finals, initials(defaults.length), new HashMap<>(), defaults.length), offsets, starts, ends, targets, defaults);
+    }
+
+    /**
+     * Creates a new table. The arrays are not copied and the states are frozen.
+     * @param states the flags and names of the states, where the state with id 0 is the initial state.
+     * @param offsets the index of the first range of every state, followed by the total number of ranges.
+     * @param starts the first letter of every range.
+     * @param ends the last letter of every range.
+     * @param targets the target of every range.
+     * @param defaults the target of the default transition of every state.
+     * @throws IllegalArgumentException if the arrays don't describe a valid automaton.
+     */
+    public TransitionTable(StateTable states, int[] offsets, char[] starts, char[] ends, int[] targets, int[] defaults) throws IllegalArgumentException{
+        if(states.size() != defaults.length)
+            throw new IllegalArgumentException("The number of states doesn't match");
+        if(offsets.length != defaults.length + 1 || defaults.length == 0)
+            throw new IllegalArgumentException("The table needs exactly one offset per state plus the total number of ranges");
+        if(starts.length != ends.length || starts.length != targets.length || offsets[defaults.length] != starts.length)
+            throw new IllegalArgumentException("The number of ranges doesn't match");
+
+        if(offsets[0] != 0)
+            throw new IllegalArgumentException("The ranges of the initial state have to start at 0");
+        for(int state = 0 ; state < defaults.length ; ++state)
+            if(offsets[state] > offsets[state + 1])
+                throw new IllegalArgumentException(String.format("The offset of state %d is out of order", state + 1));
+
+        for(int state = 0 ; state < defaults.length ; ++state){
+            if(defaults[state] != NONE && (defaults[state] < 0 || defaults[state] >= defaults.length))
+                throw new IllegalArgumentException(String.format("The default transition of state %d leads to an unknown state", state));
+
+            for(int range = offsets[state] ; range < offsets[state + 1] ; ++range){
+                if(starts[range] > ends[range])
+                    throw new IllegalArgumentException(String.format("The range %d is empty", range));
+                if(range > offsets[state] && starts[range] <= ends[range - 1])
+                    throw new IllegalArgumentException(String.format("The ranges of state %d aren't sorted and disjoint", state));
+                if(targets[range] < 0 || targets[range] >= defaults.length)
+                    throw new IllegalArgumentException(String.format("The range %d leads to an unknown state", range));
+            }
+        }
+
+        states.freeze();
+        this.finals = states.getFinalStates();
+        this.states = states;
+        this.offsets = offsets;
+        this.starts = starts;
+        this.ends = ends;
+        this.targets = targets;
+        this.defaults = defaults;
+    }
+
+    /**
+     * @param size the number of states.
+     * @return a bit set containing only the initial state, if the table isn't empty.
+     */
+    private static BitSet initials(int size){
+        BitSet initials = new BitSet(size);
+        initials.set(INITIAL_STATE, size > 0);
+        return initials;
+    }
+
+    /**
+     * Numbers all states that are reachable from the initial state in breadth-first order.
+     * Within a state, the transitions are ordered by their letter, followed by the default transition.
+     * The names of the states are preserved.
+     * @param dfa the DFA.
+     * @return the table of the DFA.
+     */
+    public static TransitionTable of(DeterministicFiniteAutomaton dfa){
+        Map<State, Integer> ids = new HashMap<>();
+        List<State> states = new ArrayList<>();
+
+        ids.put(dfa.getInitialState(), 0);
+        states.add(dfa.getInitialState());
+
+        BitSet finals = new BitSet();
+        Map<Integer, String> names = new HashMap<>();
+        int[] offsets = new int[16];
+        List<Integer> defaults = new ArrayList<>();
+        StringBuilder starts = new StringBuilder();
+        StringBuilder ends = new StringBuilder();
+        List<Integer> targets = new ArrayList<>();
+
+        for(int i = 0 ; i < states.size() ; ++i){
+            State state = states.get(i);
+            finals.set(i, state.isFinal());
+            if(state.isPresentName())
+                names.put(i, state.getName());
+
+            if(i + 1 >= offsets.length)
+                offsets = Arrays.copyOf(offsets, offsets.length * 2);
+            offsets[i] = targets.size();
+
+            SortedMap<Character, State> row = new TreeMap<>(dfa.getTransitions().row(state));
+            int previous = NONE;
+            for(Map.Entry<Character, State> entry : row.entrySet()){
+                char label = entry.getKey();
+                int target = id(ids, states, entry.getValue());
+                int last = targets.size() - 1;
+
+                //Extend the previous range, if the letters are consecutive and have the same target
+                if(last >= offsets[i] && previous == target && ends.charAt(last) + 1 == label){
+                    ends.setCharAt(last, label);
+                }else{
+                    starts.append(label);
+                    ends.append(label);
+                    targets.add(target);
+                }
+                previous = target;
+            }
+
+            State defaultState = dfa.stepDefault(state);
+            defaults.add(defaultState == null ? NONE : id(ids, states, defaultState));
+        }
+
+        offsets = Arrays.copyOf(offsets, states.size() + 1);
+        offsets[states.size()] = targets.size();
+
+        return new TransitionTable(
+                new StateTable(finals, initials(states.size()), names, states.size()),
+                offsets,
+                starts.toString().toCharArray(),
+                ends.toString().toCharArray(),
+                targets.stream().mapToInt(Integer::intValue).toArray(),
+                defaults.stream().mapToInt(Integer::intValue).toArray()
+        );
+    }
+
+    /**
+     * @param ids a map relating all discovered states to their id.
+     * @param states all discovered states, ordered by their id.
+     * @param state a state in the DFA.
+     * @return the id of the state, which is assigned if the state hasn't been discovered before.
+     */
+    private static int id(Map<State, Integer> ids, List<State> states, State state){
+        return ids.computeIfAbsent(state, key -> {
+            states.add(key);
+            return states.size() - 1;
+        });
+    }
+
+    /**
+     * Lets the word on this table.
+     * @param word the input word.
+     * @return true, if the word is accepted by the automaton.
+     */
+    public boolean run(String word){
+        int state = INITIAL_STATE;
+
+        for(int i = 0 ; i < word.length() && state != NONE ; ++i)
+            state = step(state, word.charAt(i));
+
+        return state != NONE && finals.get(state);
+    }
+
+    /**
+     * Executes a single step, using a binary search over the ranges of the state.
+     * If no range contains the letter, the default transition is used.
+     * @param state the id of the current state.
+     * @param label the letter that has been read.
+     * @return the id of the next state or {@link #NONE}, if the letter is rejected.
+     */
+    public int step(int state, char label){
+        int low = offsets[state];
+        int high = offsets[state + 1] - 1;
+
+        while(low <= high){
+            int middle = (low + high) >>> 1;
+            if(label < starts[middle])
+                high = middle - 1;
+            else if(label > ends[middle])
+                low = middle + 1;
+            else
+                return targets[middle];
+        }
+
+        return defaults[state];
+    }
+
+    /**
+     * @return the number of states.
+     */
+    public int size(){
+        return defaults.length;
+    }
+
+    /**
+     * @return the total number of ranges.
+     */
+    public int sizeRanges(){
+        return targets.length;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return true if the state is final.
+     */
+    public boolean isFinal(int state){
+        return finals.get(state);
+    }
+
+    /**
+     * @return the frozen flags and names of all states.
+     */
+    public StateTable getStates(){
+        return states;
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return a lightweight view of the state.
+     */
+    public State getState(int state){
+        return states.getState(state);
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the index of the first range of the state.
+     */
+    public int getOffset(int state){
+        return offsets[state];
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the first letter of the range.
+     */
+    public char getStart(int range){
+        return starts[range];
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the last letter of the range.
+     */
+    public char getEnd(int range){
+        return ends[range];
+    }
+
+    /**
+     * @param range the index of a range.
+     * @return the id of the target of the range.
+     */
+    public int getTarget(int range){
+        return targets[range];
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the id of the target of the default transition or {@link #NONE}.
+     */
+    public int getDefault(int state){
+        return defaults[state];
+    }
+
+    /**
+     * @param state the id of a state.
+     * @return the number of letters that have an explicit transition.
+     */
+    public int countLabels(int state){
+        int count = 0;
+        for(int range = offsets[state] ; range < offsets[state + 1] ; ++range)
+            count += ends[range] - starts[range] + 1;
+        return count;
+    }
+
+    /**
+     * Creates a new DFA for this table. If there are no default transitions, a plain DFA is created.
+     * @return a DFA accepting the same language.
+     */
+    public DeterministicFiniteAutomaton toDfa(){
+        if(Arrays.stream(defaults).anyMatch(state -> state != NONE))
+            return toDefaultDfa();
+        else
+            return toDfa(new DeterministicFiniteAutomatonBuilder());
+    }
+
+    /**
+     * @return a DFA with default transitions accepting the same language.
+     */
+    public DeterministicFiniteDefaultAutomaton toDefaultDfa(){
+        return (DeterministicFiniteDefaultAutomaton)toDfa(new DeterministicFiniteDefaultAutomatonBuilder());
+    }
+
+    /**
+     * The states are created in the order of their ids and keep their names.
+     * @param builder an empty builder.
+     * @return the DFA created by the builder.
+     */
+    private DeterministicFiniteAutomaton toDfa(DeterministicFiniteAutomatonBuilder builder){
+        State[] states = new State[size()];
+        Optional<String> name = this.states.getName(INITIAL_STATE);
+        states[INITIAL_STATE] = name.isPresent() ? builder.addInitialState(name.get()) : builder.addInitialState();
+        for(int state = 1 ; state < states.length ; ++state){
+            name = this.states.getName(state);
+            states[state] = name.isPresent() ? builder.addState(name.get()) : builder.addState();
+        }
+
+        for(int state = 0 ; state < states.length ; ++state){
+            states[state].setFinal(isFinal(state));
+
+            //Use an int, otherwise we would overflow at the end of the alphabet
+            for(int range = offsets[state] ; range < offsets[state + 1] ; ++range)
+                for(int label = starts[range] ; label <= ends[range] ; ++label)
+                    builder.addTransition(states[state], (char)label, states[targets[range]]);
+
+            if(defaults[state] != NONE)
+                ((DeterministicFiniteDefaultAutomatonBuilder)builder).addDefaultTransition(states[state], states[defaults[state]]);
+        }
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.FiniteAutomaton;
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.State;
+
+import java.util.*;
+
+/**
+ * This class checks whether the language of one NFA is contained in the language of another NFA,
+ * without determinizing either of them.
+ * The search runs over pairs of a single state in the left NFA and the set of states the right NFA is in
+ * after reading the same word. A pair whose set is a superset of another set for the same left state
+ * can't lead to a counterexample that the smaller set doesn't lead to as well, so only the minimal pairs
+ * are kept. Those form an antichain, which is usually far smaller than the full power set.
+ */
+final class AntichainInclusion {
+    /**
+     * A pair in the search, together with the word that leads to it.
+     */
+    private static final class Node{
+        /**
+         * The state in the left NFA.
+         */
+        private final State state;
+        /**
+         * The states in the right NFA.
+         */
+        private final Set<State> states;
+        /**
+         * The pair this pair has been reached from, or null for the initial pairs.
+         */
+        private final Node parent;
+        /**
+         * The letter that has been read to reach this pair.
+         */
+        private final char label;
+        /**
+         * Indicates whether this pair has been subsumed by a smaller pair.
+         */
+        private boolean subsumed;
+
+        /**
+         * @param state the state in the left NFA.
+         * @param states the states in the right NFA.
+         * @param parent the pair this pair has been reached from.
+         * @param label the letter that has been read to reach this pair.
+         */
+        private Node(State state, Set<State> states, Node parent, char label){
+            this.state = state;
+            this.states = states;
+            this.parent = parent;
+            this.label = label;
+        }
+
+        /**
+         * @return the word that leads to this pair.
+         */
+        private String getWord(){
+            StringBuilder word = new StringBuilder();
+            for(Node node = this ; node.parent != null ; node = node.parent)
+                word.append(node.label);
+            return word.reverse().toString();
+        }
+    }
+    /**
+     * The NFA whose language should be contained in the other one.
+     */
+    private final NondeterministicFiniteAutomaton left;
+    /**
+     * The NFA whose language should contain the other one.
+     */
+    private final NondeterministicFiniteAutomaton right;
+    /**
+     * The minimal pairs that have been found so far, grouped by the state in the left NFA.
+     */
+    private final Map<State, List<Node>> antichain;
+    /**
+     * All pairs whose successors have yet to be visited.
+     */
+    private final Deque<Node> remaining;
+
+    /**
+     * @param left the NFA whose language should be contained in the other one.
+     * @param right the NFA whose language should contain the other one.
+     */
+    AntichainInclusion(NondeterministicFiniteAutomaton left, NondeterministicFiniteAutomaton right){
+        this.left = left;
+        this.right = right;
+        this.antichain = new HashMap<>();
+        this.remaining = new ArrayDeque<>();
+    }
+
+    /**
+     * The pairs are visited in breadth-first order, hence short counterexamples are found first.
+     * @return a word accepted by the left but not the right NFA, if there is one.
+     */
+    Optional<String> findCounterexample(){
+        Set<State> initialStates = right.closure(right.getInitialState());
+
+        for(State state : left.closure(left.getInitialState())){
+            Optional<String> counterexample = visit(new Node(state, initialStates, null, '\0'));
+            if(counterexample.isPresent())
+                return counterexample;
+        }
+
+        while(!remaining.isEmpty()){
+            Node current = remaining.pop();
+
+            if(current.subsumed)
+                continue;
+
+            SortedSet<Character> labels = new TreeSet<>(left.getTransitions().row(current.state).keySet());
+            for(State state : current.states)
+                labels.addAll(right.getTransitions().row(state).keySet());
+
+            //The remaining letters only use the default transitions, hence a single representative is enough
+            labels.add(FiniteAutomaton.getOtherLabel(labels));
+
+            Set<State> source = Collections.singleton(current.state);
+            for(char label : labels){
+                Set<State> states = new HashSet<>(right.step(current.states, label));
+                for(State state : left.step(source, label)){
+                    Optional<String> counterexample = visit(new Node(state, states, current, label));
+                    if(counterexample.isPresent())
+                        return counterexample;
+                }
+            }
+        }
+
+        return Optional.empty();
+    }
+
+    /**
+     * Adds the pair to the antichain, unless it is subsumed by a pair that has been found before.
+     * All pairs that are subsumed by the new pair are removed.
+     * @param node the new pair.
+     * @return the word leading to the pair, if the left NFA accepts it while the right NFA doesn't.
+     */
+    private Optional<String> visit(Node node){
+        if(node.state.isFinal() && node.states.stream().noneMatch(State::isFinal))
+            return Optional.of(node.getWord());
+
+        List<Node> nodes = antichain.computeIfAbsent(node.state, key -> new ArrayList<>());
+
+        for(Node other : nodes)
+            if(node.states.containsAll(other.states))
+                return Optional.empty();
+
+        Iterator<Node> iterator = nodes.iterator();
+        while(iterator.hasNext()){
+            Node other = iterator.next();
+            if(other.states.containsAll(node.states)){
+                other.subsumed = true;
+                iterator.remove();
+            }
+        }
+
+        nodes.add(node);
+        remaining.add(node);
+        return Optional.empty();
+    }
+}
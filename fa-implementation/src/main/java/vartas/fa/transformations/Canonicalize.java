@@ -0,0 +1,39 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.table.CanonicalForm;
+
+/**
+ * This interfaces adds the ability to compute a canonical form of DFAs, which identifies their language.
+ */
+public interface Canonicalize {
+    /**
+     * @return the DFA that is canonicalized.
+     */
+    DeterministicFiniteAutomaton getDfa();
+
+    /**
+     * The DFA doesn't have to be minimal, but minimizing it first reduces the work.
+     * @return the canonical form of the language accepted by the DFA.
+     */
+    default CanonicalForm canonicalize(){
+        return CanonicalForm.of(getDfa());
+    }
+}
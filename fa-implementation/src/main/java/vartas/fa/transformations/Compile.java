@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.table.MatcherCompiler;
+
+import java.util.function.Predicate;
+
+/**
+ * This interfaces adds the ability to compile DFAs into specialized Java classes.
+ */
+public interface Compile {
+    /**
+     * @return the DFA that is compiled.
+     */
+    DeterministicFiniteAutomaton getDfa();
+
+    /**
+     * The compiled matcher is only faster than the DFA once the JIT has optimized it, so it should be reused.
+     * @return a predicate that accepts the same words as the DFA.
+     * @throws IllegalArgumentException if the DFA is too large to be compiled.
+     */
+    default Predicate<String> compile() throws IllegalArgumentException{
+        return MatcherCompiler.compile(getDfa());
+    }
+}
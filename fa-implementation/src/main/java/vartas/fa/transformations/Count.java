@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.table.LanguageCounter;
+import vartas.fa.table.TransitionTable;
+
+import java.math.BigInteger;
+import java.util.Optional;
+import java.util.Random;
+
+/**
+ * This interfaces adds the ability to count and sample the words accepted by DFAs.
+ * Letters without an explicit transition are counted individually whenever a default transition is present.
+ */
+public interface Count {
+    /**
+     * @return the DFA whose words are counted.
+     */
+    DeterministicFiniteAutomaton getDfa();
+
+    /**
+     * The counter caches the intermediate results, so it should be reused when sampling multiple words.
+     * @return a new counter over the transition table of the DFA.
+     */
+    default LanguageCounter getLanguageCounter(){
+        return new LanguageCounter(TransitionTable.of(getDfa()));
+    }
+
+    /**
+     * @param length the length of the words.
+     * @return the number of accepted words with the given length.
+     */
+    default BigInteger count(int length){
+        return getLanguageCounter().count(length);
+    }
+
+    /**
+     * @param length the length of the word.
+     * @param random the source of randomness.
+     * @return a uniformly chosen word of the given length, if there is one.
+     */
+    default Optional<String> sample(int length, Random random){
+        return getLanguageCounter().sample(length, random);
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.util.Optional;
+
+/**
+ * This interfaces adds the ability to transform NFAs that are already deterministic into DFAs directly, skipping the
+ * power set construction.
+ */
+public interface Determinize extends PowerSet {
+    /**
+     * An NFA is deterministic if every state has at most one target for every label.
+     * Epsilon transitions are only allowed in states that have no other transitions, as long as they lead to a
+     * single state.
+     * This check takes linear time in the size of the NFA.
+     * @return true if the NFA can be transformed into a DFA without the power set construction.
+     */
+    default boolean isDeterministic(){
+        return new DirectDeterminization(getNfa()).isDeterministic();
+    }
+
+    /**
+     * States that only consist of an epsilon transition are replaced by their target.
+     * @return a DFA that is equivalent to the current NFA, or an empty optional if the NFA isn't deterministic.
+     */
+    default Optional<DeterministicFiniteAutomaton> determinize(){
+        return new DirectDeterminization(getNfa()).determinize();
+    }
+
+    /**
+     * Transforms the NFA directly if it is deterministic and applies the power set construction otherwise.
+     * @return a DFA that is equivalent to the current NFA.
+     */
+    default DeterministicFiniteAutomaton toDeterministic(){
+        return determinize().orElseGet(this::powerSet);
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+
+import java.util.Optional;
+
+/**
+ * This interfaces adds the ability to transform NFAs that are already deterministic into DFAs directly, skipping the
+ * power set construction.
+ * The DFA will contain the default transitions of the NFA.
+ */
+public interface DeterminizeDefault extends Determinize, PowerSetDefault {
+    /**
+     * Transforms the NFA directly if it is deterministic and applies the power set construction otherwise.
+     * @return a DFA that is equivalent to the current NFA.
+     */
+    @Override
+    default DeterministicFiniteDefaultAutomaton toDeterministic(){
+        Optional<DeterministicFiniteAutomaton> dfa = determinize();
+        return dfa.isPresent() ? (DeterministicFiniteDefaultAutomaton)dfa.get() : powerSet();
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import com.google.common.collect.Table;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.*;
+
+/**
+ * This class transforms NFAs into DFAs without applying the power set construction, if they are already
+ * deterministic. Both the check and the transformation visit every state and transition only once.
+ * Since the automata created from models and regular expressions always contain epsilon transitions, states whose
+ * only transition is a single epsilon transition are allowed as well. Those states are forwarded to the first state
+ * of their chain that isn't forwarded, which then replaces them in the DFA.
+ */
+final class DirectDeterminization {
+    /**
+     * The given NFA.
+     */
+    private final NondeterministicFiniteAutomaton nfa;
+    /**
+     * The default transitions of the NFA, if it supports them.
+     */
+    private final Multimap<State, State> defaultTransitions;
+    /**
+     * A map that relates every state to the state it is forwarded to. States that aren't forwarded are related to
+     * themselves.
+     */
+    private final Map<State, State> representatives = new HashMap<>();
+    /**
+     * Whether the NFA is deterministic.
+     */
+    private final boolean deterministic;
+
+    /**
+     * @param nfa the given NFA.
+     */
+    DirectDeterminization(NondeterministicFiniteAutomaton nfa){
+        this.nfa = nfa;
+        this.defaultTransitions = nfa instanceof NondeterministicFiniteDefaultAutomaton
+                ? ((NondeterministicFiniteDefaultAutomaton)nfa).getDefaultTransitions()
+                : ImmutableMultimap.of();
+        this.deterministic = check();
+    }
+
+    /**
+     * @return true if the NFA is deterministic.
+     */
+    boolean isDeterministic(){
+        return deterministic;
+    }
+
+    /**
+     * The DFA supports default transitions if and only if the NFA does.
+     * Forwarded states are removed, all other states keep their name.
+     * @return a DFA that is equivalent to the NFA, or an empty optional if the NFA isn't deterministic.
+     */
+    Optional<DeterministicFiniteAutomaton> determinize(){
+        if(!deterministic)
+            return Optional.empty();
+
+        DeterministicFiniteAutomatonBuilder builder = nfa instanceof NondeterministicFiniteDefaultAutomaton
+                ? new DeterministicFiniteDefaultAutomatonBuilder()
+                : new DeterministicFiniteAutomatonBuilder();
+
+        Map<State, State> states = new HashMap<>();
+        for(State state : representatives.keySet()){
+            if(representatives.get(state) != state)
+                continue;
+
+            State next = state.isPresentName() ? builder.addState(state.getName()) : builder.addState();
+            next.setFinal(state.isFinal());
+            states.put(state, next);
+        }
+        builder.setInitialState(states.get(representatives.get(nfa.getInitialState())));
+
+        for(Table.Cell<State, Character, Collection<State>> cell : nfa.getTransitions().cellSet())
+            if(!cell.getValue().isEmpty())
+                builder.addTransition(states.get(cell.getRowKey()), cell.getColumnKey(), states.get(getTarget(cell.getValue())));
+
+        for(State state : defaultTransitions.keySet())
+            if(!defaultTransitions.get(state).isEmpty())
+                ((DeterministicFiniteDefaultAutomatonBuilder)builder).addDefaultTransition(states.get(state), states.get(getTarget(defaultTransitions.get(state))));
+
+        return Optional.of(builder.build());
+    }
+
+    /**
+     * The NFA is deterministic if every state that isn't forwarded has at most one target for every label and at
+     * most one default target, after replacing all targets with the state they are forwarded to.
+     * @return true if the NFA is deterministic.
+     */
+    private boolean check(){
+        Set<State> states = new HashSet<>(nfa.getStates());
+        states.add(nfa.getInitialState());
+
+        for(State state : states)
+            if(!forward(state))
+                return false;
+
+        for(State state : states){
+            if(representatives.get(state) != state)
+                continue;
+
+            for(Collection<State> targets : nfa.getTransitions().row(state).values())
+                if(!isUnique(targets))
+                    return false;
+
+            if(!isUnique(defaultTransitions.get(state)))
+                return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Follows the epsilon transitions starting from the given state, until a state is reached that isn't forwarded.
+     * A state may only be forwarded if it has no other transitions and isn't final, unless its target is final as
+     * well. All states in the chain are related to the state at its end, so every state is only visited once.
+     * @param state a state in the NFA.
+     * @return false if a state in the chain has multiple epsilon transitions, other transitions next to an epsilon
+     * transition, or if the chain contains a cycle.
+     */
+    private boolean forward(State state){
+        Set<State> chain = new LinkedHashSet<>();
+        State current = state;
+
+        while(!representatives.containsKey(current)){
+            Collection<State> epsilonTargets = nfa.getEpsilonTransitions().get(current);
+
+            if(epsilonTargets.isEmpty()){
+                representatives.put(current, current);
+                break;
+            }
+
+            if(epsilonTargets.size() > 1 || !nfa.getTransitions().row(current).isEmpty() || defaultTransitions.containsKey(current))
+                return false;
+            //Epsilon cycles can't be forwarded to any state
+            if(!chain.add(current))
+                return false;
+
+            current = epsilonTargets.iterator().next();
+        }
+
+        State representative = representatives.get(current);
+        for(State forwarded : chain){
+            if(forwarded.isFinal() && !representative.isFinal())
+                return false;
+            representatives.put(forwarded, representative);
+        }
+
+        return true;
+    }
+
+    /**
+     * @param targets the targets of a single transition.
+     * @return true if all targets are forwarded to the same state.
+     */
+    private boolean isUnique(Collection<State> targets){
+        State target = null;
+        for(State next : targets){
+            State representative = representatives.get(next);
+            if(representative == null || (target != null && target != representative))
+                return false;
+            target = representative;
+        }
+        return true;
+    }
+
+    /**
+     * @param targets the targets of a single transition, which are all forwarded to the same state.
+     * @return the state the targets are forwarded to.
+     */
+    private State getTarget(Collection<State> targets){
+        return representatives.get(targets.iterator().next());
+    }
+}
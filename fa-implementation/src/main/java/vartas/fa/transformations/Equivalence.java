@@ -0,0 +1,65 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.ProductAutomaton;
+
+import java.util.Optional;
+
+/**
+ * This interfaces adds the ability to compare the languages of DFAs without minimizing them.
+ */
+public interface Equivalence extends Product {
+    /**
+     * Applies the algorithm by Hopcroft and Karp, which runs in near-linear time.
+     * @param other another DFA.
+     * @return true if both DFAs accept the same language.
+     */
+    default boolean isEquivalent(DeterministicFiniteAutomaton other){
+        return new HopcroftKarp(getDfa(), other).isEquivalent();
+    }
+
+    /**
+     * @param other another DFA.
+     * @return a shortest word that is accepted by exactly one of the DFAs, if their languages differ.
+     */
+    default Optional<String> findCounterexample(DeterministicFiniteAutomaton other){
+        if(isEquivalent(other))
+            return Optional.empty();
+
+        return new ProductAutomaton(getDfa(), other, ProductAutomaton.Operation.SYMMETRIC_DIFFERENCE).findShortestWord();
+    }
+
+    /**
+     * @param other another DFA.
+     * @return true if every word accepted by this DFA is also accepted by the other DFA.
+     */
+    default boolean isSubsetOf(DeterministicFiniteAutomaton other){
+        return !findInclusionCounterexample(other).isPresent();
+    }
+
+    /**
+     * The difference of both DFAs is explored on the fly, so the search stops at the first counterexample.
+     * @param other another DFA.
+     * @return a shortest word that is accepted by this but not the other DFA, if there is one.
+     */
+    default Optional<String> findInclusionCounterexample(DeterministicFiniteAutomaton other){
+        return difference(other).findShortestWord();
+    }
+}
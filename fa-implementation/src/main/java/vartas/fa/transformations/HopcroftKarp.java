@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+
+import java.util.*;
+
+/**
+ * This class checks whether two DFAs are equivalent using the algorithm by Hopcroft and Karp.
+ * Pairs of states are assumed to be equivalent once they are visited and merged via union-find.
+ * Pairs whose states are already in the same class are skipped, which bounds the number of processed
+ * pairs by the number of states in both automata.
+ */
+final class HopcroftKarp {
+    /**
+     * The left automaton.
+     */
+    private final DeterministicFiniteAutomaton left;
+    /**
+     * The right automaton.
+     */
+    private final DeterministicFiniteAutomaton right;
+    /**
+     * The state that is reached once an automaton rejects the input. It is shared by both automata.
+     */
+    private final State sink;
+    /**
+     * The parent of every state in the union-find structure.
+     */
+    private final Map<State, State> parents;
+    /**
+     * The size of every class, stored at its representative.
+     */
+    private final Map<State, Integer> sizes;
+
+    /**
+     * @param left the left automaton.
+     * @param right the right automaton.
+     */
+    HopcroftKarp(DeterministicFiniteAutomaton left, DeterministicFiniteAutomaton right){
+        this.left = left;
+        this.right = right;
+        this.sink = new State();
+        this.parents = new HashMap<>();
+        this.sizes = new HashMap<>();
+    }
+
+    /**
+     * @return true if both automata accept the same language.
+     */
+    boolean isEquivalent(){
+        Deque<State[]> remaining = new ArrayDeque<>();
+
+        remaining.add(new State[]{left.getInitialState(), right.getInitialState()});
+        union(left.getInitialState(), right.getInitialState());
+
+        while(!remaining.isEmpty()){
+            State[] pair = remaining.pop();
+            State leftState = pair[0];
+            State rightState = pair[1];
+
+            if(leftState.isFinal() != rightState.isFinal())
+                return false;
+
+            Set<Character> labels = new HashSet<>();
+            if(leftState != sink)
+                labels.addAll(left.getTransitions().row(leftState).keySet());
+            if(rightState != sink)
+                labels.addAll(right.getTransitions().row(rightState).keySet());
+
+            for(char label : labels)
+                visit(step(left, leftState, label), step(right, rightState, label), remaining);
+
+            //All remaining letters follow the default transitions
+            visit(stepDefault(left, leftState), stepDefault(right, rightState), remaining);
+        }
+
+        return true;
+    }
+
+    /**
+     * Merges the classes of both states, if they are not already equivalent.
+     * @param leftState a state in the left automaton.
+     * @param rightState a state in the right automaton.
+     * @param remaining all pairs whose successors have yet to be visited.
+     */
+    private void visit(State leftState, State rightState, Deque<State[]> remaining){
+        if(union(leftState, rightState))
+            remaining.add(new State[]{leftState, rightState});
+    }
+
+    /**
+     * @param dfa one of the automata.
+     * @param state the current state in the automaton.
+     * @param label the letter that has been read.
+     * @return the successor in the automaton or the sink, if the automaton rejects the letter.
+     */
+    private State step(DeterministicFiniteAutomaton dfa, State state, char label){
+        if(state == sink)
+            return sink;
+
+        State next = dfa.step(state, label);
+        return next == null ? sink : next;
+    }
+
+    /**
+     * @param dfa one of the automata.
+     * @param state the current state in the automaton.
+     * @return the target of the default transition or the sink, if there is none.
+     */
+    private State stepDefault(DeterministicFiniteAutomaton dfa, State state){
+        if(state == sink)
+            return sink;
+
+        State next = dfa.stepDefault(state);
+        return next == null ? sink : next;
+    }
+
+    /**
+     * @param state a state in either automaton.
+     * @return the representative of the class of the state.
+     */
+    private State find(State state){
+        State root = state;
+        while(parents.containsKey(root))
+            root = parents.get(root);
+
+        //Path compression
+        while(state != root){
+            State parent = parents.get(state);
+            parents.put(state, root);
+            state = parent;
+        }
+
+        return root;
+    }
+
+    /**
+     * Merges the classes of both states, attaching the smaller class to the larger one.
+     * @param first the first state.
+     * @param second the second state.
+     * @return true if both states were in different classes.
+     */
+    private boolean union(State first, State second){
+        State firstRoot = find(first);
+        State secondRoot = find(second);
+
+        if(firstRoot == secondRoot)
+            return false;
+
+        int firstSize = sizes.getOrDefault(firstRoot, 1);
+        int secondSize = sizes.getOrDefault(secondRoot, 1);
+
+        if(firstSize < secondSize){
+            parents.put(firstRoot, secondRoot);
+            sizes.put(secondRoot, firstSize + secondSize);
+        }else{
+            parents.put(secondRoot, firstRoot);
+            sizes.put(firstRoot, firstSize + secondSize);
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.Optional;
+
+/**
+ * This interfaces adds the ability to compare the languages of NFAs without applying the power set construction.
+ */
+public interface Inclusion {
+    /**
+     * @return the NFA whose language is compared.
+     */
+    NondeterministicFiniteAutomaton getNfa();
+
+    /**
+     * @param other another NFA.
+     * @return true if every word accepted by this NFA is also accepted by the other NFA.
+     */
+    default boolean isSubsetOf(NondeterministicFiniteAutomaton other){
+        return !findInclusionCounterexample(other).isPresent();
+    }
+
+    /**
+     * @param other another NFA.
+     * @return a word that is accepted by this but not the other NFA, if there is one.
+     */
+    default Optional<String> findInclusionCounterexample(NondeterministicFiniteAutomaton other){
+        return new AntichainInclusion(getNfa(), other).findCounterexample();
+    }
+
+    /**
+     * @return true if this NFA accepts every word.
+     */
+    default boolean isUniversal(){
+        return !findUniversalityCounterexample().isPresent();
+    }
+
+    /**
+     * The universality is checked as the inclusion of the language containing all words.
+     * @return a word that isn't accepted by this NFA, if there is one.
+     */
+    default Optional<String> findUniversalityCounterexample(){
+        NondeterministicFiniteDefaultAutomatonBuilder builder = new NondeterministicFiniteDefaultAutomatonBuilder();
+        State state = builder.addInitialState();
+        state.setFinal(true);
+        builder.addDefaultTransition(state, state);
+
+        return new AntichainInclusion(builder.build(), getNfa()).findCounterexample();
+    }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import com.google.common.collect.ImmutableMultimap;
+import com.google.common.collect.Multimap;
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.table.DirectTableBuilder;
+import vartas.fa.table.MappedAutomaton;
+import vartas.fa.table.TransitionTable;
+
+import java.util.*;
+
+/**
+ * This class applies the power set construction to an NFA, storing the transitions of the DFA outside of the heap.
+ * The states of the NFA are numbered, so that every state of the DFA is a sorted array of ids, and no
+ * intermediate states or tables are created. The states of the DFA are numbered in breadth-first order and
+ * written to the builder as soon as all of their transitions are known.
+ */
+final class OffHeapPowerSet {
+    /**
+     * The epsilon closure of every state in the NFA, as sorted ids.
+     */
+    private final int[][] closures;
+    /**
+     * The final states of the NFA.
+     */
+    private final BitSet finals;
+    /**
+     * The sorted labels of the outgoing transitions of every state in the NFA.
+     */
+    private final char[][] labels;
+    /**
+     * The targets of the outgoing transitions of every state in the NFA, aligned with the labels.
+     */
+    private final int[][][] targets;
+    /**
+     * The targets of the default transitions of every state in the NFA.
+     */
+    private final int[][] defaults;
+    /**
+     * A map relating every discovered set of states in the NFA to its id in the DFA.
+     */
+    private final Map<Subset, Integer> ids;
+    /**
+     * All discovered sets of states in the NFA, ordered by their id in the DFA.
+     */
+    private final List<int[]> subsets;
+
+    /**
+     * A set of states in the NFA, which is used as key in the map of ids.
+     */
+    private static final class Subset{
+        /**
+         * The sorted ids of the states.
+         */
+        private final int[] states;
+        /**
+         * The cached hash code of the ids.
+         */
+        private final int hash;
+
+        /**
+         * @param states the sorted ids of the states.
+         */
+        private Subset(int[] states){
+            this.states = states;
+            this.hash = Arrays.hashCode(states);
+        }
+
+        /**
+         * @param o the other object.
+         * @return true if both sets contain the same states.
+         */
+        @Override
+        public boolean equals(Object o){
+            return o instanceof Subset && Arrays.equals(states, ((Subset)o).states);
+        }
+
+        /**
+         * @return the hash code of the ids.
+         */
+        @Override
+        public int hashCode(){
+            return hash;
+        }
+    }
+
+    /**
+     * @param nfa the NFA.
+     */
+    OffHeapPowerSet(NondeterministicFiniteAutomaton nfa){
+        Multimap<State, State> defaultTransitions = nfa instanceof NondeterministicFiniteDefaultAutomaton
+                ? ((NondeterministicFiniteDefaultAutomaton)nfa).getDefaultTransitions()
+                : ImmutableMultimap.of();
+
+        Map<State, Integer> states = new HashMap<>();
+        for(State state : nfa.getStates())
+            states.put(state, states.size());
+        states.putIfAbsent(nfa.getInitialState(), states.size());
+
+        int size = states.size();
+        closures = new int[size][];
+        finals = new BitSet(size);
+        labels = new char[size][];
+        targets = new int[size][][];
+        defaults = new int[size][];
+
+        for(Map.Entry<State, Integer> entry : states.entrySet()){
+            State state = entry.getKey();
+            int id = entry.getValue();
+
+            finals.set(id, state.isFinal());
+            closures[id] = ids(states, nfa.closure(state));
+            defaults[id] = ids(states, defaultTransitions.get(state));
+
+            SortedMap<Character, Collection<State>> row = new TreeMap<>(nfa.getTransitions().row(state));
+            labels[id] = new char[row.size()];
+            targets[id] = new int[row.size()][];
+
+            int i = 0;
+            for(Map.Entry<Character, Collection<State>> transition : row.entrySet()){
+                labels[id][i] = transition.getKey();
+                targets[id][i++] = ids(states, transition.getValue());
+            }
+        }
+
+        this.ids = new HashMap<>();
+        this.subsets = new ArrayList<>();
+        id(closures[states.get(nfa.getInitialState())]);
+    }
+
+    /**
+     * @param states a map relating every state in the NFA to its id.
+     * @param collection a collection of states in the NFA.
+     * @return the sorted ids of the states.
+     */
+    private static int[] ids(Map<State, Integer> states, Collection<State> collection){
+        return collection.stream().mapToInt(states::get).sorted().distinct().toArray();
+    }
+
+    /**
+     * @param subset the sorted ids of a set of states in the NFA.
+     * @return the id of the set in the DFA, which is assigned if the set hasn't been discovered before.
+     */
+    private int id(int[] subset){
+        return ids.computeIfAbsent(new Subset(subset), key -> {
+            subsets.add(key.states);
+            return subsets.size() - 1;
+        });
+    }
+
+    /**
+     * @param states a set of ids.
+     * @return the sorted ids of the states.
+     */
+    private static int[] toArray(BitSet states){
+        return states.stream().toArray();
+    }
+
+    /**
+     * @param next the set the closure is added to.
+     * @param states the ids of states in the NFA.
+     */
+    private void addClosure(BitSet next, int[] states){
+        for(int state : states)
+            for(int reachable : closures[state])
+                next.set(reachable);
+    }
+
+    /**
+     * @return a DFA that is equivalent to the NFA.
+     */
+    MappedAutomaton powerSet(){
+        DirectTableBuilder builder = new DirectTableBuilder();
+        BitSet next = new BitSet(closures.length);
+
+        for(int id = 0 ; id < subsets.size() ; ++id){
+            int[] subset = subsets.get(id);
+
+            boolean isFinal = false;
+            for(int state : subset)
+                isFinal |= finals.get(state);
+            builder.addState(isFinal);
+
+            //The labels of all states in the set, in ascending order
+            SortedSet<Character> row = new TreeSet<>();
+            for(int state : subset)
+                for(char label : labels[state])
+                    row.add(label);
+
+            for(char label : row){
+                next.clear();
+                for(int state : subset){
+                    int index = Arrays.binarySearch(labels[state], label);
+                    //The default transition is only taken if the state has no transition over the label
+                    addClosure(next, index >= 0 ? targets[state][index] : defaults[state]);
+                }
+                builder.addRange(label, label, id(toArray(next)));
+            }
+
+            next.clear();
+            for(int state : subset)
+                addClosure(next, defaults[state]);
+            if(!next.isEmpty())
+                builder.setDefault(id(toArray(next)));
+            else
+                builder.setDefault(TransitionTable.NONE);
+        }
+
+        return builder.build();
+    }
+}
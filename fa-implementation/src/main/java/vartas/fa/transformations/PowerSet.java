@@ -21,6 +21,7 @@ import vartas.fa.DeterministicFiniteAutomaton;
 import vartas.fa.NondeterministicFiniteAutomaton;
 import vartas.fa.State;
 import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.table.MappedAutomaton;
 import vartas.fa.visitor.NondeterministicFiniteAutomatonTransitionVisitor;
 
 import java.util.Collection;
@@ -54,6 +55,15 @@ public interface PowerSet extends NondeterministicFiniteAutomatonTransitionVisit
         return getPowerSetBuilder().build();
     }
 
+    /**
+     * Applies the power set construction without creating any states, storing the transitions of the DFA
+     * outside of the heap. This keeps the heap usage independent of the number of transitions in the DFA.
+     * @return a DFA that is equivalent to the current NFA.
+     */
+    default MappedAutomaton powerSetOffHeap(){
+        return new OffHeapPowerSet(getNfa()).powerSet();
+    }
+
     /**
      * Starts building the power set starting from the initial state.
      * @param nfa the given NFA.
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.ProductAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+/**
+ * This interfaces adds the ability to combine the languages of DFAs via boolean operations.
+ * The results are product automata, which are only explored as far as needed by the input words.
+ * Call {@link ProductAutomaton#materialize()} to obtain the full DFA.
+ */
+public interface Product {
+    /**
+     * @return the DFA that is the left operand.
+     */
+    DeterministicFiniteAutomaton getDfa();
+
+    /**
+     * @param other the right operand.
+     * @return an automaton accepting all words that are accepted by both DFAs.
+     */
+    default ProductAutomaton intersect(DeterministicFiniteAutomaton other){
+        return new ProductAutomaton(getDfa(), other, ProductAutomaton.Operation.INTERSECTION);
+    }
+
+    /**
+     * @param other the right operand.
+     * @return an automaton accepting all words that are accepted by at least one of the DFAs.
+     */
+    default ProductAutomaton union(DeterministicFiniteAutomaton other){
+        return new ProductAutomaton(getDfa(), other, ProductAutomaton.Operation.UNION);
+    }
+
+    /**
+     * @param other the right operand.
+     * @return an automaton accepting all words that are accepted by this but not the other DFA.
+     */
+    default ProductAutomaton difference(DeterministicFiniteAutomaton other){
+        return new ProductAutomaton(getDfa(), other, ProductAutomaton.Operation.DIFFERENCE);
+    }
+
+    /**
+     * The complement is the difference between the automaton accepting all words and this DFA.
+     * Every letter this DFA rejects leads into the sink of the product, which is final in the complement.
+     * @return an automaton accepting all words that aren't accepted by this DFA.
+     */
+    default ProductAutomaton complement(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        State state = builder.addInitialState();
+        state.setFinal(true);
+        builder.addDefaultTransition(state, state);
+
+        return new ProductAutomaton(builder.build(), getDfa(), ProductAutomaton.Operation.DIFFERENCE);
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.Multimap;
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * This interfaces adds the ability to remove all epsilon transitions from NFAs.
+ * States that can reach each other via epsilon transitions are collapsed into a single state first,
+ * after which every state inherits the transitions of all states in its epsilon closure.
+ */
+public interface RemoveEpsilon {
+    /**
+     * @return the NFA whose epsilon transitions are removed.
+     */
+    NondeterministicFiniteAutomaton getNfa();
+
+    /**
+     * @return the NFA builder for the automaton without epsilon transitions.
+     */
+    NondeterministicFiniteAutomatonBuilder getEpsilonFreeBuilder();
+
+    /**
+     * Collapses all strongly connected components over the epsilon transitions into single states.
+     * Every component is then linked to the targets of all transitions leaving its epsilon closure.
+     * Only components that are reachable from the initial state are part of the resulting automaton.
+     * @return an equivalent NFA without any epsilon transitions.
+     */
+    default NondeterministicFiniteAutomaton removeEpsilon(){
+        NondeterministicFiniteAutomaton nfa = getNfa();
+        getEpsilonFreeBuilder().clear();
+
+        StronglyConnectedComponents graph = new StronglyConnectedComponents(nfa.getStates(), nfa.getEpsilonTransitions()::get);
+        List<List<State>> components = graph.getComponents();
+
+        //Since the components are in reverse topological order, the closures of all successors are already known
+        List<BitSet> closures = new ArrayList<>(components.size());
+        for(int i = 0 ; i < components.size() ; ++i){
+            BitSet closure = new BitSet();
+            closure.set(i);
+            for(State state : components.get(i))
+                for(State next : nfa.getEpsilonTransitions().get(state))
+                    if(graph.getComponent(next) != i)
+                        closure.or(closures.get(graph.getComponent(next)));
+            closures.add(closure);
+        }
+
+        Map<Integer, State> states = new HashMap<>();
+        Deque<Integer> remaining = new ArrayDeque<>();
+        Function<State, State> target = state -> states.computeIfAbsent(graph.getComponent(state), component -> {
+            remaining.add(component);
+            return addEpsilonFreeState(components.get(component), false);
+        });
+
+        int initialComponent = graph.getComponent(nfa.getInitialState());
+        states.put(initialComponent, addEpsilonFreeState(components.get(initialComponent), true));
+        remaining.add(initialComponent);
+
+        while(!remaining.isEmpty()){
+            int component = remaining.pop();
+            BitSet closure = closures.get(component);
+
+            Set<State> closureStates = new HashSet<>();
+            for(int i = closure.nextSetBit(0) ; i >= 0 ; i = closure.nextSetBit(i + 1))
+                closureStates.addAll(components.get(i));
+
+            State from = states.get(component);
+            from.setFinal(closureStates.stream().anyMatch(State::isFinal));
+
+            addEpsilonFreeTransitions(from, closureStates, target);
+        }
+
+        return getEpsilonFreeBuilder().build();
+    }
+
+    /**
+     * Creates the state for a component.
+     * If the component consists of a single named state, the name is retained.
+     * @param component all states in the component.
+     * @param isInitial true if the component contains the initial state.
+     * @return the new state of the component.
+     */
+    default State addEpsilonFreeState(List<State> component, boolean isInitial){
+        NondeterministicFiniteAutomatonBuilder builder = getEpsilonFreeBuilder();
+
+        if(component.size() == 1 && component.get(0).isPresentName())
+            return isInitial ? builder.addInitialState(component.get(0).getName()) : builder.addState(component.get(0).getName());
+        else
+            return isInitial ? builder.addInitialState() : builder.addState();
+    }
+
+    /**
+     * Adds all transitions leaving the epsilon closure of a component to the state of the component.
+     * @param from the state of the component.
+     * @param closure all states in the epsilon closure of the component.
+     * @param target a function relating states in the NFA to the state of their component.
+     */
+    default void addEpsilonFreeTransitions(State from, Set<State> closure, Function<State, State> target){
+        Multimap<Character, State> transitions = collectEpsilonFreeTransitions(closure, target);
+
+        transitions.forEach((with, to) -> getEpsilonFreeBuilder().addTransition(from, with, to));
+    }
+
+    /**
+     * Transitions with the same label and target component are only added once.
+     * @param closure all states in the epsilon closure of a component.
+     * @param target a function relating states in the NFA to the state of their component.
+     * @return all transitions leaving the closure, grouped by their label.
+     */
+    default Multimap<Character, State> collectEpsilonFreeTransitions(Set<State> closure, Function<State, State> target){
+        Multimap<Character, State> transitions = HashMultimap.create();
+
+        for(State state : closure)
+            for(Map.Entry<Character, Collection<State>> entry : getNfa().getTransitions().row(state).entrySet())
+                for(State to : entry.getValue())
+                    transitions.put(entry.getKey(), target.apply(to));
+
+        return transitions;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import com.google.common.collect.Multimap;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * This interfaces adds the ability to remove all epsilon transitions from NFAs with infinite alphabets.
+ */
+public interface RemoveEpsilonDefault extends RemoveEpsilon {
+    /**
+     * @return the NFA whose epsilon transitions are removed.
+     */
+    @Override
+    NondeterministicFiniteDefaultAutomaton getNfa();
+
+    /**
+     * @return the NFA builder for the automaton without epsilon transitions.
+     */
+    @Override
+    NondeterministicFiniteDefaultAutomatonBuilder getEpsilonFreeBuilder();
+
+    /**
+     * @return an equivalent NFA without any epsilon transitions.
+     */
+    @Override
+    default NondeterministicFiniteDefaultAutomaton removeEpsilon(){
+        return (NondeterministicFiniteDefaultAutomaton)RemoveEpsilon.super.removeEpsilon();
+    }
+
+    /**
+     * Adds all transitions leaving the epsilon closure of a component to the state of the component.
+     * Since a default transition is only taken if the state itself has no matching transition, merging
+     * the states of a closure would otherwise hide the default transitions of some states behind the
+     * labels of others. So for every such label, an explicit transition to the default targets is added as well.
+     * @param from the state of the component.
+     * @param closure all states in the epsilon closure of the component.
+     * @param target a function relating states in the NFA to the state of their component.
+     */
+    @Override
+    default void addEpsilonFreeTransitions(State from, Set<State> closure, Function<State, State> target){
+        Multimap<Character, State> transitions = collectEpsilonFreeTransitions(closure, target);
+        Set<Character> labels = new HashSet<>(transitions.keySet());
+        Set<State> defaults = new HashSet<>();
+
+        for(State state : closure){
+            Map<Character, ?> row = getNfa().getTransitions().row(state);
+            for(State to : getNfa().getDefaultTransitions().get(state)){
+                defaults.add(target.apply(to));
+
+                for(char label : labels)
+                    if(!row.containsKey(label))
+                        transitions.put(label, target.apply(to));
+            }
+        }
+
+        transitions.forEach((with, to) -> getEpsilonFreeBuilder().addTransition(from, with, to));
+        defaults.forEach(to -> getEpsilonFreeBuilder().addDefaultTransition(from, to));
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+import vartas.fa.State;
+
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * This class computes the strongly connected components of a graph over states using Tarjan's algorithm.
+ * The recursion is replaced by an explicit stack, so that long chains don't overflow the call stack.
+ */
+final class StronglyConnectedComponents {
+    /**
+     * All components in reverse topological order.
+     * A component is only added after all components that are reachable from it.
+     */
+    private final List<List<State>> components;
+    /**
+     * A map that relates each state to the index of its component.
+     */
+    private final Map<State, Integer> componentOf;
+    /**
+     * The successors of a state in the graph.
+     */
+    private final Function<State, Collection<State>> successors;
+    /**
+     * The order in which the states have been discovered.
+     */
+    private final Map<State, Integer> index;
+    /**
+     * The smallest index that is reachable from a state.
+     */
+    private final Map<State, Integer> lowLink;
+    /**
+     * All states whose component hasn't been determined yet.
+     */
+    private final Deque<State> stack;
+
+    /**
+     * Computes the components of the given graph.
+     * @param states all states in the graph.
+     * @param successors the successors of a state in the graph.
+     */
+    StronglyConnectedComponents(Collection<State> states, Function<State, Collection<State>> successors){
+        this.components = new ArrayList<>();
+        this.componentOf = new HashMap<>();
+        this.successors = successors;
+        this.index = new HashMap<>();
+        this.lowLink = new HashMap<>();
+        this.stack = new ArrayDeque<>();
+
+        for(State state : states)
+            if(!index.containsKey(state))
+                traverse(state);
+    }
+
+    /**
+     * Visits all states that are reachable from the given state in depth-first order.
+     * @param root the state the search starts at.
+     */
+    private void traverse(State root){
+        Deque<State> path = new ArrayDeque<>();
+        Deque<Iterator<State>> iterators = new ArrayDeque<>();
+
+        discover(root, path, iterators);
+
+        while(!path.isEmpty()){
+            State current = path.peek();
+            Iterator<State> iterator = iterators.peek();
+
+            if(iterator.hasNext()){
+                State next = iterator.next();
+                if(!index.containsKey(next))
+                    discover(next, path, iterators);
+                else if(!componentOf.containsKey(next))
+                    lowLink.put(current, Math.min(lowLink.get(current), index.get(next)));
+            }else{
+                path.pop();
+                iterators.pop();
+
+                if(lowLink.get(current).equals(index.get(current)))
+                    addComponent(current);
+                if(!path.isEmpty())
+                    lowLink.put(path.peek(), Math.min(lowLink.get(path.peek()), lowLink.get(current)));
+            }
+        }
+    }
+
+    /**
+     * Marks the state as discovered and pushes it onto the current path.
+     * @param state the newly discovered state.
+     * @param path the current path of the depth-first search.
+     * @param iterators the remaining successors of every state on the path.
+     */
+    private void discover(State state, Deque<State> path, Deque<Iterator<State>> iterators){
+        index.put(state, index.size());
+        lowLink.put(state, index.get(state));
+        stack.push(state);
+        path.push(state);
+        iterators.push(successors.apply(state).iterator());
+    }
+
+    /**
+     * Pops all states of the component rooted at the given state from the stack.
+     * @param root the first discovered state of the component.
+     */
+    private void addComponent(State root){
+        List<State> component = new ArrayList<>();
+        State state;
+        do{
+            state = stack.pop();
+            componentOf.put(state, components.size());
+            component.add(state);
+        }while(state != root);
+        components.add(component);
+    }
+
+    /**
+     * @return all components in reverse topological order.
+     */
+    List<List<State>> getComponents(){
+        return components;
+    }
+
+    /**
+     * @param state a state in the graph.
+     * @return the index of the component containing the state.
+     */
+    int getComponent(State state){
+        return componentOf.get(state);
+    }
+}
@@ -0,0 +1,31 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.transformations;
+
+/**
+ * The transformations of the automata share their intermediate results in static fields, hence they can't be run
+ * in parallel. Callers that transform automata from multiple threads have to synchronize on the same lock.
+ */
+public final class Transformations {
+    /**
+     * The lock guarding the intermediate results of all transformations.
+     */
+    public static final Object LOCK = new Object();
+
+    private Transformations(){}
+}
@@ -74,6 +74,12 @@ public class DeterministicFiniteAutomatonTest extends FiniteAutomatonTest{
         assertThat(dfa.run("c")).isFalse();
     }
 
+    @Test
+    public void testInvalidSuffix(){
+        assertThat(dfa.run("bc")).isFalse();
+        assertThat(dfa.run("abcb")).isFalse();
+    }
+
     @Test
     public void testReverse(){
         NondeterministicFiniteAutomaton nfa = dfa.reverse();
@@ -106,6 +112,43 @@ public class DeterministicFiniteAutomatonTest extends FiniteAutomatonTest{
         assertThat(dfa.run("c")).isFalse();
     }
 
+    @Test
+    public void testIsEquivalent(){
+        assertThat(dfa.isEquivalent(dfa.minimize())).isTrue();
+        assertThat(dfa.findCounterexample(dfa.minimize())).isEmpty();
+
+        builder.clear();
+        State state = builder.addInitialState();
+        State end = builder.addFinalState();
+        builder.addTransition(state, 'a', state);
+        builder.addTransition(state, 'b', end);
+        builder.addTransition(end, 'b', end);
+
+        //Accepts a*b+
+        DeterministicFiniteAutomaton other = builder.build();
+
+        assertThat(dfa.isEquivalent(other)).isFalse();
+        assertThat(dfa.findCounterexample(other)).contains("bab");
+    }
+
+    @Test
+    public void testIsSubsetOf(){
+        builder.clear();
+        State state = builder.addInitialState();
+        State end = builder.addFinalState();
+        builder.addTransition(state, 'a', state);
+        builder.addTransition(state, 'b', end);
+        builder.addTransition(end, 'b', end);
+
+        //Accepts a*b+
+        DeterministicFiniteAutomaton other = builder.build();
+
+        assertThat(other.isSubsetOf(dfa)).isTrue();
+        assertThat(other.findInclusionCounterexample(dfa)).isEmpty();
+        assertThat(dfa.isSubsetOf(other)).isFalse();
+        assertThat(dfa.findInclusionCounterexample(other)).contains("bab");
+    }
+
     @Override
     public void testGetStates() {
         assertThat(dfa.getStates()).containsExactlyInAnyOrder(initialState, a, b);
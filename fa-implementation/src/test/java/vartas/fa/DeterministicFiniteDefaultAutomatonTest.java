@@ -87,6 +87,37 @@ public class DeterministicFiniteDefaultAutomatonTest extends FiniteAutomatonTest
         assertThat(dfa.run("")).isTrue();
     }
 
+    @Test
+    public void testIsEquivalent(){
+        builder.clear();
+        State state = builder.addInitialState();
+        state.setFinal(true);
+        builder.addTransition(state, 'a', state);
+        builder.addTransition(state, 'c', state);
+        builder.addDefaultTransition(state, state);
+        builder.addTransition(state, 'b', builder.addState());
+
+        //Accepts all words that don't contain a b
+        DeterministicFiniteDefaultAutomaton other = builder.build();
+
+        assertThat(dfa.isEquivalent(other)).isTrue();
+        assertThat(dfa.findCounterexample(other)).isEmpty();
+
+        builder.clear();
+        state = builder.addInitialState();
+        state.setFinal(true);
+        builder.addTransition(state, 'a', state);
+        builder.addTransition(state, 'c', state);
+
+        //Accepts (a+c)*
+        other = builder.build();
+
+        assertThat(dfa.isEquivalent(other)).isFalse();
+        assertThat(dfa.findCounterexample(other)).contains("d");
+        assertThat(other.isSubsetOf(dfa)).isTrue();
+        assertThat(dfa.isSubsetOf(other)).isFalse();
+    }
+
     @Override
     public void testGetStates() {
         assertThat(dfa.getStates()).containsExactlyInAnyOrder(initialState, sink);
@@ -20,6 +20,9 @@ package vartas.fa;
 import org.junit.Before;
 import org.junit.Test;
 import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+import vartas.fa.table.MappedAutomaton;
+
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -106,6 +109,180 @@ public class NondeterministicFiniteAutomatonTest extends FiniteAutomatonTest{
         assertThat(dfa.run("c")).isFalse();
         assertThat(dfa.run("bc")).isTrue();
     }
+
+    @Test
+    public void testPowerSetOffHeap(){
+        MappedAutomaton dfa = nfa.powerSetOffHeap();
+
+        assertThat(dfa.run("ac")).isTrue();
+        assertThat(dfa.run("ab")).isTrue();
+        assertThat(dfa.run("a")).isFalse();
+        assertThat(dfa.run("b")).isFalse();
+        assertThat(dfa.run("")).isFalse();
+        assertThat(dfa.run("c")).isFalse();
+        assertThat(dfa.run("bc")).isTrue();
+        assertThat(dfa.size()).isEqualTo(nfa.powerSet().getStates().size());
+    }
+
+    @Test
+    public void testIsDeterministic(){
+        assertThat(nfa.isDeterministic()).isFalse();
+        assertThat(nfa.determinize()).isEmpty();
+    }
+
+    @Test
+    public void testToDeterministic(){
+        DeterministicFiniteAutomaton dfa = nfa.toDeterministic();
+
+        assertThat(dfa.run("ac")).isTrue();
+        assertThat(dfa.run("ab")).isTrue();
+        assertThat(dfa.run("a")).isFalse();
+        assertThat(dfa.run("bc")).isTrue();
+        assertThat(dfa.getStates()).hasSize(nfa.powerSet().getStates().size());
+    }
+
+    @Test
+    public void testDeterminize(){
+        builder.clear();
+        State initial = builder.addInitialState("initial");
+        State forwarded = builder.addState("forwarded");
+        State start = builder.addState("start");
+        State middle = builder.addState("middle");
+        State end = builder.addFinalState("end");
+        builder.addEpsilonTransition(initial, forwarded);
+        builder.addEpsilonTransition(forwarded, start);
+        builder.addTransition(start, 'a', middle);
+        builder.addTransition(start, 'b', forwarded);
+        builder.addTransition(middle, 'b', end);
+
+        //Accepts b*ab
+        NondeterministicFiniteAutomaton nfa = builder.build();
+        assertThat(nfa.isDeterministic()).isTrue();
+
+        DeterministicFiniteAutomaton dfa = nfa.toDeterministic();
+        assertThat(dfa.run("ab")).isTrue();
+        assertThat(dfa.run("bbab")).isTrue();
+        assertThat(dfa.run("a")).isFalse();
+        assertThat(dfa.run("ba")).isFalse();
+        assertThat(dfa.getStates().stream().map(State::getName).collect(Collectors.toList())).containsExactlyInAnyOrder("start", "middle", "end");
+        assertThat(dfa.getInitialState().getName()).isEqualTo("start");
+    }
+
+    @Test
+    public void testDeterminizeSharedTarget(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State left = builder.addState();
+        State right = builder.addState();
+        State end = builder.addFinalState();
+        builder.addTransition(initial, 'a', left);
+        builder.addTransition(initial, 'a', right);
+        builder.addEpsilonTransition(left, end);
+        builder.addEpsilonTransition(right, end);
+
+        //Both targets are forwarded to the same state
+        DeterministicFiniteAutomaton dfa = builder.build().determinize().orElseThrow(AssertionError::new);
+        assertThat(dfa.run("a")).isTrue();
+        assertThat(dfa.run("")).isFalse();
+        assertThat(dfa.getStates()).hasSize(2);
+    }
+
+    @Test
+    public void testDeterminizeFinalForwarding(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State forwarded = builder.addFinalState();
+        State end = builder.addState();
+        builder.addTransition(initial, 'a', forwarded);
+        builder.addEpsilonTransition(forwarded, end);
+
+        //The word a would be rejected after removing the final state
+        assertThat(builder.build().isDeterministic()).isFalse();
+    }
+
+    @Test
+    public void testDeterminizeEpsilonCycle(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State state = builder.addState();
+        builder.addEpsilonTransition(initial, state);
+        builder.addEpsilonTransition(state, initial);
+
+        assertThat(builder.build().isDeterministic()).isFalse();
+    }
+
+    @Test
+    public void testDeterminizeMixedTransitions(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State state = builder.addFinalState();
+        builder.addEpsilonTransition(initial, state);
+        builder.addTransition(initial, 'a', state);
+
+        assertThat(builder.build().isDeterministic()).isFalse();
+    }
+
+    @Test
+    public void testRemoveEpsilon(){
+        NondeterministicFiniteAutomaton epsilonFree = nfa.removeEpsilon();
+
+        assertThat(epsilonFree.getEpsilonTransitions().isEmpty()).isTrue();
+        //The epsilon loop between s5 and s6 is collapsed, s7 and s8 are only reachable via epsilon transitions
+        assertThat(epsilonFree.getStates()).hasSize(7);
+
+        assertThat(epsilonFree.run("ac")).isTrue();
+        assertThat(epsilonFree.run("ab")).isTrue();
+        assertThat(epsilonFree.run("a")).isFalse();
+        assertThat(epsilonFree.run("b")).isFalse();
+        assertThat(epsilonFree.run("")).isFalse();
+        assertThat(epsilonFree.run("c")).isFalse();
+        assertThat(epsilonFree.run("bc")).isTrue();
+    }
+
+    @Test
+    public void testRemoveEpsilonFinalClosure(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State end = builder.addFinalState();
+        builder.addEpsilonTransition(initial, end);
+        builder.addTransition(end, 'a', initial);
+
+        //Accepts a*
+        NondeterministicFiniteAutomaton epsilonFree = builder.build().removeEpsilon();
+
+        assertThat(epsilonFree.getInitialState().isFinal()).isTrue();
+        assertThat(epsilonFree.run("")).isTrue();
+        assertThat(epsilonFree.run("aaa")).isTrue();
+        assertThat(epsilonFree.run("b")).isFalse();
+    }
+
+    @Test
+    public void testIsSubsetOf(){
+        assertThat(nfa.isSubsetOf(nfa)).isTrue();
+        assertThat(nfa.isSubsetOf(nfa.removeEpsilon())).isTrue();
+
+        builder.clear();
+        State initial = builder.addInitialState();
+        State middle = builder.addState();
+        State end = builder.addFinalState();
+        builder.addTransition(initial, 'a', middle);
+        builder.addTransition(middle, 'b', end);
+        builder.addEpsilonTransition(end, end);
+
+        //Accepts ab
+        NondeterministicFiniteAutomaton other = builder.build();
+
+        assertThat(other.isSubsetOf(nfa)).isTrue();
+        assertThat(nfa.isSubsetOf(other)).isFalse();
+        assertThat(nfa.findInclusionCounterexample(other).get()).isIn("ac", "bc");
+    }
+
+    @Test
+    public void testIsUniversal(){
+        assertThat(nfa.isUniversal()).isFalse();
+        assertThat(nfa.findUniversalityCounterexample()).contains("");
+    }
+
     @Test
     public void testGetEpsilonTransitions(){
         assertTrue(nfa.getEpsilonTransitions().containsEntry(s5, s6));
@@ -20,6 +20,7 @@ package vartas.fa;
 import org.junit.Before;
 import org.junit.Test;
 import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.table.MappedAutomaton;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -90,6 +91,138 @@ public class NondeterministicFiniteDefaultAutomatonTest extends FiniteAutomatonT
         assertThat(dfa.run("byc")).isFalse();
     }
 
+    @Test
+    public void testPowerSetOffHeap(){
+        MappedAutomaton dfa = nfa.powerSetOffHeap();
+
+        assertThat(dfa.run("")).isFalse();
+        assertThat(dfa.run("ac")).isFalse();
+        assertThat(dfa.run("ab")).isFalse();
+        assertThat(dfa.run("axb")).isTrue();
+        assertThat(dfa.run("ayc")).isTrue();
+        assertThat(dfa.run("axx")).isFalse();
+        assertThat(dfa.run("byc")).isFalse();
+    }
+
+    @Test
+    public void testRemoveEpsilon(){
+        NondeterministicFiniteDefaultAutomaton epsilonFree = nfa.removeEpsilon();
+
+        assertThat(epsilonFree.getEpsilonTransitions().isEmpty()).isTrue();
+        //s5 is only reachable via an epsilon transition
+        assertThat(epsilonFree.getStates()).hasSize(7);
+
+        assertThat(epsilonFree.run("")).isFalse();
+        assertThat(epsilonFree.run("ac")).isFalse();
+        assertThat(epsilonFree.run("ab")).isFalse();
+        assertThat(epsilonFree.run("axb")).isTrue();
+        assertThat(epsilonFree.run("ayc")).isTrue();
+        assertThat(epsilonFree.run("axx")).isFalse();
+        assertThat(epsilonFree.run("byc")).isFalse();
+    }
+
+    @Test
+    public void testIsSubsetOf(){
+        assertThat(nfa.isSubsetOf(nfa.removeEpsilon())).isTrue();
+        assertThat(nfa.removeEpsilon().isSubsetOf(nfa)).isTrue();
+
+        builder.clear();
+        State initial = builder.addInitialState();
+        State middle = builder.addState();
+        State end = builder.addFinalState();
+        builder.addDefaultTransition(initial, middle);
+        builder.addDefaultTransition(middle, end);
+
+        //Accepts all words of length 2
+        NondeterministicFiniteDefaultAutomaton other = builder.build();
+
+        assertThat(other.isSubsetOf(nfa)).isFalse();
+        assertThat(other.findInclusionCounterexample(nfa).get()).hasSize(2);
+        assertThat(nfa.isSubsetOf(other)).isFalse();
+        assertThat(nfa.findInclusionCounterexample(other).get()).hasSize(3);
+    }
+
+    @Test
+    public void testIsUniversal(){
+        assertThat(nfa.isUniversal()).isFalse();
+
+        builder.clear();
+        State initial = builder.addInitialState();
+        State end = builder.addFinalState();
+        builder.addEpsilonTransition(initial, end);
+        builder.addTransition(end, 'a', initial);
+        builder.addDefaultTransition(end, end);
+
+        //Accepts all words
+        assertThat(builder.build().isUniversal()).isTrue();
+    }
+
+    @Test
+    public void testIsDeterministic(){
+        assertThat(nfa.isDeterministic()).isFalse();
+        assertThat(nfa.toDeterministic().run("aab")).isTrue();
+        assertThat(nfa.toDeterministic().run("aac")).isTrue();
+        assertThat(nfa.toDeterministic().run("aaa")).isFalse();
+    }
+
+    @Test
+    public void testDeterminize(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State start = builder.addState();
+        State middle = builder.addState();
+        State end = builder.addFinalState();
+        builder.addEpsilonTransition(initial, start);
+        builder.addTransition(start, 'a', end);
+        builder.addDefaultTransition(start, middle);
+        builder.addTransition(middle, 'b', end);
+
+        //Accepts a and every word of length 2 that ends with b
+        NondeterministicFiniteDefaultAutomaton nfa = builder.build();
+        assertThat(nfa.isDeterministic()).isTrue();
+
+        DeterministicFiniteDefaultAutomaton dfa = nfa.toDeterministic();
+        assertThat(dfa.run("a")).isTrue();
+        assertThat(dfa.run("cb")).isTrue();
+        assertThat(dfa.run("ab")).isFalse();
+        assertThat(dfa.run("c")).isFalse();
+        assertThat(dfa.getStates()).hasSize(3);
+        assertThat(dfa.getDefaultTransitions()).hasSize(1);
+    }
+
+    @Test
+    public void testDeterminizeMultipleDefaults(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State left = builder.addState();
+        State right = builder.addFinalState();
+        builder.addDefaultTransition(initial, left);
+        builder.addDefaultTransition(initial, right);
+
+        assertThat(builder.build().isDeterministic()).isFalse();
+    }
+
+    @Test
+    public void testRemoveEpsilonMergedDefaults(){
+        builder.clear();
+        State initial = builder.addInitialState();
+        State left = builder.addState();
+        State right = builder.addState();
+        State end = builder.addFinalState();
+        builder.addEpsilonTransition(initial, left);
+        builder.addEpsilonTransition(initial, right);
+        builder.addTransition(left, 'a', end);
+        builder.addDefaultTransition(right, end);
+
+        //Accepts a single arbitrary letter, the default transition of the right state must not be hidden by the left state
+        NondeterministicFiniteDefaultAutomaton epsilonFree = builder.build().removeEpsilon();
+
+        assertThat(epsilonFree.run("a")).isTrue();
+        assertThat(epsilonFree.run("b")).isTrue();
+        assertThat(epsilonFree.run("")).isFalse();
+        assertThat(epsilonFree.run("ab")).isFalse();
+    }
+
     @Override
     public void testGetStates() {
         assertThat(nfa.getStates()).containsExactlyInAnyOrder(initialState, s1, s2, s3, s4, s5, s6, s7);
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProductAutomatonTest extends FiniteAutomatonTest{
+    DeterministicFiniteAutomaton left;
+    DeterministicFiniteDefaultAutomaton right;
+
+    @Before
+    public void setUp(){
+        DeterministicFiniteAutomatonBuilder leftBuilder = new DeterministicFiniteAutomatonBuilder();
+
+        State initialState = leftBuilder.addInitialState();
+        State a = leftBuilder.addState();
+        State b = leftBuilder.addFinalState();
+
+        leftBuilder.addTransition(initialState, 'a', a);
+        leftBuilder.addTransition(initialState, 'b', b);
+        leftBuilder.addTransition(a, 'a', a);
+        leftBuilder.addTransition(a, 'b', b);
+        leftBuilder.addTransition(b, 'a', a);
+        leftBuilder.addTransition(b, 'b', b);
+
+        //Accepts (a+b)*b
+        left = leftBuilder.build();
+
+        DeterministicFiniteDefaultAutomatonBuilder rightBuilder = new DeterministicFiniteDefaultAutomatonBuilder();
+
+        initialState = rightBuilder.addInitialState();
+        State sink = rightBuilder.addState();
+
+        initialState.setFinal(true);
+
+        rightBuilder.addTransition(initialState, 'c', sink);
+        rightBuilder.addDefaultTransition(initialState, initialState);
+        rightBuilder.addDefaultTransition(sink, sink);
+
+        //Accepts all words that don't contain a c
+        right = rightBuilder.build();
+    }
+
+    @Test
+    public void testIntersect(){
+        ProductAutomaton product = left.intersect(right);
+
+        assertThat(product.run("ab")).isTrue();
+        assertThat(product.run("b")).isTrue();
+        assertThat(product.run("cb")).isFalse();
+        assertThat(product.run("a")).isFalse();
+        assertThat(product.run("")).isFalse();
+    }
+
+    @Test
+    public void testUnion(){
+        ProductAutomaton product = left.union(right);
+
+        assertThat(product.run("ab")).isTrue();
+        assertThat(product.run("a")).isTrue();
+        assertThat(product.run("xyz")).isTrue();
+        assertThat(product.run("")).isTrue();
+        assertThat(product.run("cb")).isFalse();
+        assertThat(product.run("cac")).isFalse();
+    }
+
+    @Test
+    public void testDifference(){
+        ProductAutomaton product = right.difference(left);
+
+        assertThat(product.run("a")).isTrue();
+        assertThat(product.run("x")).isTrue();
+        assertThat(product.run("")).isTrue();
+        assertThat(product.run("ab")).isFalse();
+        assertThat(product.run("c")).isFalse();
+    }
+
+    @Test
+    public void testComplement(){
+        ProductAutomaton product = left.complement();
+
+        assertThat(product.run("")).isTrue();
+        assertThat(product.run("a")).isTrue();
+        assertThat(product.run("cb")).isTrue();
+        assertThat(product.run("abx")).isTrue();
+        assertThat(product.run("b")).isFalse();
+        assertThat(product.run("aab")).isFalse();
+
+        product = right.complement();
+
+        assertThat(product.run("c")).isTrue();
+        assertThat(product.run("ac")).isTrue();
+        assertThat(product.run("a")).isFalse();
+        assertThat(product.run("")).isFalse();
+    }
+
+    @Test
+    public void testMaterialize(){
+        DeterministicFiniteDefaultAutomaton dfa = left.complement().materialize();
+
+        assertThat(dfa.run("")).isTrue();
+        assertThat(dfa.run("a")).isTrue();
+        assertThat(dfa.run("cb")).isTrue();
+        assertThat(dfa.run("abx")).isTrue();
+        assertThat(dfa.run("b")).isFalse();
+        assertThat(dfa.run("aab")).isFalse();
+
+        dfa = left.intersect(right).materialize();
+
+        //The pairs containing the sink of the right operand are never reached
+        assertThat(dfa.getStates()).hasSize(3);
+        assertThat(dfa.getDefaultTransitions()).isEmpty();
+        assertThat(dfa.run("ab")).isTrue();
+        assertThat(dfa.run("cb")).isFalse();
+    }
+
+    @Override
+    public void testGetStates(){
+        ProductAutomaton product = left.intersect(right);
+
+        //The states are only created once they are reached
+        assertThat(product.getStates()).hasSize(1);
+        product.run("ab");
+        assertThat(product.getStates()).hasSize(3);
+        product.run("ab");
+        assertThat(product.getStates()).hasSize(3);
+    }
+}
@@ -62,4 +62,26 @@ public class StateTest {
     public void testIsFinal(){
         assertThat(state.isFinal()).isTrue();
     }
+
+    @Test
+    public void testFreeze(){
+        assertThat(state.isFrozen()).isFalse();
+        state.freeze();
+
+        assertThat(state.isFrozen()).isTrue();
+        assertThat(state.isFinal()).isTrue();
+        assertThat(state.isInitial()).isTrue();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testSetFinalFrozen(){
+        state.freeze();
+        state.setFinal(false);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testSetInitialFrozen(){
+        state.freeze();
+        state.setInitial(false);
+    }
 }
@@ -19,6 +19,12 @@ package vartas.fa.builder;
 
 import org.junit.Before;
 import org.junit.Test;
+import vartas.fa.State;
+
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
 
 public class DeterministicFiniteAutomatonBuilderTest extends FiniteAutomatonBuilderTest<DeterministicFiniteAutomatonBuilder>{
     @Before
@@ -36,6 +42,61 @@ public class DeterministicFiniteAutomatonBuilderTest extends FiniteAutomatonBuil
         builder.addTransition(start, 'a', end);
     }
 
+    @Test
+    public void testOverlappingRangeTransitions(){
+        try{
+            builder.addTransitions(start, 'Z', 'a', start);
+            fail("The ranges overlap");
+        }catch(IllegalArgumentException e){
+            //None of the letters before the overlap have been added
+            assertThat(builder.build().run("Z")).isFalse();
+        }
+    }
+
+    @Test
+    public void testOverlappingRangeSetTransitions(){
+        try{
+            builder.addTransitions(start, Arrays.asList(new char[]{'0', '9'}, new char[]{'Z', 'a'}), start);
+            fail("The ranges overlap");
+        }catch(IllegalArgumentException e){
+            //None of the letters in the earlier range have been added
+            assertThat(builder.build().run("0")).isFalse();
+            assertThat(builder.build().run("Z")).isFalse();
+        }
+    }
+
+    @Test
+    public void testUnchecked(){
+        builder.setChecked(false);
+        builder.addTransition(start, 'a', start);
+
+        assertThat(builder.isChecked()).isFalse();
+        assertThat(builder.build().step(start, 'a')).isEqualTo(start);
+    }
+
+    @Test
+    public void testExpectedSize(){
+        builder = new DeterministicFiniteAutomatonBuilder(1000, 5000);
+        builder.addInitialState();
+        State[] states = builder.addStates(1000);
+
+        for(int i = 0 ; i < states.length ; ++i)
+            for(char label = 'a' ; label < 'f' ; ++label)
+                builder.addTransition(states[i], label, states[(i + label) % states.length]);
+
+        assertThat(builder.build().getTransitions().size()).isEqualTo(5000);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testNegativeExpectedSize(){
+        new DeterministicFiniteAutomatonBuilder(-1, 0);
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testBuildImmutableTransitions(){
+        builder.build().getTransitions().put(end, 'b', start);
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testBuildWithoutInitialState(){
         builder.initialState = null;
@@ -1,9 +1,16 @@
 package vartas.fa.builder;
 
 import org.junit.Before;
+import com.google.common.collect.Tables;
 import org.junit.Test;
+import vartas.fa.FiniteAutomaton;
 import vartas.fa.State;
 
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
 /*
  * Copyright (C) 2019 Zavarov
  *
@@ -42,4 +49,131 @@ public abstract class FiniteAutomatonBuilderTest <T extends FiniteAutomatonBuild
         builder.addInitialState("initial state");
         builder.addInitialState("initial state");
     }
+
+    @Test
+    public void testSetInitialState(){
+        builder.setInitialState(start);
+
+        assertThat(start.isInitial()).isTrue();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetDifferentInitialState(){
+        builder.setInitialState(end);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testSetUnknownInitialState(){
+        builder.setInitialState(new State());
+    }
+
+    @Test
+    public void testBuildFreezesStates(){
+        builder.build();
+
+        assertThat(start.isFrozen()).isTrue();
+        assertThat(end.isFrozen()).isTrue();
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testBuildImmutableStates(){
+        builder.build().getStates().add(new State());
+    }
+
+    @Test
+    public void testBuildDoesNotShareStates(){
+        FiniteAutomaton automaton = builder.build();
+        builder.addState();
+
+        assertThat(automaton.getStates()).hasSize(2);
+    }
+
+    @Test
+    public void testAddStates(){
+        State[] states = builder.addStates(3);
+
+        assertThat(states).hasSize(3);
+        assertThat(builder.build().getStates()).hasSize(5);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddNegativeStates(){
+        builder.addStates(-1);
+    }
+
+    @Test
+    public void testAddTransitions(){
+        builder.addTransitions(new State[]{start, end}, new int[]{1, 0}, new char[]{'b', 'c'}, new int[]{0, 1});
+
+        assertThat(builder.build().run("abc")).isTrue();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddTransitionsWithDifferentLengths(){
+        builder.addTransitions(new State[]{start, end}, new int[]{1, 0}, new char[]{'b'}, new int[]{0, 1});
+    }
+
+    @Test
+    public void testAddRangeTransitions(){
+        builder.addTransitions(end, 'b', 'd', start);
+        builder.addTransitions(start, 'x', 'x', end);
+
+        assertThat(builder.build().run("abx")).isTrue();
+        assertThat(builder.build().run("adx")).isTrue();
+        assertThat(builder.build().run("aex")).isFalse();
+    }
+
+    @Test
+    public void testAddRangeTransitionsAtEndOfAlphabet(){
+        builder.addTransitions(end, '\ufffe', Character.MAX_VALUE, end);
+
+        assertThat(builder.build().run("a\uffff")).isTrue();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddEmptyRangeTransitions(){
+        builder.addTransitions(start, 'z', 'a', end);
+    }
+
+    @Test
+    public void testAddOverlappingRangeTransitions(){
+        builder.addTransitions(end, Arrays.asList(new char[]{'a', 'z'}, new char[]{'x', 'x'}, new char[]{'5', '9'}, new char[]{'0', '6'}), end);
+
+        assertThat(builder.build().run("axz09")).isTrue();
+        assertThat(builder.build().run("aA")).isFalse();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddEmptyRangesTransitions(){
+        builder.addTransitions(start, Arrays.asList(new char[]{'a', 'z'}, new char[]{'z', 'a'}), end);
+    }
+
+    @Test
+    public void testAddTransitionsFromStream(){
+        builder.addTransitions(Stream.of(Tables.immutableCell(end, 'b', start), Tables.immutableCell(start, 'c', end)));
+
+        assertThat(builder.build().run("abc")).isTrue();
+    }
+
+    @Test
+    public void testModifyAfterBuild(){
+        FiniteAutomaton automaton = builder.build();
+        builder.addTransition(end, 'z', end);
+
+        assertThat(automaton.run("az")).isFalse();
+        assertThat(builder.build().run("az")).isTrue();
+    }
+
+    @Test
+    public void testModifyAfterZeroCopyBuild(){
+        builder.setZeroCopy(true);
+        FiniteAutomaton automaton = builder.build();
+        builder.addTransition(end, 'z', end);
+        builder.addState();
+
+        assertThat(builder.isZeroCopy()).isTrue();
+        assertThat(automaton.run("az")).isFalse();
+        assertThat(automaton.getStates()).hasSize(2);
+        assertThat(builder.build().run("az")).isTrue();
+    }
 }
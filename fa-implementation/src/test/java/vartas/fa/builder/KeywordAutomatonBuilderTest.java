@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.builder;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeywordAutomatonBuilderTest {
+    KeywordAutomatonBuilder builder;
+
+    @Before
+    public void setUp(){
+        builder = new KeywordAutomatonBuilder();
+    }
+
+    @Test
+    public void testAddWords(){
+        builder.addWords(Stream.of("tap", "taps", "top", "tops"));
+
+        DeterministicFiniteAutomaton dfa = builder.build();
+
+        //The suffixes of "ta" and "to" are shared
+        assertThat(dfa.getStates()).hasSize(5);
+        assertThat(dfa.run("tap")).isTrue();
+        assertThat(dfa.run("taps")).isTrue();
+        assertThat(dfa.run("top")).isTrue();
+        assertThat(dfa.run("tops")).isTrue();
+        assertThat(dfa.run("ta")).isFalse();
+        assertThat(dfa.run("tip")).isFalse();
+        assertThat(dfa.run("")).isFalse();
+    }
+
+    @Test
+    public void testAddUnsortedWords(){
+        builder.addUnsortedWords(Stream.of("tops", "tap", "top", "", "taps", "tap"));
+
+        DeterministicFiniteAutomaton dfa = builder.build();
+
+        assertThat(dfa.getStates()).hasSize(5);
+        assertThat(dfa.run("")).isTrue();
+        assertThat(dfa.run("tap")).isTrue();
+        assertThat(dfa.run("tops")).isTrue();
+        assertThat(dfa.run("to")).isFalse();
+    }
+
+    @Test
+    public void testMinimal(){
+        builder.addWords(Stream.of("abc", "abd", "bbc", "bbd", "cbc"));
+
+        DeterministicFiniteAutomaton dfa = builder.build();
+
+        //The prefixes "a" and "b" lead to the same state, as do all words of length 3
+        assertThat(dfa.getStates()).hasSize(6);
+        assertThat(dfa.isEquivalent(dfa.minimize())).isTrue();
+    }
+
+    @Test
+    public void testDuplicateWords(){
+        builder.addWord("a");
+        builder.addWord("a");
+
+        assertThat(builder.size()).isEqualTo(2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testUnsortedWords(){
+        builder.addWord("b");
+        builder.addWord("a");
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testAddWordAfterBuild(){
+        builder.addWord("abc");
+        builder.build();
+        builder.addWord("abd");
+    }
+
+    @Test
+    public void testBuildTwice(){
+        builder.addWords(Stream.of("abc", "abd"));
+
+        DeterministicFiniteAutomaton dfa = builder.build();
+        assertThat(builder.build().getStates()).hasSize(dfa.getStates().size());
+    }
+
+    @Test
+    public void testClearAfterBuild(){
+        builder.addWord("abc");
+        DeterministicFiniteAutomaton dfa = builder.build();
+
+        builder.clear();
+        builder.addWord("abd");
+
+        assertThat(builder.build().run("abd")).isTrue();
+        assertThat(dfa.run("abc")).isTrue();
+        assertThat(dfa.run("abd")).isFalse();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testBuildWithoutWords(){
+        builder.build();
+    }
+}
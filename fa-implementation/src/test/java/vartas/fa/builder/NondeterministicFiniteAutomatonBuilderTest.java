@@ -19,6 +19,10 @@ package vartas.fa.builder;
 
 import org.junit.Before;
 import org.junit.Test;
+import vartas.fa.NondeterministicFiniteAutomaton;
+import vartas.fa.State;
+
+import static org.assertj.core.api.Assertions.assertThat;
 
 public class NondeterministicFiniteAutomatonBuilderTest extends FiniteAutomatonBuilderTest<NondeterministicFiniteAutomatonBuilder>{
     @Before
@@ -42,6 +46,69 @@ public class NondeterministicFiniteAutomatonBuilderTest extends FiniteAutomatonB
         builder.addEpsilonTransition(start, end);
     }
 
+    @Test
+    public void testUnchecked(){
+        builder.setChecked(false);
+        builder.addTransition(start, 'a', end);
+        builder.addTransition(start, 'a', start);
+        builder.addEpsilonTransition(start, end);
+
+        //Duplicates are removed once the automaton is built
+        assertThat(builder.build().getTransitions().get(start, 'a')).containsExactlyInAnyOrder(start, end);
+    }
+
+    @Test
+    public void testExpectedSize(){
+        builder = new NondeterministicFiniteAutomatonBuilder(1000, 5000);
+        builder.setChecked(false);
+        builder.addInitialState();
+        State[] states = builder.addStates(1000);
+
+        for(int i = 0 ; i < states.length ; ++i)
+            for(char label = 'a' ; label < 'f' ; ++label)
+                builder.addTransition(states[i], label, states[(i * label) % states.length]);
+
+        assertThat(builder.build().getTransitions().size()).isEqualTo(5000);
+    }
+
+    @Test
+    public void testModifyTargetsAfterBuild(){
+        NondeterministicFiniteAutomaton nfa = builder.build();
+        builder.addTransition(start, 'a', start);
+
+        assertThat(nfa.getTransitions().get(start, 'a')).containsExactly(end);
+        assertThat(builder.build().getTransitions().get(start, 'a')).containsExactlyInAnyOrder(start, end);
+    }
+
+    @Test
+    public void testModifyTargetsAfterZeroCopyBuild(){
+        builder.setZeroCopy(true);
+        NondeterministicFiniteAutomaton nfa = builder.build();
+        builder.addTransition(start, 'a', start);
+
+        assertThat(nfa.getTransitions().get(start, 'a')).containsExactly(end);
+        assertThat(builder.build().getTransitions().get(start, 'a')).containsExactlyInAnyOrder(start, end);
+    }
+
+    @Test
+    public void testZeroCopyBuildTwice(){
+        builder.setZeroCopy(true);
+        NondeterministicFiniteAutomaton nfa = builder.build();
+
+        //The targets that are shared with the first automaton aren't replaced again
+        assertThat(builder.build().getTransitions().get(start, 'a')).isSameAs(nfa.getTransitions().get(start, 'a'));
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testBuildImmutableTransitions(){
+        builder.build().getTransitions().get(start, 'a').add(start);
+    }
+
+    @Test(expected=UnsupportedOperationException.class)
+    public void testBuildImmutableEpsilonTransitions(){
+        builder.build().getEpsilonTransitions().put(end, start);
+    }
+
     @Test(expected=IllegalStateException.class)
     public void testBuildWithoutInitialState(){
         builder.initialState = null;
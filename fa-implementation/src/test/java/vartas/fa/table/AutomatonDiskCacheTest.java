@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AutomatonDiskCacheTest {
+    Path directory;
+    AutomatonDiskCache cache;
+    int compilations;
+
+    @Before
+    public void setUp() throws IOException{
+        directory = Files.createTempDirectory("automata");
+        cache = new AutomatonDiskCache(directory);
+        compilations = 0;
+    }
+
+    @After
+    public void tearDown() throws IOException{
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory)){
+            for(Path file : files)
+                Files.delete(file);
+        }
+        Files.delete(directory);
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @return a DFA accepting only the word.
+     */
+    private DeterministicFiniteAutomaton compile(String word){
+        ++compilations;
+
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State state = builder.addInitialState();
+
+        for(char label : word.toCharArray()){
+            State next = builder.addState();
+            builder.addTransition(state, label, next);
+            state = next;
+        }
+        state.setFinal(true);
+
+        return builder.build();
+    }
+
+    @Test
+    public void testGet() throws IOException{
+        DeterministicFiniteAutomaton dfa = cache.get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(1);
+        assertThat(cache.contains("word", "abc")).isTrue();
+        assertThat(dfa.run("abc")).isTrue();
+        assertThat(dfa.run("ab")).isFalse();
+    }
+
+    @Test
+    public void testGetCached() throws IOException{
+        cache.get("word", "abc", this::compile);
+        DeterministicFiniteAutomaton dfa = cache.get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(1);
+        assertThat(dfa.run("abc")).isTrue();
+        assertThat(dfa.run("abcd")).isFalse();
+        assertThat(dfa.getStates()).hasSize(4);
+    }
+
+    @Test
+    public void testGetShared() throws IOException{
+        cache.get("word", "abc", this::compile);
+        DeterministicFiniteAutomaton dfa = new AutomatonDiskCache(directory).get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(1);
+        assertThat(dfa.run("abc")).isTrue();
+    }
+
+    @Test
+    public void testGetCorrupted() throws IOException{
+        cache.get("word", "abc", this::compile);
+        Files.write(cache.getPath("word", "abc"), new byte[]{1, 2, 3});
+
+        DeterministicFiniteAutomaton dfa = cache.get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(2);
+        assertThat(dfa.run("abc")).isTrue();
+        assertThat(cache.get("word", "abc", this::compile).run("abc")).isTrue();
+        assertThat(compilations).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetInvalidTarget() throws IOException{
+        cache.get("word", "abc", this::compile);
+
+        //The header, the sizes, the final states and the offsets of the 4 states take 48 bytes
+        byte[] bytes = Files.readAllBytes(cache.getPath("word", "abc"));
+        bytes[51] = 99;
+        Files.write(cache.getPath("word", "abc"), bytes);
+
+        DeterministicFiniteAutomaton dfa = cache.get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(2);
+        assertThat(dfa.run("abc")).isTrue();
+        assertThat(cache.get("word", "abc", this::compile).run("abc")).isTrue();
+        assertThat(compilations).isEqualTo(2);
+    }
+
+    @Test
+    public void testGetPath(){
+        assertThat(cache.getPath("word", "abc")).isEqualTo(cache.getPath("word", "abc"));
+        assertThat(cache.getPath("word", "abc")).isNotEqualTo(cache.getPath("word", "abd"));
+        assertThat(cache.getPath("word", "abc")).isNotEqualTo(cache.getPath("other", "abc"));
+        assertThat(cache.getPath("word", "abc").getParent()).isEqualTo(directory);
+        assertThat(cache.getPath("word", "abc").toString()).endsWith(AutomatonDiskCache.EXTENSION);
+    }
+
+    @Test
+    public void testHash(){
+        //The parts of the key are separated, so moving letters between them changes the hash
+        assertThat(AutomatonDiskCache.hash("ab", "c")).isNotEqualTo(AutomatonDiskCache.hash("a", "bc"));
+        assertThat(AutomatonDiskCache.hash("a", "bc")).hasSize(64);
+    }
+
+    @Test
+    public void testVersion() throws IOException{
+        AutomatonDiskCache older = new AutomatonDiskCache(directory, "1.0/1/1");
+        AutomatonDiskCache newer = new AutomatonDiskCache(directory, "1.0/1/2");
+
+        assertThat(older.getPath("word", "abc")).isNotEqualTo(newer.getPath("word", "abc"));
+        assertThat(AutomatonDiskCache.hash("1.0/1/1", "word", "abc")).isNotEqualTo(AutomatonDiskCache.hash("1.1/1/1", "word", "abc"));
+        assertThat(cache.getPath("word", "abc")).isEqualTo(new AutomatonDiskCache(directory, AutomatonDiskCache.VERSION).getPath("word", "abc"));
+    }
+
+    @Test
+    public void testStaleVersion() throws IOException{
+        new AutomatonDiskCache(directory, "1.0/1/1").get("word", "abc", this::compile);
+        new AutomatonDiskCache(directory, "1.0/1/2").get("word", "abc", this::compile);
+
+        assertThat(compilations).isEqualTo(2);
+    }
+
+    @Test
+    public void testClear() throws IOException{
+        cache.get("word", "abc", this::compile);
+        cache.get("word", "xyz", this::compile);
+        cache.clear();
+
+        assertThat(cache.contains("word", "abc")).isFalse();
+        assertThat(cache.contains("word", "xyz")).isFalse();
+
+        cache.get("word", "abc", this::compile);
+        assertThat(compilations).isEqualTo(3);
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AutomatonInternerTest {
+    AutomatonInterner<DeterministicFiniteAutomaton> interner;
+
+    @Before
+    public void setUp(){
+        interner = new AutomatonInterner<>();
+    }
+
+    /**
+     * @param word an arbitrary word.
+     * @param redundant true if the DFA should contain a state that can't reach a final state.
+     * @return a DFA accepting only the word.
+     */
+    private DeterministicFiniteAutomaton create(String word, boolean redundant){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State state = builder.addInitialState();
+
+        if(redundant)
+            builder.addTransition(state, 'z', builder.addState());
+
+        for(char label : word.toCharArray()){
+            State next = builder.addState();
+            builder.addTransition(state, label, next);
+            state = next;
+        }
+        state.setFinal(true);
+
+        return builder.build();
+    }
+
+    @Test
+    public void testIntern(){
+        DeterministicFiniteAutomaton dfa = create("abc", false);
+
+        assertThat(interner.intern(dfa)).isSameAs(dfa);
+        assertThat(interner.intern(create("abc", false))).isSameAs(dfa);
+        assertThat(interner.intern(create("abc", true))).isSameAs(dfa);
+        assertThat(interner.contains(dfa.canonicalize())).isTrue();
+        assertThat(interner.size()).isEqualTo(1L);
+    }
+
+    @Test
+    public void testInternDifferent(){
+        DeterministicFiniteAutomaton dfa = create("abc", false);
+        DeterministicFiniteAutomaton other = create("abd", false);
+
+        assertThat(interner.intern(dfa)).isSameAs(dfa);
+        assertThat(interner.intern(other)).isSameAs(other);
+        assertThat(interner.size()).isEqualTo(2L);
+    }
+
+    @Test
+    public void testClear(){
+        DeterministicFiniteAutomaton dfa = create("abc", false);
+        interner.intern(dfa);
+        interner.clear();
+
+        assertThat(interner.contains(dfa.canonicalize())).isFalse();
+        assertThat(interner.size()).isEqualTo(0L);
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Test;
+import vartas.fa.*;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AutomatonWriterTest {
+    private static FiniteAutomaton copy(FiniteAutomaton automaton) throws IOException{
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AutomatonWriter.write(automaton, output);
+        return AutomatonReader.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    @Test
+    public void testDfa() throws IOException{
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+        builder.addState();
+
+        for(char label = 'a' ; label <= 'z' ; ++label){
+            builder.addTransition(initialState, label, finalState);
+            builder.addTransition(finalState, label, finalState);
+        }
+
+        FiniteAutomaton automaton = copy(builder.build());
+
+        assertThat(automaton).isInstanceOf(DeterministicFiniteAutomaton.class);
+        assertThat(automaton).isNotInstanceOf(DeterministicFiniteDefaultAutomaton.class);
+        //The unreachable state is dropped
+        assertThat(automaton.getStates()).hasSize(2);
+        assertThat(automaton.run("")).isFalse();
+        assertThat(automaton.run("abc")).isTrue();
+        assertThat(automaton.run("ab1")).isFalse();
+    }
+
+    @Test
+    public void testDefaultDfa() throws IOException{
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', finalState);
+        builder.addDefaultTransition(finalState, initialState);
+
+        FiniteAutomaton automaton = copy(builder.build());
+
+        assertThat(automaton).isInstanceOf(DeterministicFiniteDefaultAutomaton.class);
+        assertThat(automaton.run("a")).isTrue();
+        assertThat(automaton.run("aba")).isTrue();
+        assertThat(automaton.run("ab")).isFalse();
+        assertThat(automaton.run("b")).isFalse();
+    }
+
+    @Test
+    public void testNfa() throws IOException{
+        NondeterministicFiniteAutomatonBuilder builder = new NondeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State state = builder.addState();
+        State finalState = builder.addFinalState();
+
+        builder.addEpsilonTransition(initialState, state);
+        for(char label = '0' ; label <= '9' ; ++label){
+            builder.addTransition(state, label, state);
+            builder.addTransition(state, label, finalState);
+        }
+        builder.addTransition(initialState, '\uffff', finalState);
+
+        FiniteAutomaton automaton = copy(builder.build());
+
+        assertThat(automaton).isInstanceOf(NondeterministicFiniteAutomaton.class);
+        assertThat(automaton).isNotInstanceOf(NondeterministicFiniteDefaultAutomaton.class);
+        assertThat(automaton.getStates()).hasSize(3);
+        assertThat(automaton.run("")).isFalse();
+        assertThat(automaton.run("123")).isTrue();
+        assertThat(automaton.run("\uffff")).isTrue();
+        assertThat(automaton.run("1a")).isFalse();
+    }
+
+    @Test
+    public void testDefaultNfa() throws IOException{
+        NondeterministicFiniteDefaultAutomatonBuilder builder = new NondeterministicFiniteDefaultAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', initialState);
+        builder.addDefaultTransition(initialState, finalState);
+
+        FiniteAutomaton automaton = copy(builder.build());
+
+        assertThat(automaton).isInstanceOf(NondeterministicFiniteDefaultAutomaton.class);
+        assertThat(automaton.run("b")).isTrue();
+        assertThat(automaton.run("aab")).isTrue();
+        assertThat(automaton.run("a")).isFalse();
+        assertThat(automaton.run("bb")).isFalse();
+    }
+
+    @Test
+    public void testTable() throws IOException{
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+        builder.addTransition(initialState, 'a', finalState);
+        TransitionTable table = TransitionTable.of(builder.build());
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AutomatonWriter.write(table, output);
+        TransitionTable copy = AutomatonReader.readTable(new ByteArrayInputStream(output.toByteArray()));
+
+        assertThat(copy.size()).isEqualTo(table.size());
+        assertThat(copy.sizeRanges()).isEqualTo(table.sizeRanges());
+        assertThat(copy.run("a")).isTrue();
+        assertThat(copy.run("b")).isFalse();
+    }
+
+    @Test(expected=IOException.class)
+    public void testInvalidMagic() throws IOException{
+        AutomatonReader.read(new ByteArrayInputStream(new byte[64]));
+    }
+
+    @Test(expected=IOException.class)
+    public void testTruncated() throws IOException{
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        builder.addInitialState();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AutomatonWriter.write(builder.build(), output);
+        byte[] bytes = output.toByteArray();
+
+        AutomatonReader.read(new ByteArrayInputStream(bytes, 0, bytes.length - 1));
+    }
+
+    @Test
+    public void testCorrupted(){
+        DeterministicFiniteDefaultAutomatonBuilder dfaBuilder = new DeterministicFiniteDefaultAutomatonBuilder();
+        State initialState = dfaBuilder.addInitialState();
+        State finalState = dfaBuilder.addFinalState();
+        dfaBuilder.addTransition(initialState, 'a', finalState);
+        dfaBuilder.addDefaultTransition(finalState, initialState);
+
+        NondeterministicFiniteDefaultAutomatonBuilder nfaBuilder = new NondeterministicFiniteDefaultAutomatonBuilder();
+        initialState = nfaBuilder.addInitialState();
+        finalState = nfaBuilder.addFinalState();
+        nfaBuilder.addTransition(initialState, 'a', finalState);
+        nfaBuilder.addEpsilonTransition(finalState, initialState);
+        nfaBuilder.addDefaultTransition(finalState, finalState);
+
+        assertCorrupted(dfaBuilder.build());
+        assertCorrupted(nfaBuilder.build());
+    }
+
+    /**
+     * Changes one byte at a time. Every change either has to be detected while reading or has to result in an
+     * automaton that can still be run.
+     * @param automaton the automaton that is corrupted.
+     */
+    private static void assertCorrupted(FiniteAutomaton automaton){
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try{
+            AutomatonWriter.write(automaton, output);
+        }catch(IOException e){
+            throw new AssertionError(e);
+        }
+        byte[] bytes = output.toByteArray();
+
+        for(int i = 0 ; i < bytes.length ; ++i){
+            for(byte value : new byte[]{0, 1, -1, Byte.MAX_VALUE, Byte.MIN_VALUE}){
+                byte[] corrupted = bytes.clone();
+                corrupted[i] = value;
+
+                try{
+                    FiniteAutomaton copy = AutomatonReader.read(new ByteArrayInputStream(corrupted));
+                    copy.run("");
+                    copy.run("aba");
+                    copy.run("bab");
+                }catch(IOException e){
+                    //Expected for most changes
+                }
+            }
+        }
+    }
+
+    @Test(expected=IOException.class)
+    public void testOversizedCount() throws IOException{
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(output);
+        data.writeInt(AutomatonFormat.MAGIC);
+        data.writeShort(AutomatonFormat.VERSION);
+        data.writeByte(AutomatonFormat.Kind.DFA.ordinal());
+        data.writeByte(0);
+        data.writeInt(Integer.MAX_VALUE - 1);
+        data.writeInt(Integer.MAX_VALUE);
+        data.writeInt((int)((Integer.MAX_VALUE - 1 + 63L) / 64));
+
+        //The stream ends long before the announced values, so nothing of that size may be allocated
+        AutomatonReader.read(new ByteArrayInputStream(output.toByteArray()));
+    }
+
+    @Test(expected=IOException.class)
+    public void testReadTableOfNfa() throws IOException{
+        NondeterministicFiniteAutomatonBuilder builder = new NondeterministicFiniteAutomatonBuilder();
+        builder.addInitialState();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AutomatonWriter.write(builder.build(), output);
+
+        AutomatonReader.readTable(new ByteArrayInputStream(output.toByteArray()));
+    }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CanonicalFormTest {
+    /**
+     * @return a minimal DFA accepting ab + ac.
+     */
+    private DeterministicFiniteAutomaton createMinimal(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State a = builder.addState();
+        State finalState = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', a);
+        builder.addTransition(a, 'b', finalState);
+        builder.addTransition(a, 'c', finalState);
+        return builder.build();
+    }
+
+    /**
+     * @return a DFA accepting ab + ac, with redundant, unreachable and dead states.
+     */
+    private DeterministicFiniteAutomaton createRedundant(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State a = builder.addState();
+        State ab = builder.addFinalState();
+        State ac = builder.addFinalState();
+        State dead = builder.addState();
+        State unreachable = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', a);
+        builder.addTransition(initialState, 'x', dead);
+        builder.addTransition(a, 'b', ab);
+        builder.addTransition(a, 'c', ac);
+        builder.addTransition(dead, 'y', dead);
+        builder.addTransition(unreachable, 'z', initialState);
+        return builder.build();
+    }
+
+    @Test
+    public void testEquivalent(){
+        CanonicalForm minimal = CanonicalForm.of(createMinimal());
+        CanonicalForm redundant = CanonicalForm.of(createRedundant());
+
+        assertThat(minimal).isEqualTo(redundant);
+        assertThat(minimal.hashCode()).isEqualTo(redundant.hashCode());
+        assertThat(minimal.getFingerprint()).isEqualTo(redundant.getFingerprint());
+        assertThat(minimal.toString()).hasSize(32);
+    }
+
+    @Test
+    public void testDifferent(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State a = builder.addState();
+        State finalState = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', a);
+        builder.addTransition(a, 'b', finalState);
+        builder.addTransition(a, 'd', finalState);
+
+        CanonicalForm form = CanonicalForm.of(builder.build());
+        assertThat(form).isNotEqualTo(CanonicalForm.of(createMinimal()));
+        assertThat(form.getFingerprint()).isNotEqualTo(CanonicalForm.of(createMinimal()).getFingerprint());
+    }
+
+    @Test
+    public void testGetTable(){
+        TransitionTable table = CanonicalForm.of(createRedundant()).getTable();
+
+        //The transitions via b and c are merged into a single range
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.sizeRanges()).isEqualTo(2);
+        assertThat(table.getStart(1)).isEqualTo('b');
+        assertThat(table.getEnd(1)).isEqualTo('c');
+        assertThat(table.getTarget(0)).isEqualTo(1);
+        assertThat(table.getTarget(1)).isEqualTo(2);
+        assertThat(table.isFinal(2)).isTrue();
+        assertThat(table.run("ab")).isTrue();
+        assertThat(table.run("ac")).isTrue();
+        assertThat(table.run("ad")).isFalse();
+        assertThat(table.run("xy")).isFalse();
+    }
+
+    @Test
+    public void testDefault(){
+        //Accepts every letter except for a
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+        State sink = builder.addState();
+        builder.addTransition(initialState, 'a', sink);
+        builder.addDefaultTransition(initialState, finalState);
+
+        BitSet finals = new BitSet();
+        finals.set(1);
+        int[] defaults = new int[2];
+        Arrays.fill(defaults, TransitionTable.NONE);
+        TransitionTable table = new TransitionTable(
+                finals,
+                new int[]{0, 2, 2},
+                new char[]{Character.MIN_VALUE, 'b'},
+                new char[]{'`', Character.MAX_VALUE},
+                new int[]{1, 1},
+                defaults
+        );
+
+        CanonicalForm form = CanonicalForm.of(builder.build());
+        assertThat(form).isEqualTo(CanonicalForm.of(table));
+        assertThat(form.getTable().getDefault(TransitionTable.INITIAL_STATE)).isEqualTo(TransitionTable.NONE);
+        assertThat(form.getTable().run("b")).isTrue();
+        assertThat(form.getTable().run("a")).isFalse();
+    }
+
+    @Test
+    public void testEmptyLanguage(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State state = builder.addState();
+        builder.addTransition(initialState, 'a', state);
+        builder.addTransition(state, 'a', initialState);
+
+        TransitionTable table = CanonicalForm.of(builder.build()).getTable();
+        assertThat(table.size()).isEqualTo(1);
+        assertThat(table.sizeRanges()).isEqualTo(0);
+        assertThat(table.isFinal(TransitionTable.INITIAL_STATE)).isFalse();
+    }
+
+    @Test
+    public void testCanonicalize(){
+        DeterministicFiniteAutomaton dfa = createRedundant();
+
+        assertThat(dfa.canonicalize()).isEqualTo(dfa.minimize().canonicalize());
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DirectTableBuilderTest {
+    DirectTableBuilder builder;
+
+    @Before
+    public void setUp(){
+        builder = new DirectTableBuilder();
+    }
+
+    @Test
+    public void testBuild(){
+        int initialState = builder.addState(false);
+        builder.addRange('0', '4', 1);
+        builder.addRange('5', '9', 1);
+        builder.addRange('x', 'x', 2);
+        int digits = builder.addState(true);
+        builder.addRange('0', '9', digits);
+        builder.setDefault(initialState);
+        builder.addState(false);
+
+        MappedAutomaton automaton = builder.build();
+
+        assertThat(automaton.size()).isEqualTo(3);
+        //The consecutive ranges are merged
+        assertThat(automaton.sizeRanges()).isEqualTo(3);
+        assertThat(automaton.run("12a3")).isTrue();
+        assertThat(automaton.run("x")).isFalse();
+        assertThat(automaton.run("1x")).isFalse();
+        assertThat(automaton.getDefault(initialState)).isEqualTo(TransitionTable.NONE);
+        assertThat(automaton.getDefault(digits)).isEqualTo(initialState);
+    }
+
+    @Test
+    public void testBuildLarge(){
+        int size = 100000;
+        for(int state = 0 ; state < size ; ++state){
+            builder.addState(state % 3 == 0);
+            builder.addRange('a', 'a', (state + 1) % size);
+        }
+
+        MappedAutomaton automaton = builder.build();
+
+        assertThat(automaton.size()).isEqualTo(size);
+        assertThat(automaton.isFinal(99999)).isTrue();
+        assertThat(automaton.isFinal(99998)).isFalse();
+        assertThat(automaton.run("aaa")).isTrue();
+        assertThat(automaton.run("aaaa")).isFalse();
+    }
+
+    @Test
+    public void testCopyOf(){
+        builder.addState(false);
+        builder.addRange('a', 'a', 1);
+        builder.addState(true);
+        builder.setDefault(1);
+        TransitionTable table = builder.build().toTable();
+
+        MappedAutomaton automaton = DirectTableBuilder.copyOf(table);
+
+        assertThat(automaton.run("a")).isTrue();
+        assertThat(automaton.run("abc")).isTrue();
+        assertThat(automaton.run("b")).isFalse();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testAddUnsortedRange(){
+        builder.addState(false);
+        builder.addRange('b', 'b', 0);
+        builder.addRange('a', 'a', 0);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testAddRangeWithoutState(){
+        builder.addRange('a', 'a', 0);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testBuildMissingTarget(){
+        builder.addState(false);
+        builder.addRange('a', 'a', 1);
+        builder.build();
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testBuildEmpty(){
+        builder.build();
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.math.BigInteger;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LanguageCounterTest {
+    DeterministicFiniteAutomaton dfa;
+    DeterministicFiniteDefaultAutomaton defaultDfa;
+
+    @Before
+    public void setUp(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+
+        State initialState = builder.addInitialState();
+        State a = builder.addState();
+        State b = builder.addFinalState();
+
+        builder.addTransition(initialState, 'a', a);
+        builder.addTransition(initialState, 'b', b);
+        builder.addTransition(a, 'a', a);
+        builder.addTransition(a, 'b', b);
+        builder.addTransition(b, 'a', a);
+        builder.addTransition(b, 'b', b);
+
+        //Accepts (a+b)*b
+        dfa = builder.build();
+
+        DeterministicFiniteDefaultAutomatonBuilder defaultBuilder = new DeterministicFiniteDefaultAutomatonBuilder();
+
+        initialState = defaultBuilder.addInitialState();
+        State sink = defaultBuilder.addState();
+
+        initialState.setFinal(true);
+
+        defaultBuilder.addTransition(initialState, 'b', sink);
+        defaultBuilder.addDefaultTransition(initialState, initialState);
+
+        //Accepts all words that don't contain a b
+        defaultDfa = defaultBuilder.build();
+    }
+
+    @Test
+    public void testCount(){
+        assertThat(dfa.count(0)).isEqualTo(BigInteger.ZERO);
+        assertThat(dfa.count(1)).isEqualTo(BigInteger.ONE);
+        assertThat(dfa.count(2)).isEqualTo(BigInteger.valueOf(2));
+        assertThat(dfa.count(10)).isEqualTo(BigInteger.valueOf(512));
+    }
+
+    @Test
+    public void testCountByExponentiation(){
+        assertThat(dfa.count(1000)).isEqualTo(BigInteger.valueOf(2).pow(999));
+    }
+
+    @Test
+    public void testCountDefaultTransitions(){
+        BigInteger letters = BigInteger.valueOf(TransitionTable.ALPHABET_SIZE - 1);
+
+        assertThat(defaultDfa.count(0)).isEqualTo(BigInteger.ONE);
+        assertThat(defaultDfa.count(3)).isEqualTo(letters.pow(3));
+        assertThat(defaultDfa.count(500)).isEqualTo(letters.pow(500));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCountNegativeLength(){
+        dfa.count(-1);
+    }
+
+    @Test
+    public void testSample(){
+        LanguageCounter counter = dfa.getLanguageCounter();
+        Random random = new Random(0);
+        Map<String, Integer> frequencies = new HashMap<>();
+
+        for(int i = 0 ; i < 4000 ; ++i){
+            String word = counter.sample(3, random).get();
+            assertThat(dfa.run(word)).isTrue();
+            frequencies.merge(word, 1, Integer::sum);
+        }
+
+        //All four words are drawn with roughly the same probability
+        assertThat(frequencies).hasSize(4);
+        for(int frequency : frequencies.values())
+            assertThat(frequency > 800 && frequency < 1200).isTrue();
+
+        assertThat(counter.sample(0, random)).isEmpty();
+    }
+
+    @Test
+    public void testSampleDefaultTransitions(){
+        LanguageCounter counter = defaultDfa.getLanguageCounter();
+        Random random = new Random(0);
+
+        for(int i = 0 ; i < 100 ; ++i){
+            String word = counter.sample(5, random).get();
+            assertThat(word).hasSize(5);
+            assertThat(word.indexOf('b')).isEqualTo(-1);
+            assertThat(defaultDfa.run(word)).isTrue();
+        }
+    }
+}
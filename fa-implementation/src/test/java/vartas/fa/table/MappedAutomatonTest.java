@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteAutomatonBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MappedAutomatonTest {
+    Path path;
+    MappedAutomaton automaton;
+
+    @Before
+    public void setUp() throws IOException{
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+
+        State initialState = builder.addInitialState();
+        State digits = builder.addFinalState();
+        State sink = builder.addState();
+
+        for(char label = '0' ; label <= '9' ; ++label){
+            builder.addTransition(initialState, label, digits);
+            builder.addTransition(digits, label, digits);
+        }
+        builder.addTransition(digits, 'x', sink);
+        builder.addDefaultTransition(digits, initialState);
+
+        //Accepts all words that end with a digit and don't contain a digit followed by an x
+        path = Files.createTempFile("automaton", ".fatb");
+        try(OutputStream output = Files.newOutputStream(path)){
+            AutomatonWriter.write(builder.build(), output);
+        }
+        automaton = MappedAutomaton.open(path);
+    }
+
+    @After
+    public void tearDown() throws IOException{
+        Files.deleteIfExists(path);
+    }
+
+    @Test
+    public void testOpen(){
+        assertThat(automaton.size()).isEqualTo(3);
+        assertThat(automaton.sizeRanges()).isEqualTo(3);
+        assertThat(automaton.isFinal(TransitionTable.INITIAL_STATE)).isFalse();
+        assertThat(automaton.isFinal(1)).isTrue();
+        assertThat(automaton.getDefault(1)).isEqualTo(TransitionTable.INITIAL_STATE);
+        assertThat(automaton.getDefault(2)).isEqualTo(TransitionTable.NONE);
+    }
+
+    @Test
+    public void testStep(){
+        assertThat(automaton.step(TransitionTable.INITIAL_STATE, '5')).isEqualTo(1);
+        assertThat(automaton.step(TransitionTable.INITIAL_STATE, 'a')).isEqualTo(TransitionTable.NONE);
+        assertThat(automaton.step(1, 'x')).isEqualTo(2);
+        assertThat(automaton.step(1, 'a')).isEqualTo(TransitionTable.INITIAL_STATE);
+    }
+
+    @Test
+    public void testRun(){
+        assertThat(automaton.run("0")).isTrue();
+        assertThat(automaton.run("12a3")).isTrue();
+        assertThat(automaton.run("")).isFalse();
+        assertThat(automaton.run("1a")).isFalse();
+        assertThat(automaton.run("1x1")).isFalse();
+    }
+
+    @Test
+    public void testToTable(){
+        TransitionTable table = automaton.toTable();
+
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.run("12a3")).isTrue();
+        assertThat(table.run("1x1")).isFalse();
+    }
+
+    @Test
+    public void testOfDirectBuffer() throws IOException{
+        byte[] bytes = Files.readAllBytes(path);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+        buffer.put(bytes).flip();
+
+        MappedAutomaton copy = MappedAutomaton.of(buffer);
+
+        assertThat(copy.run("12a3")).isTrue();
+        assertThat(copy.run("1x1")).isFalse();
+    }
+
+    @Test(expected=IOException.class)
+    public void testOfNfa() throws IOException{
+        NondeterministicFiniteAutomatonBuilder builder = new NondeterministicFiniteAutomatonBuilder();
+        builder.addInitialState();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        AutomatonWriter.write(builder.build(), output);
+
+        MappedAutomaton.of(ByteBuffer.wrap(output.toByteArray()));
+    }
+
+    @Test(expected=IOException.class)
+    public void testOfTruncated() throws IOException{
+        byte[] bytes = Files.readAllBytes(path);
+
+        MappedAutomaton.of(ByteBuffer.wrap(bytes, 0, bytes.length - 1));
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteAutomatonBuilder;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MatcherCompilerTest {
+    DeterministicFiniteAutomaton dfa;
+
+    @Before
+    public void setUp(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+
+        State initialState = builder.addInitialState();
+        State digits = builder.addFinalState();
+        State sink = builder.addState();
+
+        for(char label = '0' ; label <= '9' ; ++label){
+            builder.addTransition(initialState, label, digits);
+            builder.addTransition(digits, label, digits);
+        }
+        builder.addTransition(digits, 'x', sink);
+        builder.addTransition(digits, '\uffff', initialState);
+        builder.addDefaultTransition(digits, initialState);
+
+        //Accepts all words that end with a digit and don't contain a digit followed by an x
+        dfa = builder.build();
+    }
+
+    @Test
+    public void testCompile(){
+        Predicate<String> matcher = MatcherCompiler.compile(dfa);
+
+        assertThat(matcher.test("0")).isTrue();
+        assertThat(matcher.test("12a3")).isTrue();
+        assertThat(matcher.test("1\uffff2")).isTrue();
+        assertThat(matcher.test("")).isFalse();
+        assertThat(matcher.test("a")).isFalse();
+        assertThat(matcher.test("1a")).isFalse();
+        assertThat(matcher.test("1x1")).isFalse();
+    }
+
+    @Test
+    public void testCompileWithoutDefaults(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State initialState = builder.addInitialState();
+        State finalState = builder.addFinalState();
+        builder.addTransition(initialState, 'a', finalState);
+        builder.addTransition(finalState, 'b', initialState);
+
+        Predicate<String> matcher = builder.build().compile();
+
+        assertThat(matcher.test("a")).isTrue();
+        assertThat(matcher.test("aba")).isTrue();
+        assertThat(matcher.test("ab")).isFalse();
+        assertThat(matcher.test("aa")).isFalse();
+    }
+
+    @Test
+    public void testCompileMatchesTable(){
+        Predicate<String> matcher = MatcherCompiler.compile(dfa);
+        TransitionTable table = TransitionTable.of(dfa);
+
+        for(char first = 0 ; first < 256 ; ++first)
+            for(String suffix : new String[]{"", "1", "x", "x1", "\u00ff"})
+                assertThat(matcher.test(first + suffix)).isEqualTo(table.run(first + suffix));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testCompileTooLarge(){
+        DeterministicFiniteAutomatonBuilder builder = new DeterministicFiniteAutomatonBuilder();
+        State state = builder.addInitialState();
+
+        for(int i = 0 ; i < 1000 ; ++i){
+            State next = builder.addState();
+            builder.addTransition(state, 'a', next);
+            state = next;
+        }
+
+        MatcherCompiler.compile(builder.build());
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.State;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StateTableTest {
+    StateTable table;
+    int anonymous;
+    int named;
+
+    @Before
+    public void setUp(){
+        table = new StateTable();
+        anonymous = table.addState();
+        named = table.addState("name");
+    }
+
+    @Test
+    public void testAddState(){
+        assertThat(anonymous).isEqualTo(0);
+        assertThat(named).isEqualTo(1);
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.getName(anonymous)).isEmpty();
+        assertThat(table.getName(named)).contains("name");
+    }
+
+    @Test
+    public void testFlags(){
+        table.setFinal(anonymous, true);
+        table.setInitial(named, true);
+
+        assertThat(table.isFinal(anonymous)).isTrue();
+        assertThat(table.isInitial(anonymous)).isFalse();
+        assertThat(table.isFinal(named)).isFalse();
+        assertThat(table.isInitial(named)).isTrue();
+    }
+
+    @Test
+    public void testGetFinalStates(){
+        table.setFinal(named, true);
+
+        assertThat(table.getFinalStates().get(named)).isTrue();
+        assertThat(table.getFinalStates().get(anonymous)).isFalse();
+
+        //The bit set is a copy
+        table.getFinalStates().clear();
+        assertThat(table.isFinal(named)).isTrue();
+    }
+
+    @Test
+    public void testGetState(){
+        State state = table.getState(anonymous);
+        state.setFinal(true);
+
+        assertThat(table.isFinal(anonymous)).isTrue();
+        assertThat(state.isPresentName()).isFalse();
+        assertThat(table.getState(named).getName()).isEqualTo("name");
+        assertThat(table.getState(named).toString()).isEqualTo("name");
+    }
+
+    @Test
+    public void testGetStateEquality(){
+        Set<State> states = new HashSet<>();
+        states.add(table.getState(anonymous));
+        states.add(table.getState(anonymous));
+        states.add(table.getState(named));
+
+        assertThat(states).hasSize(2);
+        assertThat(table.getState(anonymous)).isNotEqualTo(new StateTable(new BitSet(), new BitSet(), new HashMap<>(), 1).getState(0));
+    }
+
+    @Test
+    public void testGetId(){
+        assertThat(table.getId(table.getState(named))).isEqualTo(named);
+        assertThat(table.getId(new State())).isEqualTo(TransitionTable.NONE);
+    }
+
+    @Test(expected=IndexOutOfBoundsException.class)
+    public void testGetStateOutOfBounds(){
+        table.getState(2);
+    }
+
+    @Test
+    public void testFreezeState(){
+        table.getState(anonymous).freeze();
+
+        assertThat(table.isFrozen(anonymous)).isTrue();
+        assertThat(table.isFrozen(named)).isFalse();
+        table.setFinal(named, true);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testSetFinalFrozen(){
+        table.freeze(anonymous);
+        table.getState(anonymous).setFinal(true);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testAddStateFrozen(){
+        table.freeze();
+        table.addState();
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testInvalidFlags(){
+        BitSet finals = new BitSet();
+        finals.set(5);
+        new StateTable(finals, new BitSet(), new HashMap<>(), 5);
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SuffixAutomatonTest {
+    SuffixAutomaton automaton;
+
+    @Before
+    public void setUp(){
+        automaton = SuffixAutomaton.of("abcbc");
+    }
+
+    @Test
+    public void testContains(){
+        assertThat(automaton.contains("")).isTrue();
+        assertThat(automaton.contains("abcbc")).isTrue();
+        assertThat(automaton.contains("bcb")).isTrue();
+        assertThat(automaton.contains("cbc")).isTrue();
+        assertThat(automaton.contains("ac")).isFalse();
+        assertThat(automaton.contains("bcbca")).isFalse();
+    }
+
+    @Test
+    public void testCount(){
+        assertThat(automaton.count("")).isEqualTo(6);
+        assertThat(automaton.count("a")).isEqualTo(1);
+        assertThat(automaton.count("bc")).isEqualTo(2);
+        assertThat(automaton.count("c")).isEqualTo(2);
+        assertThat(automaton.count("cbc")).isEqualTo(1);
+        assertThat(automaton.count("ca")).isEqualTo(0);
+    }
+
+    @Test
+    public void testIndexOf(){
+        assertThat(automaton.indexOf("")).isEqualTo(0);
+        assertThat(automaton.indexOf("bc")).isEqualTo(1);
+        assertThat(automaton.indexOf("c")).isEqualTo(2);
+        assertThat(automaton.indexOf("cbc")).isEqualTo(2);
+        assertThat(automaton.indexOf("ca")).isEqualTo(-1);
+    }
+
+    @Test
+    public void testStates(){
+        int state = automaton.getState("bc");
+
+        assertThat(automaton.getLength(state)).isEqualTo(2);
+        assertThat(automaton.getCount(state)).isEqualTo(2);
+        assertThat(automaton.getFirstPosition(state)).isEqualTo(2);
+        assertThat(automaton.getState("c")).isEqualTo(state);
+        //At most twice as many states as letters
+        assertThat(automaton.size() <= 2 * 5).isTrue();
+    }
+
+    @Test
+    public void testEmptyText(){
+        automaton = SuffixAutomaton.of("");
+
+        assertThat(automaton.size()).isEqualTo(1);
+        assertThat(automaton.contains("")).isTrue();
+        assertThat(automaton.contains("a")).isFalse();
+    }
+
+    @Test
+    public void testToDfa(){
+        DeterministicFiniteAutomaton dfa = automaton.toDfa();
+
+        assertThat(dfa.getStates()).hasSize(automaton.size());
+        assertThat(dfa.run("")).isTrue();
+        assertThat(dfa.run("bcb")).isTrue();
+        assertThat(dfa.run("abcbc")).isTrue();
+        assertThat(dfa.run("ac")).isFalse();
+    }
+
+    @Test
+    public void testToTable(){
+        TransitionTable table = automaton.toTable();
+
+        assertThat(table.size()).isEqualTo(automaton.size());
+        assertThat(table.run("cbc")).isTrue();
+        assertThat(table.run("cc")).isFalse();
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.table;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.BitSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TransitionTableTest {
+    TransitionTable table;
+
+    @Before
+    public void setUp(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+
+        State initialState = builder.addInitialState();
+        State digits = builder.addFinalState();
+        State sink = builder.addState();
+
+        for(char label = '0' ; label <= '9' ; ++label){
+            builder.addTransition(initialState, label, digits);
+            builder.addTransition(digits, label, digits);
+        }
+        builder.addTransition(digits, 'x', sink);
+        builder.addDefaultTransition(digits, initialState);
+
+        //Accepts all words that end with a digit and don't contain a digit followed by an x
+        table = TransitionTable.of(builder.build());
+    }
+
+    @Test
+    public void testOf(){
+        assertThat(table.size()).isEqualTo(3);
+        assertThat(table.isFinal(TransitionTable.INITIAL_STATE)).isFalse();
+        assertThat(table.isFinal(1)).isTrue();
+        assertThat(table.isFinal(2)).isFalse();
+        //The digits are merged into a single range
+        assertThat(table.sizeRanges()).isEqualTo(3);
+        assertThat(table.getStart(0)).isEqualTo('0');
+        assertThat(table.getEnd(0)).isEqualTo('9');
+        assertThat(table.countLabels(1)).isEqualTo(11);
+        assertThat(table.getDefault(TransitionTable.INITIAL_STATE)).isEqualTo(TransitionTable.NONE);
+        assertThat(table.getDefault(1)).isEqualTo(TransitionTable.INITIAL_STATE);
+    }
+
+    @Test
+    public void testStep(){
+        assertThat(table.step(TransitionTable.INITIAL_STATE, '5')).isEqualTo(1);
+        assertThat(table.step(TransitionTable.INITIAL_STATE, 'a')).isEqualTo(TransitionTable.NONE);
+        assertThat(table.step(1, 'x')).isEqualTo(2);
+        assertThat(table.step(1, 'a')).isEqualTo(TransitionTable.INITIAL_STATE);
+        assertThat(table.step(2, '0')).isEqualTo(TransitionTable.NONE);
+    }
+
+    @Test
+    public void testRun(){
+        assertThat(table.run("0")).isTrue();
+        assertThat(table.run("12a3")).isTrue();
+        assertThat(table.run("")).isFalse();
+        assertThat(table.run("a")).isFalse();
+        assertThat(table.run("1a")).isFalse();
+        assertThat(table.run("1x1")).isFalse();
+    }
+
+    @Test
+    public void testToDfa(){
+        DeterministicFiniteAutomaton dfa = table.toDfa();
+
+        assertThat(dfa).isInstanceOf(DeterministicFiniteDefaultAutomaton.class);
+        assertThat(dfa.getStates()).hasSize(3);
+        assertThat(dfa.run("12a3")).isTrue();
+        assertThat(dfa.run("1x1")).isFalse();
+    }
+
+    @Test
+    public void testGetState(){
+        State state = table.getState(1);
+
+        assertThat(state.isFinal()).isTrue();
+        assertThat(state.isInitial()).isFalse();
+        assertThat(state.isFrozen()).isTrue();
+        assertThat(table.getState(TransitionTable.INITIAL_STATE).isInitial()).isTrue();
+        assertThat(state).isEqualTo(table.getState(1));
+        assertThat(table.getStates().getId(state)).isEqualTo(1);
+    }
+
+    @Test(expected=IllegalStateException.class)
+    public void testGetStateImmutable(){
+        table.getState(1).setFinal(false);
+    }
+
+    @Test
+    public void testNames(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        State initialState = builder.addInitialState("start");
+        builder.addTransition(initialState, 'a', builder.addFinalState());
+
+        TransitionTable named = TransitionTable.of(builder.build());
+
+        assertThat(named.getStates().getName(TransitionTable.INITIAL_STATE)).contains("start");
+        assertThat(named.getStates().getName(1)).isEmpty();
+        assertThat(named.toDfa().getInitialState().getName()).isEqualTo("start");
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testUnknownTarget(){
+        new TransitionTable(new BitSet(), new int[]{0, 1}, new char[]{'a'}, new char[]{'a'}, new int[]{1}, new int[]{TransitionTable.NONE});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testUnknownDefault(){
+        new TransitionTable(new BitSet(), new int[]{0, 0}, new char[0], new char[0], new int[0], new int[]{-2});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testDescendingOffsets(){
+        new TransitionTable(new BitSet(), new int[]{0, 2, 1}, new char[]{'a'}, new char[]{'a'}, new int[]{0}, new int[]{TransitionTable.NONE, TransitionTable.NONE});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testEmptyRange(){
+        new TransitionTable(new BitSet(), new int[]{0, 1}, new char[]{'b'}, new char[]{'a'}, new int[]{0}, new int[]{TransitionTable.NONE});
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testOverlappingRanges(){
+        new TransitionTable(new BitSet(), new int[]{0, 2}, new char[]{'a', 'b'}, new char[]{'c', 'd'}, new int[]{0, 0}, new int[]{TransitionTable.NONE});
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression;
+
+import vartas.fa.regularexpression._ast.*;
+import vartas.fa.regularexpression._visitor.RegularExpressionVisitor;
+import vartas.fa.regularexpression.derivative.DerivativeAutomaton;
+import vartas.fa.regularexpression.derivative.Term;
+import vartas.fa.regularexpression.derivative.TermFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * This class transforms the regular expression into its canonical term, which is then matched via its derivatives.
+ * Unlike the other creators, no states are created up front. Instead, they are computed lazily by the automaton.
+ */
+public class DerivativeCreator implements RegularExpressionVisitor {
+    /**
+     * The real visitor instance.
+     */
+    protected RegularExpressionVisitor realThis;
+    /**
+     * The factory that creates the canonical terms.
+     */
+    protected TermFactory factory;
+    /**
+     * The canonical terms for all subexpressions.
+     */
+    protected Map<ASTRegularExpression, Term> terms;
+    /**
+     * The canonical term of the whole expression.
+     */
+    protected Term term;
+
+    /**
+     * Creates a fresh instance of the creator.
+     */
+    protected DerivativeCreator(){
+        realThis = this;
+        terms = new HashMap<>();
+        factory = new TermFactory();
+    }
+
+    /**
+     * Transforms the regular expression into an equivalent automaton, whose states are created on demand.
+     * @param node the root node of the ast.
+     * @return an equivalent automaton.
+     */
+    public static DerivativeAutomaton createFrom(ASTRegularExpressionArtifact node){
+        DerivativeCreator creator = new DerivativeCreator();
+
+        node.accept(creator.getRealThis());
+
+        return new DerivativeAutomaton(creator.factory, creator.term);
+    }
+
+    /**
+     * @param realThis the real instance to use for handling and traversing nodes.
+     */
+    @Override
+    public void setRealThis(RegularExpressionVisitor realThis){
+        this.realThis = realThis;
+    }
+
+    /**
+     * @return the real visitor instance.
+     */
+    @Override
+    public RegularExpressionVisitor getRealThis(){
+        return realThis;
+    }
+
+    /**
+     * Creates the term of the whole expression.
+     * @param node the root node of the ast.
+     */
+    @Override
+    public void handle(ASTRegularExpressionArtifact node){
+        node.getRegularExpression().accept(getRealThis());
+
+        term = terms.get(node.getRegularExpression());
+    }
+
+    /**
+     * Creates the concatenation of both subexpressions.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTConcatenationExpression node){
+        node.getLeftExpression().accept(getRealThis());
+        node.getRightExpression().accept(getRealThis());
+
+        terms.put(node, factory.concatenation(terms.get(node.getLeftExpression()), terms.get(node.getRightExpression())));
+    }
+
+    /**
+     * Creates the union of both subexpressions.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTUnionExpression node){
+        node.getLeftExpression().accept(getRealThis());
+        node.getRightExpression().accept(getRealThis());
+
+        terms.put(node, factory.union(terms.get(node.getLeftExpression()), terms.get(node.getRightExpression())));
+    }
+
+    /**
+     * Creates the kleene star of the subexpression.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTKleeneExpression node){
+        node.getExpression().accept(getRealThis());
+
+        terms.put(node, factory.kleene(terms.get(node.getExpression())));
+    }
+
+    /**
+     * A block expression is represented by the term of its subexpression.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTBlockExpression node){
+        node.getExpression().accept(getRealThis());
+
+        terms.put(node, terms.get(node.getExpression()));
+    }
+
+    /**
+     * Creates the term for an arbitrary letter.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTWildcardExpression node){
+        terms.put(node, factory.wildcard());
+    }
+
+    /**
+     * Creates the term for a single letter within the interval.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTIntervalExpression node){
+        terms.put(node, factory.symbol(node.getStart().getValue(), node.getEnd().getValue()));
+    }
+
+    /**
+     * Creates the term for a single letter.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTCharacterExpression node){
+        terms.put(node, factory.symbol(node.getValue()));
+    }
+}
@@ -0,0 +1,444 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression;
+
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
+import vartas.fa.regularexpression._ast.*;
+import vartas.fa.regularexpression._visitor.RegularExpressionVisitor;
+
+import java.util.*;
+
+/**
+ * This class transforms regular expressions into automata using the positions of the expression.
+ * Every character, interval and wildcard is a position and the automaton is derived from the
+ * nullable, firstpos, lastpos and followpos functions over the ast.
+ * Unlike Thompson's construction, this results in an automaton without any epsilon transitions
+ * and with only a single state per position.
+ */
+public class PositionAutomatonCreator implements RegularExpressionVisitor {
+    /**
+     * The real visitor instance.
+     */
+    protected RegularExpressionVisitor realThis;
+    /**
+     * All positions of the expression, i.e. every character, interval and wildcard.
+     * The index in this list is the number of the position.
+     */
+    protected List<ASTRegularExpression> positions;
+    /**
+     * Indicates whether the subexpression accepts the empty word.
+     */
+    protected Map<ASTRegularExpression, Boolean> nullable;
+    /**
+     * The positions that can match the first character of a word of the subexpression.
+     */
+    protected Map<ASTRegularExpression, BitSet> firstpos;
+    /**
+     * The positions that can match the last character of a word of the subexpression.
+     */
+    protected Map<ASTRegularExpression, BitSet> lastpos;
+    /**
+     * The positions that can follow a position.
+     * The index in this list is the number of the preceding position.
+     */
+    protected List<BitSet> followpos;
+    /**
+     * The positions that can match the first character of the whole expression.
+     */
+    protected BitSet initialPositions;
+    /**
+     * The positions that can match the last character of the whole expression.
+     */
+    protected BitSet finalPositions;
+    /**
+     * Indicates whether the whole expression accepts the empty word.
+     */
+    protected boolean isNullable;
+
+    /**
+     * Creates a fresh instance of the creator.
+     */
+    protected PositionAutomatonCreator(){
+        realThis = this;
+        positions = new ArrayList<>();
+        nullable = new HashMap<>();
+        firstpos = new HashMap<>();
+        lastpos = new HashMap<>();
+        followpos = new ArrayList<>();
+    }
+
+    /**
+     * Transforms the regular expression into an equivalent automaton without epsilon transitions.
+     * The automaton contains one state for each position and an additional initial state.
+     * @param node the root node of the ast.
+     * @return an equivalent automaton.
+     */
+    public static NondeterministicFiniteDefaultAutomaton createFrom(ASTRegularExpressionArtifact node){
+        PositionAutomatonCreator creator = new PositionAutomatonCreator();
+
+        node.accept(creator.getRealThis());
+
+        return creator.buildNondeterministic();
+    }
+
+    /**
+     * Transforms the regular expression directly into an equivalent deterministic automaton.
+     * Every state in the automaton corresponds to a set of positions that can be matched next,
+     * hence no intermediate nondeterministic automaton is required.
+     * @param node the root node of the ast.
+     * @return an equivalent deterministic automaton.
+     */
+    public static DeterministicFiniteDefaultAutomaton createDeterministicFrom(ASTRegularExpressionArtifact node){
+        PositionAutomatonCreator creator = new PositionAutomatonCreator();
+
+        node.accept(creator.getRealThis());
+
+        return creator.buildDeterministic();
+    }
+
+    /**
+     * @param realThis the real instance to use for handling and traversing nodes.
+     */
+    @Override
+    public void setRealThis(RegularExpressionVisitor realThis){
+        this.realThis = realThis;
+    }
+
+    /**
+     * @return the real visitor instance.
+     */
+    @Override
+    public RegularExpressionVisitor getRealThis(){
+        return realThis;
+    }
+
+    /**
+     * Computes the functions for the whole expression.
+     * @param node the root node of the ast.
+     */
+    @Override
+    public void handle(ASTRegularExpressionArtifact node){
+        ASTRegularExpression expression = node.getRegularExpression();
+
+        expression.accept(getRealThis());
+
+        initialPositions = firstpos.get(expression);
+        finalPositions = lastpos.get(expression);
+        isNullable = nullable.get(expression);
+    }
+
+    /**
+     * A concatenation accepts the empty word only if both subexpressions do.
+     * Every position at the end of the left subexpression can be followed by the first positions of the right subexpression.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTConcatenationExpression node){
+        ASTRegularExpression left = node.getLeftExpression();
+        ASTRegularExpression right = node.getRightExpression();
+
+        left.accept(getRealThis());
+        right.accept(getRealThis());
+
+        BitSet first = (BitSet)firstpos.get(left).clone();
+        if(nullable.get(left))
+            first.or(firstpos.get(right));
+
+        BitSet last = (BitSet)lastpos.get(right).clone();
+        if(nullable.get(right))
+            last.or(lastpos.get(left));
+
+        follow(lastpos.get(left), firstpos.get(right));
+
+        nullable.put(node, nullable.get(left) && nullable.get(right));
+        firstpos.put(node, first);
+        lastpos.put(node, last);
+    }
+
+    /**
+     * A union can start and end with the positions of both subexpressions.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTUnionExpression node){
+        ASTRegularExpression left = node.getLeftExpression();
+        ASTRegularExpression right = node.getRightExpression();
+
+        left.accept(getRealThis());
+        right.accept(getRealThis());
+
+        BitSet first = (BitSet)firstpos.get(left).clone();
+        first.or(firstpos.get(right));
+
+        BitSet last = (BitSet)lastpos.get(left).clone();
+        last.or(lastpos.get(right));
+
+        nullable.put(node, nullable.get(left) || nullable.get(right));
+        firstpos.put(node, first);
+        lastpos.put(node, last);
+    }
+
+    /**
+     * The kleene star always accepts the empty word and every position at the end of the subexpression
+     * can be followed by its first positions again.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTKleeneExpression node){
+        ASTRegularExpression expression = node.getExpression();
+
+        expression.accept(getRealThis());
+
+        follow(lastpos.get(expression), firstpos.get(expression));
+
+        nullable.put(node, true);
+        firstpos.put(node, firstpos.get(expression));
+        lastpos.put(node, lastpos.get(expression));
+    }
+
+    /**
+     * A block expression behaves exactly like its subexpression.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTBlockExpression node){
+        ASTRegularExpression expression = node.getExpression();
+
+        expression.accept(getRealThis());
+
+        nullable.put(node, nullable.get(expression));
+        firstpos.put(node, firstpos.get(expression));
+        lastpos.put(node, lastpos.get(expression));
+    }
+
+    /**
+     * Adds a new position for the wildcard.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTWildcardExpression node){
+        addPosition(node);
+    }
+
+    /**
+     * Adds a new position for the interval.
+     * The characters at the start and the end of the interval are not positions on their own.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTIntervalExpression node){
+        addPosition(node);
+    }
+
+    /**
+     * Adds a new position for the character.
+     * @param node the currently visited expression.
+     */
+    @Override
+    public void handle(ASTCharacterExpression node){
+        addPosition(node);
+    }
+
+    /**
+     * Creates a new position for a leaf of the ast.
+     * Since a position matches exactly one character, it never accepts the empty word.
+     * @param node the leaf of the ast.
+     */
+    protected void addPosition(ASTRegularExpression node){
+        BitSet position = new BitSet();
+        position.set(positions.size());
+
+        positions.add(node);
+        followpos.add(new BitSet());
+
+        nullable.put(node, false);
+        firstpos.put(node, position);
+        lastpos.put(node, position);
+    }
+
+    /**
+     * Marks all positions in the second set as possible successors of the positions in the first set.
+     * @param from the preceding positions.
+     * @param to the following positions.
+     */
+    protected void follow(BitSet from, BitSet to){
+        for(int i = from.nextSetBit(0) ; i >= 0 ; i = from.nextSetBit(i + 1))
+            followpos.get(i).or(to);
+    }
+
+    /**
+     * @param position the number of a position.
+     * @return true if the position is a wildcard.
+     */
+    protected boolean isWildcard(int position){
+        return positions.get(position) instanceof ASTWildcardExpression;
+    }
+
+    /**
+     * @param position the number of a position.
+     * @param label the letter that has been read.
+     * @return true if the position matches the given letter.
+     */
+    protected boolean matches(int position, char label){
+        ASTRegularExpression node = positions.get(position);
+
+        if(node instanceof ASTCharacterExpression)
+            return ((ASTCharacterExpression)node).getValue() == label;
+        else if(node instanceof ASTIntervalExpression)
+            return ((ASTIntervalExpression)node).getStart().getValue() <= label && label <= ((ASTIntervalExpression)node).getEnd().getValue();
+        else
+            return true;
+    }
+
+    /**
+     * Collects all letters that are matched explicitly by the given positions.
+     * Wildcards are ignored, since they are realized via default transitions.
+     * @param positions a set of positions.
+     * @return all characters and all characters within intervals of the given positions.
+     */
+    protected SortedSet<Character> labels(BitSet positions){
+        SortedSet<Character> labels = new TreeSet<>();
+
+        //Ignore the end marker, if present
+        for(int i = positions.nextSetBit(0) ; i >= 0 && i < this.positions.size() ; i = positions.nextSetBit(i + 1)){
+            ASTRegularExpression node = this.positions.get(i);
+            if(node instanceof ASTCharacterExpression){
+                labels.add(((ASTCharacterExpression)node).getValue());
+            }else if(node instanceof ASTIntervalExpression){
+                //Use an int, otherwise we would overflow at the end of the alphabet
+                int end = ((ASTIntervalExpression)node).getEnd().getValue();
+                for(int current = ((ASTIntervalExpression)node).getStart().getValue() ; current <= end ; ++current)
+                    labels.add((char)current);
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Creates the Glushkov automaton.
+     * Every position is a state, which is entered by reading a letter matched by the position.
+     * @return an automaton without epsilon transitions.
+     */
+    protected NondeterministicFiniteDefaultAutomaton buildNondeterministic(){
+        NondeterministicFiniteDefaultAutomatonBuilder builder = new NondeterministicFiniteDefaultAutomatonBuilder();
+        List<State> states = new ArrayList<>(positions.size());
+
+        State initialState = builder.addInitialState();
+        initialState.setFinal(isNullable);
+
+        for(int i = 0 ; i < positions.size() ; ++i)
+            states.add(finalPositions.get(i) ? builder.addFinalState() : builder.addState());
+
+        addTransitions(builder, initialState, initialPositions, states);
+        for(int i = 0 ; i < positions.size() ; ++i)
+            addTransitions(builder, states.get(i), followpos.get(i), states);
+
+        return builder.build();
+    }
+
+    /**
+     * Adds the transitions from a single state into all the given positions.
+     * A default transition is only taken when there is no other matching transition, hence a
+     * wildcard also needs an explicit transition for every other letter leaving the state.
+     * @param builder the builder of the automaton.
+     * @param from the current state.
+     * @param to the positions that can be reached from the current state.
+     * @param states the states of all positions.
+     */
+    private void addTransitions(NondeterministicFiniteDefaultAutomatonBuilder builder, State from, BitSet to, List<State> states){
+        SortedSet<Character> labels = labels(to);
+
+        for(int i = to.nextSetBit(0) ; i >= 0 ; i = to.nextSetBit(i + 1)){
+            if(isWildcard(i))
+                builder.addDefaultTransition(from, states.get(i));
+
+            for(char label : labels)
+                if(matches(i, label))
+                    builder.addTransition(from, label, states.get(i));
+        }
+    }
+
+    /**
+     * Creates the deterministic automaton via the followpos construction.
+     * Every state corresponds to the set of positions that may match the next letter.
+     * In order to tell whether the word may end, an additional marker position follows
+     * every position at the end of the expression. This marker never matches any letter.
+     * @return a deterministic automaton.
+     */
+    protected DeterministicFiniteDefaultAutomaton buildDeterministic(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        Map<BitSet, State> groups = new HashMap<>();
+        Deque<BitSet> remaining = new ArrayDeque<>();
+        int marker = positions.size();
+
+        for(int i = finalPositions.nextSetBit(0) ; i >= 0 ; i = finalPositions.nextSetBit(i + 1))
+            followpos.get(i).set(marker);
+
+        BitSet initialGroup = (BitSet)initialPositions.clone();
+        initialGroup.set(marker, isNullable);
+
+        groups.put(initialGroup, builder.addInitialState());
+        groups.get(initialGroup).setFinal(isNullable);
+        remaining.add(initialGroup);
+
+        while(!remaining.isEmpty()){
+            BitSet current = remaining.pop();
+            State from = groups.get(current);
+
+            for(char label : labels(current)){
+                BitSet next = new BitSet();
+                for(int i = current.nextSetBit(0) ; i >= 0 && i < marker ; i = current.nextSetBit(i + 1))
+                    if(matches(i, label))
+                        next.or(followpos.get(i));
+
+                builder.addTransition(from, label, group(builder, groups, remaining, next, marker));
+            }
+
+            BitSet next = new BitSet();
+            for(int i = current.nextSetBit(0) ; i >= 0 && i < marker ; i = current.nextSetBit(i + 1))
+                if(isWildcard(i))
+                    next.or(followpos.get(i));
+
+            if(!next.isEmpty())
+                builder.addDefaultTransition(from, group(builder, groups, remaining, next, marker));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the state for the given set of positions, creating it if it doesn't exist.
+     * A set is final if it contains the end marker.
+     * @param builder the builder of the automaton.
+     * @param groups a map relating sets of positions to their state.
+     * @param remaining all sets of positions whose transitions have yet to be created.
+     * @param positions the set of positions that may match the next letter.
+     * @param marker the end marker.
+     * @return the state relating to the given positions.
+     */
+    private State group(DeterministicFiniteDefaultAutomatonBuilder builder, Map<BitSet, State> groups, Deque<BitSet> remaining, BitSet positions, int marker){
+        return groups.computeIfAbsent(positions, key -> {
+            remaining.add(key);
+            return key.get(marker) ? builder.addFinalState() : builder.addState();
+        });
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression;
+
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.CacheStats;
+import com.google.common.cache.LoadingCache;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.regularexpression._ast.ASTRegularExpressionArtifact;
+import vartas.fa.regularexpression._parser.RegularExpressionParser;
+import vartas.fa.table.AutomatonDiskCache;
+import vartas.fa.table.AutomatonInterner;
+import vartas.fa.transformations.Transformations;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * This class caches the DFAs of regular expressions, so that repeated expressions are only parsed and transformed once.
+ * The entries are evicted based on the estimated memory footprint of their automata, rather than their number.
+ * Concurrent requests for the same expression wait for a single computation. Minimal DFAs of equivalent expressions,
+ * such as "a(b+c)" and "ab+ac", are shared via their canonical form.
+ */
+public class RegularExpressionCache {
+    /**
+     * The estimated size of a state in bytes.
+     */
+    protected static final int STATE_WEIGHT = 64;
+    /**
+     * The estimated size of a transition in bytes, including the entry in the table.
+     */
+    protected static final int TRANSITION_WEIGHT = 96;
+    /**
+     * The estimated size of a default transition in bytes.
+     */
+    protected static final int DEFAULT_TRANSITION_WEIGHT = 48;
+    /**
+     * The underlying cache.
+     */
+    protected LoadingCache<Key, DeterministicFiniteDefaultAutomaton> cache;
+    /**
+     * The persistent cache that is consulted before an automaton is compiled or null, if there is none.
+     */
+    protected AutomatonDiskCache diskCache;
+    /**
+     * The shared minimal DFA of every language.
+     */
+    protected AutomatonInterner<DeterministicFiniteDefaultAutomaton> interner;
+
+    /**
+     * The construction that is used to transform the expression into an automaton.
+     */
+    public enum Construction{
+        /**
+         * Thompson's construction, followed by the power set construction.
+         */
+        THOMPSON,
+        /**
+         * The direct construction of a DFA over the positions of the expression.
+         */
+        POSITION
+    }
+
+    /**
+     * The key of an entry, consisting of the expression and all options that affect the automaton.
+     */
+    protected static final class Key{
+        /**
+         * The regular expression.
+         */
+        private final String expression;
+        /**
+         * The construction of the automaton.
+         */
+        private final Construction construction;
+        /**
+         * Indicates whether the automaton is minimized.
+         */
+        private final boolean minimize;
+
+        /**
+         * @param expression the regular expression.
+         * @param construction the construction of the automaton.
+         * @param minimize true if the automaton is minimized.
+         */
+        private Key(String expression, Construction construction, boolean minimize){
+            this.expression = expression;
+            this.construction = construction;
+            this.minimize = minimize;
+        }
+
+        /**
+         * @return the name of the options in the persistent cache.
+         */
+        private String getNamespace(){
+            return String.format("regex:%s:%b", construction, minimize);
+        }
+
+        /**
+         * @param o the other object.
+         * @return true if both keys have the same expression and options.
+         */
+        @Override
+        public boolean equals(Object o){
+            if(this == o)
+                return true;
+            if(!(o instanceof Key))
+                return false;
+
+            Key other = (Key)o;
+            return expression.equals(other.expression) && construction == other.construction && minimize == other.minimize;
+        }
+
+        /**
+         * @return the hash code of the expression and options.
+         */
+        @Override
+        public int hashCode(){
+            return Objects.hash(expression, construction, minimize);
+        }
+    }
+
+    /**
+     * @param maximumWeight the maximum estimated size of all cached automata in bytes.
+     */
+    public RegularExpressionCache(long maximumWeight){
+        this(maximumWeight, null);
+    }
+
+    /**
+     * Automata that aren't in memory are read from the persistent cache, before they are compiled.
+     * @param maximumWeight the maximum estimated size of all cached automata in bytes.
+     * @param diskCache the persistent cache of compiled automata.
+     */
+    public RegularExpressionCache(long maximumWeight, AutomatonDiskCache diskCache){
+        this.diskCache = diskCache;
+        this.interner = new AutomatonInterner<>();
+        this.cache = CacheBuilder.newBuilder()
+                .maximumWeight(maximumWeight)
+                .weigher(RegularExpressionCache::weigh)
+                .recordStats()
+                .build(CacheLoader.from(this::load));
+    }
+
+    /**
+     * Creates the minimal DFA via the position automaton, unless it has been cached.
+     * The automaton is shared and must not be modified.
+     * @param expression the regular expression.
+     * @return a DFA accepting the expression.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    public DeterministicFiniteDefaultAutomaton get(String expression) throws IllegalArgumentException{
+        return get(expression, Construction.POSITION, true);
+    }
+
+    /**
+     * The automaton is shared and must not be modified.
+     * @param expression the regular expression.
+     * @param construction the construction of the automaton.
+     * @param minimize true if the automaton should be minimized.
+     * @return a DFA accepting the expression.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    public DeterministicFiniteDefaultAutomaton get(String expression, Construction construction, boolean minimize) throws IllegalArgumentException{
+        try{
+            return cache.getUnchecked(new Key(expression, construction, minimize));
+        }catch(UncheckedExecutionException e){
+            if(e.getCause() instanceof IllegalArgumentException)
+                throw (IllegalArgumentException)e.getCause();
+            else
+                throw e;
+        }
+    }
+
+    /**
+     * @return the number of hits, misses and evictions.
+     */
+    public CacheStats stats(){
+        return cache.stats();
+    }
+
+    /**
+     * @return the approximate number of cached automata.
+     */
+    public long size(){
+        return cache.size();
+    }
+
+    /**
+     * Removes all cached automata.
+     */
+    public void clear(){
+        cache.invalidateAll();
+    }
+
+    /**
+     * @param key the expression and its options.
+     * @return a DFA accepting the expression, which is shared with all equivalent expressions if it is minimal.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     * @throws UncheckedIOException if the automaton couldn't be written to the persistent cache.
+     */
+    protected DeterministicFiniteDefaultAutomaton load(Key key) throws IllegalArgumentException, UncheckedIOException{
+        DeterministicFiniteDefaultAutomaton dfa = diskCache == null ? compile(key) : read(key);
+
+        return key.minimize ? interner.intern(dfa) : dfa;
+    }
+
+    /**
+     * @param key the expression and its options.
+     * @return a DFA accepting the expression, which is read from the persistent cache if possible.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     * @throws UncheckedIOException if the automaton couldn't be written to the persistent cache.
+     */
+    protected DeterministicFiniteDefaultAutomaton read(Key key) throws IllegalArgumentException, UncheckedIOException{
+        try{
+            //Automata with default transitions are always read as such
+            return (DeterministicFiniteDefaultAutomaton)diskCache.get(key.getNamespace(), key.expression, expression -> compile(key));
+        }catch(IOException e){
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @param key the expression and its options.
+     * @return a DFA accepting the expression.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    protected DeterministicFiniteDefaultAutomaton compile(Key key) throws IllegalArgumentException{
+        ASTRegularExpressionArtifact ast = parse(key.expression);
+
+        synchronized(Transformations.LOCK){
+            DeterministicFiniteDefaultAutomaton dfa = key.construction == Construction.THOMPSON
+                    ? RegularExpressionCreator.createDeterministicFrom(ast)
+                    : PositionAutomatonCreator.createDeterministicFrom(ast);
+
+            return key.minimize ? dfa.minimize() : dfa;
+        }
+    }
+
+    /**
+     * @param expression the regular expression.
+     * @return the root of the ast.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    protected static ASTRegularExpressionArtifact parse(String expression) throws IllegalArgumentException{
+        try{
+            RegularExpressionParser parser = new RegularExpressionParser();
+            Optional<ASTRegularExpressionArtifact> ast = parser.parse_StringRegularExpressionArtifact(expression);
+
+            if(parser.hasErrors() || !ast.isPresent())
+                throw new IllegalArgumentException(String.format("Invalid regular expression %s", expression));
+
+            return ast.get();
+        }catch(IOException e){
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    /**
+     * @param key the expression and its options.
+     * @param dfa the DFA of the expression.
+     * @return the estimated size of the entry in bytes.
+     */
+    protected static int weigh(Key key, DeterministicFiniteDefaultAutomaton dfa){
+        long weight = 2L * key.expression.length()
+                + (long)STATE_WEIGHT * dfa.getStates().size()
+                + (long)TRANSITION_WEIGHT * dfa.getTransitions().size()
+                + (long)DEFAULT_TRANSITION_WEIGHT * dfa.getDefaultTransitions().size();
+
+        return (int)Math.min(weight, Integer.MAX_VALUE);
+    }
+}
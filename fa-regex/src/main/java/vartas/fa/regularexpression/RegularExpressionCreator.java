@@ -18,15 +18,24 @@
 package vartas.fa.regularexpression;
 
 import org.apache.commons.lang3.tuple.Pair;
+import vartas.fa.DeterministicFiniteAutomaton;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
 import vartas.fa.NondeterministicFiniteDefaultAutomaton;
 import vartas.fa.State;
 import vartas.fa.builder.NondeterministicFiniteDefaultAutomatonBuilder;
 import vartas.fa.regularexpression._ast.*;
 import vartas.fa.regularexpression._visitor.RegularExpressionVisitor;
+import vartas.fa.table.AutomatonDiskCache;
+import vartas.fa.transformations.Transformations;
 
+import java.io.IOException;
 import java.util.*;
 
 public class RegularExpressionCreator implements RegularExpressionVisitor {
+    /**
+     * The name of the minimal DFAs of this construction in the persistent cache.
+     */
+    public static final String CACHE_NAMESPACE = "regex:minimal";
     /**
      * The real visitor instance.
      */
@@ -63,6 +72,43 @@ public class RegularExpressionCreator implements RegularExpressionVisitor {
         return creator.builder.build();
     }
 
+    /**
+     * Transforms the regular expression into an equivalent deterministic automaton.
+     * If the automaton of the expression is already deterministic, it is transformed directly, without applying the
+     * power set construction.
+     * @param node the root node of the ast.
+     * @return an equivalent deterministic automaton.
+     */
+    public static DeterministicFiniteDefaultAutomaton createDeterministicFrom(ASTRegularExpressionArtifact node){
+        return createFrom(node).toDeterministic();
+    }
+
+    /**
+     * Transforms the regular expression into its minimal DFA, which is reused from the cache if it has been
+     * compiled before.
+     * @param expression the regular expression.
+     * @param cache the persistent cache of compiled automata.
+     * @return the minimal DFA of the expression.
+     * @throws IOException if the automaton couldn't be written to the cache.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    public static DeterministicFiniteAutomaton createMinimalFrom(String expression, AutomatonDiskCache cache) throws IOException, IllegalArgumentException{
+        return cache.get(CACHE_NAMESPACE, expression, RegularExpressionCreator::createMinimalFrom);
+    }
+
+    /**
+     * @param expression the regular expression.
+     * @return the minimal DFA of the expression.
+     * @throws IllegalArgumentException if the expression can't be parsed.
+     */
+    protected static DeterministicFiniteAutomaton createMinimalFrom(String expression) throws IllegalArgumentException{
+        ASTRegularExpressionArtifact ast = RegularExpressionCache.parse(expression);
+
+        synchronized(Transformations.LOCK){
+            return createDeterministicFrom(ast).minimize();
+        }
+    }
+
     /**
      * @param realThis the real instance to use for handling and traversing nodes.
      */
@@ -192,6 +238,17 @@ public class RegularExpressionCreator implements RegularExpressionVisitor {
         hookpoints.put(node, Pair.of(newInitialState, newFinalState));
     }
 
+    /**
+     * A block expression is represented by the hookpoints of its subexpression.
+     * @param node the current expression.
+     */
+    @Override
+    public void handle(ASTBlockExpression node){
+        node.getExpression().accept(getRealThis());
+
+        hookpoints.put(node, hookpoints.get(node.getExpression()));
+    }
+
     /**
      * Adds a wildcard transition to the automaton.
      * @param node the currently visited transition.
@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression.derivative;
+
+import com.google.common.collect.HashBasedTable;
+import com.google.common.collect.Table;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.FiniteAutomaton;
+import vartas.fa.State;
+import vartas.fa.builder.DeterministicFiniteDefaultAutomatonBuilder;
+
+import java.util.*;
+
+/**
+ * This class implements a lazily constructed DFA over the derivatives of a regular expression.
+ * Every distinct derivative is a state, which is only created once it is reached by an input word.
+ * All transitions are memoized, so that subsequent runs over the same letters don't have to
+ * compute the derivatives again. Since the memoization modifies the automaton, all runs are synchronized.
+ */
+public class DerivativeAutomaton extends FiniteAutomaton {
+    /**
+     * The factory that creates all derivatives.
+     */
+    protected TermFactory factory;
+    /**
+     * A map that relates every derivative to its state.
+     */
+    protected Map<Term, State> groups;
+    /**
+     * A map that relates every state to its derivative.
+     */
+    protected Map<State, Term> terms;
+    /**
+     * All transitions that have been computed so far.
+     */
+    protected Table<State, Character, State> transitions;
+
+    /**
+     * Creates a new automaton.
+     * Initially, only the state of the regular expression itself exists.
+     * @param factory the factory the term has been created with.
+     * @param term the canonical regular expression.
+     */
+    public DerivativeAutomaton(TermFactory factory, Term term){
+        super(null, new HashSet<>());
+        this.factory = factory;
+        this.groups = new HashMap<>();
+        this.terms = new HashMap<>();
+        this.transitions = HashBasedTable.create();
+        this.initialState = group(term);
+        this.initialState.setInitial(true);
+    }
+
+    /**
+     * Lets the word on this automaton.
+     * The run is aborted once the empty language has been reached.
+     * @param word the input word.
+     * @return true, if the word is accepted by the automaton.
+     */
+    @Override
+    public synchronized boolean run(String word){
+        State currentState = initialState;
+
+        for(int i = 0 ; i < word.length() && !isEmpty(currentState) ; ++i)
+            currentState = step(currentState, word.charAt(i));
+
+        return currentState.isFinal();
+    }
+
+    /**
+     * Executes a single step in the automaton.
+     * The derivative is only computed if the transition hasn't been used before.
+     * @param state the current state.
+     * @param label the letter that has been read.
+     * @return the state of the derivative with respect to the label.
+     */
+    public synchronized State step(State state, char label){
+        State next = transitions.get(state, label);
+
+        if(next == null){
+            next = group(factory.derive(terms.get(state), label));
+            transitions.put(state, label, next);
+        }
+
+        return next;
+    }
+
+    /**
+     * @param state a state in the automaton.
+     * @return true if the state doesn't accept any words.
+     */
+    protected boolean isEmpty(State state){
+        return terms.get(state) == factory.empty();
+    }
+
+    /**
+     * @param term a derivative of the regular expression.
+     * @return the state of the derivative, which is created if it doesn't exist yet.
+     */
+    protected State group(Term term){
+        return groups.computeIfAbsent(term, key -> {
+            State state = new State();
+            state.setFinal(key.isNullable());
+            states.add(state);
+            terms.put(state, key);
+            return state;
+        });
+    }
+
+    /**
+     * @param state a state in the automaton.
+     * @return the derivative the state corresponds to.
+     */
+    public Term getTerm(State state){
+        return terms.get(state);
+    }
+
+    /**
+     * @return all transitions that have been computed so far.
+     */
+    public Table<State, Character, State> getTransitions(){
+        return transitions;
+    }
+
+    /**
+     * Computes all derivatives that are reachable from the initial state.
+     * Letters that aren't mentioned in a derivative all lead to the same state, which becomes the default transition.
+     * Transitions into the empty language are omitted, as are transitions that lead to the same state as the
+     * default transition.
+     * @return a DFA accepting the same language.
+     */
+    public synchronized DeterministicFiniteDefaultAutomaton toDfa(){
+        DeterministicFiniteDefaultAutomatonBuilder builder = new DeterministicFiniteDefaultAutomatonBuilder();
+        Map<Term, State> dfaStates = new HashMap<>();
+        Deque<Term> remaining = new ArrayDeque<>();
+
+        Term initialTerm = terms.get(initialState);
+        State dfaInitialState = builder.addInitialState();
+        dfaInitialState.setFinal(initialTerm.isNullable());
+        dfaStates.put(initialTerm, dfaInitialState);
+        remaining.add(initialTerm);
+
+        while(!remaining.isEmpty()){
+            Term current = remaining.pop();
+            State from = dfaStates.get(current);
+
+            Term defaultTerm = factory.deriveDefault(current);
+
+            SortedSet<Character> labels = new TreeSet<>();
+            factory.collectLabels(current, labels);
+
+            //Every letter matched by the default derivative is also matched by the derivative of an explicit letter.
+            //Hence, if the latter is empty, so is the default derivative.
+            for(char label : labels){
+                Term next = terms.get(step(groups.get(current), label));
+                if(next != factory.empty() && next != defaultTerm)
+                    builder.addTransition(from, label, dfaState(builder, dfaStates, remaining, next));
+            }
+
+            if(defaultTerm != factory.empty())
+                builder.addDefaultTransition(from, dfaState(builder, dfaStates, remaining, defaultTerm));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Returns the state in the resulting DFA for the given derivative, creating it if it doesn't exist.
+     * @param builder the builder of the DFA.
+     * @param dfaStates a map relating derivatives to their state in the DFA.
+     * @param remaining all derivatives whose transitions have yet to be created.
+     * @param term the derivative.
+     * @return the state of the derivative in the DFA.
+     */
+    private State dfaState(DeterministicFiniteDefaultAutomatonBuilder builder, Map<Term, State> dfaStates, Deque<Term> remaining, Term term){
+        group(term);
+        return dfaStates.computeIfAbsent(term, key -> {
+            remaining.add(key);
+            return key.isNullable() ? builder.addFinalState() : builder.addState();
+        });
+    }
+}
@@ -0,0 +1,242 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression.derivative;
+
+import java.util.Arrays;
+
+/**
+ * This class represents an immutable regular expression in its canonical form.
+ * Instances are only created by the {@link TermFactory}, which guarantees that two equal terms
+ * are always the same instance. Hence the children of a term can be compared via their identity.
+ */
+public final class Term {
+    /**
+     * The different types of terms.
+     */
+    public enum Kind{
+        /**
+         * The empty language.
+         */
+        EMPTY,
+        /**
+         * The language only containing the empty word.
+         */
+        EPSILON,
+        /**
+         * A single letter within an interval.
+         */
+        SYMBOL,
+        /**
+         * An arbitrary letter.
+         */
+        WILDCARD,
+        /**
+         * The concatenation of exactly two terms.
+         */
+        CONCATENATION,
+        /**
+         * The union of at least two terms.
+         */
+        UNION,
+        /**
+         * The kleene star of a single term.
+         */
+        KLEENE
+    }
+    /**
+     * The type of this term.
+     */
+    private final Kind kind;
+    /**
+     * The first letter of a symbol.
+     */
+    private final char start;
+    /**
+     * The last letter of a symbol.
+     */
+    private final char end;
+    /**
+     * The subterms, ordered by their id in case of a union.
+     */
+    private final Term[] children;
+    /**
+     * Indicates whether this term accepts the empty word.
+     */
+    private final boolean nullable;
+    /**
+     * The cached hash code.
+     */
+    private final int hash;
+    /**
+     * The unique number of this term, assigned by the factory.
+     */
+    int id;
+
+    /**
+     * Creates a new term.
+     * @param kind the type of the term.
+     * @param start the first letter of a symbol.
+     * @param end the last letter of a symbol.
+     * @param children the subterms.
+     */
+    Term(Kind kind, char start, char end, Term... children){
+        this.kind = kind;
+        this.start = start;
+        this.end = end;
+        this.children = children;
+        this.nullable = computeNullable();
+        this.hash = computeHash();
+    }
+
+    /**
+     * @return true if this term accepts the empty word.
+     */
+    private boolean computeNullable(){
+        switch(kind){
+            case EPSILON:
+            case KLEENE:
+                return true;
+            case CONCATENATION:
+                return children[0].nullable && children[1].nullable;
+            case UNION:
+                return Arrays.stream(children).anyMatch(Term::isNullable);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Since the children are canonical, their identity hash is sufficient.
+     * @return the hash code of this term.
+     */
+    private int computeHash(){
+        int result = kind.hashCode();
+        result = 31 * result + start;
+        result = 31 * result + end;
+        for(Term child : children)
+            result = 31 * result + System.identityHashCode(child);
+        return result;
+    }
+
+    /**
+     * @return the type of this term.
+     */
+    public Kind getKind(){
+        return kind;
+    }
+
+    /**
+     * @return the first letter of a symbol.
+     */
+    public char getStart(){
+        return start;
+    }
+
+    /**
+     * @return the last letter of a symbol.
+     */
+    public char getEnd(){
+        return end;
+    }
+
+    /**
+     * @param index the index of the subterm.
+     * @return the subterm at the given index.
+     */
+    public Term getChild(int index){
+        return children[index];
+    }
+
+    /**
+     * @return the number of subterms.
+     */
+    public int sizeChildren(){
+        return children.length;
+    }
+
+    /**
+     * @return true if this term accepts the empty word.
+     */
+    public boolean isNullable(){
+        return nullable;
+    }
+
+    /**
+     * @return the unique number of this term.
+     */
+    public int getId(){
+        return id;
+    }
+
+    /**
+     * Two terms are equal if they are of the same type and have the same subterms.
+     * @param o the other object.
+     * @return true if both terms are structurally equal.
+     */
+    @Override
+    public boolean equals(Object o){
+        if(this == o)
+            return true;
+        if(!(o instanceof Term))
+            return false;
+
+        Term other = (Term)o;
+        if(kind != other.kind || start != other.start || end != other.end || children.length != other.children.length)
+            return false;
+
+        for(int i = 0 ; i < children.length ; ++i)
+            if(children[i] != other.children[i])
+                return false;
+
+        return true;
+    }
+
+    /**
+     * @return the cached hash code.
+     */
+    @Override
+    public int hashCode(){
+        return hash;
+    }
+
+    /**
+     * @return a textual representation of this term in the syntax of the regular expressions.
+     */
+    @Override
+    public String toString(){
+        switch(kind){
+            case EMPTY:
+                return "{}";
+            case EPSILON:
+                return "()";
+            case SYMBOL:
+                return start == end ? "'" + start + "'" : "['" + start + "'-'" + end + "']";
+            case WILDCARD:
+                return ".";
+            case CONCATENATION:
+                return "(" + children[0] + children[1] + ")";
+            case UNION:
+                StringBuilder builder = new StringBuilder("(");
+                for(int i = 0 ; i < children.length ; ++i)
+                    builder.append(i == 0 ? "" : "+").append(children[i]);
+                return builder.append(")").toString();
+            default:
+                return children[0] + "*";
+        }
+    }
+}
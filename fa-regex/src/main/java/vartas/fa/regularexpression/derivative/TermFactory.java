@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression.derivative;
+
+import java.util.*;
+
+/**
+ * This class creates terms in their canonical form and computes their derivatives.
+ * All terms are hash-consed, meaning that equal terms are represented by a single instance.
+ * Unions are flattened, sorted and free of duplicates, which guarantees that every
+ * regular expression only has finitely many distinct derivatives.
+ */
+public class TermFactory {
+    /**
+     * All terms that have been created by this factory.
+     */
+    protected Map<Term, Term> terms;
+    /**
+     * The term for the empty language.
+     */
+    protected final Term empty;
+    /**
+     * The term for the empty word.
+     */
+    protected final Term epsilon;
+    /**
+     * The term for an arbitrary letter.
+     */
+    protected final Term wildcard;
+
+    /**
+     * Creates a new factory.
+     */
+    public TermFactory(){
+        terms = new HashMap<>();
+        empty = intern(new Term(Term.Kind.EMPTY, '\0', '\0'));
+        epsilon = intern(new Term(Term.Kind.EPSILON, '\0', '\0'));
+        wildcard = intern(new Term(Term.Kind.WILDCARD, '\0', '\0'));
+    }
+
+    /**
+     * @param term a new term.
+     * @return the canonical instance of the term.
+     */
+    protected Term intern(Term term){
+        return terms.computeIfAbsent(term, key -> {
+            key.id = terms.size();
+            return key;
+        });
+    }
+
+    /**
+     * @return the number of distinct terms created by this factory.
+     */
+    public int size(){
+        return terms.size();
+    }
+
+    /**
+     * @return the term for the empty language.
+     */
+    public Term empty(){
+        return empty;
+    }
+
+    /**
+     * @return the term for the empty word.
+     */
+    public Term epsilon(){
+        return epsilon;
+    }
+
+    /**
+     * @return the term for an arbitrary letter.
+     */
+    public Term wildcard(){
+        return wildcard;
+    }
+
+    /**
+     * @param label a single letter.
+     * @return the term for the letter.
+     */
+    public Term symbol(char label){
+        return symbol(label, label);
+    }
+
+    /**
+     * @param start the first letter of the interval.
+     * @param end the last letter of the interval.
+     * @return the term for a single letter in the interval, or the empty language if the interval is empty.
+     */
+    public Term symbol(char start, char end){
+        if(start > end)
+            return empty;
+        return intern(new Term(Term.Kind.SYMBOL, start, end));
+    }
+
+    /**
+     * Concatenations are associated to the right, i.e. (ab)c is normalized to a(bc).
+     * @param left the left term.
+     * @param right the right term.
+     * @return the canonical concatenation of both terms.
+     */
+    public Term concatenation(Term left, Term right){
+        if(left == empty || right == empty)
+            return empty;
+        if(left == epsilon)
+            return right;
+        if(right == epsilon)
+            return left;
+        if(left.getKind() == Term.Kind.CONCATENATION)
+            return concatenation(left.getChild(0), concatenation(left.getChild(1), right));
+
+        return intern(new Term(Term.Kind.CONCATENATION, '\0', '\0', left, right));
+    }
+
+    /**
+     * Nested unions are flattened, the empty language is removed and the remaining terms are
+     * sorted and free of duplicates.
+     * @param left the left term.
+     * @param right the right term.
+     * @return the canonical union of both terms.
+     */
+    public Term union(Term left, Term right){
+        if(left == right || right == empty)
+            return left;
+        if(left == empty)
+            return right;
+
+        SortedSet<Term> children = new TreeSet<>(Comparator.comparingInt(Term::getId));
+        flatten(left, children);
+        flatten(right, children);
+
+        if(children.size() == 1)
+            return children.first();
+
+        return intern(new Term(Term.Kind.UNION, '\0', '\0', children.toArray(new Term[0])));
+    }
+
+    /**
+     * Adds the term or, in case of a union, all of its subterms to the set.
+     * @param term the current term.
+     * @param children the subterms of the resulting union.
+     */
+    private void flatten(Term term, Set<Term> children){
+        if(term.getKind() == Term.Kind.UNION)
+            for(int i = 0 ; i < term.sizeChildren() ; ++i)
+                children.add(term.getChild(i));
+        else
+            children.add(term);
+    }
+
+    /**
+     * @param term the repeated term.
+     * @return the canonical kleene star of the term.
+     */
+    public Term kleene(Term term){
+        if(term == empty || term == epsilon)
+            return epsilon;
+        if(term.getKind() == Term.Kind.KLEENE)
+            return term;
+
+        return intern(new Term(Term.Kind.KLEENE, '\0', '\0', term));
+    }
+
+    /**
+     * Computes the Brzozowski derivative of the term, i.e. all suffixes of words in the term
+     * that start with the given letter.
+     * @param term the current term.
+     * @param label the letter that has been read.
+     * @return the derivative of the term with respect to the letter.
+     */
+    public Term derive(Term term, char label){
+        switch(term.getKind()){
+            case SYMBOL:
+                return term.getStart() <= label && label <= term.getEnd() ? epsilon : empty;
+            case WILDCARD:
+                return epsilon;
+            case CONCATENATION:
+                Term left = concatenation(derive(term.getChild(0), label), term.getChild(1));
+                if(term.getChild(0).isNullable())
+                    return union(left, derive(term.getChild(1), label));
+                else
+                    return left;
+            case UNION:
+                Term result = empty;
+                for(int i = 0 ; i < term.sizeChildren() ; ++i)
+                    result = union(result, derive(term.getChild(i), label));
+                return result;
+            case KLEENE:
+                return concatenation(derive(term.getChild(0), label), term);
+            default:
+                return empty;
+        }
+    }
+
+    /**
+     * Computes the derivative of the term with respect to any letter that isn't contained in a symbol of the term.
+     * Those letters can only be matched by wildcards, hence they all share the same derivative.
+     * @param term the current term.
+     * @return the derivative of the term for all letters that aren't mentioned explicitly.
+     */
+    public Term deriveDefault(Term term){
+        switch(term.getKind()){
+            case WILDCARD:
+                return epsilon;
+            case CONCATENATION:
+                Term left = concatenation(deriveDefault(term.getChild(0)), term.getChild(1));
+                if(term.getChild(0).isNullable())
+                    return union(left, deriveDefault(term.getChild(1)));
+                else
+                    return left;
+            case UNION:
+                Term result = empty;
+                for(int i = 0 ; i < term.sizeChildren() ; ++i)
+                    result = union(result, deriveDefault(term.getChild(i)));
+                return result;
+            case KLEENE:
+                return concatenation(deriveDefault(term.getChild(0)), term);
+            default:
+                return empty;
+        }
+    }
+
+    /**
+     * Collects all letters that are explicitly mentioned in the symbols of the term.
+     * Only the symbols that may be matched first are relevant for the derivative.
+     * @param term the current term.
+     * @param labels the set all letters are added to.
+     */
+    public void collectLabels(Term term, SortedSet<Character> labels){
+        switch(term.getKind()){
+            case SYMBOL:
+                //Use an int, otherwise we would overflow at the end of the alphabet
+                for(int label = term.getStart() ; label <= term.getEnd() ; ++label)
+                    labels.add((char)label);
+                break;
+            case CONCATENATION:
+                collectLabels(term.getChild(0), labels);
+                if(term.getChild(0).isNullable())
+                    collectLabels(term.getChild(1), labels);
+                break;
+            case UNION:
+                for(int i = 0 ; i < term.sizeChildren() ; ++i)
+                    collectLabels(term.getChild(i), labels);
+                break;
+            case KLEENE:
+                collectLabels(term.getChild(0), labels);
+                break;
+            default:
+                break;
+        }
+    }
+}
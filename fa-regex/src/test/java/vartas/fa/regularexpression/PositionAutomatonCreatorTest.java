@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression;
+
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.FiniteAutomaton;
+import vartas.fa.NondeterministicFiniteDefaultAutomaton;
+import vartas.fa.regularexpression._ast.ASTRegularExpressionArtifact;
+import vartas.fa.regularexpression._parser.RegularExpressionParser;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assert.fail;
+
+public class PositionAutomatonCreatorTest {
+
+    protected List<FiniteAutomaton> build(String expression){
+        ASTRegularExpressionArtifact ast = parse(expression);
+        return Arrays.asList(PositionAutomatonCreator.createFrom(ast), PositionAutomatonCreator.createDeterministicFrom(ast));
+    }
+
+    protected ASTRegularExpressionArtifact parse(String expression){
+        try{
+            RegularExpressionParser parser = new RegularExpressionParser();
+            Optional<ASTRegularExpressionArtifact> ast = parser.parse_StringRegularExpressionArtifact(expression);
+            if(parser.hasErrors() || !ast.isPresent()){
+                fail("Parse failed");
+                return null;
+            }else{
+                return ast.get();
+            }
+        }catch(IOException e){
+            fail(e.getMessage());
+            return null;
+        }
+    }
+
+    @Test
+    public void testKleene(){
+        for(FiniteAutomaton fa : build("a*")) {
+            assertThat(fa.run("")).isTrue();
+            assertThat(fa.run("a")).isTrue();
+            assertThat(fa.run("aa")).isTrue();
+            assertThat(fa.run("b")).isFalse();
+            assertThat(fa.run("ba")).isFalse();
+            assertThat(fa.run("ab")).isFalse();
+        }
+    }
+
+    @Test
+    public void testUnion(){
+        for(FiniteAutomaton fa : build("a+b")) {
+            assertThat(fa.run("")).isFalse();
+            assertThat(fa.run("a")).isTrue();
+            assertThat(fa.run("aa")).isFalse();
+            assertThat(fa.run("b")).isTrue();
+            assertThat(fa.run("ba")).isFalse();
+            assertThat(fa.run("ab")).isFalse();
+        }
+    }
+
+    @Test
+    public void testConcatenation(){
+        for(FiniteAutomaton fa : build("ab")) {
+            assertThat(fa.run("")).isFalse();
+            assertThat(fa.run("a")).isFalse();
+            assertThat(fa.run("ab")).isTrue();
+            assertThat(fa.run("ba")).isFalse();
+            assertThat(fa.run("b")).isFalse();
+            assertThat(fa.run("aba")).isFalse();
+        }
+    }
+
+    @Test
+    public void testComposition(){
+        for(FiniteAutomaton fa : build("a+.'c'*")) {
+            assertThat(fa.run("")).isFalse();
+            assertThat(fa.run("a")).isTrue();
+            assertThat(fa.run("aa")).isFalse();
+            assertThat(fa.run("b")).isTrue();
+            assertThat(fa.run("ac")).isTrue();
+            assertThat(fa.run("bcc")).isTrue();
+            assertThat(fa.run("bbc")).isFalse();
+        }
+    }
+
+    @Test
+    public void testInterval(){
+        for(FiniteAutomaton fa : build("[b-c]")) {
+            assertThat(fa.run("")).isFalse();
+            assertThat(fa.run("a")).isFalse();
+            assertThat(fa.run("b")).isTrue();
+            assertThat(fa.run("c")).isTrue();
+            assertThat(fa.run("d")).isFalse();
+            assertThat(fa.run("bb")).isFalse();
+            assertThat(fa.run("cc")).isFalse();
+        }
+    }
+
+    @Test
+    public void testBlock(){
+        for(FiniteAutomaton fa : build("(a+b)*c")) {
+            assertThat(fa.run("")).isFalse();
+            assertThat(fa.run("c")).isTrue();
+            assertThat(fa.run("abc")).isTrue();
+            assertThat(fa.run("bbac")).isTrue();
+            assertThat(fa.run("ab")).isFalse();
+            assertThat(fa.run("cc")).isFalse();
+        }
+    }
+
+    @Test
+    public void testWildcardOverlap(){
+        //The wildcard also has to match the letters of the other branch
+        for(FiniteAutomaton fa : build("ab+.c")) {
+            assertThat(fa.run("ab")).isTrue();
+            assertThat(fa.run("ac")).isTrue();
+            assertThat(fa.run("xc")).isTrue();
+            assertThat(fa.run("xb")).isFalse();
+            assertThat(fa.run("a")).isFalse();
+        }
+    }
+
+    @Test
+    public void testNoEpsilonTransitions(){
+        NondeterministicFiniteDefaultAutomaton nfa = PositionAutomatonCreator.createFrom(parse("(ab+c)*d"));
+
+        assertThat(nfa.getEpsilonTransitions().isEmpty()).isTrue();
+        //One state for each position and the initial state
+        assertThat(nfa.getStates()).hasSize(5);
+    }
+
+    @Test
+    public void testDeterministic(){
+        DeterministicFiniteDefaultAutomaton dfa = PositionAutomatonCreator.createDeterministicFrom(parse("(a+b)*abb"));
+
+        assertThat(dfa.run("abb")).isTrue();
+        assertThat(dfa.run("aabb")).isTrue();
+        assertThat(dfa.run("babb")).isTrue();
+        assertThat(dfa.run("ab")).isFalse();
+        assertThat(dfa.run("abba")).isFalse();
+        //The textbook example results in exactly four states
+        assertThat(dfa.getStates()).hasSize(4);
+    }
+
+    @Test
+    public void testGetRealThis(){
+        PositionAutomatonCreator creator = new PositionAutomatonCreator();
+        assertThat(creator.getRealThis()).isEqualTo(creator);
+    }
+
+    @Test
+    public void testSetRealThis(){
+        PositionAutomatonCreator creator = new PositionAutomatonCreator();
+        assertThat(creator.getRealThis()).isEqualTo(creator);
+        creator.setRealThis(null);
+        assertThat(creator.getRealThis()).isNull();
+    }
+}
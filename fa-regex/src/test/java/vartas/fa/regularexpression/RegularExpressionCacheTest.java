@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2019 Zavarov
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+
+package vartas.fa.regularexpression;
+
+import org.junit.Before;
+import org.junit.Test;
+import vartas.fa.DeterministicFiniteDefaultAutomaton;
+import vartas.fa.table.AutomatonDiskCache;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RegularExpressionCacheTest {
+    RegularExpressionCache cache;
+
+    @Before
+    public void setUp(){
+        cache = new RegularExpressionCache(1 << 20);
+    }
+
+    @Test
+    public void testGet(){
+        DeterministicFiniteDefaultAutomaton dfa = cache.get("a(b+c)*");
+
+        assertThat(dfa.run("a")).isTrue();
+        assertThat(dfa.run("abcb")).isTrue();
+        assertThat(dfa.run("ba")).isFalse();
+        assertThat(cache.get("a(b+c)*")).isSameAs(dfa);
+        assertThat(cache.stats().hitCount()).isEqualTo(1);
+        assertThat(cache.stats().missCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testGetWithOptions(){
+        DeterministicFiniteDefaultAutomaton thompson = cache.get("(a+b)*c", RegularExpressionCache.Construction.THOMPSON, false);
+        DeterministicFiniteDefaultAutomaton position = cache.get("(a+b)*c", RegularExpressionCache.Construction.POSITION, false);
+
+        assertThat(thompson).isNotSameAs(position);
+        assertThat(thompson.run("abac")).isTrue();
+        assertThat(thompson.run("aba")).isFalse();
+        assertThat(position.run("abac")).isTrue();
+        assertThat(position.run("aba")).isFalse();
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testGetInvalid(){
+        cache.get("a(b");
+    }
+
+    @Test
+    public void testEviction(){
+        cache = new RegularExpressionCache(2000);
+
+        for(char label = 'a' ; label <= 'z' ; ++label)
+            cache.get(label + "*" + label);
+
+        assertThat(cache.stats().evictionCount()).isPositive();
+        assertThat(cache.size()).isLessThan(26L);
+    }
+
+    @Test
+    public void testConcurrentMisses() throws Exception{
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<DeterministicFiniteDefaultAutomaton>> results = new ArrayList<>();
+
+        try{
+            for(int i = 0 ; i < 32 ; ++i)
+                results.add(executor.submit(() -> cache.get(".*ab(c+d)*")));
+
+            for(Future<DeterministicFiniteDefaultAutomaton> result : results)
+                assertThat(result.get()).isSameAs(results.get(0).get());
+        }finally{
+            executor.shutdown();
+        }
+
+        assertThat(cache.stats().loadCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void testEquivalentExpressions(){
+        DeterministicFiniteDefaultAutomaton dfa = cache.get("a(b+c)");
+
+        assertThat(cache.get("ab+ac")).isSameAs(dfa);
+        assertThat(cache.get("ab+ad")).isNotSameAs(dfa);
+        assertThat(cache.size()).isEqualTo(3);
+    }
+
+    @Test
+    public void testDiskCache() throws IOException{
+        Path directory = Files.createTempDirectory("automata");
+
+        try{
+            AutomatonDiskCache diskCache = new AutomatonDiskCache(directory);
+            new RegularExpressionCache(1 << 20, diskCache).get("a(b+c)*");
+            assertThat(diskCache.contains("regex:POSITION:true", "a(b+c)*")).isTrue();
+
+            //The second cache has to read the automaton from the disk
+            RegularExpressionCache other = new RegularExpressionCache(1 << 20, diskCache);
+            DeterministicFiniteDefaultAutomaton dfa = other.get("a(b+c)*");
+            assertThat(dfa.run("abcb")).isTrue();
+            assertThat(dfa.run("ba")).isFalse();
+
+            diskCache.clear();
+        }finally{
+            Files.delete(directory);
+        }
+    }
+}
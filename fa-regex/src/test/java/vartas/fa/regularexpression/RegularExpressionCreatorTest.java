@@ -16,12 +16,17 @@
  */
 
 package vartas.fa.regularexpression;import org.junit.Test;
+import vartas.fa.DeterministicFiniteAutomaton;
 import vartas.fa.FiniteAutomaton;
 import vartas.fa.regularexpression._ast.ASTRegularExpressionArtifact;
 import vartas.fa.regularexpression._parser.RegularExpressionParser;
 
 import java.io.IOException;
-import java.util.Optional;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.Assert.fail;
@@ -71,6 +76,54 @@ public class RegularExpressionCreatorTest {
         assertThat(fa.run("ab")).isFalse();
     }
 
+    @Test
+    public void testCreateDeterministicFrom(){
+        ASTRegularExpressionArtifact ast = parse("ab");
+        assertThat(RegularExpressionCreator.createFrom(ast).isDeterministic()).isTrue();
+
+        //Only the states with an outgoing transition and the final state remain
+        DeterministicFiniteAutomaton fa = RegularExpressionCreator.createDeterministicFrom(ast);
+        assertThat(fa.getStates()).hasSize(3);
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("a")).isFalse();
+        assertThat(fa.run("ab")).isTrue();
+        assertThat(fa.run("abb")).isFalse();
+    }
+
+    @Test
+    public void testCreateDeterministicFromNondeterministic(){
+        ASTRegularExpressionArtifact ast = parse("a*");
+        assertThat(RegularExpressionCreator.createFrom(ast).isDeterministic()).isFalse();
+
+        DeterministicFiniteAutomaton fa = RegularExpressionCreator.createDeterministicFrom(ast);
+        assertThat(fa.run("")).isTrue();
+        assertThat(fa.run("aa")).isTrue();
+        assertThat(fa.run("ab")).isFalse();
+    }
+
+    @Test
+    public void testCreateMinimalFromConcurrently() throws InterruptedException, ExecutionException{
+        List<String> expressions = Arrays.asList("(a+b)*abb", "(ab+ba)*", "a*b*c*", "(a+b)(a+b)(a+b)*");
+        Map<String, Integer> sizes = new HashMap<>();
+        for(String expression : expressions)
+            sizes.put(expression, RegularExpressionCreator.createMinimalFrom(expression).getStates().size());
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try{
+            List<Future<DeterministicFiniteAutomaton>> futures = new ArrayList<>();
+            for(int i = 0 ; i < 64 ; ++i){
+                String expression = expressions.get(i % expressions.size());
+                futures.add(executor.submit(() -> RegularExpressionCreator.createMinimalFrom(expression)));
+            }
+
+            //Without a common lock, the shared intermediate results of the transformations get mixed up
+            for(int i = 0 ; i < futures.size() ; ++i)
+                assertThat(futures.get(i).get().getStates()).hasSize(sizes.get(expressions.get(i % expressions.size())));
+        }finally{
+            executor.shutdown();
+        }
+    }
+
     @Test
     public void testConcatenation(){
         FiniteAutomaton fa = build("ab");
@@ -106,6 +159,16 @@ public class RegularExpressionCreatorTest {
         assertThat(fa.run("cc")).isFalse();
     }
 
+    @Test
+    public void testBlock(){
+        FiniteAutomaton fa = build("a(b+c)*");
+        assertThat(fa.run("a")).isTrue();
+        assertThat(fa.run("abcb")).isTrue();
+        assertThat(fa.run("")).isFalse();
+        assertThat(fa.run("ab(")).isFalse();
+        assertThat(fa.run("ba")).isFalse();
+    }
+
     @Test
     public void testGetRealThis(){
         RegularExpressionCreator creator = new RegularExpressionCreator();